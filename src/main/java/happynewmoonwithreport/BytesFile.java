@@ -17,14 +17,23 @@
 package happynewmoonwithreport;
 
 import happynewmoonwithreport.type.utility.Hex;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /**
  * An byte array with an index. Created by James Haring on 2017-07-18.
+ * <br>
+ * The bytes are held in a {@link ByteBuffer}.  This is either a heap buffer wrapping a
+ * <code>byte[]</code> or a buffer mapped from the *.wasm file with {@link WasmFile#map()}.  A
+ * mapped buffer is read in place; the bytes are not copied onto the heap.
  */
 public class BytesFile {
-	private byte[] bytesAll;
-	private Integer index = 0;
+	private ByteBuffer bytesAll;
+	/**
+	 * A primitive so reading a byte does not box.
+	 */
+	private int index = 0;
 
 	public BytesFile(byte[] bytesAll) {
 		this(bytesAll, 0);
@@ -35,21 +44,111 @@ public class BytesFile {
 	//    }
 
 	public BytesFile(byte[] bytesAll, Integer index) {
+		this(ByteBuffer.wrap(bytesAll), index);
+	}
+
+	/**
+	 * Construct using a ByteBuffer.  Byte zero is the buffer's position; the length is the
+	 * buffer's remaining bytes.  The buffer's position and limit are not changed.
+	 *
+	 * @param bytesAll the bytes, usually a file mapped with {@link WasmFile#map()}.
+	 */
+	public BytesFile(ByteBuffer bytesAll) {
+		this(bytesAll.slice(), 0);
+	}
+
+	private BytesFile(ByteBuffer bytesAll, int index) {
 		this.bytesAll = bytesAll;
 		this.index = index;
 	}
 
 	public byte readByte() {
-		byte result = bytesAll[index];
+		byte result = bytesAll.get(index);
 		index++;
 		return result;
 	}
 
+	/**
+	 * Copy the next <code>length</code> bytes to a new BytesFile and move the index past them.
+	 * <br>
+	 * A mapped file is read only, so the copy shares the mapping rather than pulling the bytes
+	 * onto the heap.
+	 *
+	 * @param length bytes desired
+	 * @return a BytesFile starting at index zero.
+	 */
 	public BytesFile copy(Integer length) {
+		if (bytesAll.hasArray() == false) {
+			return slice(length);
+		}
 		byte[] tempBytesAll = getBytes(length);
 		return new BytesFile(tempBytesAll);
 	}
 
+	/**
+	 * A view of the next <code>length</code> bytes.  Move the index past them.
+	 * <br>
+	 * The view shares the bytes of this BytesFile, nothing is copied.  The view has its own
+	 * index starting at zero and its length is <code>length</code>.
+	 *
+	 * @param length bytes desired
+	 * @return a view starting at index zero.
+	 */
+	public BytesFile slice(Integer length) {
+		if (longEnough(length) == false) {
+			throw new IndexOutOfBoundsException(
+				"Slice is past the end. index = " + index + " length = " + length
+				+ " bytes available = " + (length() - index));
+		}
+		ByteBuffer region = bytesAll.duplicate();
+		region.position(index);
+		region.limit(index + length);
+		index += length;
+		return new BytesFile(region.slice(), 0);
+	}
+
+	/**
+	 * A view of all the bytes starting at index zero.  The index of this BytesFile is not
+	 * changed.
+	 *
+	 * @return a view starting at index zero.
+	 */
+	public BytesFile view() {
+		return new BytesFile(bytesAll, 0);
+	}
+
+	/**
+	 * All the bytes as a read only buffer, position zero to the length.  The bytes are not
+	 * copied.
+	 *
+	 * @return a read only buffer.
+	 */
+	public ByteBuffer asByteBuffer() {
+		ByteBuffer result = bytesAll.asReadOnlyBuffer();
+		result.clear();
+		return result;
+	}
+
+	/**
+	 * Decode the next <code>length</code> bytes as UTF-8.  Move the index past them.
+	 * <br>
+	 * The bytes are decoded where they are, they are not copied to a temporary array.
+	 *
+	 * @param length length in bytes
+	 * @return the String.
+	 */
+	public String readString(Integer length) {
+		String result;
+		if (bytesAll.hasArray() && longEnough(length)) {
+			result = new String(bytesAll.array(), bytesAll.arrayOffset() + index, length,
+				StandardCharsets.UTF_8);
+			index += length;
+		} else {
+			result = StandardCharsets.UTF_8.decode(slice(length).bytesAll).toString();
+		}
+		return result;
+	}
+
 	/**
 	 * Get the bytes starting at index.
 	 *
@@ -57,17 +156,34 @@ public class BytesFile {
 	 * @return bytes array
 	 */
 	public byte[] getBytes(Integer length) {
-		byte[] tempBytesAll = Arrays.copyOfRange(bytesAll, index, index + length);
+		byte[] tempBytesAll = new byte[length];
+		ByteBuffer region = bytesAll.duplicate();
+		region.position(index);
+		region.get(tempBytesAll);
 		index += length;
 		return tempBytesAll;
 	}
 
+	/**
+	 * Get all the bytes.  For a heap buffer this is the array passed to the constructor, for a
+	 * mapped buffer it is a copy.
+	 *
+	 * @return all the bytes.
+	 */
 	public byte[] getBytesAll() {
-		return bytesAll;
+		if (bytesAll.hasArray() && bytesAll.arrayOffset() == 0
+			&& bytesAll.array().length == length()) {
+			return bytesAll.array();
+		}
+		byte[] result = new byte[length()];
+		ByteBuffer region = bytesAll.duplicate();
+		region.position(0);
+		region.get(result);
+		return result;
 	}
 
 	public void setBytesAll(byte[] bytesAll) {
-		this.bytesAll = bytesAll;
+		this.bytesAll = ByteBuffer.wrap(bytesAll);
 	}
 
 	public Integer getIndex() {
@@ -83,25 +199,35 @@ public class BytesFile {
 	}
 
 	public Boolean isNotEmpty() {
-		return (index < bytesAll.length);
+		return (index < length());
 	}
 
 	public Boolean atEndOfFile() {
-		return (index == bytesAll.length);
+		return (index == length());
 	}
 
 	public Boolean longEnough(Integer size) {
-		return (index + size <= bytesAll.length);
+		return (index + size <= length());
+	}
+
+	/**
+	 * The number of bytes.
+	 *
+	 * @return the length in bytes.
+	 */
+	public int length() {
+		return bytesAll.limit();
 	}
 
 	@Override
 	public String toString() {
+		byte[] all = getBytesAll();
 		String result =
-			"BytesFile{" + "current byte = " + Hex.byteToHex(bytesAll[index]) + ", index = " + index
-			+ " (0x" + Integer.toHexString(index) + ") " + ", bytesAll = " + Arrays.toString(
-				bytesAll) + ", bytesAll in Hex = " + Hex.bytesToHex(bytesAll);
+			"BytesFile{" + "current byte = " + Hex.byteToHex(bytesAll.get(index)) + ", index = "
+			+ index + " (0x" + Integer.toHexString(index) + ") " + ", bytesAll = "
+			+ Arrays.toString(all) + ", bytesAll in Hex = " + Hex.bytesToHex(all);
 		result += ", bytesAll = ";
-		for (Byte myByte : bytesAll) {
+		for (Byte myByte : all) {
 			result += myByte.toString() + "(" + Hex.byteToHex(myByte) + ") ";
 		}
 		result += '}';
@@ -0,0 +1,205 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.util.UUID;
+
+/**
+ * Read a wasm module from a channel a piece at a time.
+ * <br>
+ * Used by {@link Wasm} to parse a module while the rest of it is still arriving.  Only the bytes
+ * of the piece being read are held, the whole module is never buffered.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/web-api/index.html#streaming-modules" target="_top">
+ * https://webassembly.github.io/spec/web-api/index.html#streaming-modules
+ * </a>
+ */
+public class ChannelReader {
+
+	/**
+	 * Size of the read buffer.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Total number of bytes read.
+	 */
+	private long position;
+
+	/**
+	 * @param channel the channel to read.  Must be blocking, a read that returns no bytes is
+	 *                retried.
+	 * @throws WasmRuntimeException if the channel is a non-blocking
+	 *                              <code>SelectableChannel</code>.
+	 */
+	public ChannelReader(ReadableByteChannel channel) {
+		if (channel instanceof SelectableChannel
+			&& ((SelectableChannel) channel).isBlocking() == false) {
+			throw new WasmRuntimeException(UUID.fromString("9a2e7c14-5f3b-4d86-b0c9-e8d1f6a4b253"),
+				"The channel must be blocking.  Channel = " + channel);
+		}
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		this.buffer.flip();
+		this.position = 0;
+	}
+
+	/**
+	 * Read one byte.  Blocks until the byte arrives.
+	 *
+	 * @return the byte.
+	 */
+	public byte readByte() {
+		if (buffer.hasRemaining() == false) {
+			fill(1);
+		}
+		position++;
+		return buffer.get();
+	}
+
+	/**
+	 * Read the next <code>length</code> bytes.  Blocks until they have all arrived.
+	 *
+	 * @param length bytes desired.
+	 * @return a new array with the bytes.
+	 */
+	public byte[] readBytes(Integer length) {
+		byte[] result = new byte[length];
+		readBytes(result, 0, length);
+		return result;
+	}
+
+	/**
+	 * Read the next <code>length</code> bytes into an array.  Blocks until they have all arrived.
+	 *
+	 * @param destination the array to fill.
+	 * @param offset      the first index to fill.
+	 * @param length      bytes desired.
+	 */
+	public void readBytes(byte[] destination, int offset, int length) {
+		int done = 0;
+		while (done < length) {
+			if (buffer.hasRemaining() == false) {
+				fill(length - done);
+			}
+			int count = Math.min(buffer.remaining(), length - done);
+			buffer.get(destination, offset + done, count);
+			done += count;
+		}
+		position += length;
+	}
+
+	/**
+	 * Read a VarUInt32 and copy its bytes into <code>destination</code>.  Used to read the size of
+	 * a function body so the body can be decoded from one array.
+	 *
+	 * @param destination at least 5 bytes.
+	 * @return the number of bytes read.
+	 */
+	public int readVarUInt32Bytes(byte[] destination) {
+		int count = 0;
+		byte current;
+		do {
+			current = readByte();
+			destination[count] = current;
+			count++;
+		} while ((current & 0x80) != 0 && count < 5);
+		return count;
+	}
+
+	/**
+	 * Read a VarUInt32.
+	 *
+	 * @return the unsigned value.
+	 */
+	public long readVarUInt32() {
+		int currentByte;
+		int shift = 0;
+		long result = 0L;
+
+		do {
+			currentByte = readByte() & 0xff;
+			result |= ((long) (currentByte & 0x7f)) << shift;
+			shift += 7;
+		} while (((currentByte & 0x80) != 0) && shift < 35);
+
+		return result;
+	}
+
+	/**
+	 * Is the channel finished?  Blocks until a byte arrives or the channel reaches end of stream.
+	 *
+	 * @return true if there are no more bytes.
+	 */
+	public Boolean atEndOfStream() {
+		if (buffer.hasRemaining()) {
+			return false;
+		}
+		return read() == false;
+	}
+
+	/**
+	 * Number of bytes read so far.
+	 *
+	 * @return the number of bytes read.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Refill the buffer.  The end of the stream is an error, at least one more byte was expected.
+	 *
+	 * @param needed bytes still expected, used for the error message.
+	 */
+	private void fill(int needed) {
+		if (read() == false) {
+			throw new WasmRuntimeException(UUID.fromString("0f3d2b8e-7a44-4c8e-b1f6-5e2d9a6c3b71"),
+				"Unexpected end of stream. Position = " + position + " bytes still expected = "
+				+ needed);
+		}
+	}
+
+	/**
+	 * Read from the channel into the empty buffer.
+	 *
+	 * @return false if the channel is at end of stream.
+	 */
+	private boolean read() {
+		buffer.clear();
+		try {
+			int count;
+			do {
+				count = channel.read(buffer);
+			} while (count == 0);
+			buffer.flip();
+			return count > 0;
+		} catch (IOException ioException) {
+			buffer.flip();
+			throw new WasmRuntimeException(UUID.fromString("3c9a7e52-1b6d-4f0a-8d23-6e4f1a9b0c57"),
+				"Unable to read the module from the channel. Position = " + position, ioException);
+		}
+	}
+}
@@ -18,6 +18,7 @@ package happynewmoonwithreport;
 
 import happynewmoonwithreport.type.S32;
 import happynewmoonwithreport.type.VarInt7;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -77,17 +78,46 @@ public class ElementType {
 
 	public ElementType(String value) {
 		this();
-		Boolean found = false;
-		for (Map.Entry<Integer, String> entry : mapAll.entrySet()) {
-			if (value.equals(entry.getValue())) {
-				this.type = entry.getKey();
-				this.value = value;
-				found = true;
-			}
-		}
-		if (found == false) {
+		Integer found = typeAll.get(value);
+		if (found == null) {
 			throw new RuntimeException("Element Type " + value + " not valid/found");
 		}
+		this.type = found;
+		this.value = value;
+	}
+
+	/**
+	 * The canonical instance of a type.  Nothing is allocated; two results for the same type are
+	 * the same object.
+	 * <br>
+	 * Note use the integer value <code>ElementType.valueOf(-0x10)</code> <b>not</b> the byte in
+	 * the *.wasm file <code>0x70</code>.
+	 *
+	 * @param type type
+	 * @return the canonical instance.
+	 */
+	public static ElementType valueOf(Integer type) {
+		ElementType result = null;
+		if (type != null && -128 <= type && type <= 255) {
+			result = canonicalAll[type & 0xFF];
+		}
+		if (result == null || result.type.equals(type) == false) {
+			throw new RuntimeException(
+				"type in ElementType is not valid type = " + type);
+		}
+		return result;
+	}
+
+	/**
+	 * Read a varint7 type and return the canonical instance.  Nothing is allocated.
+	 *
+	 * @param payload the input BytesFile.
+	 * @return the canonical instance.
+	 */
+	public static ElementType valueOf(BytesFile payload) {
+		// a varint7 is one byte, sign extend bit 6.
+		final int type = (payload.readByte() << 25) >> 25;
+		return valueOf(type);
 	}
 
 	public String getValue() {
@@ -102,16 +132,32 @@ public class ElementType {
 		return new VarInt7(type);
 	}
 
-	private static Map<Integer, String> mapAll;
+	private static final Map<Integer, String> mapAll;
+	private static final Map<String, Integer> typeAll;
 
 	static {
-		mapAll = new HashMap<>();
+		Map<Integer, String> map = new HashMap<>();
 
 		// anyFunc(-0x10)    byte value  0x70
-		mapAll.put(-0x10, "anyFunc");
+		map.put(-0x10, "anyFunc");
 
+		mapAll = Collections.unmodifiableMap(map);
+		typeAll = Collections.singletonMap("anyFunc", -0x10);
 	}
 
+	/**
+	 * The canonical instances, indexed by the type byte.
+	 */
+	private static final ElementType[] canonicalAll = new ElementType[256];
+
+	static {
+		for (Integer type : mapAll.keySet()) {
+			canonicalAll[type & 0xFF] = new ElementType(type);
+		}
+	}
+
+	public static final ElementType ANY_FUNC = valueOf(-0x10);
+
 	private void calcValue(Integer input) {
 		value = mapAll.get(input);
 		if (value == null) {
@@ -44,7 +44,7 @@ public class ExportEntry {
 	public ExportEntry(BytesFile payload) {
 		fieldLength = new VarUInt32(payload);
 		fieldName = new WasmString(payload, fieldLength);
-		externalKind = new ExternalKind(payload);
+		externalKind = ExternalKind.valueOf(payload);
 		index = new VarUInt32(payload);
 	}
 
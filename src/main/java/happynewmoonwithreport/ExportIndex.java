@@ -0,0 +1,145 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import happynewmoonwithreport.type.WasmVector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The exports of a module by name, one map for each kind of export (function, table, memory,
+ * global).
+ * <br>
+ * Built once when the module is instantiated and never changed.  A lookup is a hash lookup and
+ * allocates nothing.  The functions are resolved when the index is built, so a
+ * {@link WasmFunction} returned by {@link #getFunction(String)} may be kept by the host and
+ * called for the life of the module.
+ * <br>
+ * If two exports have the same name and kind, which is not valid, the first one is used.  An
+ * export of an unknown kind, or of a function that does not exist, throws a
+ * {@link WasmRuntimeException}.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/syntax/modules.html#exports" target="_top">
+ * https://webassembly.github.io/spec/core/syntax/modules.html#exports
+ * </a>
+ */
+public class ExportIndex {
+
+	/**
+	 * Number of kinds of export.  The kind is the index into {@link #exportAll}.
+	 */
+	private static final int KIND_COUNT = 4;
+	private static final int FUNCTION = 0;
+
+	private final List<Map<String, ExportEntry>> exportAll;
+	private final Map<String, WasmFunction> functionAll;
+
+	/**
+	 * @param exportEntryAll the exports of the module.
+	 * @param functionAll    the functions of the module.
+	 */
+	public ExportIndex(List<ExportEntry> exportEntryAll, WasmVector<WasmFunction> functionAll) {
+		List<Map<String, ExportEntry>> byKind = new ArrayList<>(KIND_COUNT);
+		for (int kind = 0; kind < KIND_COUNT; kind++) {
+			byKind.add(new HashMap<>());
+		}
+		HashMap<String, WasmFunction> functionByName = new HashMap<>();
+
+		for (ExportEntry exportEntry : exportEntryAll) {
+			final int kind = checkKind(exportEntry.getExternalKind().getType());
+			final String name = exportEntry.getFieldName().getValue();
+			if (byKind.get(kind).containsKey(name)) {
+				continue;
+			}
+			byKind.get(kind).put(name, exportEntry);
+			if (kind == FUNCTION) {
+				final long index = exportEntry.getIndex().longValue();
+				if (index < 0 || functionAll.size() <= index) {
+					throw new WasmRuntimeException(
+						UUID.fromString("2e8b4d71-9a36-4c05-b7f2-6d1a3e9c5b84"),
+						"Export '" + name + "' is function " + index + " but the module has "
+						+ functionAll.size() + " functions.");
+				}
+				functionByName.put(name, functionAll.get((int) index));
+			}
+		}
+
+		List<Map<String, ExportEntry>> unmodifiable = new ArrayList<>(KIND_COUNT);
+		for (Map<String, ExportEntry> export : byKind) {
+			unmodifiable.add(Collections.unmodifiableMap(export));
+		}
+		this.exportAll = Collections.unmodifiableList(unmodifiable);
+		this.functionAll = Collections.unmodifiableMap(functionByName);
+	}
+
+	/**
+	 * @param kind the kind byte of an export.
+	 * @return the kind, if it is one of the four kinds.
+	 */
+	private static int checkKind(Integer kind) {
+		if (kind == null || kind < 0 || KIND_COUNT <= kind) {
+			throw new WasmRuntimeException(UUID.fromString("a54f0c3e-6b17-48d2-9e81-3c7d2f5b0a96"),
+				"Unknown export kind " + kind);
+		}
+		return kind;
+	}
+
+	/**
+	 * Find an exported function.
+	 *
+	 * @param name the export name.
+	 * @return the function or null if there is no function exported with that name.
+	 */
+	public WasmFunction getFunction(String name) {
+		return functionAll.get(name);
+	}
+
+	/**
+	 * Find an export.
+	 *
+	 * @param kind the kind of export.
+	 * @param name the export name.
+	 * @return the export or null if there is no export of that kind with that name.
+	 */
+	public ExportEntry get(ExternalKind kind, String name) {
+		return exportAll.get(checkKind(kind.getType())).get(name);
+	}
+
+	/**
+	 * All exports of one kind.
+	 *
+	 * @param kind the kind of export.
+	 * @return an unmodifiable map of name to export.
+	 */
+	public Map<String, ExportEntry> getAll(ExternalKind kind) {
+		return exportAll.get(checkKind(kind.getType()));
+	}
+
+	/**
+	 * All exported functions.
+	 *
+	 * @return an unmodifiable map of name to function.
+	 */
+	public Map<String, WasmFunction> getFunctionAll() {
+		return functionAll;
+	}
+}
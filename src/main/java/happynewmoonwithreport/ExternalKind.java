@@ -17,7 +17,9 @@
 package happynewmoonwithreport;
 
 import happynewmoonwithreport.type.UInt8;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A single-byte unsigned integer indicating the kind of definition being imported or defined:
@@ -40,16 +42,35 @@ public class ExternalKind extends ValueBase {
 	public static final String memory = "memory";
 	public static final String global = "global ";
 
+	private static final Map<Integer, String> MAP_ALL;
+	private static final Map<String, Integer> TYPE_ALL;
+
+	static {
+		Map<Integer, String> map = new HashMap<>();
+		map.put(0, function);
+		map.put(1, table);
+		map.put(2, memory);
+		map.put(3, global);
+		MAP_ALL = Collections.unmodifiableMap(map);
+		TYPE_ALL = reverse(MAP_ALL);
+	}
+
+	/**
+	 * The canonical instances, indexed by the type byte.
+	 */
+	private static final ExternalKind[] canonicalAll =
+		{new ExternalKind(0), new ExternalKind(1), new ExternalKind(2), new ExternalKind(3)};
+
+	public static final ExternalKind FUNCTION = canonicalAll[0];
+	public static final ExternalKind TABLE = canonicalAll[1];
+	public static final ExternalKind MEMORY = canonicalAll[2];
+	public static final ExternalKind GLOBAL = canonicalAll[3];
+
 	private void setup() {
-		mapAll = new HashMap<>();
-		mapAll.put(0, function);
-		mapAll.put(1, table);
-		mapAll.put(2, memory);
-		mapAll.put(3, global);
+		setup(ExternalKind.class.getName(), MAP_ALL, TYPE_ALL);
 	}
 
 	private ExternalKind() {
-		className = ExternalKind.class.getName();
 		setup();
 	}
 
@@ -78,6 +99,31 @@ public class ExternalKind extends ValueBase {
 		this.type = calcType(value);
 	}
 
+	/**
+	 * The canonical instance of a kind.  Nothing is allocated; two results for the same kind are
+	 * the same object.
+	 *
+	 * @param type 0 function, 1 table, 2 memory, 3 global.
+	 * @return the canonical instance.
+	 */
+	public static ExternalKind valueOf(Integer type) {
+		if (type == null || type < 0 || canonicalAll.length <= type) {
+			throw new RuntimeException(
+				"Type in " + ExternalKind.class.getName() + " is not valid type = " + type);
+		}
+		return canonicalAll[type];
+	}
+
+	/**
+	 * Read the kind byte and return the canonical instance.  Nothing is allocated.
+	 *
+	 * @param payload the input BytesFile.
+	 * @return the canonical instance.
+	 */
+	public static ExternalKind valueOf(BytesFile payload) {
+		return valueOf(payload.readByte() & 0xFF);
+	}
+
 	public UInt8 getTypeUInt8() {
 		return new UInt8(type);
 	}
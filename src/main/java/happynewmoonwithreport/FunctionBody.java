@@ -55,9 +55,15 @@ public class FunctionBody {
 	private WasmVector<ValueType> localEntryAll;
 
 	/**
-	 * This is the actual code of the function.
+	 * This is the actual code of the function.  A view of the code section, the bytes are not
+	 * copied.
 	 */
-	private byte[] code;
+	private BytesFile code;
+
+	/**
+	 * The code as an array.  Only created if {@link #getCode()} is called.
+	 */
+	private byte[] codeArray;
 
 	/**
 	 * One byte tha is always <code>0x0b</code>, indicating the end of the body.
@@ -66,20 +72,86 @@ public class FunctionBody {
 	 */
 	private byte end;
 
-	public FunctionBody() {
+	/**
+	 * The locals, code and end byte.  A view of the code section.
+	 */
+	private BytesFile body;
 
+	/**
+	 * True when the locals and code have been decoded.
+	 */
+	private volatile boolean decoded;
+
+	public FunctionBody() {
+		decoded = true;
 	}
 
+	/**
+	 * Read and decode the function body.
+	 *
+	 * @param payload the input BytesFile.
+	 */
 	public FunctionBody(BytesFile payload) {
+		this(payload, false);
+	}
+
+	/**
+	 * Read the function body.
+	 * <br>
+	 * When <code>lazy</code> is true only the body size is read.  The body is kept as a view of
+	 * the code section and the locals and code are decoded the first time they are used, for
+	 * example when the function is called or validated.  Functions that are never used are never
+	 * decoded.
+	 *
+	 * @param payload the input BytesFile.
+	 * @param lazy    true to decode the locals and code on first use.
+	 */
+	public FunctionBody(BytesFile payload, Boolean lazy) {
 		//* Body Size
 		bodySize = new VarUInt32(payload);
 
-		final Integer start = payload.getIndex();
+		//* The locals, code and end byte.
+		body = payload.slice(bodySize.integerValue());
+
+		if (lazy == false) {
+			decode();
+		}
+	}
+
+	/**
+	 * Construct a function body that has already been decoded.  Used by {@link ModuleCache}.
+	 *
+	 * @param bodySize      the size of the body in the wasm file.
+	 * @param localCount    the number of local entries.
+	 * @param localEntryAll the type of each local variable.
+	 * @param code          the code, without the end byte.
+	 */
+	public FunctionBody(UInt32 bodySize, UInt32 localCount, WasmVector<ValueType> localEntryAll,
+						BytesFile code) {
+		this.bodySize = bodySize;
+		this.localCount = localCount;
+		this.localEntryAll = localEntryAll;
+		this.code = code;
+		this.end = (byte) 0x0B;
+		this.decoded = true;
+	}
+
+	/**
+	 * Decode the locals and the code.  Does nothing if the body has already been decoded.
+	 * <br>
+	 * Called from the constructor, on first use, or by {@link
+	 * happynewmoonwithreport.section.SectionCode#decodeAll(java.util.concurrent.ForkJoinPool)}.
+	 * Safe to call from several threads.
+	 */
+	public synchronized void decode() {
+		if (decoded) {
+			return;
+		}
+		BytesFile payload = body;
 
 		//* Count
 		localCount = new VarUInt32(payload);
 
-
 		//* LocalAll
 		localEntryAll = new WasmVector<>(localCount.integerValue());
 		for (Integer index = 0; index < localCount.integerValue(); ) {
@@ -91,23 +163,34 @@ public class FunctionBody {
 			}
 		}
 
-		final Integer after = payload.getIndex();
-
-		final Integer consumedByLocals = after - start;
-
-		final Integer codeLength =
-			bodySize.integerValue() - consumedByLocals - 1;  // minus 1 for end byte.
-
+		final int codeLength = payload.length() - payload.getIndex() - 1;  // minus 1 for end byte.
 
 		//* Code
-		code = new byte[codeLength];
-		for (Integer i = 0; i < codeLength; i++) {
-			code[i] = payload.readByte();
-		}
+		code = payload.slice(codeLength);
 
 		//* Byte
 		end = payload.readByte();
 		assert (end == (byte) 0x0B);
+
+		decoded = true;
+	}
+
+	/**
+	 * Decode the body if that has not been done.
+	 */
+	private void decodeIfNeeded() {
+		if (decoded == false) {
+			decode();
+		}
+	}
+
+	/**
+	 * Have the locals and code been decoded?
+	 *
+	 * @return false if the body was read lazily and has not been used.
+	 */
+	public Boolean isDecoded() {
+		return decoded;
 	}
 
 	public UInt32 getBodySize() {
@@ -115,10 +198,12 @@ public class FunctionBody {
 	}
 
 	public UInt32 getLocalCount() {
+		decodeIfNeeded();
 		return localCount;
 	}
 
 	public WasmVector<ValueType> getLocalEntryAll() {
+		decodeIfNeeded();
 		return localEntryAll;
 	}
 
@@ -126,11 +211,33 @@ public class FunctionBody {
 		this.localEntryAll = localEntryAll;
 	}
 
+	/**
+	 * The code as an array of bytes.  The array is copied from the code section the first time
+	 * this is called.  Consider using {@link #getCodeBytesFile()}.
+	 *
+	 * @return the code.
+	 */
 	public byte[] getCode() {
-		return code;
+		decodeIfNeeded();
+		if (codeArray == null) {
+			codeArray = code.getBytesAll();
+		}
+		return codeArray;
+	}
+
+	/**
+	 * The code as a BytesFile.  Every call returns a new view with the index at zero, the bytes
+	 * are not copied.
+	 *
+	 * @return the code.
+	 */
+	public BytesFile getCodeBytesFile() {
+		decodeIfNeeded();
+		return code.view();
 	}
 
 	public byte getEnd() {
+		decodeIfNeeded();
 		return end;
 	}
 
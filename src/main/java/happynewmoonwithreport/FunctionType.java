@@ -65,7 +65,7 @@ public class FunctionType implements Validation {
 	 */
 	public FunctionType(BytesFile payload) {
 		//* form
-		form = new ValueType(payload);
+		form = ValueType.valueOf(payload);
 		assert (form.getValue().equals("func"));
 
 		//* Parameter Count
@@ -74,7 +74,7 @@ public class FunctionType implements Validation {
 		//* Parameters Types
 		paramTypeAll = new WasmVector<>(paramCount.integerValue());
 		for (Integer count = 0; count < paramCount.integerValue(); count++) {
-			ValueType paramType = new ValueType(payload);
+			ValueType paramType = ValueType.valueOf(payload);
 			paramTypeAll.add(count, paramType);
 		}
 
@@ -86,7 +86,7 @@ public class FunctionType implements Validation {
 		//* Return Types.
 		returnTypeAll = new WasmVector<>(returnCount.integerValue());
 		for (Integer count = 0; count < returnCount.integerValue(); count++) {
-			ValueType returnType = new ValueType(payload);
+			ValueType returnType = ValueType.valueOf(payload);
 			returnTypeAll.add(count, returnType);
 		}
 
@@ -95,7 +95,7 @@ public class FunctionType implements Validation {
 
 	public FunctionType(UInt32 paramCount, WasmVector<ValueType> paramTypeAll, UInt8 returnCount,
 						WasmVector<ValueType> returnTypeAll) {
-		this(new ValueType("func"), paramCount, paramTypeAll, returnCount, returnTypeAll);
+		this(ValueType.FUNC, paramCount, paramTypeAll, returnCount, returnTypeAll);
 	}
 
 
@@ -16,7 +16,6 @@
  */
 package happynewmoonwithreport;
 
-import happynewmoonwithreport.type.VarUInt1;
 
 /**
  * The description of a global variable.
@@ -35,8 +34,8 @@ public class GlobalType implements Validation {
 	private Mutability mutability;
 
 	public GlobalType(BytesFile payload) {
-		contentType = new ValueType(payload);
-		mutability = new Mutability(new VarUInt1(payload));
+		contentType = ValueType.valueOf(payload);
+		mutability = Mutability.valueOf(payload);
 	}
 
 	public GlobalType(ValueType contentType, Mutability mutability) {
@@ -48,7 +48,7 @@ public class LocalEntry {
 		count = new VarUInt32(payload);
 
 		//* Type
-		valueType = new ValueType(payload);
+		valueType = ValueType.valueOf(payload);
 	}
 
 	public UInt32 getCount() {
@@ -16,14 +16,14 @@
  */
 package happynewmoonwithreport;
 
+import happynewmoonwithreport.type.PagedLinearMemory;
 import happynewmoonwithreport.type.S32;
 import happynewmoonwithreport.type.UInt16;
 import happynewmoonwithreport.type.UInt32;
-import java.util.Arrays;
 
 /**
  * The web assembly memory.
- * A big array of bytes.
+ * A big array of bytes, held as a table of pages so growing never copies them.
  */
 public class Memory {
 
@@ -35,20 +35,20 @@ public class Memory {
 	 */
 	public UInt32 size;
 
-	private byte[] memory;
+	private PagedLinearMemory memory;
 
 	public Memory(UInt32 initialSize) {
 		assert (0 < initialSize.integerValue());
 		size = initialSize;
-		memory = new byte[initialSize.integerValue() * page_size.integerValue()];
+		memory = new PagedLinearMemory(initialSize.integerValue() * page_size.integerValue());
 	}
 
 	public void set(UInt32 index, byte input) {
-		memory[index.integerValue()] = input;
+		memory.putByte(index.integerValue(), input);
 	}
 
 	public byte get(UInt32 index) {
-		return memory[index.integerValue()];
+		return memory.getByte(index.integerValue());
 	}
 
 	/**
@@ -70,13 +70,12 @@ public class Memory {
 			throw new MemoryException();
 		}
 		try {
-			// increase the memory.
-			byte[] memoryNew =
-				Arrays.copyOfRange(memory, 0, sizeNewInPages * page_size.integerValue());
-			memory = memoryNew;
-		} catch (Exception exception) {
+			// increase the memory, only the new pages are allocated.
+			memory.grow(sizeNewInPages * page_size.integerValue());
+		} catch (OutOfMemoryError | RuntimeException exception) {
 			return failure;
 		}
+		size = new UInt32(sizeNewInPages.longValue());
 
 		return previousSizeInPages;
 	}
@@ -0,0 +1,403 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import happynewmoonwithreport.section.SectionCode;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.VarUInt32;
+import happynewmoonwithreport.type.WasmVector;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A cache of decoded modules on local disk.
+ * <br>
+ * The key is the SHA-256 hash of the module bytes.  The cache file holds the module without its
+ * code section, the function bodies already decoded (the local variable types expanded, the
+ * code ready to run) and the result of validation.  On a hit the file is mapped and the
+ * function bodies are read from the mapping without decoding them again.
+ * <br>
+ * A cache file with a different format version or a different hash is ignored, the module is
+ * parsed as usual and the file is written again.
+ * <br>
+ * Usage:
+ * <pre>
+ * {@code
+ *         ModuleCache cache = new ModuleCache(Paths.get("/var/cache/wasm"));
+ *         Wasm wasm = new Wasm(bytesAll);
+ *         wasm.setModuleCache(cache);
+ *         WasmModule module = wasm.instantiate();
+ * }
+ * </pre>
+ * <br>
+ * Layout of a cache file, all numbers big endian:
+ * <pre>
+ *     magic number 'HNMC'      4 bytes
+ *     format version           int
+ *     hash of the module       32 bytes
+ *     valid                    byte, 1 = valid
+ *     length of module         int
+ *     module without code      bytes
+ *     function count           int
+ *     for each function:
+ *         body size            int
+ *         local count          int    (number of local entries)
+ *         local variable count int
+ *         local variable types one byte each
+ *         code length          int
+ *     code of every function   bytes
+ * </pre>
+ */
+public class ModuleCache {
+
+	/**
+	 * Change when the layout of the cache file changes.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	private static final int MAGIC_NUMBER = 0x484E4D43; // 'HNMC'
+	private static final int HASH_LENGTH = 32;
+	private static final int CODE_SECTION = 10;
+
+	private final Path directory;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong mismatchCount = new AtomicLong();
+	private final AtomicLong hitNanos = new AtomicLong();
+	private final AtomicLong missNanos = new AtomicLong();
+
+	/**
+	 * @param directory where the cache files are kept.  Created if it does not exist.
+	 */
+	public ModuleCache(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * A module read from a cache file.
+	 */
+	public static class Entry {
+		private final BytesFile moduleWithoutCode;
+		private final SectionCode sectionCode;
+		private final Boolean valid;
+
+		Entry(BytesFile moduleWithoutCode, SectionCode sectionCode, Boolean valid) {
+			this.moduleWithoutCode = moduleWithoutCode;
+			this.sectionCode = sectionCode;
+			this.valid = valid;
+		}
+
+		/**
+		 * @return the module bytes with the code section removed.
+		 */
+		public BytesFile getModuleWithoutCode() {
+			return moduleWithoutCode;
+		}
+
+		/**
+		 * @return the code section, every function body is decoded.
+		 */
+		public SectionCode getSectionCode() {
+			return sectionCode;
+		}
+
+		/**
+		 * @return the result of validation when the entry was written.
+		 */
+		public Boolean getValid() {
+			return valid;
+		}
+	}
+
+	/**
+	 * The SHA-256 hash of the module.  This is the key of the cache.
+	 *
+	 * @param module the module bytes.
+	 * @return the hash, 32 bytes.
+	 */
+	public static byte[] hash(BytesFile module) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(module.asByteBuffer());
+			return digest.digest();
+		} catch (NoSuchAlgorithmException exception) {
+			throw new WasmRuntimeException(UUID.fromString("5d2e8a71-3c0f-4b9e-a6d4-1f7b2c9e8a30"),
+				"SHA-256 is not available", exception);
+		}
+	}
+
+	/**
+	 * Find a module in the cache.
+	 *
+	 * @param hash the hash of the module, see {@link #hash(BytesFile)}.
+	 * @return the entry, or null if the module is not in the cache or the file does not match.
+	 */
+	public Entry lookup(byte[] hash) {
+		Path path = pathOf(hash);
+		if (Files.exists(path) == false) {
+			return null;
+		}
+		Entry result;
+		try {
+			result = read(path, hash);
+		} catch (IOException | RuntimeException exception) {
+			Logger.getLogger(ModuleCache.class.getName())
+				.log(Level.WARNING, "Unable to read cache file " + path, exception);
+			result = null;
+		}
+		if (result == null) {
+			mismatchCount.incrementAndGet();
+		}
+		return result;
+	}
+
+	/**
+	 * Record a hit.  Called after the module was instantiated from the cache.
+	 *
+	 * @param nanos time taken to load the module, including the hash.
+	 */
+	public void recordHit(long nanos) {
+		hitCount.incrementAndGet();
+		hitNanos.addAndGet(nanos);
+	}
+
+	/**
+	 * Record a miss.  Called after the module was parsed because it was not in the cache.
+	 *
+	 * @param nanos time taken to parse and validate the module, including the hash.
+	 */
+	public void recordMiss(long nanos) {
+		missCount.incrementAndGet();
+		missNanos.addAndGet(nanos);
+	}
+
+	/**
+	 * Write a module to the cache.  The file is written to a temporary file and moved into
+	 * place, so a reader never sees part of a file.  An error is logged, not thrown; the cache
+	 * is only an optimization.
+	 *
+	 * @param hash        the hash of the module, see {@link #hash(BytesFile)}.
+	 * @param module      the module bytes.
+	 * @param sectionCode the decoded code section.
+	 * @param valid       the result of validation.
+	 */
+	public void store(byte[] hash, BytesFile module, SectionCode sectionCode, Boolean valid) {
+		Path path = pathOf(hash);
+		Path temporary = null;
+		try {
+			Files.createDirectories(directory);
+			temporary = Files.createTempFile(directory, "module", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				Files.newOutputStream(temporary, StandardOpenOption.WRITE)))) {
+				write(out, hash, module, sectionCode, valid);
+			}
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException exception) {
+			Logger.getLogger(ModuleCache.class.getName())
+				.log(Level.WARNING, "Unable to write cache file " + path, exception);
+			try {
+				if (temporary != null) {
+					Files.deleteIfExists(temporary);
+				}
+			} catch (IOException ignored) {
+				// nothing more to do.
+			}
+		}
+	}
+
+	private Path pathOf(byte[] hash) {
+		StringBuilder name = new StringBuilder(HASH_LENGTH * 2 + 5);
+		for (byte b : hash) {
+			name.append(Character.forDigit((b >> 4) & 0xF, 16));
+			name.append(Character.forDigit(b & 0xF, 16));
+		}
+		name.append(".hnmc");
+		return directory.resolve(name.toString());
+	}
+
+	private void write(DataOutputStream out, byte[] hash, BytesFile module,
+					   SectionCode sectionCode, Boolean valid) throws IOException {
+		out.writeInt(MAGIC_NUMBER);
+		out.writeInt(FORMAT_VERSION);
+		out.write(hash);
+		out.writeByte(valid ? 1 : 0);
+
+		byte[] moduleWithoutCode = removeCodeSection(module);
+		out.writeInt(moduleWithoutCode.length);
+		out.write(moduleWithoutCode);
+
+		ArrayList<FunctionBody> functionAll = sectionCode.getFunctionAll();
+		out.writeInt(functionAll.size());
+		for (FunctionBody functionBody : functionAll) {
+			out.writeInt(functionBody.getBodySize().integerValue());
+			out.writeInt(functionBody.getLocalCount().integerValue());
+			WasmVector<ValueType> localEntryAll = functionBody.getLocalEntryAll();
+			out.writeInt(localEntryAll.size());
+			for (ValueType valueType : localEntryAll) {
+				out.writeByte(valueType.getType());
+			}
+			out.writeInt(functionBody.getCodeBytesFile().length());
+		}
+		for (FunctionBody functionBody : functionAll) {
+			out.write(functionBody.getCodeBytesFile().getBytesAll());
+		}
+	}
+
+	/**
+	 * Copy the module without the code section.  The code is stored decoded.
+	 */
+	private byte[] removeCodeSection(BytesFile module) {
+		BytesFile in = module.view();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(in.length());
+		// magic number and version.
+		byte[] header = in.getBytes(8);
+		out.write(header, 0, header.length);
+		while (in.atEndOfFile() == false) {
+			final int start = in.getIndex();
+			final byte sectionName = in.readByte();
+			final int payloadLength = (int) VarUInt32.decode(in);
+			final int headerLength = in.getIndex() - start;
+			if (sectionName == CODE_SECTION) {
+				in.addToIndex(payloadLength);
+			} else {
+				in.setIndex(start);
+				byte[] section = in.getBytes(headerLength + payloadLength);
+				out.write(section, 0, section.length);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private Entry read(Path path, byte[] hash) throws IOException {
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		ByteBuffer in = mapped;
+		if (in.getInt() != MAGIC_NUMBER || in.getInt() != FORMAT_VERSION) {
+			return null;
+		}
+		byte[] fileHash = new byte[HASH_LENGTH];
+		in.get(fileHash);
+		if (MessageDigest.isEqual(hash, fileHash) == false) {
+			return null;
+		}
+		final Boolean valid = in.get() == 1;
+
+		final int moduleLength = in.getInt();
+		BytesFile moduleWithoutCode = new BytesFile(slice(in, moduleLength));
+
+		final int functionCount = in.getInt();
+		int[] bodySizeAll = new int[functionCount];
+		int[] localCountAll = new int[functionCount];
+		int[] codeLengthAll = new int[functionCount];
+		ArrayList<WasmVector<ValueType>> localsAll = new ArrayList<>(functionCount);
+		for (int index = 0; index < functionCount; index++) {
+			bodySizeAll[index] = in.getInt();
+			localCountAll[index] = in.getInt();
+			final int localsLength = in.getInt();
+			WasmVector<ValueType> locals = new WasmVector<>(localsLength);
+			for (int local = 0; local < localsLength; local++) {
+				locals.add(ValueType.valueOf((int) in.get()));
+			}
+			localsAll.add(locals);
+			codeLengthAll[index] = in.getInt();
+		}
+
+		ArrayList<FunctionBody> functionAll = new ArrayList<>(functionCount);
+		for (int index = 0; index < functionCount; index++) {
+			BytesFile code = new BytesFile(slice(in, codeLengthAll[index]));
+			functionAll.add(new FunctionBody(new UInt32((long) bodySizeAll[index]),
+				new UInt32((long) localCountAll[index]), localsAll.get(index), code));
+		}
+		SectionCode sectionCode = new SectionCode(new UInt32((long) functionCount), functionAll);
+
+		return new Entry(moduleWithoutCode, sectionCode, valid);
+	}
+
+	/**
+	 * The next <code>length</code> bytes as a view, move the position past them.
+	 */
+	private static ByteBuffer slice(ByteBuffer in, int length) {
+		ByteBuffer region = in.duplicate();
+		region.limit(in.position() + length);
+		in.position(in.position() + length);
+		return region.slice();
+	}
+
+	/**
+	 * @return number of modules found in the cache.
+	 */
+	public Long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return number of modules parsed because they were not in the cache.  Includes
+	 * mismatches.
+	 */
+	public Long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return number of cache files ignored because the format version or hash did not match,
+	 * or the file could not be read.
+	 */
+	public Long getMismatchCount() {
+		return mismatchCount.get();
+	}
+
+	/**
+	 * @return total time, in nanoseconds, to load modules found in the cache.
+	 */
+	public Long getHitNanos() {
+		return hitNanos.get();
+	}
+
+	/**
+	 * @return total time, in nanoseconds, to parse modules not found in the cache.
+	 */
+	public Long getMissNanos() {
+		return missNanos.get();
+	}
+
+	@Override
+	public String toString() {
+		return "ModuleCache{" + "directory=" + directory + ", hitCount=" + hitCount
+			   + ", missCount=" + missCount + ", mismatchCount=" + mismatchCount + ", hitNanos="
+			   + hitNanos + ", missNanos=" + missNanos + '}';
+	}
+}
@@ -18,7 +18,9 @@ package happynewmoonwithreport;
 
 
 import happynewmoonwithreport.type.VarUInt1;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Represent the Mutability flag.
@@ -33,14 +35,30 @@ public class Mutability extends ValueBase implements Validation {
 	public static final String immutable = "immutable";
 	public static final String mutable = "mutable";
 
+	private static final Map<Integer, String> MAP_ALL;
+	private static final Map<String, Integer> TYPE_ALL;
+
+	static {
+		Map<Integer, String> map = new HashMap<>();
+		map.put(0, immutable);
+		map.put(1, mutable);
+		MAP_ALL = Collections.unmodifiableMap(map);
+		TYPE_ALL = reverse(MAP_ALL);
+	}
+
+	/**
+	 * The canonical instances, indexed by the type byte.
+	 */
+	private static final Mutability[] canonicalAll = {new Mutability(0), new Mutability(1)};
+
+	public static final Mutability IMMUTABLE = canonicalAll[0];
+	public static final Mutability MUTABLE = canonicalAll[1];
+
 	public void setup() {
-		mapAll = new HashMap<>();
-		mapAll.put(0, immutable);
-		mapAll.put(1, mutable);
+		setup(Mutability.class.getName(), MAP_ALL, TYPE_ALL);
 	}
 
 	private Mutability() {
-		className = Mutability.class.getName();
 		setup();
 	}
 
@@ -69,4 +87,29 @@ public class Mutability extends ValueBase implements Validation {
 		this.type = calcType(value);
 	}
 
+	/**
+	 * The canonical instance of a type.  Nothing is allocated; two results for the same type are
+	 * the same object.
+	 *
+	 * @param type 0 for immutable, 1 for mutable.
+	 * @return the canonical instance.
+	 */
+	public static Mutability valueOf(Integer type) {
+		if (type == null || type < 0 || canonicalAll.length <= type) {
+			throw new RuntimeException(
+				"Type in " + Mutability.class.getName() + " is not valid type = " + type);
+		}
+		return canonicalAll[type];
+	}
+
+	/**
+	 * Read a varuint1 and return the canonical instance.  Nothing is allocated.
+	 *
+	 * @param payload the input BytesFile.
+	 * @return the canonical instance.
+	 */
+	public static Mutability valueOf(BytesFile payload) {
+		return valueOf(payload.readByte() & 0xFF);
+	}
+
 }
\ No newline at end of file
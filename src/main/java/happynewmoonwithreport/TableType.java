@@ -45,7 +45,7 @@ public class TableType implements Validation {
 	private LimitType limit;
 
 	public TableType(BytesFile payload) {
-		elementType = new ElementType(payload);
+		elementType = ElementType.valueOf(payload);
 		limit = new LimitType(payload);
 	}
 
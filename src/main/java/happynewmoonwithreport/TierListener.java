@@ -0,0 +1,32 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+/**
+ * Told when a function moves to a new tier.  See
+ * {@link TieredExecution#addTierListener(TierListener)}.
+ */
+public interface TierListener {
+
+	/**
+	 * A function moved to a new tier.  Called on the thread that built the tier, after the calls
+	 * that follow were switched to it.
+	 *
+	 * @param transition the function, the tiers and the counts.
+	 */
+	void tierChanged(TierTransition transition);
+}
@@ -0,0 +1,165 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.WasmVector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MutableCallSite;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The tier of one function run by the {@link ExecutionEngine#TIERED} engine, and the counters
+ * that decide when it is promoted.  See {@link TieredExecution}.
+ * <br>
+ * The function is called through a {@link MutableCallSite}.  A promotion sets the target of the
+ * call site to the entry of the new tier, so the calls after it run the new code.
+ */
+public class TierState {
+
+	private final AtomicLong invocationCount;
+	private final AtomicLong backEdgeCount;
+	private final AtomicBoolean promoting;
+	private final MutableCallSite callSite;
+	private final MethodHandle invoker;
+
+	private volatile ExecutionEngine tier;
+	private volatile Boolean promotable;
+	private volatile RuntimeException promotionError;
+
+	TierState() {
+		invocationCount = new AtomicLong();
+		backEdgeCount = new AtomicLong();
+		promoting = new AtomicBoolean();
+		callSite = new MutableCallSite(TieredExecution.entry(ExecutionEngine.VALIDATED));
+		invoker = callSite.dynamicInvoker();
+		tier = ExecutionEngine.VALIDATED;
+		promotable = true;
+	}
+
+	/**
+	 * The tier the function runs on: {@link ExecutionEngine#VALIDATED},
+	 * {@link ExecutionEngine#REGISTER} or {@link ExecutionEngine#COMPILED}.
+	 *
+	 * @return the tier.
+	 */
+	public ExecutionEngine getTier() {
+		return tier;
+	}
+
+	/**
+	 * @return the number of calls.
+	 */
+	public long getInvocationCount() {
+		return invocationCount.get();
+	}
+
+	/**
+	 * @return the number of jumps backwards to the start of a loop, in the interpreted tiers.
+	 */
+	public long getBackEdgeCount() {
+		return backEdgeCount.get();
+	}
+
+	/**
+	 * Is the next tier being built in the background?
+	 *
+	 * @return true while a promotion is running.
+	 */
+	public Boolean isPromoting() {
+		return promoting.get();
+	}
+
+	/**
+	 * May the function still be promoted?  False on the last tier, or when building the next
+	 * tier failed.
+	 *
+	 * @return true if the function may be promoted.
+	 */
+	public Boolean isPromotable() {
+		return promotable && tier != ExecutionEngine.COMPILED;
+	}
+
+	/**
+	 * Why the last promotion failed.
+	 *
+	 * @return the exception, or null if no promotion failed.
+	 */
+	public RuntimeException getPromotionError() {
+		return promotionError;
+	}
+
+	/**
+	 * Run the function on its tier.
+	 */
+	void invoke(WasmInstance instance, WasmFunction function,
+				WasmVector<DataTypeNumber> paramAll) {
+		try {
+			invoker.invokeExact(instance, function, paramAll);
+		} catch (RuntimeException | Error exception) {
+			throw exception;
+		} catch (Throwable throwable) {
+			throw new WasmRuntimeException(UUID.fromString("b83e1f64-2d9a-4c57-a6f0-7e4c19d5b283"),
+				"The function could not be run on its tier. Tier = " + tier, throwable);
+		}
+	}
+
+	/**
+	 * Count one call.
+	 *
+	 * @param backEdges the back edges the call took.
+	 * @return the hotness, calls plus back edges.
+	 */
+	long count(long backEdges) {
+		final long calls = invocationCount.incrementAndGet();
+		if (backEdges == 0) {
+			return calls + backEdgeCount.get();
+		}
+		return calls + backEdgeCount.addAndGet(backEdges);
+	}
+
+	/**
+	 * @return true if this thread is to build the next tier.
+	 */
+	Boolean startPromotion() {
+		return promoting.compareAndSet(false, true);
+	}
+
+	void endPromotion() {
+		promoting.set(false);
+	}
+
+	/**
+	 * Point the call site at the entry of a new tier.
+	 */
+	void swap(ExecutionEngine newTier, MethodHandle entry) {
+		callSite.setTarget(entry);
+		MutableCallSite.syncAll(new MutableCallSite[]{callSite});
+		tier = newTier;
+	}
+
+	/**
+	 * Building the next tier failed, the function stays on its tier.
+	 */
+	void stop(RuntimeException error) {
+		promotionError = error;
+		promotable = false;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+
+/**
+ * A function moved from one tier to the next.  See {@link TierListener}.
+ */
+public class TierTransition {
+
+	private final WasmFunction function;
+	private final ExecutionEngine from;
+	private final ExecutionEngine to;
+	private final long invocationCount;
+	private final long backEdgeCount;
+	private final long buildNanos;
+
+	public TierTransition(WasmFunction function, ExecutionEngine from, ExecutionEngine to,
+						  long invocationCount, long backEdgeCount, long buildNanos) {
+		this.function = function;
+		this.from = from;
+		this.to = to;
+		this.invocationCount = invocationCount;
+		this.backEdgeCount = backEdgeCount;
+		this.buildNanos = buildNanos;
+	}
+
+	public WasmFunction getFunction() {
+		return function;
+	}
+
+	public ExecutionEngine getFrom() {
+		return from;
+	}
+
+	public ExecutionEngine getTo() {
+		return to;
+	}
+
+	/**
+	 * @return the number of calls when the promotion was made.
+	 */
+	public long getInvocationCount() {
+		return invocationCount;
+	}
+
+	/**
+	 * @return the number of back edges when the promotion was made.
+	 */
+	public long getBackEdgeCount() {
+		return backEdgeCount;
+	}
+
+	/**
+	 * @return the time to build the new tier, in nanoseconds.
+	 */
+	public long getBuildNanos() {
+		return buildNanos;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuffer sb = new StringBuffer("TierTransition{");
+		sb.append("from=").append(from);
+		sb.append(", to=").append(to);
+		sb.append(", invocationCount=").append(invocationCount);
+		sb.append(", backEdgeCount=").append(backEdgeCount);
+		sb.append(", buildNanos=").append(buildNanos);
+		sb.append('}');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.WasmVector;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tiered execution, the {@link ExecutionEngine#TIERED} engine.
+ * <br>
+ * Every validated function starts on the stack interpreter, {@link ExecutionEngine#VALIDATED}.
+ * Each call and each back edge the interpreter takes is counted in the {@link TierState} of the
+ * function.  When the sum reaches the register threshold the function is translated to register
+ * code, {@link ExecutionEngine#REGISTER}; when it reaches the compile threshold it is compiled
+ * to JVM byte code, {@link ExecutionEngine#COMPILED}.
+ * <br>
+ * The next tier is built on a background thread while the calls go on running on the current
+ * tier.  Then the call site of the function is pointed at the new tier and the
+ * {@link TierListener}s are told.  A call that is running keeps running on its tier, there is no
+ * on stack replacement, and its back edges are counted when it returns.
+ */
+public class TieredExecution {
+
+	public static final Integer DEFAULT_REGISTER_THRESHOLD = 1_000;
+	public static final Integer DEFAULT_COMPILE_THRESHOLD = 10_000;
+
+	private static final MethodHandle VALIDATED_ENTRY;
+	private static final MethodHandle REGISTER_ENTRY;
+	private static final MethodHandle COMPILED_ENTRY;
+
+	static {
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		final MethodType type = MethodType.methodType(void.class, WasmFunction.class,
+			WasmVector.class);
+		try {
+			VALIDATED_ENTRY = lookup.findVirtual(WasmInstance.class, "runValidated", type);
+			REGISTER_ENTRY = lookup.findVirtual(WasmInstance.class, "runRegister", type);
+			COMPILED_ENTRY = lookup.findVirtual(WasmInstance.class, "runCompiled", type);
+		} catch (ReflectiveOperationException exception) {
+			throw new ExceptionInInitializerError(exception);
+		}
+	}
+
+	private final Integer registerThreshold;
+	private final Integer compileThreshold;
+	private final Executor executor;
+	private final CopyOnWriteArrayList<TierListener> listenerAll;
+
+	/**
+	 * The default thresholds, the tiers are built on a shared pool of daemon threads.
+	 */
+	public TieredExecution() {
+		this(DEFAULT_REGISTER_THRESHOLD, DEFAULT_COMPILE_THRESHOLD);
+	}
+
+	/**
+	 * The tiers are built on a shared pool of daemon threads.
+	 *
+	 * @param registerThreshold calls plus back edges before the function is translated to
+	 *                          register code.
+	 * @param compileThreshold  calls plus back edges before the function is compiled.
+	 */
+	public TieredExecution(Integer registerThreshold, Integer compileThreshold) {
+		this(registerThreshold, compileThreshold, SharedPool.EXECUTOR);
+	}
+
+	/**
+	 * @param registerThreshold calls plus back edges before the function is translated to
+	 *                          register code.
+	 * @param compileThreshold  calls plus back edges before the function is compiled.
+	 * @param executor          runs the builds of the tiers.
+	 */
+	public TieredExecution(Integer registerThreshold, Integer compileThreshold,
+						   Executor executor) {
+		this.registerThreshold = registerThreshold;
+		this.compileThreshold = compileThreshold;
+		this.executor = executor;
+		this.listenerAll = new CopyOnWriteArrayList<>();
+	}
+
+	public Integer getRegisterThreshold() {
+		return registerThreshold;
+	}
+
+	public Integer getCompileThreshold() {
+		return compileThreshold;
+	}
+
+	public void addTierListener(TierListener listener) {
+		listenerAll.add(listener);
+	}
+
+	public void removeTierListener(TierListener listener) {
+		listenerAll.remove(listener);
+	}
+
+	/**
+	 * Count a call of a function, and start building its next tier if it is hot enough.
+	 *
+	 * @param function  the function called.
+	 * @param module    the module of the function.
+	 * @param backEdges the back edges the call took.
+	 */
+	void record(WasmFunction function, WasmModule module, long backEdges) {
+		final TierState tierState = function.getTierState();
+		final long hotness = tierState.count(backEdges);
+		if (tierState.isPromotable() == false) {
+			return;
+		}
+		final ExecutionEngine next = nextTier(tierState.getTier(), hotness);
+		if (next != null && tierState.startPromotion()) {
+			try {
+				executor.execute(() -> promote(function, module, tierState, next));
+			} catch (RuntimeException rejected) {
+				// tried again on a later call.
+				tierState.endPromotion();
+			}
+		}
+	}
+
+	private ExecutionEngine nextTier(ExecutionEngine tier, long hotness) {
+		if (compileThreshold <= hotness) {
+			return ExecutionEngine.COMPILED;
+		}
+		if (tier == ExecutionEngine.VALIDATED && registerThreshold <= hotness) {
+			return ExecutionEngine.REGISTER;
+		}
+		return null;
+	}
+
+	/**
+	 * Build the tier and switch the calls to it.  On the background thread.
+	 */
+	private void promote(WasmFunction function, WasmModule module, TierState tierState,
+						 ExecutionEngine tier) {
+		final long start = System.nanoTime();
+		final ExecutionEngine from = tierState.getTier();
+		try {
+			final Boolean built;
+			if (tier == ExecutionEngine.REGISTER) {
+				built = function.getRegisterCode(module) != null;
+			} else {
+				built = function.getCompiledFunction(module) != null;
+			}
+			if (built == false) {
+				tierState.stop(new WasmRuntimeException(
+					UUID.fromString("4d6b2e91-8f37-4a05-b1c8-52e9a7d3f6c0"),
+					"The function can not be run on tier " + tier));
+				return;
+			}
+			tierState.swap(tier, entry(tier));
+		} catch (RuntimeException exception) {
+			tierState.stop(exception);
+			return;
+		} finally {
+			tierState.endPromotion();
+		}
+
+		final TierTransition transition = new TierTransition(function, from, tier,
+			tierState.getInvocationCount(), tierState.getBackEdgeCount(),
+			System.nanoTime() - start);
+		for (TierListener listener : listenerAll) {
+			listener.tierChanged(transition);
+		}
+	}
+
+	/**
+	 * The method of {@link WasmInstance} that runs a function on a tier.
+	 */
+	static MethodHandle entry(ExecutionEngine tier) {
+		switch (tier) {
+			case REGISTER:
+				return REGISTER_ENTRY;
+			case COMPILED:
+				return COMPILED_ENTRY;
+			default:
+				return VALIDATED_ENTRY;
+		}
+	}
+
+	/**
+	 * The pool shared by the instances made without an executor.  Made on first use.
+	 */
+	private static final class SharedPool {
+		private static final AtomicInteger threadCount = new AtomicInteger();
+
+		private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+			Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+				final Thread thread = new Thread(runnable,
+					"wasm-tier-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+	}
+}
@@ -17,11 +17,17 @@
 package happynewmoonwithreport;
 
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * An extension of java.Enum all entries contain a Key and Value.   Constructors provided for
  * both key and value.
+ * <br>
+ * Each subclass keeps one canonical instance of each type, see for example
+ * {@link ValueType#valueOf(Integer)}.  The canonical instances are immutable and may be compared
+ * with <code>==</code>.
  */
 public class ValueBase implements Validation {
 
@@ -29,7 +35,57 @@ public class ValueBase implements Validation {
 	protected Integer type;
 	protected String value;
 
-	protected static Map<Integer, String> mapAll;
+	/**
+	 * Type to value.  Each subclass has one static map, this refers to it.  Never changed.
+	 */
+	protected Map<Integer, String> mapAll;
+
+	/**
+	 * Value to type.  The reverse of mapAll.
+	 */
+	protected Map<String, Integer> typeAll;
+
+	/**
+	 * Set the maps used by <code>calcType</code> and <code>calcValue</code>.
+	 *
+	 * @param className the name of the subclass, used in messages.
+	 * @param mapAll    type to value, shared by all instances of the subclass.
+	 * @param typeAll   value to type, shared by all instances of the subclass.
+	 */
+	protected void setup(String className, Map<Integer, String> mapAll,
+						 Map<String, Integer> typeAll) {
+		this.className = className;
+		this.mapAll = mapAll;
+		this.typeAll = typeAll;
+	}
+
+	/**
+	 * Make the value to type map from a type to value map.
+	 *
+	 * @param mapAll type to value
+	 * @return an unmodifiable map of value to type.
+	 */
+	protected static Map<String, Integer> reverse(Map<Integer, String> mapAll) {
+		Map<String, Integer> result = new HashMap<>();
+		for (Map.Entry<Integer, String> entry : mapAll.entrySet()) {
+			result.put(entry.getValue(), entry.getKey());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * The index in to an array of canonical instances.  Types are a byte, either unsigned (0 to
+	 * 255) or a negative varint7.
+	 *
+	 * @param type the type
+	 * @return the index, -1 if the type can not be a byte.
+	 */
+	protected static int canonicalIndex(Integer type) {
+		if (type == null || type < -128 || 255 < type) {
+			return -1;
+		}
+		return type & 0xFF;
+	}
 
 	/**
 	 * get the value
@@ -51,15 +107,8 @@ public class ValueBase implements Validation {
 	 * @return the Key.
 	 */
 	protected Integer calcType(String value) {
-		Integer result = null;
-		Boolean found = false;
-		for (Map.Entry<Integer, String> entry : mapAll.entrySet()) {
-			if (value.equals(entry.getValue())) {
-				result = entry.getKey();
-				found = true;
-			}
-		}
-		if (found == false) {
+		Integer result = typeAll.get(value);
+		if (result == null) {
 			throw new RuntimeException(className + " " + value + " not valid/found");
 		}
 		return result;
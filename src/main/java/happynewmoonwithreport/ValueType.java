@@ -18,7 +18,9 @@ package happynewmoonwithreport;
 
 import happynewmoonwithreport.type.S32;
 import happynewmoonwithreport.type.VarInt7;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The data types in Web Assembly. int32, int64, f32, f64
@@ -44,29 +46,55 @@ public class ValueType extends ValueBase implements Validation {
 	public static final String emptyBlock = "emptyBlock";
 
 
-	private void setup() {
-		mapAll = new HashMap<>();
+	private static final Map<Integer, String> MAP_ALL;
+	private static final Map<String, Integer> TYPE_ALL;
+
+	static {
+		Map<Integer, String> map = new HashMap<>();
 
 		// int32(-0x01)      byte value  0x7F int value 127
-		mapAll.put(-0x01, int32);
+		map.put(-0x01, int32);
 		// int64(-0x02)      byte value  0x7e
-		mapAll.put(-0x02, int64);
+		map.put(-0x02, int64);
 		// f32(-0x03)        byte value  0x7d
-		mapAll.put(-0x03, f32);
+		map.put(-0x03, f32);
 		// f64(-0x04)        byte value  0x7C
-		mapAll.put(-0x04, f64);
+		map.put(-0x04, f64);
 		// anyFunc(-0x10)    byte value  0x70
-		mapAll.put(-0x10, anyFunc);
+		map.put(-0x10, anyFunc);
 		// func(-0x20)       byte value  0x60
-		mapAll.put(-0x20, func);
+		map.put(-0x20, func);
 		// emptyBlock(-0x40) byte value  0x40
-		mapAll.put(-0x40, emptyBlock);
+		map.put(-0x40, emptyBlock);
 
+		MAP_ALL = Collections.unmodifiableMap(map);
+		TYPE_ALL = reverse(MAP_ALL);
 	}
 
+	/**
+	 * The canonical instances, indexed by the type byte.
+	 */
+	private static final ValueType[] canonicalAll = new ValueType[256];
+
+	static {
+		for (Integer type : MAP_ALL.keySet()) {
+			canonicalAll[canonicalIndex(type)] = new ValueType(type);
+		}
+	}
+
+	public static final ValueType INT32 = valueOf(-0x01);
+	public static final ValueType INT64 = valueOf(-0x02);
+	public static final ValueType F32 = valueOf(-0x03);
+	public static final ValueType F64 = valueOf(-0x04);
+	public static final ValueType ANY_FUNC = valueOf(-0x10);
+	public static final ValueType FUNC = valueOf(-0x20);
+	public static final ValueType EMPTY_BLOCK = valueOf(-0x40);
+
+	private void setup() {
+		setup(ValueType.class.getName(), MAP_ALL, TYPE_ALL);
+	}
 
 	private ValueType() {
-		className = Mutability.class.getName();
 		setup();
 	}
 
@@ -95,6 +123,38 @@ public class ValueType extends ValueBase implements Validation {
 		this.value = calcValue(type);
 	}
 
+	/**
+	 * The canonical instance of a type.  Nothing is allocated; two results for the same type are
+	 * the same object.
+	 * <br>
+	 * Note use the integer value <code>ValueType.valueOf(-0x01)</code> <b>not</b> the byte in
+	 * the *.wasm file <code>0x7F</code>.
+	 *
+	 * @param type the type, for example -0x01 for int32.
+	 * @return the canonical instance.
+	 */
+	public static ValueType valueOf(Integer type) {
+		final int index = canonicalIndex(type);
+		ValueType result = (index < 0) ? null : canonicalAll[index];
+		if (result == null || result.type.equals(type) == false) {
+			throw new RuntimeException(
+				"Type in " + ValueType.class.getName() + " is not valid type = " + type);
+		}
+		return result;
+	}
+
+	/**
+	 * Read a varint7 type and return the canonical instance.  Nothing is allocated.
+	 *
+	 * @param payload the input BytesFile.
+	 * @return the canonical instance.
+	 */
+	public static ValueType valueOf(BytesFile payload) {
+		// a varint7 is one byte, sign extend bit 6.
+		final int type = (payload.readByte() << 25) >> 25;
+		return valueOf(type);
+	}
+
 	@Override
 	public Boolean valid() {
 		Boolean result = true;
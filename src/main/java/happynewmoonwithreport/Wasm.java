@@ -21,8 +21,14 @@ import happynewmoonwithreport.type.UInt32;
 import happynewmoonwithreport.type.VarUInt32;
 import happynewmoonwithreport.type.WasmVector;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Start Here, The class to loads a WebAssembly file
@@ -36,12 +42,32 @@ public class Wasm {
 	private WasmModule module;
 
 	private BytesFile bytesFile;
+
+	/**
+	 * Not null when the module is read from a channel.
+	 */
+	private ChannelReader channelReader;
 	private UInt32 magicNumber;
 	private UInt32 version;
 	private Boolean valid;
 
 	private ArrayList<ExportEntry> exportAll;
 
+	/**
+	 * Decode function bodies on first use.  See {@link #setLazyDecode(Boolean)}.
+	 */
+	private Boolean lazyDecode = false;
+
+	/**
+	 * Cache of decoded modules.  See {@link #setModuleCache(ModuleCache)}.
+	 */
+	private ModuleCache moduleCache;
+
+	/**
+	 * Number of threads used to decode function bodies.  See {@link #setParallelism(Integer)}.
+	 */
+	private Integer parallelism = 1;
+
 
 	/*  Initialize all sections except Start and Code to be empty.
 		This may not be to the Wasm specification, but avoids Null pointer exceptions.
@@ -78,6 +104,10 @@ public class Wasm {
 	 * }
 	 * </pre>
 	 *
+	 * <br>
+	 * The file is mapped into memory with {@link WasmFile#map()}, the sections are read from the
+	 * mapping and are not copied onto the heap.
+	 *
 	 * @param fileName The fileName.  This parameter will be used in <code>new File(fileName)
 	 *                 </code>
 	 * @throws IOException Thrown if the file does not exist and other reasons.
@@ -85,7 +115,7 @@ public class Wasm {
 	public Wasm(String fileName) throws IOException {
 		this();
 		WasmFile wasmFile = new WasmFile(fileName);
-		byte[] bytesAll = wasmFile.bytes();
+		ByteBuffer bytesAll = wasmFile.map();
 		bytesFile = new BytesFile(bytesAll);
 	}
 
@@ -95,9 +125,64 @@ public class Wasm {
 	 * @param bytesAll An array of bytes that contain the wasm module.
 	 */
 	public Wasm(byte[] bytesAll) {
+		this();
 		bytesFile = new BytesFile(bytesAll);
 	}
 
+	/**
+	 * Construct a Wasm module with a ByteBuffer.  The module is read from the buffer's position
+	 * to its limit.
+	 * <br>
+	 * Usage:
+	 * <pre>
+	 * {@code
+	 *         WasmFile wasmFile = new WasmFile(fileName);
+	 *         Wasm wasm = new Wasm(wasmFile.map());
+	 * }
+	 * </pre>
+	 *
+	 * @param bytesAll A buffer that contains the wasm module.  Usually a mapped file.
+	 */
+	public Wasm(ByteBuffer bytesAll) {
+		this();
+		bytesFile = new BytesFile(bytesAll);
+	}
+
+	/**
+	 * Construct a Wasm module that is read from a channel.
+	 * <br>
+	 * Nothing is read until <code>instantiate()</code>.  <code>instantiate()</code> parses each
+	 * section as soon as it arrives and decodes each function body as soon as it is complete, so
+	 * receiving the module and decoding it overlap.  The module is never held in one buffer.
+	 * <br>
+	 * Usage:
+	 * <pre>
+	 * {@code
+	 *         Wasm wasm = new Wasm(socketChannel);
+	 *         wasm.setParallelism(4);
+	 *         WasmModule module = wasm.instantiate();
+	 * }
+	 * </pre>
+	 *
+	 * @param channel the channel that contains the wasm module.  Read to end of stream, not
+	 *                closed.  Must be blocking.
+	 */
+	public Wasm(ReadableByteChannel channel) {
+		this();
+		channelReader = new ChannelReader(channel);
+	}
+
+	/**
+	 * Construct a Wasm module that is read from an InputStream.  See
+	 * {@link #Wasm(ReadableByteChannel)}.
+	 *
+	 * @param inputStream the stream that contains the wasm module.  Read to end of stream, not
+	 *                    closed.
+	 */
+	public Wasm(InputStream inputStream) {
+		this(Channels.newChannel(inputStream));
+	}
+
 	/**
 	 * <br>
 	 * Source:
@@ -110,24 +195,68 @@ public class Wasm {
 	 * @return Web Assembly Module.
 	 */
 	public WasmModule instantiate() {
+		if (channelReader != null) {
+			instantiateFromChannel();
+		} else if (moduleCache != null) {
+			return instantiateWithCache();
+		} else {
+			instantiateFromBytes();
+		}
+		return createModule();
+	}
 
-		SectionName sectionName;
-		UInt32 u32PayloadLength;
-		/*
-		 * payloadLength needs to be a java type as it is used in math (+).  Should be Long but
-		 * copyOfRange only handles int.
-		 */
-		Integer payloadLength;
+	private void instantiateFromBytes() {
+		readModule();
 
+		if (decodeInParallel() && lazyDecode == false) {
+			decodeFunctionsInParallel();
+		}
+	}
+
+	/**
+	 * Read the header and the sections, the function bodies are not decoded.
+	 */
+	private void readModule() {
 		magicNumber = readMagicNumber();
 		checkMagicNumber();
 		version = readVersion();
 
 		instantiateSections();
+	}
 
+	/**
+	 * Look for the module in the cache.  On a hit the code section comes from the cache and
+	 * only the rest of the module is parsed.  On a miss the module is parsed, validated and
+	 * written to the cache.
+	 */
+	private WasmModule instantiateWithCache() {
+		final long start = System.nanoTime();
+		final BytesFile moduleAll = bytesFile.view();
+		final byte[] hash = ModuleCache.hash(moduleAll);
+
+		ModuleCache.Entry entry = moduleCache.lookup(hash);
+		if (entry != null) {
+			bytesFile = entry.getModuleWithoutCode();
+			// there is no code section to decode, it comes from the cache.
+			readModule();
+			sectionCode = entry.getSectionCode();
+			createModule();
+			valid = entry.getValid();
+			moduleCache.recordHit(System.nanoTime() - start);
+		} else {
+			instantiateFromBytes();
+			createModule();
+			valid = validateModule();
+			moduleCache.recordMiss(System.nanoTime() - start);
+			moduleCache.store(hash, moduleAll, sectionCode, valid);
+		}
+		return module;
+	}
+
+	private WasmModule createModule() {
 		fillExport(sectionExport);
 
-		fillFunction(sectionType, sectionCode);
+		fillFunction(sectionFunction, sectionCode);
 
 		module = new WasmModule(sectionType.getFunctionSignatures(), //
 			functionAll, //
@@ -139,72 +268,181 @@ public class Wasm {
 			sectionStart.getIndex(), sectionExport.getExports()
 			// to do import
 		);
+		// build the export index now, not on the first lookup.
+		module.getExportIndex();
 		return module;
 	}
 
 	private void instantiateSections() {
-		UInt32 nameLength = new UInt32(0L);
 		SectionName sectionName;
-		UInt32 u32PayloadLength;
-		Integer payloadLength;
+		int payloadLength;
 		while (bytesFile.atEndOfFile() == false) {
 			// Section Code
 			sectionName = readSectionName();
 
 			// Payload Length
-			u32PayloadLength = new VarUInt32(bytesFile);
-
-			payloadLength = u32PayloadLength.integerValue();
-
-			payloadLength = payloadLength - nameLength.integerValue();
-			BytesFile payload = bytesFile.copy(payloadLength);
-			switch (sectionName.getValue()) {
-				case SectionName.CUSTOM:
-					sectionCustom = new SectionCustom();
-					sectionCustom.instantiate(payload);
-					break;
-				case SectionName.TYPE:
-					sectionType = new SectionType();
-					sectionType.instantiate(payload);
-					break;
-				case SectionName.FUNCTION:
-					sectionFunction = new SectionFunction();
-					sectionFunction.instantiate(payload);
-					break;
-				case SectionName.TABLE:
-					sectionTable = new SectionTable();
-					sectionTable.instantiate(payload);
-					break;
-				case SectionName.MEMORY:
-					sectionMemory = new SectionMemory();
-					sectionMemory.instantiate(payload);
-					break;
-				case SectionName.GLOBAL:
-					sectionGlobal = new SectionGlobal();
-					sectionGlobal.instantiate(payload);
-					break;
-				case SectionName.EXPORT:
-					sectionExport = new SectionExport();
-					sectionExport.instantiate(payload);
-					break;
-				case SectionName.START:
-					sectionStart = new SectionStart();
-					sectionStart.instantiate(payload);
-					break;
-				case SectionName.CODE:
-					sectionCode = new SectionCode();
-					sectionCode.instantiate(payload);
-					break;
-				default:
-					throw new WasmRuntimeException(
-						UUID.fromString("e737f67f-5935-4c61-a14f-eeb97e393178"),
-						"Unknown Section in Module. Section = " + sectionName.getValue());
+			payloadLength = (int) VarUInt32.decode(bytesFile);
 
-			}
+			BytesFile payload = bytesFile.slice(payloadLength);
+			instantiateSection(sectionName, payload);
 		}
 		assert bytesFile.atEndOfFile() : "File length is not correct";
 	}
 
+	/**
+	 * Read the module from the channel one section at a time.
+	 * <br>
+	 * Each section is parsed as soon as its payload has arrived, while later sections are still
+	 * in the channel.  The code section is read one function body at a time and each body is
+	 * decoded as soon as it is complete, on the fork/join pool when the parallelism is more than
+	 * one.
+	 */
+	private void instantiateFromChannel() {
+		bytesFile = new BytesFile(channelReader.readBytes(8));
+		magicNumber = readMagicNumber();
+		checkMagicNumber();
+		version = readVersion();
+
+		ForkJoinPool pool = null;
+		if (decodeInParallel() && lazyDecode == false) {
+			pool = new ForkJoinPool(parallelism);
+		}
+		try {
+			while (channelReader.atEndOfStream() == false) {
+				// Section Code
+				SectionName sectionName = SectionName.valueOf(channelReader.readByte() & 0xFF);
+
+				// Payload Length
+				int payloadLength = (int) channelReader.readVarUInt32();
+
+				if (SectionName.CODE.equals(sectionName.getValue())) {
+					sectionCode = readCodeSection(payloadLength, pool);
+				} else {
+					BytesFile payload = new BytesFile(channelReader.readBytes(payloadLength));
+					instantiateSection(sectionName, payload);
+				}
+			}
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Read the code section from the channel one function body at a time.
+	 *
+	 * @param payloadLength the length of the code section.
+	 * @param pool          the pool to decode on, null to decode on this thread.
+	 * @return the code section.
+	 */
+	private SectionCode readCodeSection(int payloadLength, ForkJoinPool pool) {
+		final long start = channelReader.getPosition();
+
+		//* FunctionBody Count
+		final long countLong = channelReader.readVarUInt32();
+		// each body is at least one byte, its size.
+		if (payloadLength - (channelReader.getPosition() - start) < countLong) {
+			throw new WasmRuntimeException(UUID.fromString("3f9e6b2d-8a14-4c07-b5d3-e1a7c6f0d952"),
+				"Code Section has more function bodies than bytes. Length = " + payloadLength
+				+ " count = " + countLong);
+		}
+		final int count = (int) countLong;
+
+		ArrayList<FunctionBody> functionAll = new ArrayList<>(count);
+		ArrayList<ForkJoinTask<?>> taskAll = new ArrayList<>();
+		byte[] sizeBytes = new byte[5];
+		for (int index = 0; index < count; index++) {
+			// the body is read with its size so FunctionBody can read it as usual.
+			int sizeLength = channelReader.readVarUInt32Bytes(sizeBytes);
+			final long bodySizeLong = VarUInt32.decode(new BytesFile(sizeBytes));
+			// checked before the body is allocated, the size comes from the stream.
+			final long remaining = payloadLength - (channelReader.getPosition() - start);
+			if (remaining < bodySizeLong) {
+				throw new WasmRuntimeException(UUID.fromString("c62d8e1a-4b7f-4f39-a0e5-9d3b1c7a5f28"),
+					"Function body is longer than the rest of the Code Section. Body size = "
+					+ bodySizeLong + " bytes left = " + remaining);
+			}
+			final int bodySize = (int) bodySizeLong;
+			byte[] bodyAll = new byte[sizeLength + bodySize];
+			System.arraycopy(sizeBytes, 0, bodyAll, 0, sizeLength);
+			channelReader.readBytes(bodyAll, sizeLength, bodySize);
+
+			FunctionBody functionBody = new FunctionBody(new BytesFile(bodyAll), true);
+			functionAll.add(functionBody);
+			if (lazyDecode == false) {
+				if (pool != null) {
+					taskAll.add(pool.submit(functionBody::decode));
+				} else {
+					functionBody.decode();
+				}
+			}
+		}
+
+		if (channelReader.getPosition() - start != payloadLength) {
+			throw new WasmRuntimeException(UUID.fromString("a4d6c1f3-2e8b-4b5a-9f07-7c3e1d2b8a64"),
+				"Code Section length is not correct. Length = " + payloadLength + " bytes read = "
+				+ (channelReader.getPosition() - start));
+		}
+
+		for (ForkJoinTask<?> task : taskAll) {
+			task.join();
+		}
+		return new SectionCode(new UInt32((long) count), functionAll);
+	}
+
+	/**
+	 * Create one section from its payload.
+	 *
+	 * @param sectionName the section.
+	 * @param payload     the payload of the section.
+	 */
+	private void instantiateSection(SectionName sectionName, BytesFile payload) {
+		switch (sectionName.getValue()) {
+			case SectionName.CUSTOM:
+				sectionCustom = new SectionCustom();
+				sectionCustom.instantiate(payload);
+				break;
+			case SectionName.TYPE:
+				sectionType = new SectionType();
+				sectionType.instantiate(payload);
+				break;
+			case SectionName.FUNCTION:
+				sectionFunction = new SectionFunction();
+				sectionFunction.instantiate(payload);
+				break;
+			case SectionName.TABLE:
+				sectionTable = new SectionTable();
+				sectionTable.instantiate(payload);
+				break;
+			case SectionName.MEMORY:
+				sectionMemory = new SectionMemory();
+				sectionMemory.instantiate(payload);
+				break;
+			case SectionName.GLOBAL:
+				sectionGlobal = new SectionGlobal();
+				sectionGlobal.instantiate(payload);
+				break;
+			case SectionName.EXPORT:
+				sectionExport = new SectionExport();
+				sectionExport.instantiate(payload);
+				break;
+			case SectionName.START:
+				sectionStart = new SectionStart();
+				sectionStart.instantiate(payload);
+				break;
+			case SectionName.CODE:
+				sectionCode = new SectionCode(lazyDecode || decodeInParallel());
+				sectionCode.instantiate(payload);
+				break;
+			default:
+				throw new WasmRuntimeException(
+					UUID.fromString("e737f67f-5935-4c61-a14f-eeb97e393178"),
+					"Unknown Section in Module. Section = " + sectionName.getValue());
+
+		}
+	}
+
 	/**
 	 * Returns true if module is valid.   Call only after <code>instantiate();</code>
 	 * <br>
@@ -224,12 +462,49 @@ public class Wasm {
 	 * @return true if valid.
 	 */
 	public Boolean validate() {
-		valid = module.validation();
+		if (moduleCache != null && valid != null) {
+			// validated when the module was written to the cache.
+			return valid;
+		}
+		valid = validateModule();
 		return valid;
 	}
 
+	/**
+	 * Validate the module.  With a parallelism of more than one the code of the functions is
+	 * validated on a fork/join pool that lives as long as this call.
+	 */
+	private Boolean validateModule() {
+		if (parallelism == 1) {
+			return module.validation();
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return module.validation(pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private Boolean decodeInParallel() {
+		return parallelism > 1;
+	}
+
+	/**
+	 * The code section was read lazily, only the body sizes are known.  Decode the bodies on a
+	 * fork/join pool that lives as long as this call.
+	 */
+	private void decodeFunctionsInParallel() {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			sectionCode.decodeAll(pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
 	private SectionName readSectionName() {
-		SectionName result = new SectionName(bytesFile);
+		SectionName result = SectionName.valueOf(bytesFile);
 		return result;
 	}
 
@@ -269,13 +544,92 @@ public class Wasm {
 
 	private WasmVector<WasmFunction> functionAll;
 
-	private void fillFunction(SectionType type, SectionCode code) {
-		functionAll = new WasmVector<>(type.getCount().integerValue());
-		for (Integer index = 0; index < type.getCount().integerValue(); index++) {
-			WasmFunction function =
-				new WasmFunction(new UInt32(index), code.getFunctionAll().get(index));
-			functionAll.add(function);
+	/**
+	 * One function for each entry of the function section, its type index from the function
+	 * section and its body from the code section.
+	 */
+	private void fillFunction(SectionFunction function, SectionCode code) {
+		final int functionCount = function.getCount().integerValue();
+		final int bodyCount = code.getFunctionAll().size();
+		if (functionCount != bodyCount) {
+			throw new WasmRuntimeException(UUID.fromString("7c1e5a92-3d4b-4f86-a0e7-9b2d6c8f1a35"),
+				"The function section has " + functionCount + " functions but the code section has "
+				+ bodyCount + " bodies.");
+		}
+		functionAll = new WasmVector<>(functionCount);
+		for (int index = 0; index < functionCount; index++) {
+			WasmFunction wasmFunction = new WasmFunction(function.getTypes().get(index),
+				code.getFunctionAll().get(index));
+			functionAll.add(wasmFunction);
+		}
+	}
+
+	public Boolean getLazyDecode() {
+		return lazyDecode;
+	}
+
+	/**
+	 * Decode function bodies on first use.
+	 * <br>
+	 * When true, <code>instantiate()</code> only records the size of each function body.  The
+	 * locals and code of a function are decoded the first time it is called or validated, so a
+	 * module with many functions starts faster and only holds the decoded functions that are
+	 * used.
+	 * <br>
+	 * Must be set before <code>instantiate()</code>.  The default is false.
+	 *
+	 * @param lazyDecode true to decode function bodies on first use.
+	 */
+	public void setLazyDecode(Boolean lazyDecode) {
+		this.lazyDecode = lazyDecode;
+	}
+
+	public ModuleCache getModuleCache() {
+		return moduleCache;
+	}
+
+	/**
+	 * Use a cache of decoded modules.
+	 * <br>
+	 * <code>instantiate()</code> looks for the module in the cache by the hash of its bytes.  If
+	 * found the function bodies are loaded already decoded and <code>validate()</code> returns
+	 * the stored result.  If not found the module is parsed, validated and added to the cache.
+	 * <br>
+	 * Not used when the module is read from a channel.  Must be set before
+	 * <code>instantiate()</code>.
+	 *
+	 * @param moduleCache the cache, null for none.
+	 */
+	public void setModuleCache(ModuleCache moduleCache) {
+		this.moduleCache = moduleCache;
+	}
+
+	public Integer getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * The number of threads used to decode function bodies in <code>instantiate()</code> and to
+	 * validate them.
+	 * <br>
+	 * With a parallelism of 1 (the default) the code section is decoded on the calling thread.
+	 * With more, the code section is first read sequentially to find the size of each function
+	 * body, then the bodies are decoded on a fork/join pool with this many threads.  The module
+	 * is the same either way.  <code>validate()</code> validates the code of the functions on a
+	 * pool of the same size.
+	 * <br>
+	 * The decoding ignores it if lazy decoding is on, see {@link #setLazyDecode(Boolean)}.
+	 * <br>
+	 * Must be set before <code>instantiate()</code>.
+	 *
+	 * @param parallelism number of threads, 1 or more.
+	 */
+	public void setParallelism(Integer parallelism) {
+		if (parallelism < 1) {
+			throw new WasmRuntimeException(UUID.fromString("6b0e3f9d-5d1c-4b35-9a6e-2f1c8d7a4e50"),
+				"Parallelism must be 1 or more.  Parallelism = " + parallelism);
 		}
+		this.parallelism = parallelism;
 	}
 
 	public UInt32 getVersion() {
@@ -19,6 +19,10 @@ package happynewmoonwithreport;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 
 /**
@@ -61,6 +65,28 @@ public class WasmFile {
 		return bytesArray;
 	}
 
+	/**
+	 * Map the file into memory.  The bytes are paged in by the operating system as they are read,
+	 * they are not copied onto the Java heap.
+	 * <br>
+	 * The mapping stays valid after this method returns and is released when the buffer is
+	 * garbage collected.  The file should not be changed while it is mapped.
+	 * <br>
+	 * Source:
+	 * <a href="https://docs.oracle.com/javase/8/docs/api/java/nio/channels/FileChannel.html#map-java.nio.channels.FileChannel.MapMode-long-long-"
+	 * target="_top"> FileChannel.map
+	 * </a>
+	 *
+	 * @return The file as a read only buffer.
+	 * @throws IOException on Error.
+	 */
+	public MappedByteBuffer map() throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(Paths.get(filePath),
+			StandardOpenOption.READ)) {
+			return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+		}
+	}
+
 	public String getFilePath() {
 		return filePath;
 	}
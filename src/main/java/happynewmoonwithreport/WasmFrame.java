@@ -16,8 +16,12 @@
  */
 package happynewmoonwithreport;
 
+import happynewmoonwithreport.interpreter.OperandStackAdapter;
 import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.WasmVector;
+import java.util.Arrays;
+import java.util.UUID;
 
 /**
  * Activation frames carry the return arity of the respective function, hold the values of its
@@ -29,6 +33,10 @@ import happynewmoonwithreport.type.WasmVector;
  * Frames
  * </a>
  * Frame contains:  locals, module, return arity
+ * <br>
+ * A validated function keeps its locals in {@link #slotAll}, one <code>long</code> per local
+ * holding the raw bits of the value, in the same format as the operand stack.  Other functions
+ * keep them in {@link #localAll}.
  */
 public class WasmFrame {
 	private WasmModule module;
@@ -43,10 +51,29 @@ public class WasmFrame {
 	 */
 	private WasmVector<DataTypeNumber> localAll;
 
+	/**
+	 * Local Variables including arguments of a validated function.  May be longer than
+	 * {@link #slotCount}, the array is reused by later calls.
+	 */
+	private long[] slotAll;
+
+	/**
+	 * Number of locals, including arguments, in {@link #slotAll}.
+	 */
+	private int slotCount;
+
+	/**
+	 * Memory 0 of the module, <code>S.mems[F.module.memaddrs[0]]</code>.  Found by the first
+	 * memory instruction and kept, the memory instance never changes.  Null until then.
+	 */
+	private MemoryType memoryZero;
+
 	private WasmFrame() {
 		super();
 		localAll = new WasmVector<>();
 		returnTypeAll = new WasmVector<>();
+		slotAll = new long[0];
+		slotCount = 0;
 	}
 
 	public WasmFrame(WasmModule module) {
@@ -58,6 +85,14 @@ public class WasmFrame {
 		return module;
 	}
 
+	public MemoryType getMemoryZero() {
+		return memoryZero;
+	}
+
+	public void setMemoryZero(MemoryType memoryZero) {
+		this.memoryZero = memoryZero;
+	}
+
 	public WasmVector<DataTypeNumber> returnTypeAll() {
 		return returnTypeAll;
 	}
@@ -69,4 +104,97 @@ public class WasmFrame {
 	public void setLocalAll(WasmVector<DataTypeNumber> localAll) {
 		this.localAll = localAll;
 	}
+
+	/**
+	 * Set up the slots for a call of a validated function.  The parameters are copied into the
+	 * first slots, the declared locals are set to zero.
+	 * <br>
+	 * The parameters must match the type of the function, as checked by
+	 * <code>WasmInstance.call()</code>.  Only their number is checked here.
+	 *
+	 * @param slotCount the number of parameters plus the number of declared locals.
+	 * @param paramAll  the parameters.
+	 */
+	public void enter(Integer slotCount, WasmVector<DataTypeNumber> paramAll) {
+		final int paramCount = paramAll.size();
+		if (slotCount < paramCount) {
+			throw new WasmRuntimeException(UUID.fromString("8c4f2a1e-7b3d-4e95-a6c0-d1e9f5b2a736"),
+				"More parameters than slots.  Parameter count = " + paramCount + " Slot count = "
+				+ slotCount);
+		}
+		if (slotAll.length < slotCount) {
+			slotAll = new long[slotCount];
+		} else {
+			Arrays.fill(slotAll, paramCount, slotCount, 0L);
+		}
+		this.slotCount = slotCount;
+		for (int index = 0; index < paramCount; index++) {
+			slotAll[index] = OperandStackAdapter.toBits(paramAll.get(index));
+		}
+	}
+
+	public Integer slotCount() {
+		return slotCount;
+	}
+
+	/**
+	 * The slots, the registers of the register code.  At least {@link #slotCount()} long.
+	 *
+	 * @return the slots.
+	 */
+	public long[] slotAll() {
+		return slotAll;
+	}
+
+	public long getSlot(int index) {
+		return slotAll[index];
+	}
+
+	public void setSlot(int index, long bits) {
+		slotAll[index] = bits;
+	}
+
+	/**
+	 * Set a slot and return the value, as <code>local.tee</code> does.
+	 *
+	 * @param index the local index.
+	 * @param bits  the value.
+	 * @return the value.
+	 */
+	public long teeSlot(int index, long bits) {
+		slotAll[index] = bits;
+		return bits;
+	}
+
+	public int getI32(int index) {
+		return (int) slotAll[index];
+	}
+
+	public void setI32(int index, int value) {
+		slotAll[index] = value;
+	}
+
+	public long getI64(int index) {
+		return slotAll[index];
+	}
+
+	public void setI64(int index, long value) {
+		slotAll[index] = value;
+	}
+
+	public float getF32(int index) {
+		return Float.intBitsToFloat((int) slotAll[index]);
+	}
+
+	public void setF32(int index, float value) {
+		slotAll[index] = Float.floatToRawIntBits(value);
+	}
+
+	public double getF64(int index) {
+		return Double.longBitsToDouble(slotAll[index]);
+	}
+
+	public void setF64(int index, double value) {
+		slotAll[index] = Double.doubleToRawLongBits(value);
+	}
 }
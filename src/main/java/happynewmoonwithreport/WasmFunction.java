@@ -16,9 +16,21 @@
  */
 package happynewmoonwithreport;
 
+import happynewmoonwithreport.interpreter.BytecodeCompiler;
+import happynewmoonwithreport.interpreter.CompiledFunction;
+import happynewmoonwithreport.interpreter.FunctionValidator;
+import happynewmoonwithreport.interpreter.FusedStream;
+import happynewmoonwithreport.interpreter.InstructionStream;
+import happynewmoonwithreport.interpreter.InstructionStreamTranslator;
+import happynewmoonwithreport.interpreter.NodeTranslator;
+import happynewmoonwithreport.interpreter.NodeTree;
+import happynewmoonwithreport.interpreter.RegisterCode;
+import happynewmoonwithreport.interpreter.RegisterTranslator;
+import happynewmoonwithreport.interpreter.SuperinstructionFuser;
 import happynewmoonwithreport.type.DataTypeNumber;
 import happynewmoonwithreport.type.UInt32;
 import happynewmoonwithreport.type.WasmVector;
+import java.util.ArrayList;
 
 /**
  * Web Assembly Function
@@ -37,6 +49,42 @@ public class WasmFunction {
 	private WasmVector<DataTypeNumber> locals;
 	private FunctionBody body;
 
+	/**
+	 * The code translated for the interpreter.  Built on the first call.
+	 */
+	private volatile InstructionStream instructionStream;
+
+	/**
+	 * The result of validating the code.  Built on the first call.
+	 */
+	private volatile FunctionValidator validator;
+
+	/**
+	 * The validated code with superinstructions.  Built on the first call.
+	 */
+	private volatile FusedStream fusedStream;
+
+	/**
+	 * The validated code translated to register code.  Built on the first call.
+	 */
+	private volatile RegisterCode registerCode;
+
+	/**
+	 * The validated code compiled to a node tree.  Built on the first call.
+	 */
+	private volatile NodeTree nodeTree;
+
+	/**
+	 * The validated code compiled to JVM byte code, null if it could not be compiled.  Valid once
+	 * {@link #compiled} is true.
+	 */
+	private CompiledFunction compiledFunction;
+	private volatile boolean compiled;
+
+	/**
+	 * The tier and the counters of the tiered engine.  Made on the first call.
+	 */
+	private volatile TierState tierState;
 
 	public WasmFunction() {
 		super();
@@ -71,6 +119,15 @@ public class WasmFunction {
 		return body.getCode();
 	}
 
+	/**
+	 * The code as a BytesFile.  Every call returns a new view with the index at zero.
+	 *
+	 * @return the code.
+	 */
+	public BytesFile getCodeBytesFile() {
+		return body.getCodeBytesFile();
+	}
+
 	public UInt32 getBodySize() {
 		return body.getBodySize();
 	}
@@ -78,4 +135,201 @@ public class WasmFunction {
 	public WasmVector<ValueType> getLocalEntryAll() {
 		return body.getLocalEntryAll();
 	}
+
+	/**
+	 * Has the body been decoded?  See {@link Wasm#setLazyDecode(Boolean)}.
+	 *
+	 * @return false if the body was read lazily and the function has not been used.
+	 */
+	public Boolean isDecoded() {
+		return body.isDecoded();
+	}
+
+	/**
+	 * The code translated to an instruction stream.  Translated on the first call, later calls
+	 * return the same stream.
+	 *
+	 * @return the instruction stream.
+	 */
+	public InstructionStream getInstructionStream() {
+		InstructionStream result = instructionStream;
+		if (result == null) {
+			synchronized (this) {
+				result = instructionStream;
+				if (result == null) {
+					result = new InstructionStreamTranslator().translate(getCodeBytesFile());
+					instructionStream = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Validate the code.  Validated by <code>WasmModule.validation()</code> or on the first
+	 * call, later calls return the same result.  Code that cannot be decoded, an unknown opcode
+	 * or block type, is not valid.
+	 *
+	 * @param module the module of the function, for the function types and memories.
+	 * @return the validator, with the result.
+	 */
+	public FunctionValidator validate(WasmModule module) {
+		FunctionValidator result = validator;
+		if (result == null) {
+			synchronized (this) {
+				result = validator;
+				if (result == null) {
+					final WasmVector<FunctionType> typeAll = module.getTypes();
+					FunctionType functionType = null;
+					if (typeAll.exists(typeIndex)) {
+						functionType = typeAll.get(typeIndex);
+					}
+					final Integer memoryCount = module.getMemoryAll().size();
+					try {
+						result = new FunctionValidator(functionType, getLocalEntryAll(),
+							memoryCount);
+						result.validate(getInstructionStream());
+					} catch (RuntimeException exception) {
+						// the locals or the code could not be decoded.
+						result = new FunctionValidator(functionType, new ArrayList<>(), memoryCount);
+						result.notReadable(exception.getMessage());
+					}
+					validator = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Has the code been validated and found valid?  A validated function is run on the
+	 * primitive operand stack.
+	 *
+	 * @return true if the function is valid, false if it is not valid or not validated yet.
+	 */
+	public Boolean isValidated() {
+		FunctionValidator result = validator;
+		return result != null && result.isValid();
+	}
+
+	/**
+	 * The validated code with superinstructions, see {@link SuperinstructionFuser}.  Fused on the
+	 * first call, later calls return the same stream.
+	 *
+	 * @param module the module of the function.
+	 * @return the fused stream, or null if the function is not valid.
+	 */
+	public FusedStream fuse(WasmModule module) {
+		FusedStream result = fusedStream;
+		if (result == null) {
+			final FunctionValidator functionValidator = validate(module);
+			if (functionValidator.isValid() == false) {
+				return null;
+			}
+			synchronized (this) {
+				result = fusedStream;
+				if (result == null) {
+					result = new SuperinstructionFuser().fuse(getInstructionStream(),
+						functionValidator);
+					fusedStream = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The validated code translated to register code, see {@link RegisterTranslator}.
+	 * Translated on the first call, later calls return the same code.
+	 *
+	 * @param module the module of the function.
+	 * @return the register code, or null if the function is not valid.
+	 */
+	public RegisterCode getRegisterCode(WasmModule module) {
+		RegisterCode result = registerCode;
+		if (result == null) {
+			final FunctionValidator functionValidator = validate(module);
+			if (functionValidator.isValid() == false) {
+				return null;
+			}
+			synchronized (this) {
+				result = registerCode;
+				if (result == null) {
+					result = new RegisterTranslator().translate(getInstructionStream(),
+						functionValidator);
+					registerCode = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The validated code compiled to a node tree, see {@link NodeTranslator}.  Compiled on the
+	 * first call, later calls return the same tree.
+	 *
+	 * @param module the module of the function.
+	 * @return the node tree, or null if the function is not valid.
+	 */
+	public NodeTree getNodeTree(WasmModule module) {
+		NodeTree result = nodeTree;
+		if (result == null) {
+			final FunctionValidator functionValidator = validate(module);
+			if (functionValidator.isValid() == false) {
+				return null;
+			}
+			synchronized (this) {
+				result = nodeTree;
+				if (result == null) {
+					result = new NodeTranslator().translate(getInstructionStream(),
+						functionValidator);
+					nodeTree = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The validated code compiled to JVM byte code, see {@link BytecodeCompiler}.  Compiled on
+	 * the first call, later calls return the same function.
+	 *
+	 * @param module the module of the function.
+	 * @return the compiled function, or null if the function is not valid or can not be
+	 * compiled.
+	 */
+	public CompiledFunction getCompiledFunction(WasmModule module) {
+		if (compiled == false) {
+			final FunctionValidator functionValidator = validate(module);
+			synchronized (this) {
+				if (compiled == false) {
+					if (functionValidator.isValid()) {
+						compiledFunction = new BytecodeCompiler().compile(getInstructionStream(),
+							functionValidator);
+					}
+					compiled = true;
+				}
+			}
+		}
+		return compiledFunction;
+	}
+
+	/**
+	 * The tier of the function and its counters, for the {@link TieredExecution}.
+	 *
+	 * @return the tier state, the same object on every call.
+	 */
+	public TierState getTierState() {
+		TierState result = tierState;
+		if (result == null) {
+			synchronized (this) {
+				result = tierState;
+				if (result == null) {
+					result = new TierState();
+					tierState = result;
+				}
+			}
+		}
+		return result;
+	}
 }
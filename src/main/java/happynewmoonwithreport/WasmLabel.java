@@ -37,8 +37,16 @@ import happynewmoonwithreport.type.WasmVector;
 public class WasmLabel {
 
 	public WasmLabel(BytesFile code) {
+		this(ValueType.valueOf(code));
+	}
+
+	/**
+	 * A label for a block type that was decoded ahead of time.
+	 *
+	 * @param resultType the block type.
+	 */
+	public WasmLabel(ValueType resultType) {
 		returnTypeAll = new WasmVector<>(1);
-		ValueType resultType = new ValueType(code);
 		returnTypeAll.add(resultType);
 	}
 
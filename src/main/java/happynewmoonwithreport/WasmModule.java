@@ -16,9 +16,16 @@
  */
 package happynewmoonwithreport;
 
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.interpreter.FunctionValidator;
+import happynewmoonwithreport.interpreter.FusedStream;
+import happynewmoonwithreport.type.LinearMemoryFactory;
 import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.UInt32;
 import happynewmoonwithreport.type.WasmVector;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,7 +47,7 @@ import java.util.logging.Logger;
  * https://webassembly.github.io/spec/core/binary/modules.html#
  * </a>
  */
-public class WasmModule {
+public class WasmModule implements AutoCloseable {
 
 	// https://webassembly.github.io/spec/core/syntax/modules.html#indices
 	private UInt32 typeIndex;
@@ -66,6 +73,31 @@ public class WasmModule {
 	// private WasmVector<ExportEntry> importAll;    // aka imports
 	private WasmVector<ExportEntry> exportAll;    // aka exports
 
+	/**
+	 * The exports by name.  See {@link #getExportIndex()}.
+	 */
+	private ExportIndex exportIndex;
+
+	/**
+	 * How the functions of this module are run.
+	 */
+	private ExecutionEngine executionEngine = ExecutionEngine.VALIDATED;
+
+	/**
+	 * Run the validated functions with superinstructions.
+	 */
+	private Boolean superinstructionFusion = true;
+
+	/**
+	 * Thresholds, thread pool and listeners of the {@link ExecutionEngine#TIERED} engine.  Made on
+	 * first use.
+	 */
+	private TieredExecution tieredExecution;
+
+	/**
+	 * Allocates the bytes of the memories.
+	 */
+	private LinearMemoryFactory linearMemoryFactory = LinearMemoryFactory.PAGED;
 
 	public WasmModule() {
 
@@ -154,10 +186,62 @@ public class WasmModule {
 
 		isValid &= validateGlobals();
 
+		isValid &= validateFunctions();
+
 
 		return isValid;
 	}
 
+	/**
+	 * Execute all the validity checks, with the code of the functions validated on a fork/join
+	 * pool.  The functions are validated independently and each keeps its result, which
+	 * <code>validation()</code> then reports.
+	 *
+	 * @param pool the pool to validate the code of the functions on.
+	 * @return true if all validity checks pass.
+	 */
+	public Boolean validation(ForkJoinPool pool) {
+		final ArrayList<Callable<FunctionValidator>> taskAll = new ArrayList<>();
+		for (WasmFunction function : functionAll) {
+			taskAll.add(() -> function.validate(this));
+		}
+		pool.invokeAll(taskAll);
+		return validation();
+	}
+
+	/**
+	 * Validate the code of every function.  The result is kept by each function and used by the
+	 * {@link ExecutionEngine#VALIDATED} engine.
+	 * <br>
+	 * Source:  <a href="https://webassembly.github.io/spec/core/valid/modules.html#functions"
+	 * target="_top">
+	 * https://webassembly.github.io/spec/core/valid/modules.html#functions
+	 * </a>
+	 *
+	 * @return true if no function is known to be invalid.
+	 */
+	public Boolean validateFunctions() {
+		Boolean isValid = true;
+		for (Integer index = 0; index < functionAll.size(); index++) {
+			final FunctionValidator validator = functionAll.get(index).validate(this);
+			if (validator.isValid()) {
+				continue;
+			}
+			if (validator.isImplemented()) {
+				Logger.getLogger(WasmModule.class.getName())
+					.log(Level.SEVERE, "Function not valid! Function index = " + index + " "
+									   + validator.getErrorMessage());
+				isValid = false;
+			} else {
+				Logger.getLogger(WasmModule.class.getName())
+					.log(Level.FINE, "Function not validated, it is run with type checks. "
+									 + "Function index = " + index + " "
+									 + validator.getErrorMessage());
+			}
+		}
+		return isValid;
+	}
+
 	public Boolean validateGlobals() {
 		Boolean isValid = true;
 		for (GlobalVariableType globalVariable : globals) {
@@ -198,6 +282,9 @@ public class WasmModule {
 	 * @param memoryToAdd memory to add to the module.
 	 */
 	public void addMemory(MemoryType memoryToAdd) {
+		if (memoryToAdd.getLinearMemoryFactory() != linearMemoryFactory) {
+			memoryToAdd.allocate(linearMemoryFactory);
+		}
 		memoryAll.add(memoryToAdd);
 	}
 
@@ -245,6 +332,21 @@ public class WasmModule {
 		return exportAll;
 	}
 
+	/**
+	 * The exports by name and kind.
+	 * <br>
+	 * Built by <code>Wasm.instantiate()</code>.  For a module built by hand it is built on the
+	 * first call, exports added after that are not in the index.
+	 *
+	 * @return the export index.
+	 */
+	public ExportIndex getExportIndex() {
+		if (exportIndex == null) {
+			exportIndex = new ExportIndex(exportAll, functionAll);
+		}
+		return exportIndex;
+	}
+
 	public WasmVector<MemoryType> getMemoryAll() {
 		return memoryAll;
 	}
@@ -265,4 +367,150 @@ public class WasmModule {
 		return memoryAll.get(index);
 	}
 
+	public ExecutionEngine getExecutionEngine() {
+		return executionEngine;
+	}
+
+	/**
+	 * Choose how the functions of this module are run.  Used by every
+	 * <code>WasmInstance.call()</code> after the change.
+	 *
+	 * @param executionEngine the engine.
+	 */
+	public void setExecutionEngine(ExecutionEngine executionEngine) {
+		this.executionEngine = executionEngine;
+	}
+
+	/**
+	 * The tiered execution of this module, the defaults if none was set.
+	 *
+	 * @return the tiered execution.
+	 */
+	public synchronized TieredExecution getTieredExecution() {
+		if (tieredExecution == null) {
+			tieredExecution = new TieredExecution();
+		}
+		return tieredExecution;
+	}
+
+	/**
+	 * Choose the thresholds, thread pool and listeners of the {@link ExecutionEngine#TIERED}
+	 * engine.  Set it before the first call.
+	 *
+	 * @param tieredExecution the tiered execution.
+	 */
+	public synchronized void setTieredExecution(TieredExecution tieredExecution) {
+		this.tieredExecution = tieredExecution;
+	}
+
+	public LinearMemoryFactory getLinearMemoryFactory() {
+		return linearMemoryFactory;
+	}
+
+	/**
+	 * Choose where the bytes of the memories are held, for example
+	 * {@link LinearMemoryFactory#OFF_HEAP}.  The memories the module already has are moved, so
+	 * set it before the first call.
+	 *
+	 * @param linearMemoryFactory allocates the bytes of each memory.
+	 */
+	public void setLinearMemoryFactory(LinearMemoryFactory linearMemoryFactory) {
+		this.linearMemoryFactory = linearMemoryFactory;
+		for (MemoryType memoryType : memoryAll) {
+			memoryType.allocate(linearMemoryFactory);
+		}
+	}
+
+	/**
+	 * Bytes held outside the Java heap by the memories of the module, see
+	 * {@link LinearMemoryFactory#OFF_HEAP}.  A memory that has not been used yet holds none.
+	 * Every instance of the module shares the memories.
+	 *
+	 * @return the bytes.
+	 */
+	public long getOffHeapBytes() {
+		long result = 0;
+		for (MemoryType memory : memoryAll) {
+			result += memory.getOffHeapBytes();
+		}
+		return result;
+	}
+
+	/**
+	 * Pages of 64 KiB backed by allocated bytes in the memories of the module.  With
+	 * {@link LinearMemoryFactory#SPARSE} only the pages stored to are committed.
+	 *
+	 * @return the pages.
+	 */
+	public int getCommittedPageCount() {
+		int result = 0;
+		for (MemoryType memory : memoryAll) {
+			result += memory.getCommittedPageCount();
+		}
+		return result;
+	}
+
+	/**
+	 * Pages of 64 KiB stored to in the memories of the module, see
+	 * {@link MemoryType#getTouchedPageCount()}.
+	 *
+	 * @return the pages.
+	 */
+	public int getTouchedPageCount() {
+		int result = 0;
+		for (MemoryType memory : memoryAll) {
+			result += memory.getTouchedPageCount();
+		}
+		return result;
+	}
+
+	/**
+	 * Release the memories of the module now, rather than when they are garbage collected.
+	 * Matters for memory off the heap.  Every instance of the module shares the memories, so no
+	 * function of any instance may be called afterwards, every load and store would trap.
+	 */
+	@Override
+	public void close() {
+		for (MemoryType memory : memoryAll) {
+			memory.release();
+		}
+	}
+
+	public Boolean getSuperinstructionFusion() {
+		return superinstructionFusion;
+	}
+
+	/**
+	 * Turn the superinstructions of the {@link ExecutionEngine#VALIDATED} engine on or off.  On
+	 * by default.  Used by every <code>WasmInstance.call()</code> after the change.
+	 *
+	 * @param superinstructionFusion false to run the validated code as it was translated.
+	 */
+	public void setSuperinstructionFusion(Boolean superinstructionFusion) {
+		this.superinstructionFusion = superinstructionFusion;
+	}
+
+	/**
+	 * Report the superinstructions of each valid function, one line per function.  Fuses the
+	 * functions that are not fused yet.
+	 *
+	 * @return the report.
+	 */
+	public String superinstructionReport() {
+		final StringBuilder report = new StringBuilder();
+		for (Integer index = 0; index < functionAll.size(); index++) {
+			final FusedStream fusedStream = functionAll.get(index).fuse(this);
+			report.append("function ").append(index).append(": ");
+			if (fusedStream == null) {
+				report.append("not validated");
+			} else {
+				report.append(fusedStream.getFusedCount()).append(" superinstructions, ")
+					.append(fusedStream.getDispatchSavedCount()).append(" of ")
+					.append(fusedStream.getUnfusedInstructionCount())
+					.append(" dispatches saved");
+			}
+			report.append(System.lineSeparator());
+		}
+		return report.toString();
+	}
 }
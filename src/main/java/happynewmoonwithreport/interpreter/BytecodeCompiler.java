@@ -0,0 +1,895 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static happynewmoonwithreport.interpreter.ClassFileWriter.*;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.interpreter.ClassFileWriter.Code;
+import happynewmoonwithreport.interpreter.ClassFileWriter.Label;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compile a validated {@link InstructionStream} to JVM byte code, a subclass of
+ * {@link CompiledFunction} written by the {@link ClassFileWriter}.
+ * <br>
+ * The Wasm locals are JVM locals.  The operand stack is the JVM operand stack, except at a
+ * block, loop, if, else, end or branch, where every value is stored in a JVM local for its
+ * stack height, so every path into a label leaves the values of the label in the same locals
+ * and the JVM stack empty.  The compiler keeps track of which values are on the JVM stack and
+ * which are in their locals.
+ * <br>
+ * The integer and the float arithmetic, the comparisons and the sign extensions are JVM
+ * instructions.  Division and remainder call the <code>compute</code> method of the opcode
+ * class, so they trap the same way.  The loads and stores, and the opcodes without JVM
+ * instructions, call the {@link CompiledRuntime}.
+ * <br>
+ * Each class is defined by a class loader of its own, so it is not visible to other code and
+ * is unloaded with the function.
+ */
+public class BytecodeCompiler {
+
+	private static final String SUPER_NAME = "happynewmoonwithreport/interpreter/CompiledFunction";
+	private static final String RUNTIME = "happynewmoonwithreport/interpreter/CompiledRuntime";
+	private static final String INTERPRETER =
+		"Lhappynewmoonwithreport/interpreter/StreamInterpreter;";
+	private static final String CLASS_PREFIX = "happynewmoonwithreport/compiled/WasmFunction";
+	private static final String MATH = "happynewmoonwithreport/opcode/math/";
+
+	private static final AtomicInteger classCount = new AtomicInteger();
+
+	/* The JVM locals of invoke: this, the slots, the interpreter, then the Wasm locals. */
+	private static final int SLOT_ALL = 1;
+	private static final int INTERPRETER_LOCAL = 2;
+	private static final int FIRST_LOCAL = 3;
+
+	/* The kind of a value, the JVM type. */
+	private static final char INT = 'I';
+	private static final char LONG = 'J';
+	private static final char FLOAT = 'F';
+	private static final char DOUBLE = 'D';
+
+	private ClassFileWriter writer;
+	private Code code;
+	private InstructionStream stream;
+	private char[] localKindAll;
+	private int stackBase;
+
+	/* The kind of each value on the stack. */
+	private char[] kindAll;
+	private int height;
+
+	/* The values below jvmBase are in their locals, the others are on the JVM stack. */
+	private int jvmBase;
+
+	/* The blocks that are not ended yet, the function first. */
+	private ArrayList<Block> blockAll;
+
+	public BytecodeCompiler() {
+		super();
+	}
+
+	/**
+	 * Compile a stream.
+	 *
+	 * @param instructionStream the stream, not fused.
+	 * @param validator         the validator the stream passed.
+	 * @return the compiled function, or null if the function can not be compiled: it has more
+	 * than one result or its byte code would be larger than a JVM method may be.
+	 */
+	public CompiledFunction compile(InstructionStream instructionStream,
+									FunctionValidator validator) {
+		final ValueType[] returnTypeAll = validator.getReturnTypeAll();
+		if (1 < returnTypeAll.length) {
+			return null;
+		}
+		final String name = CLASS_PREFIX + classCount.getAndIncrement();
+		final byte[] classFile;
+		try {
+			classFile = write(name, instructionStream, validator);
+		} catch (IllegalStateException tooLarge) {
+			return null;
+		}
+
+		try {
+			final FunctionClassLoader loader =
+				new FunctionClassLoader(CompiledFunction.class.getClassLoader());
+			final CompiledFunction result = (CompiledFunction) loader.define(
+				name.replace('/', '.'), classFile).getDeclaredConstructor().newInstance();
+			result.bind(instructionStream, returnTypeAll.length);
+			return result;
+		} catch (ReflectiveOperationException | LinkageError exception) {
+			throw new WasmRuntimeException(UUID.fromString("6a2f9d13-4c7b-4e85-b0a1-93d5e7c2f846"),
+				"The compiled class could not be loaded. Class = " + name, exception);
+		}
+	}
+
+	/**
+	 * Write the class file.
+	 *
+	 * @throws IllegalStateException if the code or the constant pool is too large.
+	 */
+	byte[] write(String name, InstructionStream instructionStream, FunctionValidator validator) {
+		writer = new ClassFileWriter(name, SUPER_NAME);
+		writeConstructor();
+
+		final ValueType[] localTypeAll = validator.getLocalTypeAll();
+		final ValueType[] returnTypeAll = validator.getReturnTypeAll();
+		final int maxStackHeight = validator.getMaxStackHeight();
+		stream = instructionStream;
+		localKindAll = new char[localTypeAll.length];
+		for (int index = 0; index < localTypeAll.length; index++) {
+			localKindAll[index] = kind(localTypeAll[index]);
+		}
+		stackBase = FIRST_LOCAL + 2 * localTypeAll.length;
+		kindAll = new char[maxStackHeight + 1];
+		height = 0;
+		jvmBase = 0;
+		blockAll = new ArrayList<>();
+		final char returnKind = (returnTypeAll.length == 0) ? 0 : kind(returnTypeAll[0]);
+		blockAll.add(new Block(0x02, 0, returnTypeAll.length, returnKind));
+
+		code = new Code();
+		code.maxStack = 2 * maxStackHeight + 8;
+		// the epilogue reads height 0, even if the end can not be reached.
+		code.maxLocals = stackBase + 2 * (maxStackHeight + 1);
+		writePrologue();
+		writeBody(instructionStream.getCode());
+		writeEpilogue(returnKind);
+
+		writer.addMethod(ACC_PUBLIC, "invoke", "([J" + INTERPRETER + ")J", code);
+		return writer.toByteArray();
+	}
+
+	private void writeConstructor() {
+		final Code constructor = new Code();
+		constructor.local(ALOAD, 0);
+		constructor.op(INVOKESPECIAL, writer.methodRef(SUPER_NAME, "<init>", "()V"));
+		constructor.op(RETURN);
+		constructor.maxStack = 1;
+		constructor.maxLocals = 1;
+		writer.addMethod(ACC_PUBLIC, "<init>", "()V", constructor);
+	}
+
+	/**
+	 * Copy the locals from the slots, the parameters and the zeros, to the JVM locals.
+	 */
+	private void writePrologue() {
+		for (int index = 0; index < localKindAll.length; index++) {
+			code.local(ALOAD, SLOT_ALL);
+			code.iconst(writer, index);
+			code.op(LALOAD);
+			fromBits(localKindAll[index]);
+			store(localKindAll[index], local(index));
+		}
+	}
+
+	private void writeBody(int[] codeAll) {
+		// The depth of the blocks inside the code that can not be reached, -1 if it can.
+		int deadDepth = -1;
+
+		int pc = 0;
+		while (pc < codeAll.length) {
+			final int opcode = codeAll[pc];
+			final int next = pc + SuperinstructionFuser.instructionLength(codeAll, pc);
+			if (0 <= deadDepth) {
+				if (opcode == 0x02 || opcode == 0x03 || opcode == 0x04) {
+					deadDepth++;
+				} else if (opcode == 0x0B && 0 < deadDepth) {
+					deadDepth--;
+				} else if (opcode == 0x0B) {
+					end(false);
+					deadDepth = -1;
+				} else if (opcode == 0x05 && deadDepth == 0) {
+					startElse(false);
+					deadDepth = -1;
+				}
+				pc = next;
+				continue;
+			}
+			if (translate(codeAll, pc, opcode) == false) {
+				deadDepth = 0;
+			}
+			pc = next;
+		}
+		if (deadDepth < 0) {
+			spill();
+		}
+		code.bind(blockAll.get(0).target);
+	}
+
+	/**
+	 * The result is in the local of stack height 0.
+	 */
+	private void writeEpilogue(char returnKind) {
+		if (returnKind == 0) {
+			code.op(LCONST_0);
+		} else {
+			load(returnKind, stackLocal(0));
+			toBits(returnKind);
+		}
+		code.op(LRETURN);
+	}
+
+	/**
+	 * Compile one instruction.
+	 *
+	 * @return false if the code after the instruction can not be reached.
+	 */
+	private boolean translate(int[] codeAll, int pc, int opcode) {
+		switch (opcode) {
+			case 0x00: // unreachable, the handler traps
+				bridge(pc, 0, (char) 0);
+				code.op(ACONST_NULL);
+				code.op(ATHROW);
+				return false;
+			case 0x01: // nop
+				return true;
+			case 0x02:   // block
+			case 0x03: { // loop
+				spill();
+				final Block block = new Block(opcode, height, arity(codeAll[pc + 1]),
+					blockKind(codeAll[pc + 1]));
+				if (opcode == 0x03) {
+					code.bind(block.target);
+				}
+				blockAll.add(block);
+				return true;
+			}
+			case 0x04: { // if
+				popCondition();
+				final Block block = new Block(opcode, height, arity(codeAll[pc + 1]),
+					blockKind(codeAll[pc + 1]));
+				block.elseTarget = new Label();
+				code.jump(IFEQ, block.elseTarget);
+				blockAll.add(block);
+				return true;
+			}
+			case 0x05: // else
+				startElse(true);
+				return true;
+			case 0x0B: // end
+				end(true);
+				return true;
+			case 0x0C: { // br
+				spill();
+				final Block block = block(codeAll[pc + 1]);
+				moveAll(block);
+				code.jump(GOTO, block.target);
+				return false;
+			}
+			case 0x0D: { // br_if
+				popCondition();
+				final Block block = block(codeAll[pc + 1]);
+				if (hasMove(block)) {
+					final Label notTaken = new Label();
+					code.jump(IFEQ, notTaken);
+					moveAll(block);
+					code.jump(GOTO, block.target);
+					code.bind(notTaken);
+				} else {
+					code.jump(IFNE, block.target);
+				}
+				return true;
+			}
+			case 0x0E: { // br_table
+				popCondition();
+				final int count = codeAll[pc + 1];
+				final Label[] targetAll = new Label[count + 1];
+				final Block[] entryAll = new Block[count + 1];
+				for (int entry = 0; entry <= count; entry++) {
+					entryAll[entry] = block(codeAll[pc + 2 + entry]);
+					targetAll[entry] = hasMove(entryAll[entry]) ? new Label()
+						: entryAll[entry].target;
+				}
+				final Label[] caseAll = new Label[count];
+				System.arraycopy(targetAll, 0, caseAll, 0, count);
+				code.tableSwitch(caseAll, targetAll[count]);
+				for (int entry = 0; entry <= count; entry++) {
+					if (targetAll[entry] != entryAll[entry].target
+						&& targetAll[entry].isBound() == false) {
+						code.bind(targetAll[entry]);
+						moveAll(entryAll[entry]);
+						code.jump(GOTO, entryAll[entry].target);
+					}
+				}
+				return false;
+			}
+			case 0x0F: { // return
+				spill();
+				final Block function = blockAll.get(0);
+				moveAll(function);
+				code.jump(GOTO, function.target);
+				return false;
+			}
+			case 0x1A: // drop
+				if (height - 1 < jvmBase) {
+					height--;
+					jvmBase = height;
+				} else {
+					code.op(isWide(kindAll[height - 1]) ? POP2 : POP);
+					height--;
+				}
+				return true;
+			case 0x1B: { // select
+				operands(3);
+				final char kind = kindAll[height - 3];
+				final Label zero = new Label();
+				final Label done = new Label();
+				code.jump(IFEQ, zero);
+				code.op(isWide(kind) ? POP2 : POP);
+				code.jump(GOTO, done);
+				code.bind(zero);
+				if (isWide(kind)) {
+					code.op(DUP2_X2);
+					code.op(POP2);
+					code.op(POP2);
+				} else {
+					code.op(SWAP);
+					code.op(POP);
+				}
+				code.bind(done);
+				height -= 3;
+				push(kind);
+				return true;
+			}
+			case 0x20: { // local.get
+				final int index = codeAll[pc + 1];
+				load(localKindAll[index], local(index));
+				push(localKindAll[index]);
+				return true;
+			}
+			case 0x21: { // local.set
+				final int index = codeAll[pc + 1];
+				operands(1);
+				store(localKindAll[index], local(index));
+				height--;
+				return true;
+			}
+			case 0x22: { // local.tee
+				final int index = codeAll[pc + 1];
+				operands(1);
+				code.op(isWide(localKindAll[index]) ? DUP2 : DUP);
+				store(localKindAll[index], local(index));
+				return true;
+			}
+			case 0x41: // i32.const
+				code.iconst(writer, codeAll[pc + 1]);
+				push(INT);
+				return true;
+			case 0x42: { // i64.const
+				final long value = stream.getConstantAll()[codeAll[pc + 1]];
+				if (value == 0 || value == 1) {
+					code.op(LCONST_0 + (int) value);
+				} else {
+					code.op(LDC2_W, writer.longConstant(value));
+				}
+				push(LONG);
+				return true;
+			}
+			case 0x43: { // f32.const, the bits
+				final int bits = codeAll[pc + 1];
+				if (bits == 0) {
+					code.op(FCONST_0);
+				} else {
+					code.op(LDC_W, writer.floatConstant(bits));
+				}
+				push(FLOAT);
+				return true;
+			}
+			case 0x44: { // f64.const, the bits
+				final long bits = stream.getConstantAll()[codeAll[pc + 1]];
+				if (bits == 0) {
+					code.op(DCONST_0);
+				} else {
+					code.op(LDC2_W, writer.doubleConstant(bits));
+				}
+				push(DOUBLE);
+				return true;
+			}
+			default:
+				numeric(codeAll, pc, opcode);
+				return true;
+		}
+	}
+
+	/**
+	 * An instruction with an {@link OpcodeSignature}.
+	 */
+	private void numeric(int[] codeAll, int pc, int opcode) {
+		final OpcodeSignature signature = OpcodeSignature.get(opcode);
+		final ValueType[] popAll = signature.getPopAll();
+		final char pushKind = (signature.getPushAll().length == 0) ? 0
+			: kind(signature.getPushAll()[0]);
+
+		if (NodeTranslator.load(opcode) != null) {
+			operands(1);
+			code.local(ALOAD, INTERPRETER_LOCAL);
+			code.iconst(writer, opcode);
+			code.iconst(writer, codeAll[pc + 1]);
+			code.op(INVOKESTATIC, writer.methodRef(RUNTIME, "load", "(I" + INTERPRETER + "II)J"));
+			fromBits(pushKind);
+			height--;
+			push(pushKind);
+			return;
+		}
+		if (NodeTranslator.store(opcode) != null) {
+			operands(2);
+			toBits(kind(popAll[1]));
+			code.local(ALOAD, INTERPRETER_LOCAL);
+			code.iconst(writer, opcode);
+			code.iconst(writer, codeAll[pc + 1]);
+			code.op(INVOKESTATIC,
+				writer.methodRef(RUNTIME, "store", "(IJ" + INTERPRETER + "II)V"));
+			height -= 2;
+			return;
+		}
+
+		operands(popAll.length);
+		if (arithmetic(opcode)) {
+			height -= popAll.length;
+			push(pushKind);
+			return;
+		}
+		bridge(pc, popAll.length, pushKind);
+	}
+
+	/**
+	 * The JVM instructions of an opcode.  The operands are on the JVM stack.
+	 *
+	 * @return false if the opcode has none, it is run by its handler.
+	 */
+	private boolean arithmetic(int opcode) {
+		switch (opcode) {
+			// i32 comparisons
+			case 0x45: return condition(IFEQ);
+			case 0x46: return condition(IF_ICMPEQ);
+			case 0x47: return condition(IF_ICMPNE);
+			case 0x48: return condition(IF_ICMPLT);
+			case 0x49: return unsigned(IFLT, "java/lang/Integer", "(II)I");
+			case 0x4A: return condition(IF_ICMPGT);
+			case 0x4B: return unsigned(IFGT, "java/lang/Integer", "(II)I");
+			case 0x4C: return condition(IF_ICMPLE);
+			case 0x4D: return unsigned(IFLE, "java/lang/Integer", "(II)I");
+			case 0x4E: return condition(IF_ICMPGE);
+			case 0x4F: return unsigned(IFGE, "java/lang/Integer", "(II)I");
+
+			// i64 comparisons
+			case 0x50:
+				code.op(LCONST_0);
+				return compare(LCMP, IFEQ);
+			case 0x51: return compare(LCMP, IFEQ);
+			case 0x52: return compare(LCMP, IFNE);
+			case 0x53: return compare(LCMP, IFLT);
+			case 0x54: return unsigned(IFLT, "java/lang/Long", "(JJ)I");
+			case 0x55: return compare(LCMP, IFGT);
+			case 0x56: return unsigned(IFGT, "java/lang/Long", "(JJ)I");
+			case 0x57: return compare(LCMP, IFLE);
+			case 0x58: return unsigned(IFLE, "java/lang/Long", "(JJ)I");
+			case 0x59: return compare(LCMP, IFGE);
+			case 0x5A: return unsigned(IFGE, "java/lang/Long", "(JJ)I");
+
+			// f32 and f64 comparisons, false if an operand is NaN, except ne.
+			case 0x5B: return compare(FCMPL, IFEQ);
+			case 0x5C: return compare(FCMPL, IFNE);
+			case 0x5D: return compare(FCMPG, IFLT);
+			case 0x5E: return compare(FCMPL, IFGT);
+			case 0x5F: return compare(FCMPG, IFLE);
+			case 0x60: return compare(FCMPL, IFGE);
+			case 0x61: return compare(DCMPL, IFEQ);
+			case 0x62: return compare(DCMPL, IFNE);
+			case 0x63: return compare(DCMPG, IFLT);
+			case 0x64: return compare(DCMPL, IFGT);
+			case 0x65: return compare(DCMPG, IFLE);
+			case 0x66: return compare(DCMPL, IFGE);
+
+			// i32
+			case 0x67: return call("java/lang/Integer", "numberOfLeadingZeros", "(I)I");
+			case 0x68: return call("java/lang/Integer", "numberOfTrailingZeros", "(I)I");
+			case 0x69: return call("java/lang/Integer", "bitCount", "(I)I");
+			case 0x6A: return op(IADD);
+			case 0x6B: return op(ISUB);
+			case 0x6C: return op(IMUL);
+			case 0x6D: return call(MATH + "I32_div_s", "compute", "(II)I");
+			case 0x6E: return call(MATH + "I32_div_u", "compute", "(II)I");
+			case 0x6F: return call(MATH + "I32_rem_s", "compute", "(II)I");
+			case 0x70: return call(MATH + "I32_rem_u", "compute", "(II)I");
+			case 0x71: return op(IAND);
+			case 0x72: return op(IOR);
+			case 0x73: return op(IXOR);
+			case 0x74: return op(ISHL);
+			case 0x75: return op(ISHR);
+			case 0x76: return op(IUSHR);
+			case 0x77: return call("java/lang/Integer", "rotateLeft", "(II)I");
+			case 0x78: return call("java/lang/Integer", "rotateRight", "(II)I");
+
+			// i64, the count of the shifts and rotates is an int on the JVM.
+			case 0x79:
+				call("java/lang/Long", "numberOfLeadingZeros", "(J)I");
+				return op(I2L);
+			case 0x7A:
+				call("java/lang/Long", "numberOfTrailingZeros", "(J)I");
+				return op(I2L);
+			case 0x7B:
+				call("java/lang/Long", "bitCount", "(J)I");
+				return op(I2L);
+			case 0x7C: return op(LADD);
+			case 0x7D: return op(LSUB);
+			case 0x7E: return op(LMUL);
+			case 0x7F: return call(MATH + "I64_div_s", "compute", "(JJ)J");
+			case 0x80: return call(MATH + "I64_div_u", "compute", "(JJ)J");
+			case 0x81: return call(MATH + "I64_rem_s", "compute", "(JJ)J");
+			case 0x82: return call(MATH + "I64_rem_u", "compute", "(JJ)J");
+			case 0x83: return op(LAND);
+			case 0x84: return op(LOR);
+			case 0x85: return op(LXOR);
+			case 0x86:
+				code.op(L2I);
+				return op(LSHL);
+			case 0x87:
+				code.op(L2I);
+				return op(LSHR);
+			case 0x88:
+				code.op(L2I);
+				return op(LUSHR);
+			case 0x89:
+				code.op(L2I);
+				return call("java/lang/Long", "rotateLeft", "(JI)J");
+			case 0x8A:
+				code.op(L2I);
+				return call("java/lang/Long", "rotateRight", "(JI)J");
+
+			// f32 and f64
+			case 0x92: return op(FADD);
+			case 0x93: return op(FSUB);
+			case 0x94: return op(FMUL);
+			case 0x95: return op(FDIV);
+			case 0xA0: return op(DADD);
+			case 0xA1: return op(DSUB);
+			case 0xA2: return op(DMUL);
+			case 0xA3: return op(DDIV);
+
+			// conversions
+			case 0xAC: return op(I2L);
+			case 0xAD:
+				code.op(I2L);
+				code.op(LDC2_W, writer.longConstant(0xFFFFFFFFL));
+				return op(LAND);
+			case 0xC0: return op(I2B);
+			case 0xC1: return op(I2S);
+			case 0xC2:
+				code.op(L2I);
+				code.op(I2B);
+				return op(I2L);
+			case 0xC3:
+				code.op(L2I);
+				code.op(I2S);
+				return op(I2L);
+			case 0xC4:
+				code.op(L2I);
+				return op(I2L);
+			default:
+				return false;
+		}
+	}
+
+	private boolean op(int jvmOpcode) {
+		code.op(jvmOpcode);
+		return true;
+	}
+
+	private boolean call(String owner, String name, String descriptor) {
+		code.op(INVOKESTATIC, writer.methodRef(owner, name, descriptor));
+		return true;
+	}
+
+	/**
+	 * Compare with <code>compareUnsigned</code>, then test the result.
+	 */
+	private boolean unsigned(int jvmIf, String owner, String descriptor) {
+		call(owner, "compareUnsigned", descriptor);
+		return condition(jvmIf);
+	}
+
+	private boolean compare(int jvmCompare, int jvmIf) {
+		code.op(jvmCompare);
+		return condition(jvmIf);
+	}
+
+	/**
+	 * Push 1 if the jump is taken, else 0.
+	 */
+	private boolean condition(int jvmIf) {
+		final Label isTrue = new Label();
+		final Label done = new Label();
+		code.jump(jvmIf, isTrue);
+		code.op(ICONST_0);
+		code.jump(GOTO, done);
+		code.bind(isTrue);
+		code.iconst(writer, 1);
+		code.bind(done);
+		return true;
+	}
+
+	/**
+	 * Run an opcode by its handler, see {@link CompiledRuntime#bridge(StreamInterpreter, int)}.
+	 */
+	private void bridge(int pc, int popCount, char pushKind) {
+		spill();
+		final int first = height - popCount;
+		for (int index = first; index < height; index++) {
+			code.local(ALOAD, INTERPRETER_LOCAL);
+			load(kindAll[index], stackLocal(index));
+			toBits(kindAll[index]);
+			code.op(INVOKESTATIC, writer.methodRef(RUNTIME, "push", "(" + INTERPRETER + "J)V"));
+		}
+		code.local(ALOAD, INTERPRETER_LOCAL);
+		code.iconst(writer, pc);
+		code.op(INVOKESTATIC, writer.methodRef(RUNTIME, "bridge", "(" + INTERPRETER + "I)V"));
+		height = first;
+		jvmBase = height;
+		if (pushKind != 0) {
+			code.local(ALOAD, INTERPRETER_LOCAL);
+			code.op(INVOKESTATIC, writer.methodRef(RUNTIME, "pop", "(" + INTERPRETER + ")J"));
+			fromBits(pushKind);
+			push(pushKind);
+		}
+	}
+
+	/**
+	 * Pop the i32 of an if, br_if or br_table.  Every other value is stored in its local.
+	 */
+	private void popCondition() {
+		spill();
+		load(INT, stackLocal(height - 1));
+		height--;
+		jvmBase = height;
+	}
+
+	private void startElse(boolean live) {
+		final Block block = blockAll.get(blockAll.size() - 1);
+		if (live) {
+			spill();
+			code.jump(GOTO, block.target);
+		}
+		code.bind(block.elseTarget);
+		block.elseTarget = null;
+		height = block.height;
+		jvmBase = height;
+	}
+
+	private void end(boolean live) {
+		if (live) {
+			spill();
+		}
+		final Block block = blockAll.remove(blockAll.size() - 1);
+		if (block.elseTarget != null) {
+			code.bind(block.elseTarget);
+		}
+		if (block.opcode != 0x03) {
+			code.bind(block.target);
+		}
+		height = block.height;
+		for (int index = 0; index < block.arity; index++) {
+			kindAll[height++] = block.kind;
+		}
+		jvmBase = height;
+	}
+
+	private boolean hasMove(Block block) {
+		final int arity = (block.opcode == 0x03) ? 0 : block.arity;
+		return arity != 0 && height - arity != block.height;
+	}
+
+	/**
+	 * Copy the values a branch keeps to the locals of the label.  The values are in their
+	 * locals.
+	 */
+	private void moveAll(Block block) {
+		if (hasMove(block) == false) {
+			return;
+		}
+		for (int index = 0; index < block.arity; index++) {
+			final int from = height - block.arity + index;
+			load(kindAll[from], stackLocal(from));
+			store(kindAll[from], stackLocal(block.height + index));
+		}
+	}
+
+	/**
+	 * Make sure the top <code>count</code> values are on the JVM stack.
+	 */
+	private void operands(int count) {
+		final int first = height - count;
+		if (first < jvmBase) {
+			spill();
+			for (int index = first; index < height; index++) {
+				load(kindAll[index], stackLocal(index));
+			}
+			jvmBase = first;
+		}
+	}
+
+	/**
+	 * Store every value on the JVM stack in its local.
+	 */
+	private void spill() {
+		for (int index = height - 1; jvmBase <= index; index--) {
+			store(kindAll[index], stackLocal(index));
+		}
+		jvmBase = height;
+	}
+
+	private void push(char kind) {
+		kindAll[height++] = kind;
+	}
+
+	private void load(char kind, int local) {
+		switch (kind) {
+			case INT:
+				code.local(ILOAD, local);
+				break;
+			case LONG:
+				code.local(LLOAD, local);
+				break;
+			case FLOAT:
+				code.local(FLOAD, local);
+				break;
+			default:
+				code.local(DLOAD, local);
+				break;
+		}
+	}
+
+	private void store(char kind, int local) {
+		switch (kind) {
+			case INT:
+				code.local(ISTORE, local);
+				break;
+			case LONG:
+				code.local(LSTORE, local);
+				break;
+			case FLOAT:
+				code.local(FSTORE, local);
+				break;
+			default:
+				code.local(DSTORE, local);
+				break;
+		}
+	}
+
+	/**
+	 * The value on the JVM stack to the raw bits of the operand stack.
+	 */
+	private void toBits(char kind) {
+		switch (kind) {
+			case INT:
+				code.op(I2L);
+				break;
+			case LONG:
+				break;
+			case FLOAT:
+				call("java/lang/Float", "floatToRawIntBits", "(F)I");
+				code.op(I2L);
+				break;
+			default:
+				call("java/lang/Double", "doubleToRawLongBits", "(D)J");
+				break;
+		}
+	}
+
+	/**
+	 * The raw bits on the JVM stack to the value.
+	 */
+	private void fromBits(char kind) {
+		switch (kind) {
+			case INT:
+				code.op(L2I);
+				break;
+			case LONG:
+				break;
+			case FLOAT:
+				code.op(L2I);
+				call("java/lang/Float", "intBitsToFloat", "(I)F");
+				break;
+			default:
+				call("java/lang/Double", "longBitsToDouble", "(J)D");
+				break;
+		}
+	}
+
+	private int local(int index) {
+		return FIRST_LOCAL + 2 * index;
+	}
+
+	/**
+	 * The local of a stack height.  Two JVM locals each, so a long never overlaps the next.
+	 */
+	private int stackLocal(int stackHeight) {
+		return stackBase + 2 * stackHeight;
+	}
+
+	private Block block(int labelIndex) {
+		return blockAll.get(blockAll.size() - 1 - labelIndex);
+	}
+
+	private static boolean isWide(char kind) {
+		return kind == LONG || kind == DOUBLE;
+	}
+
+	private static char kind(ValueType type) {
+		if (type == ValueType.INT32) {
+			return INT;
+		}
+		if (type == ValueType.INT64) {
+			return LONG;
+		}
+		if (type == ValueType.F32) {
+			return FLOAT;
+		}
+		return DOUBLE;
+	}
+
+	private static int arity(int blockType) {
+		return (blockType == ValueType.EMPTY_BLOCK.getType()) ? 0 : 1;
+	}
+
+	private static char blockKind(int blockType) {
+		return (arity(blockType) == 0) ? 0 : kind(ValueType.valueOf(blockType));
+	}
+
+	/**
+	 * A block, loop or if that is not ended yet, or the function.
+	 */
+	private static class Block {
+		private final int opcode;
+		private final int height;
+		private final int arity;
+		private final char kind;
+
+		/* The target of a branch: the start of a loop, the end of a block or an if. */
+		private final Label target;
+
+		/* The start of the else of an if, until it is bound. */
+		private Label elseTarget;
+
+		Block(int opcode, int height, int arity, char kind) {
+			this.opcode = opcode;
+			this.height = height;
+			this.arity = arity;
+			this.kind = kind;
+			this.target = new Label();
+		}
+	}
+
+	/**
+	 * Defines the class of one function.
+	 */
+	private static final class FunctionClassLoader extends ClassLoader {
+
+		FunctionClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] classFile) {
+			return defineClass(name, classFile, 0, classFile.length);
+		}
+	}
+}
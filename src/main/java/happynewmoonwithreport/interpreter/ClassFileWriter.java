@@ -0,0 +1,488 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Write a JVM class file.  Just enough of the format for the {@link BytecodeCompiler}: a
+ * constant pool, methods with a <code>Code</code> attribute, no fields and no other attributes.
+ * <br>
+ * The class file version is 49, Java 5.  A class of version 49 is checked by the type inferring
+ * verifier, so the code needs no <code>StackMapTable</code>.
+ * <br>
+ * Source:
+ * <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html" target="_top">
+ * https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html
+ * </a>
+ */
+final class ClassFileWriter {
+
+	static final int ACC_PUBLIC = 0x0001;
+	static final int ACC_FINAL = 0x0010;
+	static final int ACC_SUPER = 0x0020;
+
+	/* The opcodes used by the compiler. */
+	static final int ACONST_NULL = 0x01;
+	static final int ICONST_0 = 0x03;
+	static final int LCONST_0 = 0x09;
+	static final int FCONST_0 = 0x0B;
+	static final int DCONST_0 = 0x0E;
+	static final int BIPUSH = 0x10;
+	static final int SIPUSH = 0x11;
+	static final int LDC_W = 0x13;
+	static final int LDC2_W = 0x14;
+	static final int ILOAD = 0x15;
+	static final int LLOAD = 0x16;
+	static final int FLOAD = 0x17;
+	static final int DLOAD = 0x18;
+	static final int ALOAD = 0x19;
+	static final int LALOAD = 0x2F;
+	static final int ISTORE = 0x36;
+	static final int LSTORE = 0x37;
+	static final int FSTORE = 0x38;
+	static final int DSTORE = 0x39;
+	static final int POP = 0x57;
+	static final int POP2 = 0x58;
+	static final int DUP = 0x59;
+	static final int DUP2 = 0x5C;
+	static final int DUP2_X2 = 0x5E;
+	static final int SWAP = 0x5F;
+	static final int IADD = 0x60;
+	static final int LADD = 0x61;
+	static final int FADD = 0x62;
+	static final int DADD = 0x63;
+	static final int ISUB = 0x64;
+	static final int LSUB = 0x65;
+	static final int FSUB = 0x66;
+	static final int DSUB = 0x67;
+	static final int IMUL = 0x68;
+	static final int LMUL = 0x69;
+	static final int FMUL = 0x6A;
+	static final int DMUL = 0x6B;
+	static final int FDIV = 0x6E;
+	static final int DDIV = 0x6F;
+	static final int ISHL = 0x78;
+	static final int LSHL = 0x79;
+	static final int ISHR = 0x7A;
+	static final int LSHR = 0x7B;
+	static final int IUSHR = 0x7C;
+	static final int LUSHR = 0x7D;
+	static final int IAND = 0x7E;
+	static final int LAND = 0x7F;
+	static final int IOR = 0x80;
+	static final int LOR = 0x81;
+	static final int IXOR = 0x82;
+	static final int LXOR = 0x83;
+	static final int I2L = 0x85;
+	static final int L2I = 0x88;
+	static final int I2B = 0x91;
+	static final int I2S = 0x93;
+	static final int LCMP = 0x94;
+	static final int FCMPL = 0x95;
+	static final int FCMPG = 0x96;
+	static final int DCMPL = 0x97;
+	static final int DCMPG = 0x98;
+	static final int IFEQ = 0x99;
+	static final int IFNE = 0x9A;
+	static final int IFLT = 0x9B;
+	static final int IFGE = 0x9C;
+	static final int IFGT = 0x9D;
+	static final int IFLE = 0x9E;
+	static final int IF_ICMPEQ = 0x9F;
+	static final int IF_ICMPNE = 0xA0;
+	static final int IF_ICMPLT = 0xA1;
+	static final int IF_ICMPGE = 0xA2;
+	static final int IF_ICMPGT = 0xA3;
+	static final int IF_ICMPLE = 0xA4;
+	static final int GOTO = 0xA7;
+	static final int TABLESWITCH = 0xAA;
+	static final int LRETURN = 0xAD;
+	static final int RETURN = 0xB1;
+	static final int INVOKESPECIAL = 0xB7;
+	static final int INVOKESTATIC = 0xB8;
+	static final int ATHROW = 0xBF;
+	static final int WIDE = 0xC4;
+
+	private static final int MAGIC = 0xCAFEBABE;
+	private static final int MAJOR_VERSION = 49;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_FLOAT = 4;
+	private static final int CONSTANT_LONG = 5;
+	private static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	/* The largest constant pool index and code length the format allows. */
+	private static final int MAX_U2 = 0xFFFF;
+
+	private final ByteArrayOutputStream poolBytes;
+	private final DataOutputStream pool;
+	private final HashMap<String, Integer> poolIndexAll;
+	private int poolCount;
+
+	private final int thisClass;
+	private final int superClass;
+	private final ArrayList<byte[]> methodAll;
+
+	/**
+	 * @param name      the internal name of the class, for example <code>a/b/C</code>.
+	 * @param superName the internal name of the super class.
+	 */
+	ClassFileWriter(String name, String superName) {
+		poolBytes = new ByteArrayOutputStream();
+		pool = new DataOutputStream(poolBytes);
+		poolIndexAll = new HashMap<>();
+		poolCount = 1;
+		methodAll = new ArrayList<>();
+		thisClass = classRef(name);
+		superClass = classRef(superName);
+	}
+
+	int utf8(String value) {
+		final String key = "U" + value;
+		Integer index = poolIndexAll.get(key);
+		if (index == null) {
+			index = add(key, 1);
+			try {
+				pool.writeByte(CONSTANT_UTF8);
+				pool.writeUTF(value);
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+		return index;
+	}
+
+	int classRef(String name) {
+		final int nameIndex = utf8(name);
+		return entry("C" + name, 1, CONSTANT_CLASS, nameIndex);
+	}
+
+	int methodRef(String owner, String name, String descriptor) {
+		final int classIndex = classRef(owner);
+		final int nameAndType = entry("N" + name + ' ' + descriptor, 1, CONSTANT_NAME_AND_TYPE,
+			utf8(name), utf8(descriptor));
+		return entry("M" + owner + ' ' + name + ' ' + descriptor, 1, CONSTANT_METHODREF,
+			classIndex, nameAndType);
+	}
+
+	int integerConstant(int value) {
+		return constant("I" + value, CONSTANT_INTEGER, value, 1);
+	}
+
+	int floatConstant(int bits) {
+		return constant("F" + bits, CONSTANT_FLOAT, bits, 1);
+	}
+
+	int longConstant(long value) {
+		return constant("J" + value, CONSTANT_LONG, value, 2);
+	}
+
+	int doubleConstant(long bits) {
+		return constant("D" + bits, CONSTANT_DOUBLE, bits, 2);
+	}
+
+	/**
+	 * Add a method.
+	 *
+	 * @param access     the access flags.
+	 * @param name       the name.
+	 * @param descriptor the descriptor, for example <code>(I)J</code>.
+	 * @param code       the code of the method, finished.
+	 */
+	void addMethod(int access, String name, String descriptor, Code code) {
+		final byte[] codeAll = code.toByteArray();
+		if (MAX_U2 < codeAll.length) {
+			throw new IllegalStateException("The code of " + name + " is too long.");
+		}
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeShort(access);
+			out.writeShort(utf8(name));
+			out.writeShort(utf8(descriptor));
+			out.writeShort(1); // attributes
+			out.writeShort(utf8("Code"));
+			out.writeInt(2 + 2 + 4 + codeAll.length + 2 + 2);
+			out.writeShort(code.maxStack);
+			out.writeShort(code.maxLocals);
+			out.writeInt(codeAll.length);
+			out.write(codeAll);
+			out.writeShort(0); // exception table
+			out.writeShort(0); // attributes
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		methodAll.add(bytes.toByteArray());
+	}
+
+	/**
+	 * The class file.
+	 *
+	 * @return the bytes.
+	 */
+	byte[] toByteArray() {
+		if (MAX_U2 < poolCount) {
+			throw new IllegalStateException("The constant pool is too large.");
+		}
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(MAGIC);
+			out.writeShort(0);
+			out.writeShort(MAJOR_VERSION);
+			out.writeShort(poolCount);
+			poolBytes.writeTo(out);
+			out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(0); // interfaces
+			out.writeShort(0); // fields
+			out.writeShort(methodAll.size());
+			for (byte[] method : methodAll) {
+				out.write(method);
+			}
+			out.writeShort(0); // attributes
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return bytes.toByteArray();
+	}
+
+	private int entry(String key, int size, int tag, int... u2All) {
+		Integer index = poolIndexAll.get(key);
+		if (index == null) {
+			index = add(key, size);
+			try {
+				pool.writeByte(tag);
+				for (int u2 : u2All) {
+					pool.writeShort(u2);
+				}
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+		return index;
+	}
+
+	private int constant(String key, int tag, long value, int size) {
+		Integer index = poolIndexAll.get(key);
+		if (index == null) {
+			index = add(key, size);
+			try {
+				pool.writeByte(tag);
+				if (size == 2) {
+					pool.writeLong(value);
+				} else {
+					pool.writeInt((int) value);
+				}
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * @param size the number of pool entries, 2 for a long or a double.
+	 */
+	private int add(String key, int size) {
+		final int index = poolCount;
+		poolIndexAll.put(key, index);
+		poolCount += size;
+		return index;
+	}
+
+	/**
+	 * The code of one method.  A jump to a {@link Label} that is not bound yet is patched when
+	 * the label is bound.
+	 */
+	static final class Code {
+
+		private byte[] byteAll;
+		private int length;
+		int maxStack;
+		int maxLocals;
+
+		Code() {
+			byteAll = new byte[256];
+			length = 0;
+		}
+
+		int position() {
+			return length;
+		}
+
+		void op(int opcode) {
+			u1(opcode);
+		}
+
+		void op(int opcode, int u2) {
+			u1(opcode);
+			u2(u2);
+		}
+
+		/**
+		 * A load or store of a local, with the <code>wide</code> prefix if the index needs it.
+		 */
+		void local(int opcode, int index) {
+			if (index <= 0xFF) {
+				u1(opcode);
+				u1(index);
+			} else {
+				u1(WIDE);
+				u1(opcode);
+				u2(index);
+			}
+		}
+
+		/**
+		 * Push an int constant.
+		 */
+		void iconst(ClassFileWriter writer, int value) {
+			if (-1 <= value && value <= 5) {
+				u1(ICONST_0 + value);
+			} else if (Byte.MIN_VALUE <= value && value <= Byte.MAX_VALUE) {
+				u1(BIPUSH);
+				u1(value);
+			} else if (Short.MIN_VALUE <= value && value <= Short.MAX_VALUE) {
+				u1(SIPUSH);
+				u2(value);
+			} else {
+				op(LDC_W, writer.integerConstant(value));
+			}
+		}
+
+		/**
+		 * A jump, <code>goto</code> or one of the <code>if</code> opcodes.
+		 */
+		void jump(int opcode, Label label) {
+			final int at = length;
+			u1(opcode);
+			u2(0);
+			label.reference(this, at, at + 1, false);
+		}
+
+		/**
+		 * A <code>tableswitch</code> from 0 to <code>targetAll.length - 1</code>.
+		 */
+		void tableSwitch(Label[] targetAll, Label defaultTarget) {
+			final int at = length;
+			u1(TABLESWITCH);
+			while (length % 4 != 0) {
+				u1(0);
+			}
+			defaultTarget.reference(this, at, length, true);
+			u4(0);
+			u4(0);
+			u4(targetAll.length - 1);
+			for (Label target : targetAll) {
+				target.reference(this, at, length, true);
+				u4(0);
+			}
+		}
+
+		void bind(Label label) {
+			label.bind(this, length);
+		}
+
+		byte[] toByteArray() {
+			final byte[] result = new byte[length];
+			System.arraycopy(byteAll, 0, result, 0, length);
+			return result;
+		}
+
+		private void u1(int value) {
+			if (length == byteAll.length) {
+				final byte[] larger = new byte[byteAll.length * 2];
+				System.arraycopy(byteAll, 0, larger, 0, length);
+				byteAll = larger;
+			}
+			byteAll[length++] = (byte) value;
+		}
+
+		private void u2(int value) {
+			u1(value >> 8);
+			u1(value);
+		}
+
+		private void u4(int value) {
+			u2(value >> 16);
+			u2(value);
+		}
+
+		private void patch(int at, int offset, boolean wide) {
+			if (wide) {
+				byteAll[at] = (byte) (offset >> 24);
+				byteAll[at + 1] = (byte) (offset >> 16);
+				byteAll[at + 2] = (byte) (offset >> 8);
+				byteAll[at + 3] = (byte) offset;
+				return;
+			}
+			if (offset < Short.MIN_VALUE || Short.MAX_VALUE < offset) {
+				throw new IllegalStateException("Jump offset out of range " + offset);
+			}
+			byteAll[at] = (byte) (offset >> 8);
+			byteAll[at + 1] = (byte) offset;
+		}
+	}
+
+	/**
+	 * A position in the code, the target of jumps.
+	 */
+	static final class Label {
+
+		private int position;
+
+		/* The jumps not patched yet: the position of the opcode, of the offset, and its size. */
+		private final ArrayList<int[]> referenceAll;
+
+		Label() {
+			position = -1;
+			referenceAll = new ArrayList<>();
+		}
+
+		boolean isBound() {
+			return 0 <= position;
+		}
+
+		private void reference(Code code, int opcodeAt, int offsetAt, boolean wide) {
+			if (isBound()) {
+				code.patch(offsetAt, position - opcodeAt, wide);
+			} else {
+				referenceAll.add(new int[]{opcodeAt, offsetAt, wide ? 1 : 0});
+			}
+		}
+
+		private void bind(Code code, int at) {
+			position = at;
+			for (int[] reference : referenceAll) {
+				code.patch(reference[1], position - reference[0], reference[2] == 1);
+			}
+			referenceAll.clear();
+		}
+	}
+}
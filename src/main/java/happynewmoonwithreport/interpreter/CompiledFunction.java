@@ -0,0 +1,67 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * A function compiled to JVM byte code by the {@link BytecodeCompiler}.  The compiler writes a
+ * subclass for each function and defines it in a class loader of its own.
+ * <br>
+ * The Wasm locals are JVM locals of {@link #invoke(long[], StreamInterpreter)}, i32, i64, f32 and
+ * f64 are int, long, float and double.
+ */
+public abstract class CompiledFunction {
+
+	private InstructionStream instructionStream;
+	private int returnCount;
+
+	protected CompiledFunction() {
+		super();
+	}
+
+	/**
+	 * Run the function.
+	 *
+	 * @param slotAll     the locals as raw bits, see
+	 *                    {@link happynewmoonwithreport.WasmFrame#slotAll()}.  Read once on entry.
+	 * @param interpreter the interpreter, for memory 0 and the opcodes the compiler calls the
+	 *                    handlers of.  See {@link CompiledRuntime}.
+	 * @return the raw bits of the result, zero if the function has no result.
+	 */
+	public abstract long invoke(long[] slotAll, StreamInterpreter interpreter);
+
+	/**
+	 * The stream the function was compiled from.  The handlers the compiled code calls read
+	 * their immediates from it.
+	 *
+	 * @return the instruction stream.
+	 */
+	public InstructionStream getInstructionStream() {
+		return instructionStream;
+	}
+
+	/**
+	 * @return the number of results, zero or one.
+	 */
+	public Integer getReturnCount() {
+		return returnCount;
+	}
+
+	void bind(InstructionStream instructionStream, int returnCount) {
+		this.instructionStream = instructionStream;
+		this.returnCount = returnCount;
+	}
+}
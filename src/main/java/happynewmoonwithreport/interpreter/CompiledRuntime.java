@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.opcode.Memory.LoadBase;
+import happynewmoonwithreport.opcode.Memory.StoreBase;
+
+/**
+ * The methods the code of a {@link CompiledFunction} calls.
+ * <br>
+ * The compiled class is defined by a class loader of its own, so it is in a package of its own
+ * and can only call public methods.  These are not meant to be called from anywhere else.
+ */
+public final class CompiledRuntime {
+
+	private static final LoadBase[] LOAD_ALL = new LoadBase[256];
+	private static final StoreBase[] STORE_ALL = new StoreBase[256];
+	private static final ValueType[] STORE_TYPE_ALL = new ValueType[256];
+
+	static {
+		for (int opcode = 0x28; opcode <= 0x3E; opcode++) {
+			LOAD_ALL[opcode] = NodeTranslator.load(opcode);
+			STORE_ALL[opcode] = NodeTranslator.store(opcode);
+			if (STORE_ALL[opcode] != null) {
+				STORE_TYPE_ALL[opcode] = OpcodeSignature.get(opcode).getPopAll()[1];
+			}
+		}
+	}
+
+	private CompiledRuntime() {
+		super();
+	}
+
+	/**
+	 * A load from memory 0.  Traps like the load of the other engines.
+	 *
+	 * @param address     the address popped from the stack.
+	 * @param interpreter the interpreter, with memory 0.
+	 * @param opcode      the load opcode.
+	 * @param argument    the index of the memory argument in the instruction stream.
+	 * @return the raw bits of the value loaded.
+	 */
+	public static long load(int address, StreamInterpreter interpreter, int opcode,
+							int argument) {
+		return OperandStackAdapter.toBits(LOAD_ALL[opcode].load(interpreter.memory,
+			interpreter.memoryArgumentAll[argument], address));
+	}
+
+	/**
+	 * A store to memory 0.  Traps like the store of the other engines.
+	 *
+	 * @param address     the address.
+	 * @param bits        the raw bits of the value to store.
+	 * @param interpreter the interpreter, with memory 0.
+	 * @param opcode      the store opcode.
+	 * @param argument    the index of the memory argument in the instruction stream.
+	 */
+	public static void store(int address, long bits, StreamInterpreter interpreter, int opcode,
+							 int argument) {
+		STORE_ALL[opcode].store(interpreter.memory, interpreter.memoryArgumentAll[argument],
+			address, OperandStackAdapter.fromBits(bits, STORE_TYPE_ALL[opcode]));
+	}
+
+	/**
+	 * Push an operand of an opcode that is run by its handler.
+	 *
+	 * @param interpreter the interpreter.
+	 * @param bits        the raw bits of the operand.
+	 */
+	public static void push(StreamInterpreter interpreter, long bits) {
+		interpreter.operandStack.push(bits);
+	}
+
+	/**
+	 * Run an opcode by its handler in the {@link TypedHandlerTable}.  The operands were pushed
+	 * by {@link #push(StreamInterpreter, long)}.
+	 *
+	 * @param interpreter the interpreter.
+	 * @param streamPc    the index of the opcode in the instruction stream.
+	 */
+	public static void bridge(StreamInterpreter interpreter, int streamPc) {
+		TypedHandlerTable.PRIMARY[interpreter.code[streamPc]].execute(interpreter, streamPc + 1);
+	}
+
+	/**
+	 * Pop the result of an opcode run by {@link #bridge(StreamInterpreter, int)}.
+	 *
+	 * @param interpreter the interpreter.
+	 * @return the raw bits of the result.
+	 */
+	public static long pop(StreamInterpreter interpreter) {
+		return interpreter.operandStack.pop();
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * How <code>WasmInstance.call()</code> runs the code of a function.
+ * <br>
+ * Set per module with <code>WasmModule.setExecutionEngine()</code>.
+ */
+public enum ExecutionEngine {
+
+	/**
+	 * Read the opcodes and immediates from the bytes of the code section on every step.  Has no
+	 * side table, so loop, if, else and the branches are not run.
+	 */
+	BYTE_CODE,
+
+	/**
+	 * Translate each function body once to an {@link InstructionStream} and run that.  Every
+	 * opcode checks the types of its operands.
+	 */
+	INSTRUCTION_STREAM,
+
+	/**
+	 * Validate each function with the {@link FunctionValidator} and run the instruction stream
+	 * on the {@link OperandStack} with no type checks.  A function that uses an opcode the
+	 * validator does not implement is run as {@link #INSTRUCTION_STREAM}.  Common sequences are
+	 * fused into superinstructions, see {@link SuperinstructionFuser}.  The default.
+	 */
+	VALIDATED,
+
+	/**
+	 * Validate each function and translate it to {@link RegisterCode}, where the locals and the
+	 * stack heights are numbered registers and an instruction names the registers it reads and
+	 * writes.  A function that is not validated is run as {@link #INSTRUCTION_STREAM}.
+	 */
+	REGISTER,
+
+	/**
+	 * Validate each function and compile it to a {@link NodeTree}, a tree of node objects with
+	 * typed <code>evalInt</code> and <code>evalLong</code> methods.  A function that is not
+	 * validated is run as {@link #INSTRUCTION_STREAM}.
+	 */
+	NODE_TREE,
+
+	/**
+	 * Validate each function and compile it to JVM byte code, a {@link CompiledFunction} written
+	 * by the {@link BytecodeCompiler}.  A function that is not validated is run as
+	 * {@link #INSTRUCTION_STREAM}, one that can not be compiled as {@link #VALIDATED}.
+	 */
+	COMPILED,
+
+	/**
+	 * Start each validated function on {@link #VALIDATED} and promote it to {@link #REGISTER},
+	 * then to {@link #COMPILED}, as its calls and loop iterations are counted.  See
+	 * {@link happynewmoonwithreport.TieredExecution}.  A function that is not validated is run as
+	 * {@link #INSTRUCTION_STREAM}.
+	 */
+	TIERED
+}
@@ -0,0 +1,49 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * A node of a {@link NodeTree} that computes a value.
+ * <br>
+ * An i32 node computes its value in {@link #evalInt(NodeFrame)}, every other node in
+ * {@link #evalLong(NodeFrame)}: an i64, or the raw bits of an f32 or f64 as they are kept on the
+ * {@link OperandStack}.  The other method converts, so a parent may call either.  The parent
+ * calls the method of the type validation proved, which is one call to a child with a known
+ * class for the JIT to inline.
+ */
+public abstract class ExpressionNode {
+
+	/**
+	 * The value of an i32 node.
+	 *
+	 * @param frame the locals and memory of the call.
+	 * @return the value.
+	 */
+	public int evalInt(NodeFrame frame) {
+		return (int) evalLong(frame);
+	}
+
+	/**
+	 * The value of an i64 node, or the raw bits of any node.  An i32 is sign extended.
+	 *
+	 * @param frame the locals and memory of the call.
+	 * @return the value.
+	 */
+	public long evalLong(NodeFrame frame) {
+		return evalInt(frame);
+	}
+}
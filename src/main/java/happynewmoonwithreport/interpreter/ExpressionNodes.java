@@ -0,0 +1,743 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.opcode.Memory.LoadBase;
+import happynewmoonwithreport.type.MemoryArgument;
+
+/**
+ * The {@link ExpressionNode}s of a {@link NodeTree}.
+ * <br>
+ * Each opcode with a node has a class of its own, so the call to a child in a node's method is
+ * made from code that only that opcode runs.  An opcode without a node is run by a
+ * {@link Bridge} with the handler of the {@link TypedHandlerTable}.
+ */
+public final class ExpressionNodes {
+
+	private ExpressionNodes() {
+		super();
+	}
+
+	/**
+	 * The node of a numeric opcode with two operands.
+	 *
+	 * @param opcode an opcode with an {@link OpcodeSignature}.
+	 * @param left   the first operand.
+	 * @param right  the second operand, the top of the stack.
+	 * @return the node or null if the opcode has no node.
+	 */
+	static ExpressionNode binary(int opcode, ExpressionNode left, ExpressionNode right) {
+		switch (opcode) {
+			case 0x46: return new I32Eq(left, right);
+			case 0x47: return new I32Ne(left, right);
+			case 0x48: return new I32LtS(left, right);
+			case 0x49: return new I32LtU(left, right);
+			case 0x4A: return new I32GtS(left, right);
+			case 0x4B: return new I32GtU(left, right);
+			case 0x4C: return new I32LeS(left, right);
+			case 0x4D: return new I32LeU(left, right);
+			case 0x4E: return new I32GeS(left, right);
+			case 0x4F: return new I32GeU(left, right);
+			case 0x51: return new I64Eq(left, right);
+			case 0x52: return new I64Ne(left, right);
+			case 0x53: return new I64LtS(left, right);
+			case 0x55: return new I64GtS(left, right);
+			case 0x57: return new I64LeS(left, right);
+			case 0x59: return new I64GeS(left, right);
+			case 0x6A:
+				if (right instanceof Const) {
+					return new I32AddConst(left, ((Const) right).value);
+				}
+				return new I32Add(left, right);
+			case 0x6B: return new I32Sub(left, right);
+			case 0x6C: return new I32Mul(left, right);
+			case 0x71: return new I32And(left, right);
+			case 0x72: return new I32Or(left, right);
+			case 0x73: return new I32Xor(left, right);
+			case 0x74: return new I32Shl(left, right);
+			case 0x75: return new I32ShrS(left, right);
+			case 0x76: return new I32ShrU(left, right);
+			case 0x7C: return new I64Add(left, right);
+			case 0x7D: return new I64Sub(left, right);
+			case 0x7E: return new I64Mul(left, right);
+			case 0x83: return new I64And(left, right);
+			case 0x84: return new I64Or(left, right);
+			case 0x85: return new I64Xor(left, right);
+			case 0x86: return new I64Shl(left, right);
+			case 0x87: return new I64ShrS(left, right);
+			case 0x88: return new I64ShrU(left, right);
+			default: return null;
+		}
+	}
+
+	/**
+	 * The node of a numeric opcode with one operand.
+	 *
+	 * @param opcode an opcode with an {@link OpcodeSignature}.
+	 * @param child  the operand.
+	 * @return the node or null if the opcode has no node.
+	 */
+	static ExpressionNode unary(int opcode, ExpressionNode child) {
+		switch (opcode) {
+			case 0x45: return new I32Eqz(child);
+			case 0x50: return new I64Eqz(child);
+			case 0xA7: return new I32WrapI64(child);
+			case 0xAC: return new I64ExtendI32S(child);
+			case 0xAD: return new I64ExtendI32U(child);
+			default: return null;
+		}
+	}
+
+	/**
+	 * Does the node read nothing that a statement may change, and never trap?  Such a node may
+	 * stay on the stack while a statement runs.
+	 */
+	static boolean isConstant(ExpressionNode node) {
+		return node instanceof Const || node instanceof Const64;
+	}
+
+	/**
+	 * An i32 constant, or the bits of an f32 constant.
+	 */
+	static final class Const extends ExpressionNode {
+		final int value;
+
+		Const(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return value;
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return value;
+		}
+	}
+
+	/**
+	 * An i64 constant, or the bits of an f64 constant.
+	 */
+	static final class Const64 extends ExpressionNode {
+		final long value;
+
+		Const64(long value) {
+			this.value = value;
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return value;
+		}
+	}
+
+	/**
+	 * A local, or the slot of a stack height.
+	 */
+	static final class LocalGet extends ExpressionNode {
+		final int index;
+
+		LocalGet(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return (int) frame.slotAll[index];
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return frame.slotAll[index];
+		}
+	}
+
+	static final class Select extends ExpressionNode {
+		private final ExpressionNode value1;
+		private final ExpressionNode value2;
+		private final ExpressionNode condition;
+
+		Select(ExpressionNode value1, ExpressionNode value2, ExpressionNode condition) {
+			this.value1 = value1;
+			this.value2 = value2;
+			this.condition = condition;
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			final long bits1 = value1.evalLong(frame);
+			final long bits2 = value2.evalLong(frame);
+			return condition.evalInt(frame) != 0 ? bits1 : bits2;
+		}
+	}
+
+	/**
+	 * A load, with the checks of the opcode class that validation has not made.
+	 */
+	static final class Load extends ExpressionNode {
+		private final LoadBase load;
+		private final MemoryArgument memoryArgument;
+		private final ExpressionNode address;
+
+		Load(LoadBase load, MemoryArgument memoryArgument, ExpressionNode address) {
+			this.load = load;
+			this.memoryArgument = memoryArgument;
+			this.address = address;
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			final int i = address.evalInt(frame);
+			return OperandStackAdapter.toBits(load.load(frame.memory, memoryArgument, i));
+		}
+	}
+
+	/**
+	 * An opcode without a node: the operands are pushed on the operand stack, the handler of the
+	 * {@link TypedHandlerTable} is run, and the result, if any, is popped.
+	 */
+	static final class Bridge extends ExpressionNode {
+		private final int streamPc;
+		private final ExpressionNode[] operandAll;
+		private final boolean hasResult;
+
+		/**
+		 * @param streamPc   the index of the opcode in the instruction stream.
+		 * @param operandAll the operands, the top of the stack last.
+		 * @param hasResult  does the opcode push a value?
+		 */
+		Bridge(int streamPc, ExpressionNode[] operandAll, boolean hasResult) {
+			this.streamPc = streamPc;
+			this.operandAll = operandAll;
+			this.hasResult = hasResult;
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			final StreamInterpreter interpreter = frame.interpreter;
+			for (ExpressionNode operand : operandAll) {
+				interpreter.operandStack.push(operand.evalLong(frame));
+			}
+			TypedHandlerTable.PRIMARY[interpreter.code[streamPc]].execute(interpreter,
+				streamPc + 1);
+			if (hasResult) {
+				return interpreter.operandStack.pop();
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * An i32 opcode with two operands.
+	 */
+	abstract static class I32Binary extends ExpressionNode {
+		final ExpressionNode left;
+		final ExpressionNode right;
+
+		I32Binary(ExpressionNode left, ExpressionNode right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * An i64 opcode with two operands and an i64 result.
+	 */
+	abstract static class I64Binary extends ExpressionNode {
+		final ExpressionNode left;
+		final ExpressionNode right;
+
+		I64Binary(ExpressionNode left, ExpressionNode right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	static final class I32Add extends I32Binary {
+		I32Add(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) + right.evalInt(frame);
+		}
+	}
+
+	/**
+	 * i32.add of a constant, the most common add of compiled loops.
+	 */
+	static final class I32AddConst extends ExpressionNode {
+		private final ExpressionNode left;
+		private final int value;
+
+		I32AddConst(ExpressionNode left, int value) {
+			this.left = left;
+			this.value = value;
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) + value;
+		}
+	}
+
+	static final class I32Sub extends I32Binary {
+		I32Sub(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) - right.evalInt(frame);
+		}
+	}
+
+	static final class I32Mul extends I32Binary {
+		I32Mul(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) * right.evalInt(frame);
+		}
+	}
+
+	static final class I32And extends I32Binary {
+		I32And(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) & right.evalInt(frame);
+		}
+	}
+
+	static final class I32Or extends I32Binary {
+		I32Or(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) | right.evalInt(frame);
+		}
+	}
+
+	static final class I32Xor extends I32Binary {
+		I32Xor(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) ^ right.evalInt(frame);
+		}
+	}
+
+	static final class I32Shl extends I32Binary {
+		I32Shl(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) << right.evalInt(frame);
+		}
+	}
+
+	static final class I32ShrS extends I32Binary {
+		I32ShrS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) >> right.evalInt(frame);
+		}
+	}
+
+	static final class I32ShrU extends I32Binary {
+		I32ShrU(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) >>> right.evalInt(frame);
+		}
+	}
+
+	static final class I32Eq extends I32Binary {
+		I32Eq(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) == right.evalInt(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I32Ne extends I32Binary {
+		I32Ne(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) != right.evalInt(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I32LtS extends I32Binary {
+		I32LtS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) < right.evalInt(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I32LtU extends I32Binary {
+		I32LtU(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return Integer.compareUnsigned(left.evalInt(frame), right.evalInt(frame)) < 0 ? 1 : 0;
+		}
+	}
+
+	static final class I32GtS extends I32Binary {
+		I32GtS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) > right.evalInt(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I32GtU extends I32Binary {
+		I32GtU(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return Integer.compareUnsigned(left.evalInt(frame), right.evalInt(frame)) > 0 ? 1 : 0;
+		}
+	}
+
+	static final class I32LeS extends I32Binary {
+		I32LeS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) <= right.evalInt(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I32LeU extends I32Binary {
+		I32LeU(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return Integer.compareUnsigned(left.evalInt(frame), right.evalInt(frame)) <= 0 ? 1
+																						  : 0;
+		}
+	}
+
+	static final class I32GeS extends I32Binary {
+		I32GeS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalInt(frame) >= right.evalInt(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I32GeU extends I32Binary {
+		I32GeU(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return Integer.compareUnsigned(left.evalInt(frame), right.evalInt(frame)) >= 0 ? 1
+																						  : 0;
+		}
+	}
+
+	static final class I32Eqz extends ExpressionNode {
+		private final ExpressionNode child;
+
+		I32Eqz(ExpressionNode child) {
+			this.child = child;
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return child.evalInt(frame) == 0 ? 1 : 0;
+		}
+	}
+
+	static final class I32WrapI64 extends ExpressionNode {
+		private final ExpressionNode child;
+
+		I32WrapI64(ExpressionNode child) {
+			this.child = child;
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return (int) child.evalLong(frame);
+		}
+	}
+
+	static final class I64Add extends I64Binary {
+		I64Add(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) + right.evalLong(frame);
+		}
+	}
+
+	static final class I64Sub extends I64Binary {
+		I64Sub(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) - right.evalLong(frame);
+		}
+	}
+
+	static final class I64Mul extends I64Binary {
+		I64Mul(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) * right.evalLong(frame);
+		}
+	}
+
+	static final class I64And extends I64Binary {
+		I64And(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) & right.evalLong(frame);
+		}
+	}
+
+	static final class I64Or extends I64Binary {
+		I64Or(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) | right.evalLong(frame);
+		}
+	}
+
+	static final class I64Xor extends I64Binary {
+		I64Xor(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) ^ right.evalLong(frame);
+		}
+	}
+
+	static final class I64Shl extends I64Binary {
+		I64Shl(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) << right.evalLong(frame);
+		}
+	}
+
+	static final class I64ShrS extends I64Binary {
+		I64ShrS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) >> right.evalLong(frame);
+		}
+	}
+
+	static final class I64ShrU extends I64Binary {
+		I64ShrU(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return left.evalLong(frame) >>> right.evalLong(frame);
+		}
+	}
+
+	/**
+	 * An i64 compare, the result is an i32.
+	 */
+	abstract static class I64Compare extends ExpressionNode {
+		final ExpressionNode left;
+		final ExpressionNode right;
+
+		I64Compare(ExpressionNode left, ExpressionNode right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	static final class I64Eq extends I64Compare {
+		I64Eq(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalLong(frame) == right.evalLong(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I64Ne extends I64Compare {
+		I64Ne(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalLong(frame) != right.evalLong(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I64LtS extends I64Compare {
+		I64LtS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalLong(frame) < right.evalLong(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I64GtS extends I64Compare {
+		I64GtS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalLong(frame) > right.evalLong(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I64LeS extends I64Compare {
+		I64LeS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalLong(frame) <= right.evalLong(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I64GeS extends I64Compare {
+		I64GeS(ExpressionNode left, ExpressionNode right) {
+			super(left, right);
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return left.evalLong(frame) >= right.evalLong(frame) ? 1 : 0;
+		}
+	}
+
+	static final class I64Eqz extends ExpressionNode {
+		private final ExpressionNode child;
+
+		I64Eqz(ExpressionNode child) {
+			this.child = child;
+		}
+
+		@Override
+		public int evalInt(NodeFrame frame) {
+			return child.evalLong(frame) == 0 ? 1 : 0;
+		}
+	}
+
+	static final class I64ExtendI32S extends ExpressionNode {
+		private final ExpressionNode child;
+
+		I64ExtendI32S(ExpressionNode child) {
+			this.child = child;
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return child.evalInt(frame);
+		}
+	}
+
+	static final class I64ExtendI32U extends ExpressionNode {
+		private final ExpressionNode child;
+
+		I64ExtendI32U(ExpressionNode child) {
+			this.child = child;
+		}
+
+		@Override
+		public long evalLong(NodeFrame frame) {
+			return child.evalInt(frame) & 0xFFFF_FFFFL;
+		}
+	}
+}
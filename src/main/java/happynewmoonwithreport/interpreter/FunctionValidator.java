@@ -0,0 +1,506 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.utility.Hex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Validate the code of one function.
+ * <br>
+ * Follows the validation algorithm of the specification: the type of every value on the operand
+ * stack is tracked while the instructions are read once, so every instruction is known to find
+ * operands of the right type.  A function that passes may be run on an {@link OperandStack}
+ * without the type checks the opcode classes make.
+ * <br>
+ * A function that uses an opcode the validator does not implement is not validated, but it is not
+ * known to be invalid either: the module is still valid and the function runs with the type
+ * checks of the opcode classes, see {@link #isImplemented()}.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/appendix/algorithm.html" target="_top">
+ * https://webassembly.github.io/spec/core/appendix/algorithm.html
+ * </a>
+ */
+public class FunctionValidator {
+
+	/**
+	 * A type that is not known, the operand of an instruction after unreachable code.
+	 */
+	private static final ValueType UNKNOWN = null;
+
+	private static final ValueType[] NO_TYPE = new ValueType[0];
+
+	/* The opcode of the control frame of the function, and of an else. */
+	private static final int FUNCTION = -1;
+	private static final int ELSE = 0x05;
+
+	private final FunctionType functionType;
+	private final ValueType[] returnTypeAll;
+	private final ValueType[] localTypeAll;
+	private final Integer memoryCount;
+
+	private final ArrayList<ValueType> operandTypeAll;
+	private final ArrayList<ControlFrame> controlAll;
+
+	private Integer maxStackHeight;
+
+	/* The side table entries validation adds, indexed like the code. */
+	private int[] branchHeightAll;
+	private int[] branchArityAll;
+	private Boolean valid;
+	private Boolean implemented;
+	private String errorMessage;
+
+	/**
+	 * @param functionType  the type of the function.  Null if the type does not exist, the
+	 *                      function is then not valid.
+	 * @param localEntryAll the type of each declared local, not including the parameters.
+	 * @param memoryCount   the number of memories of the module.  The loads and stores need
+	 *                      memory 0.
+	 */
+	public FunctionValidator(FunctionType functionType, List<ValueType> localEntryAll,
+							 Integer memoryCount) {
+		this.functionType = functionType;
+		this.memoryCount = memoryCount;
+		final List<ValueType> paramTypeAll;
+		if (functionType == null) {
+			paramTypeAll = new ArrayList<>();
+			this.returnTypeAll = new ValueType[0];
+		} else {
+			paramTypeAll = functionType.getParamTypeAll();
+			this.returnTypeAll = functionType.getReturnTypeAll().toArray(new ValueType[0]);
+		}
+		this.localTypeAll = new ValueType[paramTypeAll.size() + localEntryAll.size()];
+		for (int index = 0; index < paramTypeAll.size(); index++) {
+			localTypeAll[index] = paramTypeAll.get(index);
+		}
+		for (int index = 0; index < localEntryAll.size(); index++) {
+			localTypeAll[paramTypeAll.size() + index] = localEntryAll.get(index);
+		}
+		this.operandTypeAll = new ArrayList<>();
+		this.controlAll = new ArrayList<>();
+		this.maxStackHeight = 0;
+		this.branchHeightAll = new int[0];
+		this.branchArityAll = new int[0];
+	}
+
+	/**
+	 * Validate the code.
+	 *
+	 * @param stream the code of the function.
+	 * @return true if the code is valid.
+	 */
+	public Boolean validate(InstructionStream stream) {
+		operandTypeAll.clear();
+		controlAll.clear();
+		maxStackHeight = 0;
+		errorMessage = null;
+		implemented = true;
+		branchHeightAll = new int[stream.length()];
+		branchArityAll = new int[stream.length()];
+		try {
+			validateCode(stream.getCode());
+			valid = true;
+		} catch (WasmRuntimeException exception) {
+			errorMessage = exception.getMessage();
+			valid = false;
+		}
+		return valid;
+	}
+
+	/**
+	 * The code could not be decoded or translated, an opcode or a block type is not known.  The
+	 * function is not valid.
+	 *
+	 * @param message why the code could not be read.
+	 * @return false.
+	 */
+	public Boolean notReadable(String message) {
+		errorMessage = "Function not valid: " + message;
+		implemented = true;
+		valid = false;
+		return valid;
+	}
+
+	private void validateCode(int[] code) {
+		if (functionType == null) {
+			throw error(UUID.fromString("1e7c4a92-b8d5-4f36-9c0a-e5f2d7b3a148"),
+				"The type of the function does not exist.");
+		}
+		pushControl(FUNCTION, returnTypeAll);
+
+		int pc = 0;
+		while (pc < code.length) {
+			final int opcode = code[pc++];
+			switch (opcode) {
+				case 0x00: // unreachable
+					setUnreachable();
+					break;
+				case 0x01: // nop
+					break;
+				case 0x02:   // block
+				case 0x03: { // loop
+					ValueType[] resultTypeAll = blockResultTypeAll(code[pc++]);
+					pushControl(opcode, resultTypeAll);
+					break;
+				}
+				case 0x04: { // if
+					ValueType[] resultTypeAll = blockResultTypeAll(code[pc++]);
+					popOperand(ValueType.INT32);
+					pushControl(opcode, resultTypeAll);
+					break;
+				}
+				case 0x05: { // else
+					ControlFrame frame = controlAll.get(controlAll.size() - 1);
+					if (frame.opcode != 0x04) {
+						throw error(UUID.fromString("2a8c5f13-d6e0-4b97-8f24-0c3e7a1b9d56"),
+							"else without an if at instruction stream index " + (pc - 1));
+					}
+					popControl();
+					pushControl(ELSE, frame.endTypeAll);
+					break;
+				}
+				case 0x0B: { // end
+					if (controlAll.size() == 1) {
+						throw error(UUID.fromString("b5f9e2c1-08d3-4a6f-9b47-3e1c6d2a8f50"),
+							"end without a block at instruction stream index " + (pc - 1));
+					}
+					ControlFrame frame = popControl();
+					if (frame.opcode == 0x04 && frame.endTypeAll.length != 0) {
+						throw error(UUID.fromString("e13d7b60-4f28-4ac5-9d81-6b2f0e9c3a47"),
+							"if with a result must have an else at instruction stream index "
+							+ (pc - 1));
+					}
+					pushOperandAll(frame.endTypeAll);
+					break;
+				}
+				case 0x0C: { // br
+					final ControlFrame frame = branch(pc, code[pc]);
+					pc++;
+					popOperandAll(frame.labelTypeAll());
+					setUnreachable();
+					break;
+				}
+				case 0x0D: { // br_if
+					popOperand(ValueType.INT32);
+					final ControlFrame frame = branch(pc, code[pc]);
+					pc++;
+					popOperandAll(frame.labelTypeAll());
+					pushOperandAll(frame.labelTypeAll());
+					break;
+				}
+				case 0x0E: { // br_table
+					popOperand(ValueType.INT32);
+					final int count = code[pc++];
+					final ControlFrame defaultFrame = branch(pc + count, code[pc + count]);
+					final int arity = defaultFrame.labelTypeAll().length;
+					for (int index = 0; index < count; index++) {
+						final ControlFrame frame = branch(pc, code[pc]);
+						pc++;
+						if (frame.labelTypeAll().length != arity) {
+							throw error(UUID.fromString("5d0f8a36-c2b4-4e19-a7d3-8e6b1f4c2a90"),
+								"br_table labels must have the same arity at instruction stream "
+								+ "index " + (pc - 1));
+						}
+						popOperandAll(frame.labelTypeAll());
+						pushOperandAll(frame.labelTypeAll());
+					}
+					pc++;
+					popOperandAll(defaultFrame.labelTypeAll());
+					setUnreachable();
+					break;
+				}
+				case 0x0F: { // return
+					final ControlFrame frame = branch(pc - 1, controlAll.size() - 1);
+					popOperandAll(frame.labelTypeAll());
+					setUnreachable();
+					break;
+				}
+				case 0x1A: // drop
+					popOperand();
+					break;
+				case 0x1B: { // select
+					popOperand(ValueType.INT32);
+					ValueType type1 = popOperand();
+					ValueType type2 = popOperand(type1);
+					pushOperand(type1 == UNKNOWN ? type2 : type1);
+					break;
+				}
+				case 0x20: // local.get
+					pushOperand(localType(code[pc++]));
+					break;
+				case 0x21: // local.set
+					popOperand(localType(code[pc++]));
+					break;
+				case 0x22: { // local.tee
+					ValueType type = localType(code[pc++]);
+					popOperand(type);
+					pushOperand(type);
+					break;
+				}
+				default: {
+					OpcodeSignature signature = OpcodeSignature.get(opcode);
+					if (signature == null) {
+						implemented = false;
+						throw error(UUID.fromString("3d0a7c5e-2f9b-4e18-a6c4-91b8e5d2f736"),
+							"Opcode " + Hex.byteToHex((byte) opcode) + " is not implemented.");
+					}
+					if (isMemoryInstruction(opcode) && memoryCount == 0) {
+						throw error(UUID.fromString("7b4e0d25-93c1-4a6f-8e57-c2d9f1a3b064"),
+							"Opcode " + Hex.byteToHex((byte) opcode)
+							+ " needs memory 0, the module has no memory.");
+					}
+					popOperandAll(signature.getPopAll());
+					pushOperandAll(signature.getPushAll());
+					pc += immediateCount(opcode);
+					break;
+				}
+			}
+		}
+
+		// The end of the function.  The translator drops the final end opcode.
+		if (controlAll.size() != 1) {
+			throw error(UUID.fromString("9a6e3f18-c47b-4d2a-85f0-7b3e1d9c6a24"),
+				"Block not ended.  " + (controlAll.size() - 1) + " blocks are still open.");
+		}
+		popControl();
+	}
+
+	/**
+	 * The loads, stores and constants have one immediate in the stream, the other opcodes with a
+	 * signature have none.
+	 */
+	private static int immediateCount(int opcode) {
+		if (0x28 <= opcode && opcode <= 0x44) {
+			return 1;
+		}
+		return 0;
+	}
+
+	private static boolean isMemoryInstruction(int opcode) {
+		return 0x28 <= opcode && opcode <= 0x40;
+	}
+
+	private ValueType[] blockResultTypeAll(int blockType) {
+		ValueType type = ValueType.valueOf(blockType);
+		if (type == ValueType.EMPTY_BLOCK) {
+			return new ValueType[0];
+		}
+		return new ValueType[]{type};
+	}
+
+	private ValueType localType(int index) {
+		if (index < 0 || localTypeAll.length <= index) {
+			throw error(UUID.fromString("e8c13b4f-6a27-4d90-b5e1-2f7a9c0d8e63"),
+				"Local variable " + index + " does not exist.");
+		}
+		return localTypeAll[index];
+	}
+
+	private void pushOperand(ValueType type) {
+		operandTypeAll.add(type);
+		if (maxStackHeight < operandTypeAll.size()) {
+			maxStackHeight = operandTypeAll.size();
+		}
+	}
+
+	private void pushOperandAll(ValueType[] typeAll) {
+		for (ValueType type : typeAll) {
+			pushOperand(type);
+		}
+	}
+
+	private ValueType popOperand() {
+		ControlFrame frame = controlAll.get(controlAll.size() - 1);
+		if (operandTypeAll.size() == frame.height) {
+			if (frame.unreachable) {
+				return UNKNOWN;
+			}
+			throw error(UUID.fromString("47b2e9d0-1c5a-4f83-9e6b-d8a3f0c27b14"),
+				"Operand stack is empty.");
+		}
+		return operandTypeAll.remove(operandTypeAll.size() - 1);
+	}
+
+	private ValueType popOperand(ValueType expected) {
+		ValueType actual = popOperand();
+		if (actual == UNKNOWN) {
+			return expected;
+		}
+		if (expected == UNKNOWN) {
+			return actual;
+		}
+		if (actual != expected) {
+			throw error(UUID.fromString("c0f85a3d-7e12-4b69-a4d7-5b2e8f1c9a06"),
+				"Type mismatch.  Expected " + expected.getValue() + " but was "
+				+ actual.getValue());
+		}
+		return actual;
+	}
+
+	private void popOperandAll(ValueType[] typeAll) {
+		for (int index = typeAll.length - 1; 0 <= index; index--) {
+			popOperand(typeAll[index]);
+		}
+	}
+
+	/**
+	 * Check the label of a branch and fill its side table entry.
+	 *
+	 * @param index the index of the side table entry.
+	 * @param label the label, 0 is the innermost block.
+	 * @return the block the branch targets.
+	 */
+	private ControlFrame branch(int index, int label) {
+		if (label < 0 || controlAll.size() <= label) {
+			throw error(UUID.fromString("8e2b6d04-71fa-4c3d-b5e9-4a0c8f7d1e26"),
+				"Label " + label + " does not exist at instruction stream index " + index);
+		}
+		ControlFrame frame = controlAll.get(controlAll.size() - 1 - label);
+		branchHeightAll[index] = frame.height;
+		branchArityAll[index] = frame.labelTypeAll().length;
+		return frame;
+	}
+
+	private void pushControl(int opcode, ValueType[] endTypeAll) {
+		controlAll.add(new ControlFrame(opcode, endTypeAll, operandTypeAll.size()));
+	}
+
+	private ControlFrame popControl() {
+		ControlFrame frame = controlAll.get(controlAll.size() - 1);
+		popOperandAll(frame.endTypeAll);
+		if (operandTypeAll.size() != frame.height) {
+			throw error(UUID.fromString("6f2d8b47-a93e-4c05-b1d6-0e9c7a3f5b82"),
+				"Values left on the stack at the end of a block.  Expected " + frame.height
+				+ " values but was " + operandTypeAll.size());
+		}
+		controlAll.remove(controlAll.size() - 1);
+		return frame;
+	}
+
+	private void setUnreachable() {
+		ControlFrame frame = controlAll.get(controlAll.size() - 1);
+		while (frame.height < operandTypeAll.size()) {
+			operandTypeAll.remove(operandTypeAll.size() - 1);
+		}
+		frame.unreachable = true;
+	}
+
+	private WasmRuntimeException error(UUID uuid, String message) {
+		return new WasmRuntimeException(uuid, "Function not valid: " + message);
+	}
+
+	public Boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Does the function use only opcodes the validator knows?  A function that is not valid only
+	 * because of an opcode that is not implemented yet is not known to be invalid, it is run with
+	 * the type checks of the opcode classes.
+	 *
+	 * @return false if an opcode is not implemented.
+	 */
+	public Boolean isImplemented() {
+		return implemented;
+	}
+
+	/**
+	 * Why the function is not valid.
+	 *
+	 * @return the message or null if the function is valid.
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * The largest number of values on the operand stack while the function runs.
+	 *
+	 * @return the number of values.
+	 */
+	public Integer getMaxStackHeight() {
+		return maxStackHeight;
+	}
+
+	/**
+	 * The type of each local, the parameters first.
+	 *
+	 * @return the types.
+	 */
+	public ValueType[] getLocalTypeAll() {
+		return localTypeAll;
+	}
+
+	public ValueType[] getReturnTypeAll() {
+		return returnTypeAll;
+	}
+
+	/**
+	 * The side table entry of each branch: the height of the operand stack to restore, relative
+	 * to the height when the function was entered.
+	 *
+	 * @return the heights, indexed like the code.
+	 */
+	public int[] getBranchHeightAll() {
+		return branchHeightAll;
+	}
+
+	/**
+	 * The side table entry of each branch: the number of values the branch keeps.  Unlike
+	 * {@link InstructionStream#getArityAll()} a branch to the function has its real arity.
+	 *
+	 * @return the arities, indexed like the code.
+	 */
+	public int[] getBranchArityAll() {
+		return branchArityAll;
+	}
+
+	/**
+	 * A block being validated.
+	 */
+	private static class ControlFrame {
+		private final int opcode;
+		private final ValueType[] endTypeAll;
+		private final int height;
+		private boolean unreachable;
+
+		ControlFrame(int opcode, ValueType[] endTypeAll, int height) {
+			this.opcode = opcode;
+			this.endTypeAll = endTypeAll;
+			this.height = height;
+			this.unreachable = false;
+		}
+
+		/**
+		 * The types a branch to this block keeps.  A branch to a loop starts the loop again, a
+		 * loop has no parameters.
+		 */
+		ValueType[] labelTypeAll() {
+			if (opcode == 0x03) {
+				return NO_TYPE;
+			}
+			return endTypeAll;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * An {@link InstructionStream} with superinstructions, built by {@link SuperinstructionFuser}.
+ * <br>
+ * Holds the side table of the {@link FunctionValidator} moved to the indexes of the fused code,
+ * and the report of the fusion: how many dispatches the superinstructions save.
+ */
+public class FusedStream {
+
+	private final InstructionStream instructionStream;
+	private final int[] branchHeightAll;
+	private final int[] branchArityAll;
+	private final int maxStackHeight;
+
+	/**
+	 * Number of instructions before fusion.
+	 */
+	private final int unfusedInstructionCount;
+
+	/**
+	 * Number of superinstructions.
+	 */
+	private final int fusedCount;
+
+	public FusedStream(InstructionStream instructionStream, int[] branchHeightAll,
+					   int[] branchArityAll, Integer maxStackHeight,
+					   Integer unfusedInstructionCount, Integer fusedCount) {
+		this.instructionStream = instructionStream;
+		this.branchHeightAll = branchHeightAll;
+		this.branchArityAll = branchArityAll;
+		this.maxStackHeight = maxStackHeight;
+		this.unfusedInstructionCount = unfusedInstructionCount;
+		this.fusedCount = fusedCount;
+	}
+
+	/**
+	 * The fused code.
+	 *
+	 * @return the instruction stream.
+	 */
+	public InstructionStream getInstructionStream() {
+		return instructionStream;
+	}
+
+	/**
+	 * See {@link FunctionValidator#getBranchHeightAll()}.
+	 *
+	 * @return the heights, indexed like the fused code.
+	 */
+	public int[] getBranchHeightAll() {
+		return branchHeightAll;
+	}
+
+	/**
+	 * See {@link FunctionValidator#getBranchArityAll()}.
+	 *
+	 * @return the arities, indexed like the fused code.
+	 */
+	public int[] getBranchArityAll() {
+		return branchArityAll;
+	}
+
+	public Integer getMaxStackHeight() {
+		return maxStackHeight;
+	}
+
+	public Integer getFusedCount() {
+		return fusedCount;
+	}
+
+	/**
+	 * Number of dispatches saved by one run through the code, each instruction run once.  A loop
+	 * saves this much on each iteration of the fused instructions in its body.
+	 *
+	 * @return the number of instructions before fusion less the number after.
+	 */
+	public Integer getDispatchSavedCount() {
+		return unfusedInstructionCount - instructionStream.getInstructionCount();
+	}
+
+	public Integer getUnfusedInstructionCount() {
+		return unfusedInstructionCount;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuffer sb = new StringBuffer("FusedStream{");
+		sb.append("instructionCount=").append(instructionStream.getInstructionCount());
+		sb.append(", unfusedInstructionCount=").append(unfusedInstructionCount);
+		sb.append(", fusedCount=").append(fusedCount);
+		sb.append(", dispatchSavedCount=").append(getDispatchSavedCount());
+		sb.append('}');
+		return sb.toString();
+	}
+}
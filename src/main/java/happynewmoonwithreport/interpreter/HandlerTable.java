@@ -0,0 +1,1246 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.opcode.*;
+import happynewmoonwithreport.opcode.Memory.*;
+import happynewmoonwithreport.opcode.bitshift.*;
+import happynewmoonwithreport.opcode.bitwise.F32.F32_abs;
+import happynewmoonwithreport.opcode.bitwise.F32.F32_copysign;
+import happynewmoonwithreport.opcode.bitwise.F32.F32_neg;
+import happynewmoonwithreport.opcode.bitwise.F64.F64_abs;
+import happynewmoonwithreport.opcode.bitwise.F64.F64_copysign;
+import happynewmoonwithreport.opcode.bitwise.F64.F64_neg;
+import happynewmoonwithreport.opcode.comparison.F32.*;
+import happynewmoonwithreport.opcode.comparison.F64.*;
+import happynewmoonwithreport.opcode.comparison.*;
+import happynewmoonwithreport.opcode.control.Nop;
+import happynewmoonwithreport.opcode.control.Unreachable;
+import happynewmoonwithreport.opcode.convert.*;
+import happynewmoonwithreport.opcode.countingBits.*;
+import happynewmoonwithreport.opcode.logic.*;
+import happynewmoonwithreport.opcode.math.*;
+import happynewmoonwithreport.opcode.math.f32.*;
+import happynewmoonwithreport.opcode.math.f64.*;
+import happynewmoonwithreport.type.F32;
+import happynewmoonwithreport.type.F64;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.I64;
+import happynewmoonwithreport.type.MemoryArgument;
+import happynewmoonwithreport.type.utility.Hex;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The opcode handlers of the {@link StreamInterpreter}, indexed by opcode.
+ * <br>
+ * There is one handler for each opcode, created when this class is loaded and shared by every
+ * instance.  A handler keeps no state, everything it needs is in the interpreter, so running an
+ * instruction is one array read and one call and allocates no handler.
+ * <br>
+ * The 0xFC prefix has its own table, indexed by the second opcode.
+ * <br>
+ * The control instructions use the side table of the {@link InstructionStream} for their targets
+ * and a control stack of stack heights kept by the interpreter, not labels on the stack, so
+ * <code>end</code> is one decrement and a branch copies only the values it keeps.
+ * <br>
+ * Source: <a href="https://webassembly.github.io/spec/core/binary/instructions.html"
+ * target="_top"> https://webassembly.github.io/spec/core/binary/instructions.html
+ * </a>
+ */
+public final class HandlerTable {
+
+	/**
+	 * The load and store opcodes are template classes, so they are kept as objects.  They are
+	 * stateless and shared, also by <code>WasmInstance.execute()</code>.
+	 */
+	public static final I32_load I32_LOAD = new I32_load();
+	public static final I64_load I64_LOAD = new I64_load();
+	public static final F32_load F32_LOAD = new F32_load();
+	public static final F64_load F64_LOAD = new F64_load();
+	public static final I32_load8_s I32_LOAD8_S = new I32_load8_s();
+	public static final I32_load8_u I32_LOAD8_U = new I32_load8_u();
+	public static final I32_load16_s I32_LOAD16_S = new I32_load16_s();
+	public static final I32_load16_u I32_LOAD16_U = new I32_load16_u();
+	public static final I64_load8_s I64_LOAD8_S = new I64_load8_s();
+	public static final I64_load8_u I64_LOAD8_U = new I64_load8_u();
+	public static final I64_load16_s I64_LOAD16_S = new I64_load16_s();
+	public static final I64_load16_u I64_LOAD16_U = new I64_load16_u();
+	public static final I64_load32_s I64_LOAD32_S = new I64_load32_s();
+	public static final I64_load32_u I64_LOAD32_U = new I64_load32_u();
+	public static final I32_store I32_STORE = new I32_store();
+	public static final I64_store I64_STORE = new I64_store();
+	public static final F32_store F32_STORE = new F32_store();
+	public static final F64_store F64_STORE = new F64_store();
+	public static final I32_store8 I32_STORE8 = new I32_store8();
+	public static final I32_store16 I32_STORE16 = new I32_store16();
+	public static final I64_store8 I64_STORE8 = new I64_store8();
+	public static final I64_store16 I64_STORE16 = new I64_store16();
+	public static final I64_store32 I64_STORE32 = new I64_store32();
+
+	/**
+	 * Does nothing.  Used for the opcodes <code>WasmInstance.execute()</code> accepts but does
+	 * not implement yet.
+	 */
+	private static final OpcodeHandler NOT_IMPLEMENTED = (interpreter, pc) -> pc;
+
+	private static final OpcodeHandler UNKNOWN = (interpreter, pc) -> {
+		throw unknownOpcode(interpreter.code[pc - 1], pc - 1);
+	};
+
+	/**
+	 * Handlers indexed by the second opcode of the 0xFC prefix.  The saturating truncations
+	 * 0x00 to 0x07 are not implemented.
+	 */
+	static final OpcodeHandler[] PREFIX_FC = buildPrefixFc();
+
+	/**
+	 * Handlers indexed by opcode.
+	 */
+	static final OpcodeHandler[] PRIMARY = buildPrimary();
+
+	private HandlerTable() {
+		super();
+	}
+
+	/**
+	 * Find the handler for an opcode.
+	 *
+	 * @param opcode the opcode, 0 to 255.
+	 * @return the handler.  Unknown opcodes get a handler that throws.
+	 */
+	public static OpcodeHandler get(Integer opcode) {
+		return PRIMARY[opcode];
+	}
+
+	/**
+	 * Find the handler for an opcode with the 0xFC prefix.
+	 *
+	 * @param secondOpcode the opcode after 0xFC.
+	 * @return the handler.
+	 */
+	public static OpcodeHandler getPrefixFc(Integer secondOpcode) {
+		return PREFIX_FC[secondOpcode];
+	}
+
+	private static OpcodeHandler[] buildPrefixFc() {
+		OpcodeHandler[] table = new OpcodeHandler[8];
+		for (int secondOpcode = 0; secondOpcode < table.length; secondOpcode++) {
+			table[secondOpcode] = NOT_IMPLEMENTED;
+		}
+		return table;
+	}
+
+	/**
+	 * Enter a block: remember the height of the stack on the control stack.
+	 */
+	static void pushControl(StreamInterpreter interpreter) {
+		if (interpreter.controlSize == interpreter.controlHeightAll.length) {
+			interpreter.controlHeightAll = Arrays.copyOf(interpreter.controlHeightAll,
+				interpreter.controlSize * 2);
+		}
+		interpreter.controlHeightAll[interpreter.controlSize++] = interpreter.stack.size();
+	}
+
+	private static void popControl(StreamInterpreter interpreter) {
+		if (interpreter.controlSize <= interpreter.controlBase + 1) {
+			throw new WasmRuntimeException(UUID.fromString("f4a81c6e-2d07-4b95-8e3a-6c1d9b5f0e72"),
+				"End: there is no block to end.");
+		}
+		interpreter.controlSize--;
+	}
+
+	private static I32 popCondition(StreamInterpreter interpreter, String opCodeName) {
+		final Object value = interpreter.stack.pop();
+		if ((value instanceof I32) == false) {
+			throw new WasmRuntimeException(UUID.fromString("0b6e3d59-8a1f-4c27-b4e0-7d2c9a6f5e13"),
+				opCodeName + ": Value type on stack is incorrect.  Expected I32 but type was "
+				+ value.toString());
+		}
+		return (I32) value;
+	}
+
+	private static Boolean popCondition(StreamInterpreter interpreter) {
+		return popCondition(interpreter, "condition").integerValue() != 0;
+	}
+
+	/**
+	 * The side table entry at <code>index</code>.
+	 */
+	private static int target(StreamInterpreter interpreter, int index) {
+		final int target = interpreter.targetAll[index];
+		if (target == InstructionStream.NO_TARGET) {
+			throw new WasmRuntimeException(UUID.fromString("6c2f9e04-b3d8-4a71-95e6-1a8d4c7b2f39"),
+				"Branch at instruction stream index = " + index + " has no target.  The label or "
+				+ "the end of the block does not exist.");
+		}
+		return target;
+	}
+
+	/**
+	 * Branch to a label.  The values of the label are kept, the other values of the blocks being
+	 * left are dropped, and the control stack entries of the blocks are popped.  The target
+	 * block's own entry is popped by its <code>end</code>, a loop keeps it.
+	 *
+	 * @param index the index of the side table entry.
+	 * @param label the label, 0 is the innermost block.
+	 * @return the target pc.
+	 */
+	private static int branch(StreamInterpreter interpreter, int index, int label) {
+		final int target = target(interpreter, index);
+		final int controlIndex = interpreter.controlSize - 1 - label;
+		if (controlIndex < interpreter.controlBase) {
+			throw new WasmRuntimeException(UUID.fromString("a97d0e52-6f14-4c38-8b2e-3e5a1f9c7d60"),
+				"Branch at instruction stream index = " + index + ": label " + label
+				+ " does not exist.");
+		}
+		int arity = interpreter.arityAll[index];
+		if (arity == InstructionStream.FUNCTION_ARITY) {
+			arity = interpreter.returnArity;
+		}
+
+		final WasmStack<Object> stack = interpreter.stack;
+		final int height = interpreter.controlHeightAll[controlIndex];
+		final int from = stack.size() - arity;
+		if (from < height) {
+			throw new WasmRuntimeException(UUID.fromString("d25b8f71-0c9e-4a36-a1f4-9e7c3b6d8a05"),
+				"Branch at instruction stream index = " + index + ": the stack must contain "
+				+ arity + " values");
+		}
+		for (int i = 0; i < arity; i++) {
+			stack.set(height + i, stack.get(from + i));
+		}
+		stack.setSize(height + arity);
+		interpreter.controlSize = controlIndex + 1;
+		return target;
+	}
+
+	private static OpcodeHandler[] buildPrimary() {
+		OpcodeHandler[] table = new OpcodeHandler[256];
+		for (int opcode = 0; opcode < table.length; opcode++) {
+			table[opcode] = UNKNOWN;
+		}
+
+		// Unreachable
+		table[0x00] = (interpreter, pc) -> {
+			Unreachable.trap();
+			return pc;
+		};
+
+		// nop,  no operation.
+		table[0x01] = (interpreter, pc) -> pc;
+
+		// block
+		table[0x02] = (interpreter, pc) -> {
+			pushControl(interpreter);
+			return pc + 1;
+		};
+
+		// loop
+		table[0x03] = (interpreter, pc) -> {
+			pushControl(interpreter);
+			return pc + 1;
+		};
+
+		// if
+		table[0x04] = (interpreter, pc) -> {
+			final Boolean condition = popCondition(interpreter);
+			pushControl(interpreter);
+			if (condition) {
+				return pc + 1;
+			}
+			return target(interpreter, pc);
+		};
+
+		// else, the end of the if body.
+		table[0x05] = (interpreter, pc) -> target(interpreter, pc - 1);
+
+		// End Opcode
+		table[0x0B] = (interpreter, pc) -> {
+			popControl(interpreter);
+			return pc;
+		};
+
+		// br
+		table[0x0C] = (interpreter, pc) -> branch(interpreter, pc, interpreter.code[pc]);
+
+		// br_if
+		table[0x0D] = (interpreter, pc) -> {
+			if (popCondition(interpreter)) {
+				return branch(interpreter, pc, interpreter.code[pc]);
+			}
+			return pc + 1;
+		};
+
+		// br_table
+		table[0x0E] = (interpreter, pc) -> {
+			final int count = interpreter.code[pc];
+			int index = popCondition(interpreter, "br_table").integerValue();
+			if (index < 0 || count <= index) {
+				index = count; // the default label
+			}
+			final int labelIndex = pc + 1 + index;
+			return branch(interpreter, labelIndex, interpreter.code[labelIndex]);
+		};
+
+		// return
+		table[0x0F] = (interpreter, pc) -> branch(interpreter, pc - 1,
+			interpreter.controlSize - 1 - interpreter.controlBase);
+
+		// drop
+		table[0x1A] = (interpreter, pc) -> {
+			Drop.execute(interpreter.stack);
+			return pc;
+		};
+
+		// select
+		table[0x1B] = (interpreter, pc) -> {
+			Select.execute(interpreter.stack);
+			return pc;
+		};
+
+		// get local
+		table[0x20] = (interpreter, pc) -> {
+			GetLocal.execute(interpreter.frame, interpreter.stack, interpreter.code[pc]);
+			return pc + 1;
+		};
+
+		// set local
+		table[0x21] = (interpreter, pc) -> {
+			SetLocal.execute(interpreter.frame, interpreter.stack, interpreter.code[pc]);
+			return pc + 1;
+		};
+
+		// I32_load
+		table[0x28] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I32_LOAD.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64_load
+		table[0x29] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_LOAD.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// F32_load
+		table[0x2A] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			F32_LOAD.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// F64_load
+		table[0x2B] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			F64_LOAD.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I32_load8_s
+		table[0x2C] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I32_LOAD8_S.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I32_load8_u
+		table[0x2D] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I32_LOAD8_U.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I32_load16_s
+		table[0x2E] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I32_LOAD16_S.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I32_load16_u
+		table[0x2F] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I32_LOAD16_U.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64_load8_s
+		table[0x30] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_LOAD8_S.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64_load8_u
+		table[0x31] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_LOAD8_U.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64_load16_s
+		table[0x32] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_LOAD16_S.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64_load16_u
+		table[0x33] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_LOAD16_U.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64_load32_s
+		table[0x34] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_LOAD32_S.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64_load32_u
+		table[0x35] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_LOAD32_U.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I32_store
+		table[0x36] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I32_STORE.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64 store
+		table[0x37] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_STORE.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// F32 store
+		table[0x38] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			F32_STORE.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// F64 store
+		table[0x39] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			F64_STORE.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I32 8 store
+		table[0x3A] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I32_STORE8.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I32 16 store
+		table[0x3B] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I32_STORE16.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64 8 store
+		table[0x3C] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_STORE8.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64 16 store
+		table[0x3D] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_STORE16.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// I64 32 store
+		table[0x3E] = (interpreter, pc) -> {
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			I64_STORE32.execute(memoryArgument, interpreter.frame, interpreter.store, interpreter.stack);
+			return pc + 1;
+		};
+
+		// Memory Size
+		table[0x3F] = (interpreter, pc) -> {
+			MemorySize.execute(interpreter.frame, interpreter.store, interpreter.stack);
+			return pc;
+		};
+
+		// Memory Grow
+		table[0x40] = (interpreter, pc) -> {
+			MemoryGrow.execute(interpreter.frame, interpreter.store, interpreter.stack);
+			return pc;
+		};
+
+		// I32.const i32
+		table[0x41] = (interpreter, pc) -> {
+			I32_const.execute(interpreter.stack, new I32(interpreter.code[pc]));
+			return pc + 1;
+		};
+
+		// I64 const I64
+		table[0x42] = (interpreter, pc) -> {
+			I64_const.execute(interpreter.stack, new I64(interpreter.constantAll[interpreter.code[pc]]));
+			return pc + 1;
+		};
+
+		// F32 const F32
+		table[0x43] = (interpreter, pc) -> {
+			F32 value = new F32(Float.intBitsToFloat(interpreter.code[pc]));
+			F32_const.execute(interpreter.stack, value);
+			return pc + 1;
+		};
+
+		// F64 const F64
+		table[0x44] = (interpreter, pc) -> {
+			F64 value = new F64(Double.longBitsToDouble(interpreter.constantAll[interpreter.code[pc]]));
+			F64_const.execute(interpreter.stack, value);
+			return pc + 1;
+		};
+
+		// I32 equals zero
+		table[0x45] = (interpreter, pc) -> {
+			I32_eqz.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 equals
+		table[0x46] = (interpreter, pc) -> {
+			I32_eq.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 not equals
+		table[0x47] = (interpreter, pc) -> {
+			I32_ne.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 less than signed
+		table[0x48] = (interpreter, pc) -> {
+			I32_lt_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 less than unsigned
+		table[0x49] = (interpreter, pc) -> {
+			I32_lt_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 greater than signed
+		table[0x4A] = (interpreter, pc) -> {
+			I32_gt_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 greater than unsigned
+		table[0x4B] = (interpreter, pc) -> {
+			I32_gt_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 less than or equal to signed
+		table[0x4C] = (interpreter, pc) -> {
+			I32_le_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 less than or equal to unsigned
+		table[0x4D] = (interpreter, pc) -> {
+			I32_le_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 greater than or equal to signed
+		table[0x4E] = (interpreter, pc) -> {
+			I32_ge_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 greater than or equal to unsigned
+		table[0x4F] = (interpreter, pc) -> {
+			I32_ge_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 equals zero
+		table[0x50] = (interpreter, pc) -> {
+			I64_eqz.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 equals
+		table[0x51] = (interpreter, pc) -> {
+			I64_eq.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 not equals
+		table[0x52] = (interpreter, pc) -> {
+			I64_ne.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 less than signed
+		table[0x53] = (interpreter, pc) -> {
+			I64_lt_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 less than unsigned
+		table[0x54] = (interpreter, pc) -> {
+			I64_lt_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 greater than signed
+		table[0x55] = (interpreter, pc) -> {
+			I64_gt_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 greater than unsigned
+		table[0x56] = (interpreter, pc) -> {
+			I64_gt_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 less than equal to signed
+		table[0x57] = (interpreter, pc) -> {
+			I64_le_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 less than equal to unsigned
+		table[0x58] = (interpreter, pc) -> {
+			I64_le_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 greater than equal to signed
+		table[0x59] = (interpreter, pc) -> {
+			I64_ge_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 greater than equal to unsigned
+		table[0x5A] = (interpreter, pc) -> {
+			I64_ge_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F32 Equal
+		table[0x5B] = (interpreter, pc) -> {
+			F32_eq.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F32 Not Equal
+		table[0x5C] = (interpreter, pc) -> {
+			F32_ne.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F32 Less than
+		table[0x5D] = (interpreter, pc) -> {
+			F32_lt.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F32 Greater than
+		table[0x5E] = (interpreter, pc) -> {
+			F32_gt.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F32 Less than Equal
+		table[0x5F] = (interpreter, pc) -> {
+			F32_le.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F32 Greater than Equal
+		table[0x60] = (interpreter, pc) -> {
+			F32_ge.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F64 Equal
+		table[0x61] = (interpreter, pc) -> {
+			F64_eq.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F64 Not Equal
+		table[0x62] = (interpreter, pc) -> {
+			F64_ne.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F64 Less than
+		table[0x63] = (interpreter, pc) -> {
+			F64_lt.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F64 Greater than
+		table[0x64] = (interpreter, pc) -> {
+			F64_gt.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F64 Less than Equal
+		table[0x65] = (interpreter, pc) -> {
+			F64_le.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F64 Greater than Equal
+		table[0x66] = (interpreter, pc) -> {
+			F64_ge.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 Count Leading Zeros
+		table[0x67] = (interpreter, pc) -> {
+			I32_clz.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 Count Trailing Zeros
+		table[0x68] = (interpreter, pc) -> {
+			I32_ctz.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 Population Count,  aka Bit Count
+		table[0x69] = (interpreter, pc) -> {
+			I32_popcnt.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 add
+		table[0x6A] = (interpreter, pc) -> {
+			I32_add.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 subtract
+		table[0x6B] = (interpreter, pc) -> {
+			I32_sub.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 multiply
+		table[0x6C] = (interpreter, pc) -> {
+			I32_mul.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 divide unsigned
+		table[0x6D] = (interpreter, pc) -> {
+			I32_div_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 divide unsigned
+		table[0x6E] = (interpreter, pc) -> {
+			I32_div_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 remainder signed
+		table[0x6F] = (interpreter, pc) -> {
+			I32_rem_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 remainder unsigned
+		table[0x70] = (interpreter, pc) -> {
+			I32_rem_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 logical and
+		table[0x71] = (interpreter, pc) -> {
+			I32_and.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 logical or
+		table[0x72] = (interpreter, pc) -> {
+			I32_or.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 logical xor
+		table[0x73] = (interpreter, pc) -> {
+			I32_xor.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 bit shift shl
+		table[0x74] = (interpreter, pc) -> {
+			I32_shl.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 bit shift shr_s
+		table[0x75] = (interpreter, pc) -> {
+			I32_shr_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 bit shift shr_u
+		table[0x76] = (interpreter, pc) -> {
+			I32_shr_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 bit shift rotl
+		table[0x77] = (interpreter, pc) -> {
+			I32_rotl.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 bit shift rotr
+		table[0x78] = (interpreter, pc) -> {
+			I32_rotr.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Count Leading Zeros
+		table[0x79] = (interpreter, pc) -> {
+			I64_clz.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Count Trailing Zeros
+		table[0x7A] = (interpreter, pc) -> {
+			I64_ctz.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Population Count,  aka Bit Count
+		table[0x7B] = (interpreter, pc) -> {
+			I64_popcnt.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 add
+		table[0x7C] = (interpreter, pc) -> {
+			I64_add.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 subtract
+		table[0x7D] = (interpreter, pc) -> {
+			I64_sub.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 multiply
+		table[0x7E] = (interpreter, pc) -> {
+			I64_mul.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 division signed
+		table[0x7F] = (interpreter, pc) -> {
+			I64_div_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 division unsigned
+		table[0x80] = (interpreter, pc) -> {
+			I64_div_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 remainder signed
+		table[0x81] = (interpreter, pc) -> {
+			I64_rem_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 remainder unsigned
+		table[0x82] = (interpreter, pc) -> {
+			I64_rem_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 and
+		table[0x83] = (interpreter, pc) -> {
+			I64_and.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 or
+		table[0x84] = (interpreter, pc) -> {
+			I64_or.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 exclusive or
+		table[0x85] = (interpreter, pc) -> {
+			I64_xor.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 shift left
+		table[0x86] = (interpreter, pc) -> {
+			I64_shl.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 shift right signed
+		table[0x87] = (interpreter, pc) -> {
+			I64_shr_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Shift right unsigned
+		table[0x88] = (interpreter, pc) -> {
+			I64_shr_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Rotate Left
+		table[0x89] = (interpreter, pc) -> {
+			I64_rotl.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Rotate Right
+		table[0x8A] = (interpreter, pc) -> {
+			I64_rotr.execute(interpreter.stack);
+			return pc;
+		};
+
+		// F32 Absolute Value
+		table[0x8B] = (interpreter, pc) -> {
+			F32_abs.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.neg
+		table[0x8C] = (interpreter, pc) -> {
+			F32_neg.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.ceil
+		table[0x8D] = (interpreter, pc) -> {
+			F32_ceil.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.floor
+		table[0x8E] = (interpreter, pc) -> {
+			F32_floor.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.trunc
+		table[0x8F] = (interpreter, pc) -> {
+			F32_trunc.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.nearest 0x90
+		table[0x90] = (interpreter, pc) -> {
+			F32_nearest.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.sqrt 0x91
+		table[0x91] = (interpreter, pc) -> {
+			F32_sqrt.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.add 0x92
+		table[0x92] = (interpreter, pc) -> {
+			F32_add.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.sub 0x93
+		table[0x93] = (interpreter, pc) -> {
+			F32_sub.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.mul 0x94
+		table[0x94] = (interpreter, pc) -> {
+			F32_mul.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.div 0x95
+		table[0x95] = (interpreter, pc) -> {
+			F32_div.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.min 0x96
+		table[0x96] = (interpreter, pc) -> {
+			F32_min.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.max 0x97
+		table[0x97] = (interpreter, pc) -> {
+			F32_max.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.copysign 0x98
+		table[0x98] = (interpreter, pc) -> {
+			F32_copysign.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.abs 0x99
+		table[0x99] = (interpreter, pc) -> {
+			F64_abs.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.neg 0x 9A
+		table[0x9A] = (interpreter, pc) -> {
+			F64_neg.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.ceil 0x9B
+		table[0x9B] = (interpreter, pc) -> {
+			F64_ceil.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.floor 0x9C
+		table[0x9C] = (interpreter, pc) -> {
+			F64_floor.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.trunc 0x9D
+		table[0x9D] = (interpreter, pc) -> {
+			F64_trunc.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.nearest 0x9E
+		table[0x9E] = (interpreter, pc) -> {
+			F64_nearest.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.sqrt 0x9F
+		table[0x9F] = (interpreter, pc) -> {
+			F64_sqrt.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.add 0xA0
+		table[0xA0] = (interpreter, pc) -> {
+			F64_add.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.sub 0xA1
+		table[0xA1] = (interpreter, pc) -> {
+			F64_sub.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.mul 0xA2
+		table[0xA2] = (interpreter, pc) -> {
+			F64_mul.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.div 0xA3
+		table[0xA3] = (interpreter, pc) -> {
+			F64_div.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.min 0xA4
+		table[0xA4] = (interpreter, pc) -> {
+			F64_min.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.max 0xA5
+		table[0xA5] = (interpreter, pc) -> {
+			F64_max.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f64.copysign 0xA6
+		table[0xA6] = (interpreter, pc) -> {
+			F64_copysign.execute(interpreter.stack);
+			return pc;
+		};
+
+		// f32.warp/i64 0xA7
+		table[0xA7] = NOT_IMPLEMENTED;
+
+		// f32.trunc_s/f32 0xA8
+		table[0xA8] = NOT_IMPLEMENTED;
+
+		// f32.trunc_u/f32 0xA9
+		table[0xA9] = NOT_IMPLEMENTED;
+
+		// f32.trunc_s/f64 0xAA
+		table[0xAA] = NOT_IMPLEMENTED;
+
+		// f32.trunc_u/f64 0xAB
+		table[0xAB] = NOT_IMPLEMENTED;
+
+		// I64 Extend I32 Signed
+		table[0xAC] = (interpreter, pc) -> {
+			I64_extend_I32_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Extend I32 Unsigned
+		table[0xAD] = (interpreter, pc) -> {
+			I64_extend_I32_u.execute(interpreter.stack);
+			return pc;
+		};
+
+		// i64.trunc_s/f32 0xAE
+		table[0xAE] = NOT_IMPLEMENTED;
+
+		// i64.trunc_u/f32 0xAF
+		table[0xAF] = NOT_IMPLEMENTED;
+
+		// i64.trunc_s/f64 0xB0
+		table[0xB0] = NOT_IMPLEMENTED;
+
+		// i64.trunc_u/f64 0xB1
+		table[0xB1] = NOT_IMPLEMENTED;
+
+		// f32.convert_s/i32 0xB2
+		table[0xB2] = NOT_IMPLEMENTED;
+
+		// f32.convert_u/i32 0xB3
+		table[0xB3] = NOT_IMPLEMENTED;
+
+		// f32.convert_u/i64 0xB4
+		table[0xB4] = NOT_IMPLEMENTED;
+
+		// f32.convert_u/i64 0xB5
+		table[0xB5] = NOT_IMPLEMENTED;
+
+		// f32.demote/f64 0xB6
+		table[0xB6] = NOT_IMPLEMENTED;
+
+		// f64.convert_s/i32 0xB7
+		table[0xB7] = NOT_IMPLEMENTED;
+
+		// f64.convert_u/i32 0xB8
+		table[0xB8] = NOT_IMPLEMENTED;
+
+		// f64.convert_s/i64 0xB9
+		table[0xB9] = NOT_IMPLEMENTED;
+
+		// f64.convert_u/i64 0xBA
+		table[0xBA] = NOT_IMPLEMENTED;
+
+		// f64.promote/f32 0xBB
+		table[0xBB] = NOT_IMPLEMENTED;
+
+		// i32.reinterpert/f32 0xBC
+		table[0xBC] = NOT_IMPLEMENTED;
+
+		// i64.reinterpert/f64 0xBD
+		table[0xBD] = NOT_IMPLEMENTED;
+
+		// f32.reinterpert/i32 0xBD
+		table[0xBE] = NOT_IMPLEMENTED;
+
+		// f64.reinterpert/i64 0xBF
+		table[0xBF] = NOT_IMPLEMENTED;
+
+		// I32 Extend 8 Signed
+		table[0xC0] = (interpreter, pc) -> {
+			I32_extend8_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I32 Extend 16 Signed
+		table[0xC1] = (interpreter, pc) -> {
+			I32_extend16_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Extend 8 Signed
+		table[0xC2] = (interpreter, pc) -> {
+			I64_extend8_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Extend 16 Signed
+		table[0xC3] = (interpreter, pc) -> {
+			I64_extend16_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// I64 Extend 32 Signed
+		table[0xC4] = (interpreter, pc) -> {
+			I64_extend32_s.execute(interpreter.stack);
+			return pc;
+		};
+
+		// prefix, the second opcode selects the handler.
+		table[0xFC] = (interpreter, pc) -> {
+			final int secondOpcode = interpreter.code[pc];
+			return PREFIX_FC[secondOpcode].execute(interpreter, pc + 1);
+		};
+
+		return table;
+	}
+
+	private static WasmRuntimeException unknownOpcode(int opcode, int pc) {
+		String message = "Wasm tried to run an opcode that was not defined. Unknown Opcode = "
+						 + Hex.byteToHex((byte) opcode) + " (0d" + opcode + ")";
+		message += " at instruction stream index = " + pc + ". ";
+		String possibleSolutions = "Verify the wasm file is valid.  Recompile Wasm File.  Contact "
+								   + "support.";
+		return new WasmRuntimeException(UUID.fromString("2d7f4b91-6c3e-4a58-b0e2-8f1a5c9d3e67"),
+			message, possibleSolutions);
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.type.MemoryArgument;
+
+/**
+ * A function body translated to a compact array of <code>int</code>.
+ * <br>
+ * Every instruction starts with its opcode, followed by its immediates, already decoded.  The
+ * interpreter never reads a LEB128 value or builds a {@link MemoryArgument} while it runs.
+ * <br>
+ * The immediates of each opcode:
+ * <ul>
+ * <li>block, loop, if: the block type, see {@link happynewmoonwithreport.ValueType#getType()}.</li>
+ * <li>br, br_if: the label index.</li>
+ * <li>br_table: the number of labels n, the n labels, the default label.</li>
+ * <li>call: the function index.  call_indirect: the type index.</li>
+ * <li>local.get, local.set, local.tee, global.get, global.set: the index.</li>
+ * <li>loads and stores: an index into {@link #getMemoryArgumentAll()}.</li>
+ * <li>i32.const: the value.  f32.const: the raw bits of the value.</li>
+ * <li>i64.const, f64.const: an index into {@link #getConstantAll()}, for f64 the raw bits.</li>
+ * <li>0xFC prefix: the second opcode.</li>
+ * </ul>
+ * memory.size and memory.grow have a reserved zero byte in the code, it is not kept.
+ * <br>
+ * The side table, {@link #getTargetAll()} and {@link #getArityAll()}, is indexed like the code.
+ * It holds the pc each control instruction jumps to and the number of values the jump keeps.  A
+ * branch is found at the index of its label, so br_table has one entry for each label.  The
+ * block type of <code>if</code> holds where a false condition jumps to.  <code>else</code> and
+ * <code>return</code> have no immediate, their entry is at the index of the opcode.  The
+ * stack height to restore is known by validation, see
+ * {@link FunctionValidator#getBranchHeightAll()}.
+ * <br>
+ * Built by {@link InstructionStreamTranslator}.
+ */
+public class InstructionStream {
+
+	private final int[] code;
+	private final long[] constantAll;
+	private final MemoryArgument[] memoryArgumentAll;
+
+	/**
+	 * A target that is not known, the label does not exist.  The code is not valid.
+	 */
+	public static final int NO_TARGET = -1;
+
+	/**
+	 * The arity of a branch to the function, the number of results of the function.
+	 */
+	public static final int FUNCTION_ARITY = -1;
+
+	private final int[] targetAll;
+	private final int[] arityAll;
+
+	/**
+	 * Number of instructions.
+	 */
+	private final int instructionCount;
+
+	/**
+	 * Number of bytes of the code that was translated.
+	 */
+	private final int byteLength;
+
+	/**
+	 * A stream without control instructions.
+	 */
+	public InstructionStream(int[] code, long[] constantAll, MemoryArgument[] memoryArgumentAll,
+							 int instructionCount, int byteLength) {
+		this(code, constantAll, memoryArgumentAll, new int[code.length], new int[code.length],
+			instructionCount, byteLength);
+	}
+
+	public InstructionStream(int[] code, long[] constantAll, MemoryArgument[] memoryArgumentAll,
+							 int[] targetAll, int[] arityAll, int instructionCount,
+							 int byteLength) {
+		this.code = code;
+		this.constantAll = constantAll;
+		this.memoryArgumentAll = memoryArgumentAll;
+		this.targetAll = targetAll;
+		this.arityAll = arityAll;
+		this.instructionCount = instructionCount;
+		this.byteLength = byteLength;
+	}
+
+	/**
+	 * The opcodes and immediates.  Do not change.
+	 *
+	 * @return the code.
+	 */
+	public int[] getCode() {
+		return code;
+	}
+
+	/**
+	 * The 64 bit constants, i64.const values and the bits of f64.const values.  Do not change.
+	 *
+	 * @return the constants.
+	 */
+	public long[] getConstantAll() {
+		return constantAll;
+	}
+
+	/**
+	 * The memory arguments of the loads and stores.  Do not change.
+	 *
+	 * @return the memory arguments.
+	 */
+	public MemoryArgument[] getMemoryArgumentAll() {
+		return memoryArgumentAll;
+	}
+
+	/**
+	 * The side table: the pc a control instruction jumps to, or {@link #NO_TARGET}.  Do not
+	 * change.
+	 *
+	 * @return the targets, indexed like the code.
+	 */
+	public int[] getTargetAll() {
+		return targetAll;
+	}
+
+	/**
+	 * The side table: the number of values a branch keeps on the stack, or
+	 * {@link #FUNCTION_ARITY}.  Do not change.
+	 *
+	 * @return the arities, indexed like the code.
+	 */
+	public int[] getArityAll() {
+		return arityAll;
+	}
+
+	/**
+	 * Length of the code in <code>int</code>.
+	 *
+	 * @return the length.
+	 */
+	public Integer length() {
+		return code.length;
+	}
+
+	public Integer getInstructionCount() {
+		return instructionCount;
+	}
+
+	public Integer getByteLength() {
+		return byteLength;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuffer sb = new StringBuffer("InstructionStream{");
+		sb.append("instructionCount=").append(instructionCount);
+		sb.append(", length=").append(code.length);
+		sb.append(", byteLength=").append(byteLength);
+		sb.append(", constantCount=").append(constantAll.length);
+		sb.append(", memoryArgumentCount=").append(memoryArgumentAll.length);
+		sb.append('}');
+		return sb.toString();
+	}
+}
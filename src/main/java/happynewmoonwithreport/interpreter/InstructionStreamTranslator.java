@@ -0,0 +1,361 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.MemoryArgument;
+import happynewmoonwithreport.type.U32;
+import happynewmoonwithreport.type.VarInt32;
+import happynewmoonwithreport.type.VarInt64;
+import happynewmoonwithreport.type.VarUInt32;
+import happynewmoonwithreport.type.utility.Hex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Translate the code of a function body to an {@link InstructionStream}.
+ * <br>
+ * The code is read once, from start to end.  Every immediate is decoded here so the interpreter
+ * does not have to.  The side table of the control instructions is built at the same time: a
+ * branch to a loop is resolved when it is read, a branch out of a block when the block's
+ * <code>end</code> is read.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/binary/instructions.html" target="_top">
+ * https://webassembly.github.io/spec/core/binary/instructions.html
+ * </a>
+ */
+public class InstructionStreamTranslator {
+
+	private int[] code;
+	private int length;
+	private long[] constantAll;
+	private int constantCount;
+	private ArrayList<MemoryArgument> memoryArgumentAll;
+	private int instructionCount;
+
+	/* The side table, see InstructionStream.getTargetAll(). */
+	private int[] targetAll;
+	private int[] arityAll;
+
+	/* The blocks, loops and ifs that are not ended yet, the innermost last. */
+	private ArrayList<OpenBlock> openBlockAll;
+
+	/* Branches out of the function, resolved to the end of the code. */
+	private ArrayList<Integer> functionBranchAll;
+
+	public InstructionStreamTranslator() {
+		super();
+	}
+
+	/**
+	 * Translate the code of a function body.
+	 *
+	 * @param bytesFile the code, from the first instruction up to but not including the final
+	 *                  <code>end</code>.  Read from the current index to the end.
+	 * @return the instruction stream.
+	 */
+	public InstructionStream translate(BytesFile bytesFile) {
+		final int start = bytesFile.getIndex();
+		final int byteLength = bytesFile.length() - start;
+
+		// Most instructions are one byte, a few more int covers the immediates.
+		code = new int[byteLength + 8];
+		targetAll = new int[code.length];
+		arityAll = new int[code.length];
+		length = 0;
+		constantAll = new long[4];
+		constantCount = 0;
+		memoryArgumentAll = new ArrayList<>();
+		instructionCount = 0;
+		openBlockAll = new ArrayList<>();
+		functionBranchAll = new ArrayList<>();
+
+		while (bytesFile.atEndOfFile() == false) {
+			translateInstruction(bytesFile);
+		}
+
+		for (Integer index : functionBranchAll) {
+			targetAll[index] = length;
+		}
+		// Blocks that are not ended, the code is not valid.
+		for (OpenBlock openBlock : openBlockAll) {
+			openBlock.resolve(InstructionStream.NO_TARGET);
+		}
+
+		return new InstructionStream(Arrays.copyOf(code, length),
+			Arrays.copyOf(constantAll, constantCount),
+			memoryArgumentAll.toArray(new MemoryArgument[0]), Arrays.copyOf(targetAll, length),
+			Arrays.copyOf(arityAll, length), instructionCount, byteLength);
+	}
+
+	private void translateInstruction(BytesFile bytesFile) {
+		final int byteIndex = bytesFile.getIndex();
+		final int opcode = bytesFile.readByte() & 0xFF;
+		instructionCount++;
+		add(opcode);
+
+		final int opcodeIndex = length - 1;
+		switch (opcode) {
+			case 0x02:   // block
+			case 0x03:   // loop
+			case 0x04: { // if
+				final ValueType blockType = ValueType.valueOf(bytesFile);
+				add(blockType.getType());
+				final int arity = (blockType == ValueType.EMPTY_BLOCK) ? 0 : 1;
+				openBlockAll.add(new OpenBlock(opcode, arity, length));
+				break;
+			}
+			case 0x05: { // else
+				if (openBlockAll.isEmpty() == false) {
+					openBlockAll.get(openBlockAll.size() - 1).startElse(opcodeIndex, length);
+				}
+				break;
+			}
+			case 0x0B: { // end
+				if (openBlockAll.isEmpty() == false) {
+					openBlockAll.remove(openBlockAll.size() - 1).resolve(opcodeIndex);
+				}
+				break;
+			}
+			case 0x0C:   // br
+			case 0x0D: { // br_if
+				addLabel((int) VarUInt32.decode(bytesFile));
+				break;
+			}
+			case 0x0E: { // br_table
+				final int count = (int) VarUInt32.decode(bytesFile);
+				add(count);
+				for (int i = 0; i < count; i++) {
+					addLabel((int) VarUInt32.decode(bytesFile));
+				}
+				addLabel((int) VarUInt32.decode(bytesFile)); // default label
+				break;
+			}
+			case 0x0F: { // return
+				addBranch(opcodeIndex, openBlockAll.size());
+				break;
+			}
+			case 0x10: { // call
+				add((int) VarUInt32.decode(bytesFile));
+				break;
+			}
+			case 0x11: { // call_indirect
+				add((int) VarUInt32.decode(bytesFile));
+				bytesFile.readByte(); // reserved, always zero.
+				break;
+			}
+			case 0x20:   // local.get
+			case 0x21:   // local.set
+			case 0x22:   // local.tee
+			case 0x23:   // global.get
+			case 0x24: { // global.set
+				add((int) VarUInt32.decode(bytesFile));
+				break;
+			}
+			case 0x3F:   // memory.size
+			case 0x40: { // memory.grow
+				bytesFile.readByte(); // reserved, always zero.
+				break;
+			}
+			case 0x41: { // i32.const
+				add(VarInt32.decode(bytesFile));
+				break;
+			}
+			case 0x42: { // i64.const
+				add(addConstant(VarInt64.decode(bytesFile)));
+				break;
+			}
+			case 0x43: { // f32.const, little endian.
+				int bits = (bytesFile.readByte() & 0xFF);
+				bits |= (bytesFile.readByte() & 0xFF) << 8;
+				bits |= (bytesFile.readByte() & 0xFF) << 16;
+				bits |= (bytesFile.readByte() & 0xFF) << 24;
+				add(bits);
+				break;
+			}
+			case 0x44: { // f64.const, little endian.
+				long bits = 0;
+				for (int shift = 0; shift < 64; shift += 8) {
+					bits |= ((long) (bytesFile.readByte() & 0xFF)) << shift;
+				}
+				add(addConstant(bits));
+				break;
+			}
+			case 0xFC: { // prefix
+				final int secondOpcode = (int) VarUInt32.decode(bytesFile);
+				if (7 < secondOpcode) {
+					throwUnknownOpcodeException(opcode, secondOpcode, byteIndex);
+				}
+				add(secondOpcode);
+				break;
+			}
+			default: {
+				if (0x28 <= opcode && opcode <= 0x3E) { // loads and stores
+					add(addMemoryArgument(bytesFile));
+				} else if (hasNoImmediate(opcode) == false) {
+					throwUnknownOpcodeException(opcode, null, byteIndex);
+				}
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Opcodes without immediates: the remaining control instructions, drop, select and the
+	 * numeric instructions.
+	 */
+	private static boolean hasNoImmediate(int opcode) {
+		switch (opcode) {
+			case 0x00: // unreachable
+			case 0x01: // nop
+			case 0x1A: // drop
+			case 0x1B: // select
+				return true;
+			default:
+				return 0x45 <= opcode && opcode <= 0xC4;
+		}
+	}
+
+	private int addMemoryArgument(BytesFile bytesFile) {
+		// The alignment comes first.
+		final long align = VarUInt32.decode(bytesFile);
+		final long offset = VarUInt32.decode(bytesFile);
+		memoryArgumentAll.add(new MemoryArgument(new U32(offset), new U32(align)));
+		return memoryArgumentAll.size() - 1;
+	}
+
+	private int addConstant(long value) {
+		if (constantCount == constantAll.length) {
+			constantAll = Arrays.copyOf(constantAll, constantAll.length * 2);
+		}
+		constantAll[constantCount] = value;
+		return constantCount++;
+	}
+
+	private void add(int value) {
+		if (length == code.length) {
+			code = Arrays.copyOf(code, code.length * 2);
+			targetAll = Arrays.copyOf(targetAll, code.length);
+			arityAll = Arrays.copyOf(arityAll, code.length);
+		}
+		code[length++] = value;
+	}
+
+	/**
+	 * Add the label of a branch and its side table entry.
+	 */
+	private void addLabel(int label) {
+		final int index = length;
+		add(label);
+		addBranch(index, label);
+	}
+
+	/**
+	 * Fill the side table entry of a branch.
+	 *
+	 * @param index the index of the entry.
+	 * @param label the label, 0 is the innermost block.  The number of open blocks is the
+	 *              function.
+	 */
+	private void addBranch(int index, int label) {
+		final int openCount = openBlockAll.size();
+		if (label < openCount) {
+			openBlockAll.get(openCount - 1 - label).addBranch(index);
+		} else if (label == openCount) {
+			arityAll[index] = InstructionStream.FUNCTION_ARITY;
+			functionBranchAll.add(index);
+		} else {
+			targetAll[index] = InstructionStream.NO_TARGET;
+		}
+	}
+
+	/**
+	 * A block, loop or if whose end has not been read yet.
+	 */
+	private class OpenBlock {
+		private final int opcode;
+		private final int arity;
+
+		/* The first instruction of the body. */
+		private final int start;
+
+		/* The side table entries that jump to the end. */
+		private final ArrayList<Integer> branchAll;
+
+		/* The entry of an if, where a false condition jumps to.  -1 once the else is read. */
+		private int ifIndex;
+
+		OpenBlock(int opcode, int arity, int start) {
+			this.opcode = opcode;
+			this.arity = arity;
+			this.start = start;
+			this.branchAll = new ArrayList<>();
+			this.ifIndex = (opcode == 0x04) ? start - 1 : -1;
+		}
+
+		/**
+		 * A branch to this block.  A loop is continued at its start, the others jump to the
+		 * end, which is not known yet.
+		 */
+		void addBranch(int index) {
+			if (opcode == 0x03) {
+				targetAll[index] = start;
+				arityAll[index] = 0;
+			} else {
+				arityAll[index] = arity;
+				branchAll.add(index);
+			}
+		}
+
+		/**
+		 * The else of an if.  A false condition runs the else body, the end of the if body
+		 * jumps to the end.
+		 */
+		void startElse(int elseIndex, int elseStart) {
+			if (ifIndex != -1) {
+				targetAll[ifIndex] = elseStart;
+				ifIndex = -1;
+			}
+			branchAll.add(elseIndex);
+		}
+
+		void resolve(int end) {
+			for (Integer index : branchAll) {
+				targetAll[index] = end;
+			}
+			if (ifIndex != -1) {
+				targetAll[ifIndex] = end;
+			}
+		}
+	}
+
+	private void throwUnknownOpcodeException(int opcode, Integer secondOpcode, int byteIndex) {
+		String message = "Unable to translate an opcode that is not defined. Unknown Opcode = "
+						 + Hex.byteToHex((byte) opcode);
+		if (secondOpcode != null) {
+			message += " " + secondOpcode;
+		}
+		message += " at byte number = " + byteIndex + ". ";
+		String possibleSolutions = "Verify the wasm file is valid.  Recompile Wasm File.";
+		throw new WasmRuntimeException(UUID.fromString("a5e0c2f4-3b1d-4e87-9c6a-0d2f7b8e1c34"),
+			message, possibleSolutions);
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.type.MemoryType;
+
+/**
+ * The state of one call of a {@link NodeTree}, passed to every node.
+ */
+public class NodeFrame {
+
+	/**
+	 * The locals, then one slot for each stack height.  A value that is still on the stack when
+	 * a statement runs is kept in the slot of its height.  Raw bits, as on the
+	 * {@link OperandStack}.
+	 */
+	final long[] slotAll;
+
+	/**
+	 * Memory 0 of the module, null if there is no memory.
+	 */
+	final MemoryType memory;
+
+	/**
+	 * Runs the opcodes that have no node of their own, see {@link ExpressionNodes.Bridge}.
+	 */
+	final StreamInterpreter interpreter;
+
+	NodeFrame(long[] slotAll, MemoryType memory, StreamInterpreter interpreter) {
+		this.slotAll = slotAll;
+		this.memory = memory;
+		this.interpreter = interpreter;
+	}
+}
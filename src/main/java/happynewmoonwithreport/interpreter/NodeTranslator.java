@@ -0,0 +1,453 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.opcode.Memory.LoadBase;
+import happynewmoonwithreport.opcode.Memory.StoreBase;
+import happynewmoonwithreport.type.MemoryArgument;
+import java.util.ArrayList;
+
+/**
+ * Compile a validated {@link InstructionStream} to a {@link NodeTree}.
+ * <br>
+ * The stream is read once with a stack of nodes: an instruction that computes a value pops the
+ * nodes of its operands and pushes its own node.  An instruction that does not compute a value,
+ * a store, a write to a local or a control instruction, is added to the statements of the
+ * innermost block.
+ * <br>
+ * Before a statement is added, every node still on the stack is computed into the slot of its
+ * height, so it is computed before the statement as the stack machine would, and the statement
+ * can not change it.  The constants are left as they are, except before a control instruction.
+ * The values a block leaves and a branch keeps are in the slots of the label's height.
+ * <br>
+ * The code after <code>br</code>, <code>br_table</code>, <code>return</code> and
+ * <code>unreachable</code> up to the end of the block can not be reached and is not compiled.
+ */
+public class NodeTranslator {
+
+	private InstructionStream stream;
+	private int localCount;
+
+	/* The stack of nodes. */
+	private ExpressionNode[] nodeAll;
+	private int height;
+
+	/* The blocks that are not ended yet, the function first. */
+	private ArrayList<Label> labelAll;
+
+	public NodeTranslator() {
+		super();
+	}
+
+	/**
+	 * Compile a stream.
+	 *
+	 * @param instructionStream the stream, not fused.
+	 * @param validator         the validator the stream passed.
+	 * @return the tree.
+	 */
+	public NodeTree translate(InstructionStream instructionStream, FunctionValidator validator) {
+		final int[] code = instructionStream.getCode();
+		stream = instructionStream;
+		localCount = validator.getLocalTypeAll().length;
+		nodeAll = new ExpressionNode[validator.getMaxStackHeight() + 1];
+		height = 0;
+		labelAll = new ArrayList<>();
+		labelAll.add(new Label(0x02, 0, validator.getReturnTypeAll().length, null));
+
+		// The depth of the blocks inside the code that can not be reached, -1 if it can.
+		int deadDepth = -1;
+
+		int pc = 0;
+		while (pc < code.length) {
+			final int opcode = code[pc];
+			final int next = pc + SuperinstructionFuser.instructionLength(code, pc);
+			if (0 <= deadDepth) {
+				if (opcode == 0x02 || opcode == 0x03 || opcode == 0x04) {
+					deadDepth++;
+				} else if (opcode == 0x0B && 0 < deadDepth) {
+					deadDepth--;
+				} else if (opcode == 0x0B) {
+					end();
+					deadDepth = -1;
+				} else if (opcode == 0x05 && deadDepth == 0) {
+					startElse();
+					deadDepth = -1;
+				}
+				pc = next;
+				continue;
+			}
+			if (translate(code, pc, opcode) == false) {
+				deadDepth = 0;
+			}
+			pc = next;
+		}
+		if (deadDepth < 0) {
+			spillControl();
+		}
+
+		final Label function = labelAll.remove(0);
+		return new NodeTree(new StatementNodes.Block(function.toArray()), instructionStream,
+			localCount, localCount + validator.getMaxStackHeight(),
+			validator.getReturnTypeAll().length);
+	}
+
+	/**
+	 * Compile one instruction.
+	 *
+	 * @return false if the code after the instruction can not be reached.
+	 */
+	private boolean translate(int[] code, int pc, int opcode) {
+		switch (opcode) {
+			case 0x00: // unreachable, the handler traps
+				spillAll();
+				add(new StatementNodes.Evaluate(
+					new ExpressionNodes.Bridge(pc, new ExpressionNode[0], false)));
+				return false;
+			case 0x01: // nop
+				return true;
+			case 0x02:   // block
+			case 0x03: { // loop
+				spillControl();
+				labelAll.add(new Label(opcode, height, arity(code[pc + 1]), null));
+				return true;
+			}
+			case 0x04: { // if
+				final ExpressionNode condition = pop();
+				spillControl();
+				labelAll.add(new Label(opcode, height, arity(code[pc + 1]), condition));
+				return true;
+			}
+			case 0x05: // else
+				spillControl();
+				startElse();
+				return true;
+			case 0x0B: // end
+				spillControl();
+				end();
+				return true;
+			case 0x0C: { // br
+				spillControl();
+				final int labelIndex = code[pc + 1];
+				addAll(moveAll(label(labelIndex)));
+				add(new StatementNodes.Br(labelIndex));
+				return false;
+			}
+			case 0x0D: { // br_if
+				final ExpressionNode condition = pop();
+				spillControl();
+				final int labelIndex = code[pc + 1];
+				add(new StatementNodes.BrIf(condition, labelIndex, moveAll(label(labelIndex))));
+				return true;
+			}
+			case 0x0E: { // br_table
+				final ExpressionNode index = pop();
+				spillControl();
+				final int count = code[pc + 1];
+				final int[] labelIndexAll = new int[count + 1];
+				final StatementNode[][] moveAll = new StatementNode[count + 1][];
+				for (int entry = 0; entry <= count; entry++) {
+					labelIndexAll[entry] = code[pc + 2 + entry];
+					moveAll[entry] = moveAll(label(labelIndexAll[entry]));
+				}
+				add(new StatementNodes.BrTable(index, labelIndexAll, moveAll));
+				return false;
+			}
+			case 0x0F: { // return
+				spillControl();
+				addAll(moveAll(labelAll.get(0)));
+				add(new StatementNodes.Br(labelAll.size() - 1));
+				return false;
+			}
+			case 0x1A: { // drop
+				final ExpressionNode value = pop();
+				if (value instanceof ExpressionNodes.LocalGet == false
+					&& ExpressionNodes.isConstant(value) == false) {
+					spillAll();
+					add(new StatementNodes.Evaluate(value));
+				}
+				return true;
+			}
+			case 0x1B: { // select
+				final ExpressionNode condition = pop();
+				final ExpressionNode value2 = pop();
+				final ExpressionNode value1 = pop();
+				push(new ExpressionNodes.Select(value1, value2, condition));
+				return true;
+			}
+			case 0x20: // local.get
+				push(new ExpressionNodes.LocalGet(code[pc + 1]));
+				return true;
+			case 0x21: { // local.set
+				final ExpressionNode value = pop();
+				spillAll();
+				add(new StatementNodes.LocalSet(code[pc + 1], value));
+				return true;
+			}
+			case 0x22: { // local.tee
+				final ExpressionNode value = pop();
+				spillAll();
+				add(new StatementNodes.LocalSet(code[pc + 1], value));
+				push(new ExpressionNodes.LocalGet(code[pc + 1]));
+				return true;
+			}
+			case 0x41:   // i32.const
+			case 0x43: { // f32.const, the bits
+				push(new ExpressionNodes.Const(code[pc + 1]));
+				return true;
+			}
+			case 0x42:   // i64.const
+			case 0x44: { // f64.const, the bits
+				push(new ExpressionNodes.Const64(stream.getConstantAll()[code[pc + 1]]));
+				return true;
+			}
+			default:
+				numeric(code, pc, opcode);
+				return true;
+		}
+	}
+
+	/**
+	 * An instruction with an {@link OpcodeSignature}.
+	 */
+	private void numeric(int[] code, int pc, int opcode) {
+		final OpcodeSignature signature = OpcodeSignature.get(opcode);
+		final int popCount = signature.getPopAll().length;
+		final int pushCount = signature.getPushAll().length;
+
+		final LoadBase load = load(opcode);
+		if (load != null) {
+			push(new ExpressionNodes.Load(load, memoryArgument(code, pc), pop()));
+			return;
+		}
+		final StoreBase store = store(opcode);
+		if (store != null) {
+			final ExpressionNode value = pop();
+			final ExpressionNode address = pop();
+			spillAll();
+			add(new StatementNodes.Store(store, memoryArgument(code, pc),
+				signature.getPopAll()[1], address, value));
+			return;
+		}
+
+		ExpressionNode node = null;
+		if (popCount == 2) {
+			node = ExpressionNodes.binary(opcode, nodeAll[height - 2], nodeAll[height - 1]);
+		} else if (popCount == 1) {
+			node = ExpressionNodes.unary(opcode, nodeAll[height - 1]);
+		}
+		if (node != null) {
+			height -= popCount;
+			push(node);
+			return;
+		}
+
+		// No node, bridged.  The opcode may have an effect, it is run where it is.
+		final ExpressionNode[] operandAll = new ExpressionNode[popCount];
+		for (int index = popCount - 1; 0 <= index; index--) {
+			operandAll[index] = pop();
+		}
+		final ExpressionNode bridge = new ExpressionNodes.Bridge(pc, operandAll, pushCount == 1);
+		spillAll();
+		if (pushCount == 0) {
+			add(new StatementNodes.Evaluate(bridge));
+		} else {
+			add(new StatementNodes.LocalSet(localCount + height, bridge));
+			push(new ExpressionNodes.LocalGet(localCount + height));
+		}
+	}
+
+	private MemoryArgument memoryArgument(int[] code, int pc) {
+		return stream.getMemoryArgumentAll()[code[pc + 1]];
+	}
+
+	private void startElse() {
+		final Label label = labelAll.get(labelAll.size() - 1);
+		label.thenAll = label.toArray();
+		label.statementAll.clear();
+		reset(label.height);
+	}
+
+	private void end() {
+		final Label label = labelAll.remove(labelAll.size() - 1);
+		final StatementNode node;
+		switch (label.opcode) {
+			case 0x03:
+				node = new StatementNodes.Loop(label.toArray());
+				break;
+			case 0x04:
+				if (label.thenAll == null) {
+					node = new StatementNodes.If(label.condition, label.toArray(),
+						new StatementNode[0]);
+				} else {
+					node = new StatementNodes.If(label.condition, label.thenAll, label.toArray());
+				}
+				break;
+			default:
+				node = new StatementNodes.Block(label.toArray());
+				break;
+		}
+		add(node);
+		reset(label.height + label.arity);
+	}
+
+	/**
+	 * Copy the values a branch keeps to the slots of the label.
+	 */
+	private StatementNode[] moveAll(Label label) {
+		final int arity = (label.opcode == 0x03) ? 0 : label.arity;
+		if (arity == 0 || height - arity == label.height) {
+			return new StatementNode[0];
+		}
+		final StatementNode[] result = new StatementNode[arity];
+		for (int index = 0; index < arity; index++) {
+			result[index] = new StatementNodes.LocalSet(localCount + label.height + index,
+				new ExpressionNodes.LocalGet(localCount + height - arity + index));
+		}
+		return result;
+	}
+
+	/**
+	 * Compute every node on the stack, except the constants, into the slot of its height.
+	 * Before a statement.
+	 */
+	private void spillAll() {
+		spillAll(false);
+	}
+
+	/**
+	 * Compute every node on the stack into the slot of its height.  Before a control
+	 * instruction, every path into a label must leave its values in the same slots.
+	 */
+	private void spillControl() {
+		spillAll(true);
+	}
+
+	private void spillAll(boolean constant) {
+		for (int index = 0; index < height; index++) {
+			final ExpressionNode node = nodeAll[index];
+			final int slot = localCount + index;
+			if (constant == false && ExpressionNodes.isConstant(node)) {
+				continue;
+			}
+			if (node instanceof ExpressionNodes.LocalGet
+				&& ((ExpressionNodes.LocalGet) node).index == slot) {
+				continue;
+			}
+			add(new StatementNodes.LocalSet(slot, node));
+			nodeAll[index] = new ExpressionNodes.LocalGet(slot);
+		}
+	}
+
+	/**
+	 * The stack after the end of a block: the values are in their slots.
+	 */
+	private void reset(int newHeight) {
+		for (int index = 0; index < newHeight; index++) {
+			nodeAll[index] = new ExpressionNodes.LocalGet(localCount + index);
+		}
+		height = newHeight;
+	}
+
+	private Label label(int labelIndex) {
+		return labelAll.get(labelAll.size() - 1 - labelIndex);
+	}
+
+	private void add(StatementNode statement) {
+		labelAll.get(labelAll.size() - 1).statementAll.add(statement);
+	}
+
+	private void addAll(StatementNode[] statementAll) {
+		for (StatementNode statement : statementAll) {
+			add(statement);
+		}
+	}
+
+	private void push(ExpressionNode node) {
+		nodeAll[height++] = node;
+	}
+
+	private ExpressionNode pop() {
+		return nodeAll[--height];
+	}
+
+	private static int arity(int blockType) {
+		return (blockType == ValueType.EMPTY_BLOCK.getType()) ? 0 : 1;
+	}
+
+	static LoadBase load(int opcode) {
+		switch (opcode) {
+			case 0x28: return HandlerTable.I32_LOAD;
+			case 0x29: return HandlerTable.I64_LOAD;
+			case 0x2A: return HandlerTable.F32_LOAD;
+			case 0x2B: return HandlerTable.F64_LOAD;
+			case 0x2C: return HandlerTable.I32_LOAD8_S;
+			case 0x2D: return HandlerTable.I32_LOAD8_U;
+			case 0x2E: return HandlerTable.I32_LOAD16_S;
+			case 0x2F: return HandlerTable.I32_LOAD16_U;
+			case 0x30: return HandlerTable.I64_LOAD8_S;
+			case 0x31: return HandlerTable.I64_LOAD8_U;
+			case 0x32: return HandlerTable.I64_LOAD16_S;
+			case 0x33: return HandlerTable.I64_LOAD16_U;
+			case 0x34: return HandlerTable.I64_LOAD32_S;
+			case 0x35: return HandlerTable.I64_LOAD32_U;
+			default: return null;
+		}
+	}
+
+	static StoreBase store(int opcode) {
+		switch (opcode) {
+			case 0x36: return HandlerTable.I32_STORE;
+			case 0x37: return HandlerTable.I64_STORE;
+			case 0x38: return HandlerTable.F32_STORE;
+			case 0x39: return HandlerTable.F64_STORE;
+			case 0x3A: return HandlerTable.I32_STORE8;
+			case 0x3B: return HandlerTable.I32_STORE16;
+			case 0x3C: return HandlerTable.I64_STORE8;
+			case 0x3D: return HandlerTable.I64_STORE16;
+			case 0x3E: return HandlerTable.I64_STORE32;
+			default: return null;
+		}
+	}
+
+	/**
+	 * A block, loop or if that is not ended yet, or the function.
+	 */
+	private static class Label {
+		private final int opcode;
+		private final int height;
+		private final int arity;
+		private final ExpressionNode condition;
+		private final ArrayList<StatementNode> statementAll;
+
+		/* The statements of the if body, once else is read. */
+		private StatementNode[] thenAll;
+
+		Label(int opcode, int height, int arity, ExpressionNode condition) {
+			this.opcode = opcode;
+			this.height = height;
+			this.arity = arity;
+			this.condition = condition;
+			this.statementAll = new ArrayList<>();
+		}
+
+		StatementNode[] toArray() {
+			return statementAll.toArray(new StatementNode[0]);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * A validated function body compiled to a tree of node objects.
+ * <br>
+ * Each instruction that computes a value is an {@link ExpressionNode} that holds the nodes of
+ * its operands, so <code>local.get a; i32.const 1; i32.add</code> is one add node with a local
+ * node below it.  The tree is walked by calling the nodes' methods, there is no operand stack
+ * and no dispatch loop.  The control instructions are {@link StatementNode}s that hold the
+ * statements of their blocks.
+ * <br>
+ * The locals and the values that are still on the stack when a statement runs are kept in one
+ * <code>long[]</code>: the locals first, then one slot for each stack height.  The results of the
+ * function are in the slots from <code>localCount</code> on.
+ * <br>
+ * Built by {@link NodeTranslator}, run by {@link StreamInterpreter#executeNodeTree(NodeTree)}.
+ */
+public class NodeTree {
+
+	private final StatementNodes.Block body;
+	private final InstructionStream instructionStream;
+	private final int localCount;
+	private final int slotCount;
+	private final int returnCount;
+
+	public NodeTree(StatementNodes.Block body, InstructionStream instructionStream,
+					Integer localCount, Integer slotCount, Integer returnCount) {
+		this.body = body;
+		this.instructionStream = instructionStream;
+		this.localCount = localCount;
+		this.slotCount = slotCount;
+		this.returnCount = returnCount;
+	}
+
+	/**
+	 * The function body, the outermost block.
+	 *
+	 * @return the body.
+	 */
+	public StatementNode getBody() {
+		return body;
+	}
+
+	/**
+	 * The stream that was compiled, it has the opcodes run by {@link ExpressionNodes.Bridge}.
+	 *
+	 * @return the instruction stream.
+	 */
+	public InstructionStream getInstructionStream() {
+		return instructionStream;
+	}
+
+	public Integer getLocalCount() {
+		return localCount;
+	}
+
+	/**
+	 * Number of slots, the locals and the largest stack height.
+	 *
+	 * @return the number of slots.
+	 */
+	public Integer getSlotCount() {
+		return slotCount;
+	}
+
+	public Integer getReturnCount() {
+		return returnCount;
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * Run one opcode of an {@link InstructionStream}.
+ * <br>
+ * A handler keeps no state.  The operand stack, frame, store and the decoded stream are read
+ * from the interpreter, and the immediates of the instruction start at <code>pc</code>.
+ *
+ * @see HandlerTable
+ */
+@FunctionalInterface
+public interface OpcodeHandler {
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param interpreter the interpreter running the stream.
+	 * @param pc          the index of the first immediate, the one after the opcode.
+	 * @return the index of the next opcode.
+	 */
+	int execute(StreamInterpreter interpreter, int pc);
+}
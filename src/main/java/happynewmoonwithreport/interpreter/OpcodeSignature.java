@@ -0,0 +1,156 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.ValueType;
+
+/**
+ * The operand types an opcode pops and the result types it pushes, for the opcodes whose types
+ * do not depend on the code around them.
+ * <br>
+ * Control opcodes, locals, <code>drop</code> and <code>select</code> are typed by the
+ * {@link FunctionValidator} itself and have no signature here.  Nor do the conversions that are
+ * not implemented yet.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/valid/instructions.html" target="_top">
+ * https://webassembly.github.io/spec/core/valid/instructions.html
+ * </a>
+ */
+public final class OpcodeSignature {
+
+	private static final OpcodeSignature[] signatureAll = buildSignatureAll();
+
+	private final ValueType[] popAll;
+	private final ValueType[] pushAll;
+
+	private OpcodeSignature(ValueType[] popAll, ValueType[] pushAll) {
+		this.popAll = popAll;
+		this.pushAll = pushAll;
+	}
+
+	/**
+	 * The signature of an opcode.
+	 *
+	 * @param opcode the opcode, 0 to 255.
+	 * @return the signature or null if the opcode has none.
+	 */
+	public static OpcodeSignature get(Integer opcode) {
+		return signatureAll[opcode];
+	}
+
+	/**
+	 * The types popped, the last one is the type on top of the stack.
+	 *
+	 * @return the types.
+	 */
+	public ValueType[] getPopAll() {
+		return popAll;
+	}
+
+	/**
+	 * The types pushed, the last one is the type on top of the stack.
+	 *
+	 * @return the types.
+	 */
+	public ValueType[] getPushAll() {
+		return pushAll;
+	}
+
+	private static OpcodeSignature[] buildSignatureAll() {
+		OpcodeSignature[] result = new OpcodeSignature[256];
+
+		// loads
+		set(result, 0x28, 0x28, "i", "i");
+		set(result, 0x29, 0x29, "i", "l");
+		set(result, 0x2A, 0x2A, "i", "f");
+		set(result, 0x2B, 0x2B, "i", "d");
+		set(result, 0x2C, 0x2F, "i", "i");
+		set(result, 0x30, 0x35, "i", "l");
+
+		// stores
+		set(result, 0x36, 0x36, "ii", "");
+		set(result, 0x37, 0x37, "il", "");
+		set(result, 0x38, 0x38, "if", "");
+		set(result, 0x39, 0x39, "id", "");
+		set(result, 0x3A, 0x3B, "ii", "");
+		set(result, 0x3C, 0x3E, "il", "");
+
+		// constants
+		set(result, 0x41, 0x41, "", "i");
+		set(result, 0x42, 0x42, "", "l");
+		set(result, 0x43, 0x43, "", "f");
+		set(result, 0x44, 0x44, "", "d");
+
+		// comparisons
+		set(result, 0x45, 0x45, "i", "i");
+		set(result, 0x46, 0x4F, "ii", "i");
+		set(result, 0x50, 0x50, "l", "i");
+		set(result, 0x51, 0x5A, "ll", "i");
+		set(result, 0x5B, 0x60, "ff", "i");
+		set(result, 0x61, 0x66, "dd", "i");
+
+		// numeric
+		set(result, 0x67, 0x69, "i", "i");
+		set(result, 0x6A, 0x78, "ii", "i");
+		set(result, 0x79, 0x7B, "l", "l");
+		set(result, 0x7C, 0x8A, "ll", "l");
+		set(result, 0x8B, 0x91, "f", "f");
+		set(result, 0x92, 0x98, "ff", "f");
+		set(result, 0x99, 0x9F, "d", "d");
+		set(result, 0xA0, 0xA6, "dd", "d");
+
+		// conversions, only the implemented ones
+		set(result, 0xAC, 0xAD, "i", "l");
+		set(result, 0xC0, 0xC1, "i", "i");
+		set(result, 0xC2, 0xC4, "l", "l");
+
+		return result;
+	}
+
+	private static void set(OpcodeSignature[] signatureAll, int firstOpcode, int lastOpcode,
+							String pop, String push) {
+		OpcodeSignature signature = new OpcodeSignature(toTypeAll(pop), toTypeAll(push));
+		for (int opcode = firstOpcode; opcode <= lastOpcode; opcode++) {
+			signatureAll[opcode] = signature;
+		}
+	}
+
+	/**
+	 * @param typeAll one letter for each type, i = i32, l = i64, f = f32, d = f64.
+	 */
+	private static ValueType[] toTypeAll(String typeAll) {
+		ValueType[] result = new ValueType[typeAll.length()];
+		for (int index = 0; index < result.length; index++) {
+			switch (typeAll.charAt(index)) {
+				case 'i':
+					result[index] = ValueType.INT32;
+					break;
+				case 'l':
+					result[index] = ValueType.INT64;
+					break;
+				case 'f':
+					result[index] = ValueType.F32;
+					break;
+				default:
+					result[index] = ValueType.F64;
+					break;
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The operand stack of a validated function.
+ * <br>
+ * Each value is the raw bits of a number in one <code>long</code>.  An i32 is stored sign
+ * extended, an f32 as <code>Float.floatToRawIntBits</code> and an f64 as
+ * <code>Double.doubleToRawLongBits</code>, so NaN payloads are kept.  The type of a value is not
+ * stored, validation has already proved which type each instruction finds on the stack.
+ * <br>
+ * Not synchronized, one stack is used by one thread.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/exec/runtime.html#stack" target="_top">
+ * https://webassembly.github.io/spec/core/exec/runtime.html#stack
+ * </a>
+ */
+public class OperandStack {
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private long[] valueAll;
+	private int size;
+
+	public OperandStack() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity the number of values held before the stack grows.
+	 */
+	public OperandStack(Integer capacity) {
+		this.valueAll = new long[Math.max(capacity, 1)];
+		this.size = 0;
+	}
+
+	public void pushI32(int value) {
+		push(value);
+	}
+
+	public int popI32() {
+		return (int) pop();
+	}
+
+	public void pushI64(long value) {
+		push(value);
+	}
+
+	public long popI64() {
+		return pop();
+	}
+
+	public void pushF32(float value) {
+		push(Float.floatToRawIntBits(value));
+	}
+
+	public float popF32() {
+		return Float.intBitsToFloat((int) pop());
+	}
+
+	public void pushF64(double value) {
+		push(Double.doubleToRawLongBits(value));
+	}
+
+	public double popF64() {
+		return Double.longBitsToDouble(pop());
+	}
+
+	/**
+	 * Push the raw bits of a value of any type.
+	 *
+	 * @param bits the bits.
+	 */
+	public void push(long bits) {
+		if (size == valueAll.length) {
+			valueAll = Arrays.copyOf(valueAll, valueAll.length * 2);
+		}
+		valueAll[size++] = bits;
+	}
+
+	/**
+	 * Pop the raw bits of a value of any type.
+	 *
+	 * @return the bits.
+	 */
+	public long pop() {
+		if (size == 0) {
+			throw new WasmRuntimeException(UUID.fromString("c7e0f6a2-4b9d-4d31-8a5e-2f1b7c3d9e08"),
+				"Operand stack is empty.");
+		}
+		return valueAll[--size];
+	}
+
+	/**
+	 * The raw bits of the value on top of the stack, the stack is not changed.
+	 *
+	 * @return the bits.
+	 */
+	public long peek() {
+		if (size == 0) {
+			throw new WasmRuntimeException(UUID.fromString("5a3d8c1e-7f20-4b6a-9e4d-0c8b2a7f1d63"),
+				"Operand stack is empty.");
+		}
+		return valueAll[size - 1];
+	}
+
+	/**
+	 * Make sure at least <code>capacity</code> values fit without growing.
+	 *
+	 * @param capacity the number of values.
+	 */
+	public void ensureCapacity(Integer capacity) {
+		if (valueAll.length < capacity) {
+			valueAll = Arrays.copyOf(valueAll, capacity);
+		}
+	}
+
+	/**
+	 * Leave a block: keep the top <code>arity</code> values and drop the values between them and
+	 * <code>height</code>.
+	 *
+	 * @param height the height of the stack when the block was entered.
+	 * @param arity  the number of values the block leaves.
+	 */
+	public void unwind(int height, int arity) {
+		final int from = size - arity;
+		if (from != height) {
+			System.arraycopy(valueAll, from, valueAll, height, arity);
+		}
+		size = height + arity;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.type.F32;
+import happynewmoonwithreport.type.F64;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.I64;
+import java.util.UUID;
+
+/**
+ * Convert between the objects on a {@link WasmStack} and the raw bits on an
+ * {@link OperandStack}.
+ * <br>
+ * Used where a validated function meets code that works with objects: the parameters and
+ * results of a call, the locals of the frame, the opcodes that still run on the object stack and
+ * tests written for the object stack.
+ */
+public final class OperandStackAdapter {
+
+	private OperandStackAdapter() {
+		super();
+	}
+
+	/**
+	 * The raw bits of a value.
+	 *
+	 * @param value an I32, I64, F32 or F64.
+	 * @return the bits as stored on an {@link OperandStack}.
+	 */
+	public static long toBits(Object value) {
+		if (value instanceof I32) {
+			return ((I32) value).integerValue();
+		}
+		if (value instanceof I64) {
+			return ((I64) value).longValue();
+		}
+		if (value instanceof F32) {
+			return ((F32) value).toBits();
+		}
+		if (value instanceof F64) {
+			return ((F64) value).toBits();
+		}
+		throw new WasmRuntimeException(UUID.fromString("e2b6d0a4-9c71-4f58-b3e2-6a1d8f4c0b97"),
+			"Value can not be stored on the operand stack. Value = " + value);
+	}
+
+	/**
+	 * Is the value of a type?
+	 *
+	 * @param value a value from Java, the parameter of a call.
+	 * @param type  the type of the value.
+	 * @return true for an I32 of type int32, an I64 of type int64, an F32 of type f32 or an F64
+	 * 		of type f64.
+	 */
+	public static Boolean isOfType(Object value, ValueType type) {
+		if (type == ValueType.INT32) {
+			return value instanceof I32;
+		}
+		if (type == ValueType.INT64) {
+			return value instanceof I64;
+		}
+		if (type == ValueType.F32) {
+			return value instanceof F32;
+		}
+		if (type == ValueType.F64) {
+			return value instanceof F64;
+		}
+		return false;
+	}
+
+	/**
+	 * The value for some raw bits.
+	 *
+	 * @param bits the bits as stored on an {@link OperandStack}.
+	 * @param type the type of the value.
+	 * @return a new I32, I64, F32 or F64.
+	 */
+	public static Object fromBits(long bits, ValueType type) {
+		if (type == ValueType.INT32) {
+			return new I32((int) bits);
+		}
+		if (type == ValueType.INT64) {
+			return new I64(bits);
+		}
+		if (type == ValueType.F32) {
+			return new F32(Float.intBitsToFloat((int) bits));
+		}
+		if (type == ValueType.F64) {
+			return new F64(Double.longBitsToDouble(bits));
+		}
+		throw new WasmRuntimeException(UUID.fromString("0d94a7e3-51c8-4b2f-8e6a-c3f7b1d2a985"),
+			"Type can not be stored on the operand stack. Type = " + type);
+	}
+
+	/**
+	 * Push a value.
+	 *
+	 * @param stack the operand stack.
+	 * @param value an I32, I64, F32 or F64.
+	 */
+	public static void push(OperandStack stack, Object value) {
+		stack.push(toBits(value));
+	}
+
+	/**
+	 * Pop a value.
+	 *
+	 * @param stack the operand stack.
+	 * @param type  the type of the value on top of the stack.
+	 * @return the value.
+	 */
+	public static Object pop(OperandStack stack, ValueType type) {
+		return fromBits(stack.pop(), type);
+	}
+
+	/**
+	 * Move the values on top of an operand stack to an object stack.  The order of the values is
+	 * kept, the last type is the type of the value on top.
+	 *
+	 * @param from    the operand stack.
+	 * @param to      the object stack.
+	 * @param typeAll the types of the values to move.
+	 */
+	public static void toWasmStack(OperandStack from, WasmStack<Object> to, ValueType[] typeAll) {
+		final int count = typeAll.length;
+		if (count == 1) {
+			to.push(pop(from, typeAll[0]));
+			return;
+		}
+		Object[] valueAll = new Object[count];
+		for (int index = count - 1; 0 <= index; index--) {
+			valueAll[index] = pop(from, typeAll[index]);
+		}
+		for (int index = 0; index < count; index++) {
+			to.push(valueAll[index]);
+		}
+	}
+
+	/**
+	 * Move the values on top of an object stack to an operand stack.  The order of the values is
+	 * kept.
+	 *
+	 * @param from  the object stack.
+	 * @param to    the operand stack.
+	 * @param count the number of values to move.
+	 */
+	public static void toOperandStack(WasmStack<Object> from, OperandStack to, int count) {
+		if (count == 1) {
+			push(to, from.pop());
+			return;
+		}
+		final int first = from.size() - count;
+		for (int index = 0; index < count; index++) {
+			push(to, from.get(first + index));
+		}
+		for (int index = 0; index < count; index++) {
+			from.pop();
+		}
+	}
+}
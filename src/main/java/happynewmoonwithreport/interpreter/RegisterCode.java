@@ -0,0 +1,138 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * A validated function body translated to register code.
+ * <br>
+ * Every value has a numbered register, an index into one <code>long[]</code> that holds raw bits
+ * like the {@link OperandStack}.  The locals are the registers 0 to <code>localCount - 1</code>,
+ * the value at stack height h is register <code>localCount + h</code>.  An instruction names the
+ * registers it reads and writes, so <code>local.get a; local.get b; i32.add; local.set c</code>
+ * is the one instruction <code>i32.add c, a, b</code>.
+ * <br>
+ * The numeric instructions keep their wasm opcode, followed by the destination register and the
+ * source registers.  The instructions of the register code alone are numbered from 0x100:
+ * <ul>
+ * <li>{@link #MOVE} d, s.</li>
+ * <li>{@link #CONST} d, value: a 32 bit value, an i32 or the bits of an f32.</li>
+ * <li>{@link #CONST64} d, index: an index into the constants of the instruction stream.</li>
+ * <li>{@link #I32_ADD_IMM} d, a, value.</li>
+ * <li>{@link #SELECT} d, a, b, condition.</li>
+ * <li>{@link #JUMP} target.</li>
+ * <li>{@link #BR_IF} condition, target and {@link #BR_UNLESS} condition, target.</li>
+ * <li>{@link #BR_TABLE} index, n, the n targets, the default target.</li>
+ * <li>{@link #BRIDGE} stream pc, first register, pop count, push count: run the opcode at the
+ * stream pc with its handler from the {@link TypedHandlerTable}.  The operands are the
+ * registers from the first register on.</li>
+ * </ul>
+ * The results of the function are in the registers from <code>localCount</code> on.
+ * <br>
+ * Built by {@link RegisterTranslator}, run by
+ * {@link StreamInterpreter#executeRegister(RegisterCode)}.
+ */
+public class RegisterCode {
+
+	public static final int MOVE = 0x100;
+	public static final int CONST = 0x101;
+	public static final int CONST64 = 0x102;
+	public static final int I32_ADD_IMM = 0x103;
+	public static final int SELECT = 0x104;
+	public static final int JUMP = 0x105;
+	public static final int BR_IF = 0x106;
+	public static final int BR_UNLESS = 0x107;
+	public static final int BR_TABLE = 0x108;
+	public static final int BRIDGE = 0x109;
+
+	/**
+	 * Number of instructions of the register code alone.
+	 */
+	public static final int COUNT = 10;
+
+	private final int[] code;
+	private final InstructionStream instructionStream;
+	private final int localCount;
+	private final int registerCount;
+	private final int returnCount;
+	private final int instructionCount;
+
+	public RegisterCode(int[] code, InstructionStream instructionStream, Integer localCount,
+						Integer registerCount, Integer returnCount, Integer instructionCount) {
+		this.code = code;
+		this.instructionStream = instructionStream;
+		this.localCount = localCount;
+		this.registerCount = registerCount;
+		this.returnCount = returnCount;
+		this.instructionCount = instructionCount;
+	}
+
+	/**
+	 * The instructions and their operands.  Do not change.
+	 *
+	 * @return the code.
+	 */
+	public int[] getCode() {
+		return code;
+	}
+
+	/**
+	 * The stream that was translated, it has the constants and memory arguments, and the
+	 * opcodes run by {@link #BRIDGE}.
+	 *
+	 * @return the instruction stream.
+	 */
+	public InstructionStream getInstructionStream() {
+		return instructionStream;
+	}
+
+	/**
+	 * Number of locals, the parameters included.  The first stack register.
+	 *
+	 * @return the number of locals.
+	 */
+	public Integer getLocalCount() {
+		return localCount;
+	}
+
+	/**
+	 * Number of registers, the locals and the largest stack height.
+	 *
+	 * @return the number of registers.
+	 */
+	public Integer getRegisterCount() {
+		return registerCount;
+	}
+
+	public Integer getReturnCount() {
+		return returnCount;
+	}
+
+	public Integer getInstructionCount() {
+		return instructionCount;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuffer sb = new StringBuffer("RegisterCode{");
+		sb.append("instructionCount=").append(instructionCount);
+		sb.append(", length=").append(code.length);
+		sb.append(", registerCount=").append(registerCount);
+		sb.append(", streamInstructionCount=").append(instructionStream.getInstructionCount());
+		sb.append('}');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * The handlers of the {@link RegisterCode}, indexed by opcode.
+ * <br>
+ * A handler reads its registers from the operands that follow the opcode and writes the result
+ * straight to the destination register.  Nothing is pushed or popped.  An i32 is kept sign
+ * extended, as on the {@link OperandStack}.
+ * <br>
+ * Only the common integer instructions have a handler of their own.  The other instructions are
+ * run by {@link RegisterCode#BRIDGE} with the handler of the {@link TypedHandlerTable}.
+ */
+public final class RegisterHandlerTable {
+
+	/**
+	 * Handlers indexed by opcode.  Null for an opcode that is bridged.
+	 */
+	static final OpcodeHandler[] PRIMARY = buildPrimary();
+
+	private RegisterHandlerTable() {
+		super();
+	}
+
+	/**
+	 * Does the opcode have a handler of its own?
+	 *
+	 * @param opcode a wasm opcode, 0 to 255.
+	 * @return false if the opcode is bridged.
+	 */
+	public static Boolean isNative(Integer opcode) {
+		return PRIMARY[opcode] != null;
+	}
+
+	/**
+	 * A handler for <code>d = a op b</code> on two i32.
+	 */
+	private interface I32Binary {
+		int apply(int value1, int value2);
+	}
+
+	/**
+	 * A handler for <code>d = a op b</code> on two i64 with an i64 or i32 result.
+	 */
+	private interface I64Binary {
+		long apply(long value1, long value2);
+	}
+
+	private static OpcodeHandler i32(I32Binary operator) {
+		return (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = operator.apply((int) register[code[pc + 1]],
+				(int) register[code[pc + 2]]);
+			return pc + 3;
+		};
+	}
+
+	private static OpcodeHandler i64(I64Binary operator) {
+		return (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = operator.apply(register[code[pc + 1]], register[code[pc + 2]]);
+			return pc + 3;
+		};
+	}
+
+	private static OpcodeHandler[] buildPrimary() {
+		OpcodeHandler[] table = new OpcodeHandler[256 + RegisterCode.COUNT];
+
+		// the i32 compares
+		table[0x46] = i32((value1, value2) -> value1 == value2 ? 1 : 0);
+		table[0x47] = i32((value1, value2) -> value1 != value2 ? 1 : 0);
+		table[0x48] = i32((value1, value2) -> value1 < value2 ? 1 : 0);
+		table[0x49] = i32((value1, value2) -> Integer.compareUnsigned(value1, value2) < 0 ? 1 : 0);
+		table[0x4A] = i32((value1, value2) -> value1 > value2 ? 1 : 0);
+		table[0x4B] = i32((value1, value2) -> Integer.compareUnsigned(value1, value2) > 0 ? 1 : 0);
+		table[0x4C] = i32((value1, value2) -> value1 <= value2 ? 1 : 0);
+		table[0x4D] = i32((value1, value2) -> Integer.compareUnsigned(value1, value2) <= 0 ? 1 : 0);
+		table[0x4E] = i32((value1, value2) -> value1 >= value2 ? 1 : 0);
+		table[0x4F] = i32((value1, value2) -> Integer.compareUnsigned(value1, value2) >= 0 ? 1 : 0);
+
+		// the i64 compares
+		table[0x51] = i64((value1, value2) -> value1 == value2 ? 1 : 0);
+		table[0x52] = i64((value1, value2) -> value1 != value2 ? 1 : 0);
+		table[0x53] = i64((value1, value2) -> value1 < value2 ? 1 : 0);
+		table[0x54] = i64((value1, value2) -> Long.compareUnsigned(value1, value2) < 0 ? 1 : 0);
+		table[0x55] = i64((value1, value2) -> value1 > value2 ? 1 : 0);
+		table[0x56] = i64((value1, value2) -> Long.compareUnsigned(value1, value2) > 0 ? 1 : 0);
+		table[0x57] = i64((value1, value2) -> value1 <= value2 ? 1 : 0);
+		table[0x58] = i64((value1, value2) -> Long.compareUnsigned(value1, value2) <= 0 ? 1 : 0);
+		table[0x59] = i64((value1, value2) -> value1 >= value2 ? 1 : 0);
+		table[0x5A] = i64((value1, value2) -> Long.compareUnsigned(value1, value2) >= 0 ? 1 : 0);
+
+		// the i32 arithmetic, the shift counts are taken modulo 32 by Java as by wasm
+		table[0x6A] = i32((value1, value2) -> value1 + value2);
+		table[0x6B] = i32((value1, value2) -> value1 - value2);
+		table[0x6C] = i32((value1, value2) -> value1 * value2);
+		table[0x71] = i32((value1, value2) -> value1 & value2);
+		table[0x72] = i32((value1, value2) -> value1 | value2);
+		table[0x73] = i32((value1, value2) -> value1 ^ value2);
+		table[0x74] = i32((value1, value2) -> value1 << value2);
+		table[0x75] = i32((value1, value2) -> value1 >> value2);
+		table[0x76] = i32((value1, value2) -> value1 >>> value2);
+		table[0x77] = i32(Integer::rotateLeft);
+		table[0x78] = i32(Integer::rotateRight);
+
+		// the i64 arithmetic
+		table[0x7C] = i64((value1, value2) -> value1 + value2);
+		table[0x7D] = i64((value1, value2) -> value1 - value2);
+		table[0x7E] = i64((value1, value2) -> value1 * value2);
+		table[0x83] = i64((value1, value2) -> value1 & value2);
+		table[0x84] = i64((value1, value2) -> value1 | value2);
+		table[0x85] = i64((value1, value2) -> value1 ^ value2);
+		table[0x86] = i64((value1, value2) -> value1 << value2);
+		table[0x87] = i64((value1, value2) -> value1 >> value2);
+		table[0x88] = i64((value1, value2) -> value1 >>> value2);
+
+		// i32.eqz
+		table[0x45] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = (int) register[code[pc + 1]] == 0 ? 1 : 0;
+			return pc + 2;
+		};
+
+		// i64.eqz
+		table[0x50] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = register[code[pc + 1]] == 0 ? 1 : 0;
+			return pc + 2;
+		};
+
+		// i32.wrap_i64
+		table[0xA7] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = (int) register[code[pc + 1]];
+			return pc + 2;
+		};
+
+		// i64.extend_i32_s, the i32 is already sign extended
+		table[0xAC] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = register[code[pc + 1]];
+			return pc + 2;
+		};
+
+		// i64.extend_i32_u
+		table[0xAD] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = register[code[pc + 1]] & 0xFFFF_FFFFL;
+			return pc + 2;
+		};
+
+		table[RegisterCode.MOVE] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = register[code[pc + 1]];
+			return pc + 2;
+		};
+
+		table[RegisterCode.CONST] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			interpreter.registerAll[code[pc]] = code[pc + 1];
+			return pc + 2;
+		};
+
+		table[RegisterCode.CONST64] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			interpreter.registerAll[code[pc]] = interpreter.constantAll[code[pc + 1]];
+			return pc + 2;
+		};
+
+		table[RegisterCode.I32_ADD_IMM] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = (int) register[code[pc + 1]] + code[pc + 2];
+			return pc + 3;
+		};
+
+		table[RegisterCode.SELECT] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			register[code[pc]] = (int) register[code[pc + 3]] != 0 ? register[code[pc + 1]]
+																	: register[code[pc + 2]];
+			return pc + 4;
+		};
+
+		table[RegisterCode.JUMP] = (interpreter, pc) -> interpreter.registerCode[pc];
+
+		table[RegisterCode.BR_IF] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			if ((int) interpreter.registerAll[code[pc]] != 0) {
+				return code[pc + 1];
+			}
+			return pc + 2;
+		};
+
+		table[RegisterCode.BR_UNLESS] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			if ((int) interpreter.registerAll[code[pc]] == 0) {
+				return code[pc + 1];
+			}
+			return pc + 2;
+		};
+
+		table[RegisterCode.BR_TABLE] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final int index = (int) interpreter.registerAll[code[pc]];
+			final int count = code[pc + 1];
+			if (Integer.compareUnsigned(index, count) < 0) {
+				return code[pc + 2 + index];
+			}
+			return code[pc + 2 + count];
+		};
+
+		table[RegisterCode.BRIDGE] = (interpreter, pc) -> {
+			final int[] code = interpreter.registerCode;
+			final long[] register = interpreter.registerAll;
+			final OperandStack stack = interpreter.operandStack;
+			final int streamPc = code[pc];
+			final int first = code[pc + 1];
+			final int popCount = code[pc + 2];
+			final int pushCount = code[pc + 3];
+			for (int index = 0; index < popCount; index++) {
+				stack.push(register[first + index]);
+			}
+			TypedHandlerTable.PRIMARY[interpreter.code[streamPc]].execute(interpreter, streamPc + 1);
+			for (int index = pushCount - 1; 0 <= index; index--) {
+				register[first + index] = stack.pop();
+			}
+			return pc + 4;
+		};
+
+		return table;
+	}
+}
@@ -0,0 +1,553 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.ValueType;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Translate a validated {@link InstructionStream} to {@link RegisterCode}.
+ * <br>
+ * The stream is read once.  The translator keeps a model of the operand stack: for each height,
+ * where the value is.  A value may be in its own stack register, in a local, or be an i32
+ * constant not yet written anywhere.  <code>local.get</code> and <code>i32.const</code> emit
+ * nothing, the instruction that uses the value reads the local or takes the constant.  An
+ * instruction whose result is stored by the next <code>local.set</code> or
+ * <code>local.tee</code> writes the local directly.
+ * <br>
+ * Before a local is written, the values that still refer to it are copied to their stack
+ * registers.  Every value is put in its stack register before a control instruction, so every
+ * path into a label agrees on where the values are.  The heights come from the validation, a
+ * branch copies the values it keeps to the registers of its label.
+ * <br>
+ * The code after <code>br</code>, <code>br_table</code>, <code>return</code> and
+ * <code>unreachable</code> up to the end of the block can not be reached and is not
+ * translated.
+ */
+public class RegisterTranslator {
+
+	/* Where the value at a height is. */
+	private static final int TEMP = 0;
+	private static final int LOCAL = 1;
+	private static final int CONST = 2;
+
+	private int[] code;
+	private int length;
+	private int instructionCount;
+
+	private int localCount;
+
+	/* The model of the operand stack. */
+	private int[] kindAll;
+	private int[] valueAll;
+	private int height;
+
+	/* The blocks that are not ended yet, the function first. */
+	private ArrayList<Label> labelAll;
+
+	/* The index of the destination of the last instruction, if it wrote the top of the stack. */
+	private int producer;
+
+	public RegisterTranslator() {
+		super();
+	}
+
+	/**
+	 * Translate a stream.
+	 *
+	 * @param stream    the stream, not fused.
+	 * @param validator the validator the stream passed.
+	 * @return the register code.
+	 */
+	public RegisterCode translate(InstructionStream stream, FunctionValidator validator) {
+		final int[] streamCode = stream.getCode();
+		code = new int[streamCode.length * 2 + 8];
+		length = 0;
+		instructionCount = 0;
+		localCount = validator.getLocalTypeAll().length;
+		kindAll = new int[validator.getMaxStackHeight() + 1];
+		valueAll = new int[validator.getMaxStackHeight() + 1];
+		height = 0;
+		labelAll = new ArrayList<>();
+		labelAll.add(new Label(0x02, 0, validator.getReturnTypeAll().length));
+		producer = -1;
+
+		// The depth of the blocks inside the code that can not be reached, -1 if it can.
+		int deadDepth = -1;
+
+		int pc = 0;
+		while (pc < streamCode.length) {
+			final int opcode = streamCode[pc];
+			final int next = pc + SuperinstructionFuser.instructionLength(streamCode, pc);
+			if (0 <= deadDepth) {
+				if (opcode == 0x02 || opcode == 0x03 || opcode == 0x04) {
+					deadDepth++;
+				} else if ((opcode == 0x0B || opcode == 0x05) && 0 < deadDepth) {
+					if (opcode == 0x0B) {
+						deadDepth--;
+					}
+				} else if (opcode == 0x0B) {
+					end(false);
+					deadDepth = -1;
+				} else if (opcode == 0x05) {
+					startElse(false);
+					deadDepth = -1;
+				}
+				pc = next;
+				continue;
+			}
+			if (translate(streamCode, pc, opcode) == false) {
+				deadDepth = 0;
+			}
+			pc = next;
+		}
+		if (deadDepth < 0) {
+			materializeAll();
+		}
+		bind(labelAll.remove(0));
+
+		return new RegisterCode(Arrays.copyOf(code, length), stream, localCount,
+			localCount + validator.getMaxStackHeight(), validator.getReturnTypeAll().length,
+			instructionCount);
+	}
+
+	/**
+	 * Translate one instruction.
+	 *
+	 * @return false if the code after the instruction can not be reached.
+	 */
+	private boolean translate(int[] streamCode, int pc, int opcode) {
+		switch (opcode) {
+			case 0x00: // unreachable, the handler traps
+				start(RegisterCode.BRIDGE);
+				add(pc);
+				add(localCount + height);
+				add(0);
+				add(0);
+				return false;
+			case 0x01: // nop
+				return true;
+			case 0x02: // block
+				materializeAll();
+				labelAll.add(new Label(opcode, height, arity(streamCode[pc + 1])));
+				return true;
+			case 0x03: { // loop
+				materializeAll();
+				final Label label = new Label(opcode, height, arity(streamCode[pc + 1]));
+				label.start = length;
+				producer = -1;
+				labelAll.add(label);
+				return true;
+			}
+			case 0x04: { // if
+				final int condition = popRegister();
+				materializeAll();
+				final Label label = new Label(opcode, height, arity(streamCode[pc + 1]));
+				start(RegisterCode.BR_UNLESS);
+				add(condition);
+				label.elseFixup = length;
+				add(0);
+				labelAll.add(label);
+				return true;
+			}
+			case 0x05: // else
+				startElse(true);
+				return true;
+			case 0x0B: // end
+				end(true);
+				return true;
+			case 0x0C: // br
+				materializeAll();
+				branch(label(streamCode[pc + 1]));
+				return false;
+			case 0x0D: { // br_if
+				final int condition = popRegister();
+				materializeAll();
+				branchIf(condition, label(streamCode[pc + 1]));
+				return true;
+			}
+			case 0x0E: // br_table
+				branchTable(streamCode, pc);
+				return false;
+			case 0x0F: // return
+				materializeAll();
+				branch(labelAll.get(0));
+				return false;
+			case 0x1A: // drop
+				height--;
+				producer = -1;
+				return true;
+			case 0x1B: { // select
+				final int condition = popRegister();
+				final int value2 = popRegister();
+				final int value1 = popRegister();
+				start(RegisterCode.SELECT);
+				final int destination = pushTemp();
+				add(value1);
+				add(value2);
+				add(condition);
+				producer = destination;
+				return true;
+			}
+			case 0x20: // local.get
+				push(LOCAL, streamCode[pc + 1]);
+				return true;
+			case 0x21: // local.set
+				setLocal(streamCode[pc + 1]);
+				return true;
+			case 0x22: // local.tee
+				setLocal(streamCode[pc + 1]);
+				push(LOCAL, streamCode[pc + 1]);
+				return true;
+			case 0x41: // i32.const
+				push(CONST, streamCode[pc + 1]);
+				return true;
+			case 0x42:   // i64.const
+			case 0x44: { // f64.const
+				start(RegisterCode.CONST64);
+				producer = pushTemp();
+				add(streamCode[pc + 1]);
+				return true;
+			}
+			case 0x43: { // f32.const
+				start(RegisterCode.CONST);
+				producer = pushTemp();
+				add(streamCode[pc + 1]);
+				return true;
+			}
+			default:
+				numeric(pc, opcode);
+				return true;
+		}
+	}
+
+	/**
+	 * An instruction with an {@link OpcodeSignature}.
+	 */
+	private void numeric(int pc, int opcode) {
+		final OpcodeSignature signature = OpcodeSignature.get(opcode);
+		final int popCount = signature.getPopAll().length;
+		final int pushCount = signature.getPushAll().length;
+		if (RegisterHandlerTable.isNative(opcode) == false) {
+			for (int index = height - popCount; index < height; index++) {
+				materialize(index);
+			}
+			height -= popCount;
+			start(RegisterCode.BRIDGE);
+			add(pc);
+			add(localCount + height);
+			add(popCount);
+			add(pushCount);
+			for (int index = 0; index < pushCount; index++) {
+				push(TEMP, 0);
+			}
+			producer = -1;
+			return;
+		}
+		if (popCount == 1) {
+			final int value1 = popRegister();
+			start(opcode);
+			producer = pushTemp();
+			add(value1);
+			return;
+		}
+		if (opcode == 0x6A && kindAll[height - 1] == CONST) {
+			// i32.add of a constant
+			final int value2 = valueAll[height - 1];
+			height--;
+			final int value1 = popRegister();
+			start(RegisterCode.I32_ADD_IMM);
+			producer = pushTemp();
+			add(value1);
+			add(value2);
+			return;
+		}
+		final int value2 = popRegister();
+		final int value1 = popRegister();
+		start(opcode);
+		producer = pushTemp();
+		add(value1);
+		add(value2);
+	}
+
+	/**
+	 * <code>local.set</code>: pop the top of the stack into a local.
+	 */
+	private void setLocal(int local) {
+		final int top = height - 1;
+		boolean referred = false;
+		for (int index = 0; index < top; index++) {
+			referred |= kindAll[index] == LOCAL && valueAll[index] == local;
+		}
+		if (referred == false && kindAll[top] == TEMP && 0 <= producer
+			&& code[producer] == localCount + top) {
+			// the instruction that computed the value writes the local instead.
+			code[producer] = local;
+			height--;
+			producer = -1;
+			return;
+		}
+		for (int index = 0; index < top; index++) {
+			if (kindAll[index] == LOCAL && valueAll[index] == local) {
+				materialize(index);
+			}
+		}
+		if (kindAll[top] == CONST) {
+			start(RegisterCode.CONST);
+			add(local);
+			add(valueAll[top]);
+		} else {
+			final int source = (kindAll[top] == LOCAL) ? valueAll[top] : localCount + top;
+			if (source != local) {
+				start(RegisterCode.MOVE);
+				add(local);
+				add(source);
+			}
+		}
+		height--;
+		producer = -1;
+	}
+
+	private void startElse(boolean reachable) {
+		final Label label = labelAll.get(labelAll.size() - 1);
+		if (reachable) {
+			materializeAll();
+			start(RegisterCode.JUMP);
+			label.fixupAll.add(length);
+			add(0);
+		}
+		code[label.elseFixup] = length;
+		label.elseFixup = -1;
+		producer = -1;
+		reset(label.height);
+	}
+
+	private void end(boolean reachable) {
+		if (reachable) {
+			materializeAll();
+		}
+		final Label label = labelAll.remove(labelAll.size() - 1);
+		bind(label);
+		reset(label.height + label.arity);
+	}
+
+	/**
+	 * The code after the end of a block: resolve the branches out of it.
+	 */
+	private void bind(Label label) {
+		if (0 <= label.elseFixup) {
+			code[label.elseFixup] = length;
+		}
+		for (Integer fixup : label.fixupAll) {
+			code[fixup] = length;
+		}
+		producer = -1;
+	}
+
+	private void branch(Label label) {
+		move(label);
+		start(RegisterCode.JUMP);
+		target(label);
+	}
+
+	private void branchIf(int condition, Label label) {
+		if (needsMove(label) == false) {
+			start(RegisterCode.BR_IF);
+			add(condition);
+			target(label);
+			return;
+		}
+		start(RegisterCode.BR_UNLESS);
+		add(condition);
+		final int skip = length;
+		add(0);
+		branch(label);
+		code[skip] = length;
+		producer = -1;
+	}
+
+	private void branchTable(int[] streamCode, int pc) {
+		final int index = popRegister();
+		materializeAll();
+		final int count = streamCode[pc + 1];
+		start(RegisterCode.BR_TABLE);
+		add(index);
+		add(count);
+		final int first = length;
+		for (int entry = 0; entry <= count; entry++) {
+			add(0);
+		}
+		// the labels that keep values jump to a copy first.
+		for (int entry = 0; entry <= count; entry++) {
+			final Label label = label(streamCode[pc + 2 + entry]);
+			if (needsMove(label)) {
+				code[first + entry] = length;
+				branch(label);
+			} else if (label.opcode == 0x03) {
+				code[first + entry] = label.start;
+			} else {
+				label.fixupAll.add(first + entry);
+			}
+		}
+	}
+
+	/**
+	 * Copy the values a branch keeps to the registers of the label.
+	 */
+	private void move(Label label) {
+		if (needsMove(label) == false) {
+			return;
+		}
+		final int arity = label.branchArity();
+		for (int index = 0; index < arity; index++) {
+			start(RegisterCode.MOVE);
+			add(localCount + label.height + index);
+			add(localCount + height - arity + index);
+		}
+	}
+
+	private boolean needsMove(Label label) {
+		return label.branchArity() != 0 && height - label.branchArity() != label.height;
+	}
+
+	private void target(Label label) {
+		if (label.opcode == 0x03) {
+			add(label.start);
+		} else {
+			label.fixupAll.add(length);
+			add(0);
+		}
+	}
+
+	private Label label(int labelIndex) {
+		return labelAll.get(labelAll.size() - 1 - labelIndex);
+	}
+
+	private static int arity(int blockType) {
+		return (blockType == ValueType.EMPTY_BLOCK.getType()) ? 0 : 1;
+	}
+
+	/**
+	 * The register of the top of the stack, popped.  A constant is written to its register
+	 * first, a local is read where it is.
+	 */
+	private int popRegister() {
+		final int top = height - 1;
+		height--;
+		if (kindAll[top] == LOCAL) {
+			return valueAll[top];
+		}
+		if (kindAll[top] == CONST) {
+			materialize(top);
+		}
+		return localCount + top;
+	}
+
+	/**
+	 * Put a value in its stack register.
+	 */
+	private void materialize(int index) {
+		if (kindAll[index] == LOCAL) {
+			start(RegisterCode.MOVE);
+			add(localCount + index);
+			add(valueAll[index]);
+		} else if (kindAll[index] == CONST) {
+			start(RegisterCode.CONST);
+			add(localCount + index);
+			add(valueAll[index]);
+		}
+		kindAll[index] = TEMP;
+	}
+
+	/**
+	 * Put every value in its stack register, before a control instruction.
+	 */
+	private void materializeAll() {
+		for (int index = 0; index < height; index++) {
+			materialize(index);
+		}
+		producer = -1;
+	}
+
+	private void reset(int newHeight) {
+		height = newHeight;
+		Arrays.fill(kindAll, 0, height, TEMP);
+	}
+
+	private void push(int kind, int value) {
+		kindAll[height] = kind;
+		valueAll[height] = value;
+		height++;
+	}
+
+	/**
+	 * Push a value in its stack register and add the register to the code.
+	 *
+	 * @return the index of the register in the code.
+	 */
+	private int pushTemp() {
+		final int index = length;
+		add(localCount + height);
+		push(TEMP, 0);
+		return index;
+	}
+
+	private void start(int opcode) {
+		producer = -1;
+		instructionCount++;
+		add(opcode);
+	}
+
+	private void add(int value) {
+		if (length == code.length) {
+			code = Arrays.copyOf(code, code.length * 2);
+		}
+		code[length++] = value;
+	}
+
+	/**
+	 * A block, loop or if that is not ended yet, or the function.
+	 */
+	private static class Label {
+		private final int opcode;
+		private final int height;
+		private final int arity;
+		private final ArrayList<Integer> fixupAll;
+
+		/* The start of a loop. */
+		private int start;
+
+		/* The target of an if with a false condition, resolved by else or end. */
+		private int elseFixup;
+
+		Label(int opcode, int height, int arity) {
+			this.opcode = opcode;
+			this.height = height;
+			this.arity = arity;
+			this.fixupAll = new ArrayList<>();
+			this.elseFixup = -1;
+		}
+
+		/**
+		 * The number of values a branch to the label keeps.  A branch to a loop keeps none.
+		 */
+		int branchArity() {
+			return (opcode == 0x03) ? 0 : arity;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+/**
+ * A node of a {@link NodeTree} that is run for its effect: a store, a write to a local, a
+ * block or a branch.
+ * <br>
+ * A branch is not an exception.  {@link #execute(NodeFrame)} returns the number of blocks
+ * still to leave, counted as the label index of <code>br</code>: 0 leaves the innermost block,
+ * or runs the innermost loop again.  Each block subtracts one as the branch passes it.
+ */
+public abstract class StatementNode {
+
+	/**
+	 * Returned by {@link #execute(NodeFrame)} when there is no branch, the next statement is
+	 * run.
+	 */
+	public static final int NEXT = -1;
+
+	/**
+	 * Run the statement.
+	 *
+	 * @param frame the locals and memory of the call.
+	 * @return {@link #NEXT} or the label index of the branch taken.
+	 */
+	public abstract int execute(NodeFrame frame);
+}
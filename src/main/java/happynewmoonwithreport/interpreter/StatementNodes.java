@@ -0,0 +1,242 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.opcode.Memory.StoreBase;
+import happynewmoonwithreport.type.MemoryArgument;
+
+/**
+ * The {@link StatementNode}s of a {@link NodeTree}.
+ * <br>
+ * A block runs its statements in order until one branches.  A branch that leaves the block is
+ * passed on, one less, to the block around it.
+ */
+public final class StatementNodes {
+
+	private StatementNodes() {
+		super();
+	}
+
+	/**
+	 * Run statements in order.
+	 *
+	 * @return {@link StatementNode#NEXT} or the label index of the branch taken, as seen by the
+	 * statements.
+	 */
+	static int run(StatementNode[] statementAll, NodeFrame frame) {
+		for (StatementNode statement : statementAll) {
+			final int result = statement.execute(frame);
+			if (result != StatementNode.NEXT) {
+				return result;
+			}
+		}
+		return StatementNode.NEXT;
+	}
+
+	/**
+	 * Leave a block: a branch to the block ends here, a branch further out is passed on.
+	 */
+	static int leave(int result) {
+		return (result <= 0) ? StatementNode.NEXT : result - 1;
+	}
+
+	/**
+	 * Write a local, or the slot of a stack height.
+	 */
+	static final class LocalSet extends StatementNode {
+		private final int index;
+		private final ExpressionNode value;
+
+		LocalSet(int index, ExpressionNode value) {
+			this.index = index;
+			this.value = value;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			frame.slotAll[index] = value.evalLong(frame);
+			return NEXT;
+		}
+	}
+
+	/**
+	 * Compute a value that is not used, for its effect or its trap.
+	 */
+	static final class Evaluate extends StatementNode {
+		private final ExpressionNode value;
+
+		Evaluate(ExpressionNode value) {
+			this.value = value;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			value.evalLong(frame);
+			return NEXT;
+		}
+	}
+
+	/**
+	 * A store, with the checks of the opcode class that validation has not made.
+	 */
+	static final class Store extends StatementNode {
+		private final StoreBase store;
+		private final MemoryArgument memoryArgument;
+		private final ValueType type;
+		private final ExpressionNode address;
+		private final ExpressionNode value;
+
+		Store(StoreBase store, MemoryArgument memoryArgument, ValueType type,
+			  ExpressionNode address, ExpressionNode value) {
+			this.store = store;
+			this.memoryArgument = memoryArgument;
+			this.type = type;
+			this.address = address;
+			this.value = value;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			final int i = address.evalInt(frame);
+			final Object c = OperandStackAdapter.fromBits(value.evalLong(frame), type);
+			store.store(frame.memory, memoryArgument, i, c);
+			return NEXT;
+		}
+	}
+
+	static final class Block extends StatementNode {
+		private final StatementNode[] statementAll;
+
+		Block(StatementNode[] statementAll) {
+			this.statementAll = statementAll;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			return leave(run(statementAll, frame));
+		}
+	}
+
+	/**
+	 * A loop.  A branch to the loop runs it again.
+	 */
+	static final class Loop extends StatementNode {
+		private final StatementNode[] statementAll;
+
+		Loop(StatementNode[] statementAll) {
+			this.statementAll = statementAll;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			int result;
+			do {
+				result = run(statementAll, frame);
+			} while (result == 0);
+			return leave(result);
+		}
+	}
+
+	static final class If extends StatementNode {
+		private final ExpressionNode condition;
+		private final StatementNode[] thenAll;
+		private final StatementNode[] elseAll;
+
+		If(ExpressionNode condition, StatementNode[] thenAll, StatementNode[] elseAll) {
+			this.condition = condition;
+			this.thenAll = thenAll;
+			this.elseAll = elseAll;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			if (condition.evalInt(frame) != 0) {
+				return leave(run(thenAll, frame));
+			}
+			return leave(run(elseAll, frame));
+		}
+	}
+
+	/**
+	 * br, and return.  The values the branch keeps were copied to the slots of the label by the
+	 * statements before.
+	 */
+	static final class Br extends StatementNode {
+		private final int labelIndex;
+
+		Br(int labelIndex) {
+			this.labelIndex = labelIndex;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			return labelIndex;
+		}
+	}
+
+	/**
+	 * br_if.  The values the branch keeps are copied to the slots of the label only when the
+	 * branch is taken.
+	 */
+	static final class BrIf extends StatementNode {
+		private final ExpressionNode condition;
+		private final int labelIndex;
+		private final StatementNode[] moveAll;
+
+		BrIf(ExpressionNode condition, int labelIndex, StatementNode[] moveAll) {
+			this.condition = condition;
+			this.labelIndex = labelIndex;
+			this.moveAll = moveAll;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			if (condition.evalInt(frame) == 0) {
+				return NEXT;
+			}
+			run(moveAll, frame);
+			return labelIndex;
+		}
+	}
+
+	/**
+	 * br_table.  The last label is the default.
+	 */
+	static final class BrTable extends StatementNode {
+		private final ExpressionNode index;
+		private final int[] labelIndexAll;
+		private final StatementNode[][] moveAll;
+
+		BrTable(ExpressionNode index, int[] labelIndexAll, StatementNode[][] moveAll) {
+			this.index = index;
+			this.labelIndexAll = labelIndexAll;
+			this.moveAll = moveAll;
+		}
+
+		@Override
+		public int execute(NodeFrame frame) {
+			final int count = labelIndexAll.length - 1;
+			int entry = index.evalInt(frame);
+			if (Integer.compareUnsigned(entry, count) >= 0) {
+				entry = count;
+			}
+			run(moveAll[entry], frame);
+			return labelIndexAll[entry];
+		}
+	}
+}
@@ -0,0 +1,375 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmInstanceInterface;
+import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.WasmStore;
+import happynewmoonwithreport.type.MemoryArgument;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.WasmVector;
+
+/**
+ * Run an {@link InstructionStream}.
+ * <br>
+ * The same opcodes as <code>WasmInstance.execute()</code>, but the immediates were decoded by the
+ * {@link InstructionStreamTranslator} so each step is a read from an <code>int[]</code>.  Each
+ * opcode is run by its handler in the {@link HandlerTable}.
+ * <br>
+ * A function that passed the {@link FunctionValidator} is run on the {@link OperandStack}
+ * instead, by the handlers in the {@link TypedHandlerTable}, or translated to
+ * {@link RegisterCode} and run by the handlers in the {@link RegisterHandlerTable}, or compiled
+ * to a {@link NodeTree} and run by its nodes, or compiled to JVM byte code by the
+ * {@link BytecodeCompiler}.
+ * <br>
+ * Source: <a href="https://webassembly.github.io/spec/core/appendix/index-instructions.html"
+ * target="_top"> https://webassembly.github.io/spec/core/appendix/index-instructions.html
+ * </a>
+ */
+public class StreamInterpreter {
+
+	final WasmInstanceInterface instance;
+	final WasmFrame frame;
+	final WasmStore store;
+	final WasmStack<Object> stack;
+	final OperandStack operandStack;
+
+	/* The stream being run, read by the handlers. */
+	int[] code;
+	long[] constantAll;
+	MemoryArgument[] memoryArgumentAll;
+	int[] targetAll;
+	int[] arityAll;
+
+	/* Control stack of the object stack: the height of the stack when each block was entered. */
+	int[] controlHeightAll;
+	int controlSize;
+
+	/* The control stack entry of the function being run, and the number of its results. */
+	int controlBase;
+	int returnArity;
+
+	/* The stack heights and arities of the branches, proved by validation. */
+	int[] branchHeightAll;
+	int[] branchArityAll;
+
+	/* The height of the operand stack when the validated function was entered. */
+	int operandBase;
+
+	/* Memory 0 of the module, resolved once per validated call.  Null if there is no memory. */
+	MemoryType memory;
+
+	/* The register code being run and its registers, the slots of the frame. */
+	int[] registerCode;
+	long[] registerAll;
+
+	/* Count the jumps backwards, the back edges of the loops, for tiered execution. */
+	private boolean countBackEdges;
+	private long backEdgeCount;
+
+	/**
+	 * @param instance the instance, its stack is the operand stack.
+	 * @param frame    the frame with the locals.
+	 * @param store    the store with the memories.
+	 */
+	public StreamInterpreter(WasmInstanceInterface instance, WasmFrame frame, WasmStore store) {
+		this.instance = instance;
+		this.frame = frame;
+		this.store = store;
+		this.stack = instance.stack();
+		this.operandStack = new OperandStack();
+		this.controlHeightAll = new int[16];
+		this.controlSize = 0;
+	}
+
+	/**
+	 * Run every instruction of the stream on the object stack.  A function without results.
+	 *
+	 * @param instructionStream the function body.
+	 */
+	public void execute(InstructionStream instructionStream) {
+		execute(instructionStream, 0);
+	}
+
+	/**
+	 * Run every instruction of the stream on the object stack.
+	 *
+	 * @param instructionStream the function body.
+	 * @param returnArity       the number of results of the function, kept on the stack by
+	 *                          <code>return</code>.
+	 */
+	public void execute(InstructionStream instructionStream, Integer returnArity) {
+		final int callerControlBase = controlBase;
+		final int callerReturnArity = this.returnArity;
+		final int callerControlSize = controlSize;
+		this.returnArity = returnArity;
+		// The function is the outermost block.
+		HandlerTable.pushControl(this);
+		controlBase = controlSize - 1;
+		try {
+			run(HandlerTable.PRIMARY, instructionStream);
+		} finally {
+			controlBase = callerControlBase;
+			this.returnArity = callerReturnArity;
+			controlSize = callerControlSize;
+		}
+	}
+
+	/**
+	 * Run every instruction of a validated stream on the operand stack.  The locals are the slots
+	 * of the frame, see {@link WasmFrame#enter(Integer, happynewmoonwithreport.type.WasmVector)}.
+	 * The results are left on the operand stack.
+	 *
+	 * @param instructionStream the function body.
+	 * @param validator         the validator the function passed.
+	 */
+	public void executeValidated(InstructionStream instructionStream,
+								 FunctionValidator validator) {
+		executeValidated(instructionStream, validator.getBranchHeightAll(),
+			validator.getBranchArityAll(), validator.getMaxStackHeight());
+	}
+
+	/**
+	 * Run a validated stream with superinstructions on the operand stack.  See
+	 * {@link #executeValidated(InstructionStream, FunctionValidator)}.
+	 *
+	 * @param fusedStream the function body, fused by {@link SuperinstructionFuser}.
+	 */
+	public void executeValidated(FusedStream fusedStream) {
+		executeValidated(fusedStream.getInstructionStream(), fusedStream.getBranchHeightAll(),
+			fusedStream.getBranchArityAll(), fusedStream.getMaxStackHeight());
+	}
+
+	private void executeValidated(InstructionStream instructionStream, int[] heightAll,
+								  int[] arityAll, int maxStackHeight) {
+		final int[] callerBranchHeightAll = branchHeightAll;
+		final int[] callerBranchArityAll = branchArityAll;
+		final int callerOperandBase = operandBase;
+		final MemoryType callerMemory = memory;
+
+		final WasmVector<MemoryType> memoryAll = frame.getModule().getMemoryAll();
+		memory = memoryAll.isEmpty() ? null : memoryAll.get(0);
+		branchHeightAll = heightAll;
+		branchArityAll = arityAll;
+		operandBase = operandStack.size();
+		operandStack.ensureCapacity(operandStack.size() + maxStackHeight);
+		try {
+			run(TypedHandlerTable.PRIMARY, instructionStream);
+		} finally {
+			branchHeightAll = callerBranchHeightAll;
+			branchArityAll = callerBranchArityAll;
+			operandBase = callerOperandBase;
+			memory = callerMemory;
+		}
+	}
+
+	/**
+	 * Run register code.  The registers are the slots of the frame, see
+	 * {@link WasmFrame#enter(Integer, happynewmoonwithreport.type.WasmVector)}, there must be
+	 * {@link RegisterCode#getRegisterCount()} of them.  The results are pushed on the operand
+	 * stack.
+	 *
+	 * @param registerCode the function body, translated by {@link RegisterTranslator}.
+	 */
+	public void executeRegister(RegisterCode registerCode) {
+		final int[] callerRegisterCode = this.registerCode;
+		final long[] callerRegisterAll = registerAll;
+		final int[] callerCode = code;
+		final long[] callerConstantAll = constantAll;
+		final MemoryArgument[] callerMemoryArgumentAll = memoryArgumentAll;
+		final MemoryType callerMemory = memory;
+
+		final InstructionStream instructionStream = registerCode.getInstructionStream();
+		final WasmVector<MemoryType> memoryAll = frame.getModule().getMemoryAll();
+		memory = memoryAll.isEmpty() ? null : memoryAll.get(0);
+		code = instructionStream.getCode();
+		constantAll = instructionStream.getConstantAll();
+		memoryArgumentAll = instructionStream.getMemoryArgumentAll();
+		this.registerCode = registerCode.getCode();
+		registerAll = frame.slotAll();
+		// the bridged instructions use the operand stack.
+		operandStack.ensureCapacity(operandStack.size() + 3);
+		try {
+			final OpcodeHandler[] handlerAll = RegisterHandlerTable.PRIMARY;
+			final int[] instructionAll = this.registerCode;
+			final int length = instructionAll.length;
+
+			int pc = 0;
+			if (countBackEdges) {
+				while (pc < length) {
+					final int next = handlerAll[instructionAll[pc]].execute(this, pc + 1);
+					if (next <= pc) {
+						backEdgeCount++;
+					}
+					pc = next;
+				}
+			} else {
+				while (pc < length) {
+					pc = handlerAll[instructionAll[pc]].execute(this, pc + 1);
+				}
+			}
+
+			final int localCount = registerCode.getLocalCount();
+			for (int index = 0; index < registerCode.getReturnCount(); index++) {
+				operandStack.push(registerAll[localCount + index]);
+			}
+		} finally {
+			this.registerCode = callerRegisterCode;
+			registerAll = callerRegisterAll;
+			code = callerCode;
+			constantAll = callerConstantAll;
+			memoryArgumentAll = callerMemoryArgumentAll;
+			memory = callerMemory;
+		}
+	}
+
+	/**
+	 * Run a node tree.  The slots of the frame hold the locals, see
+	 * {@link WasmFrame#enter(Integer, happynewmoonwithreport.type.WasmVector)}, there must be
+	 * {@link NodeTree#getSlotCount()} of them.  The results are pushed on the operand stack.
+	 *
+	 * @param nodeTree the function body, compiled by {@link NodeTranslator}.
+	 */
+	public void executeNodeTree(NodeTree nodeTree) {
+		final int[] callerCode = code;
+		final long[] callerConstantAll = constantAll;
+		final MemoryArgument[] callerMemoryArgumentAll = memoryArgumentAll;
+
+		// for the bridged opcodes.
+		final InstructionStream instructionStream = nodeTree.getInstructionStream();
+		code = instructionStream.getCode();
+		constantAll = instructionStream.getConstantAll();
+		memoryArgumentAll = instructionStream.getMemoryArgumentAll();
+		try {
+			final WasmVector<MemoryType> memoryAll = frame.getModule().getMemoryAll();
+			final NodeFrame nodeFrame = new NodeFrame(frame.slotAll(),
+				memoryAll.isEmpty() ? null : memoryAll.get(0), this);
+			nodeTree.getBody().execute(nodeFrame);
+
+			final int localCount = nodeTree.getLocalCount();
+			for (int index = 0; index < nodeTree.getReturnCount(); index++) {
+				operandStack.push(nodeFrame.slotAll[localCount + index]);
+			}
+		} finally {
+			code = callerCode;
+			constantAll = callerConstantAll;
+			memoryArgumentAll = callerMemoryArgumentAll;
+		}
+	}
+
+	/**
+	 * Run a function compiled to JVM byte code.  The slots of the frame hold the locals, see
+	 * {@link WasmFrame#enter(Integer, happynewmoonwithreport.type.WasmVector)}.  The result is
+	 * pushed on the operand stack.
+	 *
+	 * @param compiledFunction the function, compiled by {@link BytecodeCompiler}.
+	 */
+	public void executeCompiled(CompiledFunction compiledFunction) {
+		final int[] callerCode = code;
+		final long[] callerConstantAll = constantAll;
+		final MemoryArgument[] callerMemoryArgumentAll = memoryArgumentAll;
+		final MemoryType callerMemory = memory;
+
+		// for the loads, the stores and the opcodes run by their handlers.
+		final InstructionStream instructionStream = compiledFunction.getInstructionStream();
+		final WasmVector<MemoryType> memoryAll = frame.getModule().getMemoryAll();
+		memory = memoryAll.isEmpty() ? null : memoryAll.get(0);
+		code = instructionStream.getCode();
+		constantAll = instructionStream.getConstantAll();
+		memoryArgumentAll = instructionStream.getMemoryArgumentAll();
+		operandStack.ensureCapacity(operandStack.size() + 3);
+		try {
+			final long result = compiledFunction.invoke(frame.slotAll(), this);
+			if (compiledFunction.getReturnCount() == 1) {
+				operandStack.push(result);
+			}
+		} finally {
+			code = callerCode;
+			constantAll = callerConstantAll;
+			memoryArgumentAll = callerMemoryArgumentAll;
+			memory = callerMemory;
+		}
+	}
+
+	private void run(OpcodeHandler[] handlerAll, InstructionStream instructionStream) {
+		final int[] callerCode = code;
+		final long[] callerConstantAll = constantAll;
+		final MemoryArgument[] callerMemoryArgumentAll = memoryArgumentAll;
+		final int[] callerTargetAll = targetAll;
+		final int[] callerArityAll = arityAll;
+
+		code = instructionStream.getCode();
+		constantAll = instructionStream.getConstantAll();
+		memoryArgumentAll = instructionStream.getMemoryArgumentAll();
+		targetAll = instructionStream.getTargetAll();
+		arityAll = instructionStream.getArityAll();
+		try {
+			final int[] streamCode = code;
+			final int length = streamCode.length;
+
+			int pc = 0;
+			if (countBackEdges) {
+				while (pc < length) {
+					final int next = handlerAll[streamCode[pc]].execute(this, pc + 1);
+					if (next <= pc) {
+						backEdgeCount++;
+					}
+					pc = next;
+				}
+			} else {
+				while (pc < length) {
+					pc = handlerAll[streamCode[pc]].execute(this, pc + 1);
+				}
+			}
+		} finally {
+			code = callerCode;
+			constantAll = callerConstantAll;
+			memoryArgumentAll = callerMemoryArgumentAll;
+			targetAll = callerTargetAll;
+			arityAll = callerArityAll;
+		}
+	}
+
+	/**
+	 * Count the back edges, the jumps backwards to the start of a loop, of the stream and the
+	 * register code.  A separate dispatch loop, so the count costs nothing when it is off.
+	 *
+	 * @param countBackEdges true to count.
+	 */
+	public void setCountBackEdges(Boolean countBackEdges) {
+		this.countBackEdges = countBackEdges;
+	}
+
+	/**
+	 * The number of back edges taken since the interpreter was made, while counting was on.
+	 *
+	 * @return the count.
+	 */
+	public long getBackEdgeCount() {
+		return backEdgeCount;
+	}
+
+	/**
+	 * The operand stack used by {@link #executeValidated(InstructionStream, FunctionValidator)}.
+	 *
+	 * @return the operand stack.
+	 */
+	public OperandStack getOperandStack() {
+		return operandStack;
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import java.util.Arrays;
+
+/**
+ * Fuse short sequences of instructions of a validated {@link InstructionStream} into
+ * superinstructions.
+ * <br>
+ * A superinstruction does the work of two or three instructions with one dispatch.  Its
+ * immediates are the immediates of the instructions it replaces.  The sequences are the ones that
+ * dominate compiled loops:
+ * <ul>
+ * <li>{@link #LOCAL_GET_LOCAL_GET_I32_MUL}: local.get a, local.get b, i32.mul.  Immediates a,
+ * b.</li>
+ * <li>{@link #LOCAL_GET_I32_CONST_I32_ADD}: local.get a, i32.const c, i32.add.  Immediates a,
+ * c.</li>
+ * <li>{@link #I32_CONST_I32_LT_S_BR_IF}: i32.const c, i32.lt_s, br_if l.  Immediates c, l.  The
+ * side table entry of the branch is at the index of l.</li>
+ * <li>{@link #LOCAL_GET_I32_LOAD}: local.get a, i32.load m.  Immediates a, m.</li>
+ * </ul>
+ * A sequence is not fused if a branch jumps into the middle of it.  The side tables of the
+ * stream and of the {@link FunctionValidator} are moved to the new indexes.
+ * <br>
+ * The superinstructions have opcodes above 255, they are only known by the
+ * {@link TypedHandlerTable}.  Fuse only a stream that passed validation, the handlers do not
+ * check the types.
+ */
+public class SuperinstructionFuser {
+
+	public static final int LOCAL_GET_LOCAL_GET_I32_MUL = 0x100;
+	public static final int LOCAL_GET_I32_CONST_I32_ADD = 0x101;
+	public static final int I32_CONST_I32_LT_S_BR_IF = 0x102;
+	public static final int LOCAL_GET_I32_LOAD = 0x103;
+
+	/**
+	 * Number of superinstructions, the opcodes are 0x100 up to 0x100 + COUNT - 1.
+	 */
+	public static final int COUNT = 4;
+
+	public SuperinstructionFuser() {
+		super();
+	}
+
+	/**
+	 * Fuse the sequences of a validated stream.
+	 *
+	 * @param stream    the stream.
+	 * @param validator the validator the stream passed.
+	 * @return the fused stream.
+	 */
+	public FusedStream fuse(InstructionStream stream, FunctionValidator validator) {
+		final int[] code = stream.getCode();
+		final int[] targetAll = stream.getTargetAll();
+		final int[] arityAll = stream.getArityAll();
+		final int[] branchHeightAll = validator.getBranchHeightAll();
+		final int[] branchArityAll = validator.getBranchArityAll();
+
+		// Every index a branch, if or else may jump to.  One more for the end of the code.
+		final boolean[] keyAll = keyAll(code);
+		final boolean[] jumpedToAll = new boolean[code.length + 1];
+		for (int index = 0; index < code.length; index++) {
+			if (keyAll[index] && 0 <= targetAll[index]) {
+				jumpedToAll[targetAll[index]] = true;
+			}
+		}
+
+		final int[] fusedCode = new int[code.length];
+		final int[] fusedTargetAll = new int[code.length];
+		final int[] fusedArityAll = new int[code.length];
+		final int[] fusedBranchHeightAll = new int[code.length];
+		final int[] fusedBranchArityAll = new int[code.length];
+
+		// The new index of each instruction, a target is only ever the start of an instruction.
+		final int[] newIndexAll = new int[code.length + 1];
+
+		int unfusedCount = 0;
+		int instructionCount = 0;
+		int fusedCount = 0;
+		int length = 0;
+		int pc = 0;
+		while (pc < code.length) {
+			newIndexAll[pc] = length;
+			final int fused = match(code, pc, jumpedToAll);
+			final int from;
+			final int to;
+			final int end;
+			if (fused == NO_MATCH) {
+				end = pc + instructionLength(code, pc);
+				System.arraycopy(code, pc, fusedCode, length, end - pc);
+				from = pc;
+				to = length;
+				length += end - pc;
+				unfusedCount++;
+				instructionCount++;
+			} else {
+				end = (fused == LOCAL_GET_I32_LOAD) ? pc + 4 : pc + 5;
+				fusedCode[length] = fused;
+				fusedCode[length + 1] = code[pc + 1];
+				fusedCode[length + 2] = (fused == I32_CONST_I32_LT_S_BR_IF) ? code[pc + 4]
+																			 : code[pc + 3];
+				// only br_if has a side table entry, it moves with its label.
+				from = pc + 2;
+				to = length;
+				length += 3;
+				unfusedCount += (fused == LOCAL_GET_I32_LOAD) ? 2 : 3;
+				instructionCount++;
+				fusedCount++;
+			}
+			for (int index = from; index < end; index++) {
+				if (keyAll[index]) {
+					final int key = to + (index - from);
+					fusedTargetAll[key] = targetAll[index];
+					fusedArityAll[key] = arityAll[index];
+					fusedBranchHeightAll[key] = branchHeightAll[index];
+					fusedBranchArityAll[key] = branchArityAll[index];
+				}
+			}
+			pc = end;
+		}
+		newIndexAll[code.length] = length;
+
+		final boolean[] fusedKeyAll = keyAll(Arrays.copyOf(fusedCode, length));
+		for (int index = 0; index < length; index++) {
+			if (fusedKeyAll[index] && 0 <= fusedTargetAll[index]) {
+				fusedTargetAll[index] = newIndexAll[fusedTargetAll[index]];
+			}
+		}
+
+		final InstructionStream result = new InstructionStream(Arrays.copyOf(fusedCode, length),
+			stream.getConstantAll(), stream.getMemoryArgumentAll(),
+			Arrays.copyOf(fusedTargetAll, length), Arrays.copyOf(fusedArityAll, length),
+			instructionCount, stream.getByteLength());
+		return new FusedStream(result, Arrays.copyOf(fusedBranchHeightAll, length),
+			Arrays.copyOf(fusedBranchArityAll, length), validator.getMaxStackHeight(),
+			unfusedCount, fusedCount);
+	}
+
+	private static final int NO_MATCH = -1;
+
+	/**
+	 * The superinstruction that starts at <code>pc</code>.  Only the first instruction of the
+	 * sequence may be jumped to.
+	 *
+	 * @return the opcode of the superinstruction or {@link #NO_MATCH}.
+	 */
+	private static int match(int[] code, int pc, boolean[] jumpedToAll) {
+		final int second = pc + 2;
+		if (code.length <= second || jumpedToAll[second]) {
+			return NO_MATCH;
+		}
+		if (code[pc] == 0x20 && code[second] == 0x28) {
+			return LOCAL_GET_I32_LOAD;
+		}
+		if (code[pc] == 0x41 && code[second] == 0x48) {
+			final int third = pc + 3;
+			if (third < code.length && jumpedToAll[third] == false && code[third] == 0x0D) {
+				return I32_CONST_I32_LT_S_BR_IF;
+			}
+			return NO_MATCH;
+		}
+		if (code[pc] == 0x20) {
+			final int third = pc + 4;
+			if (code.length <= third || jumpedToAll[third]) {
+				return NO_MATCH;
+			}
+			if (code[second] == 0x20 && code[third] == 0x6C) {
+				return LOCAL_GET_LOCAL_GET_I32_MUL;
+			}
+			if (code[second] == 0x41 && code[third] == 0x6A) {
+				return LOCAL_GET_I32_CONST_I32_ADD;
+			}
+		}
+		return NO_MATCH;
+	}
+
+	/**
+	 * Mark the indexes of the side table entries, see {@link InstructionStream#getTargetAll()}.
+	 */
+	private static boolean[] keyAll(int[] code) {
+		final boolean[] result = new boolean[code.length];
+		int pc = 0;
+		while (pc < code.length) {
+			final int next = pc + instructionLength(code, pc);
+			switch (code[pc]) {
+				case 0x04: // if
+				case 0x0C: // br
+				case 0x0D: // br_if
+					result[pc + 1] = true;
+					break;
+				case 0x05: // else
+				case 0x0F: // return
+					result[pc] = true;
+					break;
+				case 0x0E: // br_table
+					for (int index = pc + 2; index < next; index++) {
+						result[index] = true;
+					}
+					break;
+				case I32_CONST_I32_LT_S_BR_IF:
+					result[pc + 2] = true;
+					break;
+				default:
+					break;
+			}
+			pc = next;
+		}
+		return result;
+	}
+
+	/**
+	 * Length in <code>int</code> of the instruction at <code>pc</code>, the opcode and its
+	 * immediates.
+	 *
+	 * @param code the code of an {@link InstructionStream}, fused or not.
+	 * @param pc   the index of the opcode.
+	 * @return the length.
+	 */
+	static int instructionLength(int[] code, int pc) {
+		final int opcode = code[pc];
+		switch (opcode) {
+			case 0x02: // block
+			case 0x03: // loop
+			case 0x04: // if
+			case 0x0C: // br
+			case 0x0D: // br_if
+			case 0x10: // call
+			case 0x11: // call_indirect
+			case 0x41: // i32.const
+			case 0x42: // i64.const
+			case 0x43: // f32.const
+			case 0x44: // f64.const
+			case 0xFC: // prefix
+				return 2;
+			case 0x0E: // br_table
+				return 3 + code[pc + 1];
+			default:
+				if (0x20 <= opcode && opcode <= 0x24) { // locals and globals
+					return 2;
+				}
+				if (0x28 <= opcode && opcode <= 0x3E) { // loads and stores
+					return 2;
+				}
+				if (0x100 <= opcode) { // superinstructions
+					return 3;
+				}
+				return 1;
+		}
+	}
+}
@@ -0,0 +1,999 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.opcode.Memory.LoadBase;
+import happynewmoonwithreport.opcode.Memory.StoreBase;
+import happynewmoonwithreport.opcode.control.Unreachable;
+import happynewmoonwithreport.opcode.math.I32_div_s;
+import happynewmoonwithreport.opcode.math.I32_div_u;
+import happynewmoonwithreport.opcode.math.I32_rem_s;
+import happynewmoonwithreport.opcode.math.I32_rem_u;
+import happynewmoonwithreport.opcode.math.I64_div_s;
+import happynewmoonwithreport.opcode.math.I64_div_u;
+import happynewmoonwithreport.opcode.math.I64_rem_s;
+import happynewmoonwithreport.opcode.math.I64_rem_u;
+import happynewmoonwithreport.type.MemoryArgument;
+import happynewmoonwithreport.type.utility.Hex;
+import java.util.UUID;
+
+/**
+ * The opcode handlers for a validated function, indexed by opcode.
+ * <br>
+ * The operands are on the {@link OperandStack} as raw bits and are not checked, the
+ * {@link FunctionValidator} has proved their types.  The integer opcodes are computed on Java
+ * primitives and allocate nothing.
+ * <br>
+ * The branches jump with the side table of the {@link InstructionStream} and restore the stack
+ * height proved by the {@link FunctionValidator}.  There is no control stack, a block costs
+ * nothing to enter or end.
+ * <br>
+ * The loads and stores call the opcode classes directly with memory 0, resolved once per call,
+ * and skip the checks validation has made.
+ * <br>
+ * The superinstructions of the {@link SuperinstructionFuser} follow the 256 opcodes.
+ * <br>
+ * The float arithmetic is bridged: the operands are moved to the object stack, the handler from
+ * the {@link HandlerTable} is run, and the result is moved back.  It keeps the exact NaN
+ * behaviour of the opcode classes.
+ */
+public final class TypedHandlerTable {
+
+	private static final OpcodeHandler NOT_VALIDATED = (interpreter, pc) -> {
+		final int opcode = interpreter.code[pc - 1];
+		throw new WasmRuntimeException(UUID.fromString("8c5e1a97-d3f2-4b60-a7e9-2b4d6f0c8a13"),
+			"Opcode " + Hex.byteToHex((byte) opcode) + " at instruction stream index = "
+			+ (pc - 1) + " may not be run on the operand stack.  The function was not validated.");
+	};
+
+	/**
+	 * Handlers indexed by opcode.
+	 */
+	static final OpcodeHandler[] PRIMARY = buildPrimary();
+
+	private TypedHandlerTable() {
+		super();
+	}
+
+	/**
+	 * Find the handler for an opcode.
+	 *
+	 * @param opcode the opcode, 0 to 255, or a superinstruction.
+	 * @return the handler.  Opcodes that a validated function may not contain get a handler that
+	 * throws.
+	 */
+	public static OpcodeHandler get(Integer opcode) {
+		return PRIMARY[opcode];
+	}
+
+	/**
+	 * Run the opcode's object handler on the object stack.
+	 *
+	 * @param opcode an opcode with an {@link OpcodeSignature}.
+	 * @return the handler.
+	 */
+	private static OpcodeHandler bridge(int opcode) {
+		final OpcodeHandler handler = HandlerTable.PRIMARY[opcode];
+		final ValueType[] popAll = OpcodeSignature.get(opcode).getPopAll();
+		final int pushCount = OpcodeSignature.get(opcode).getPushAll().length;
+		return (interpreter, pc) -> {
+			OperandStackAdapter.toWasmStack(interpreter.operandStack, interpreter.stack, popAll);
+			final int next = handler.execute(interpreter, pc);
+			OperandStackAdapter.toOperandStack(interpreter.stack, interpreter.operandStack,
+				pushCount);
+			return next;
+		};
+	}
+
+	/**
+	 * Branch with the side table entry at <code>index</code>: keep the values of the label, drop
+	 * the others down to the height proved by validation, and jump.
+	 *
+	 * @return the target pc.
+	 */
+	private static int branch(StreamInterpreter interpreter, int index) {
+		interpreter.operandStack.unwind(interpreter.operandBase
+										+ interpreter.branchHeightAll[index],
+			interpreter.branchArityAll[index]);
+		return interpreter.targetAll[index];
+	}
+
+	private static OpcodeHandler load(LoadBase load) {
+		return (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			final Object c = load.load(interpreter.memory, memoryArgument, stack.popI32());
+			stack.push(OperandStackAdapter.toBits(c));
+			return pc + 1;
+		};
+	}
+
+	private static OpcodeHandler store(int opcode, StoreBase store) {
+		final ValueType type = OpcodeSignature.get(opcode).getPopAll()[1];
+		return (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[interpreter.code[pc]];
+			final Object c = OperandStackAdapter.fromBits(stack.pop(), type);
+			store.store(interpreter.memory, memoryArgument, stack.popI32(), c);
+			return pc + 1;
+		};
+	}
+
+	private static OpcodeHandler[] buildPrimary() {
+		OpcodeHandler[] table = new OpcodeHandler[256 + SuperinstructionFuser.COUNT];
+		for (int opcode = 0; opcode < table.length; opcode++) {
+			table[opcode] = NOT_VALIDATED;
+		}
+
+		// unreachable
+		table[0x00] = (interpreter, pc) -> {
+			Unreachable.trap();
+			return pc;
+		};
+
+		// nop
+		table[0x01] = (interpreter, pc) -> pc;
+
+		// block and loop, validation has checked the operands of the block
+		table[0x02] = (interpreter, pc) -> pc + 1;
+		table[0x03] = (interpreter, pc) -> pc + 1;
+
+		// if
+		table[0x04] = (interpreter, pc) -> {
+			if (interpreter.operandStack.popI32() != 0) {
+				return pc + 1;
+			}
+			return interpreter.targetAll[pc];
+		};
+
+		// else, the end of the if body.  The results are already in place.
+		table[0x05] = (interpreter, pc) -> interpreter.targetAll[pc - 1];
+
+		// end
+		table[0x0B] = (interpreter, pc) -> pc;
+
+		// br
+		table[0x0C] = TypedHandlerTable::branch;
+
+		// br_if
+		table[0x0D] = (interpreter, pc) -> {
+			if (interpreter.operandStack.popI32() != 0) {
+				return branch(interpreter, pc);
+			}
+			return pc + 1;
+		};
+
+		// br_table
+		table[0x0E] = (interpreter, pc) -> {
+			final int count = interpreter.code[pc];
+			final int index = interpreter.operandStack.popI32();
+			if (Integer.compareUnsigned(index, count) < 0) {
+				return branch(interpreter, pc + 1 + index);
+			}
+			return branch(interpreter, pc + 1 + count);
+		};
+
+		// return
+		table[0x0F] = (interpreter, pc) -> branch(interpreter, pc - 1);
+
+		// drop
+		table[0x1A] = (interpreter, pc) -> {
+			interpreter.operandStack.pop();
+			return pc;
+		};
+
+		// select
+		table[0x1B] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int condition = stack.popI32();
+			final long value2 = stack.pop();
+			final long value1 = stack.pop();
+			stack.push(condition != 0 ? value1 : value2);
+			return pc;
+		};
+
+		// local.get
+		table[0x20] = (interpreter, pc) -> {
+			interpreter.operandStack.push(interpreter.frame.getSlot(interpreter.code[pc]));
+			return pc + 1;
+		};
+
+		// local.set
+		table[0x21] = (interpreter, pc) -> {
+			interpreter.frame.setSlot(interpreter.code[pc], interpreter.operandStack.pop());
+			return pc + 1;
+		};
+
+		// local.tee
+		table[0x22] = (interpreter, pc) -> {
+			interpreter.frame.teeSlot(interpreter.code[pc], interpreter.operandStack.peek());
+			return pc + 1;
+		};
+
+		// loads
+		table[0x28] = load(HandlerTable.I32_LOAD);
+		table[0x29] = load(HandlerTable.I64_LOAD);
+		table[0x2A] = load(HandlerTable.F32_LOAD);
+		table[0x2B] = load(HandlerTable.F64_LOAD);
+		table[0x2C] = load(HandlerTable.I32_LOAD8_S);
+		table[0x2D] = load(HandlerTable.I32_LOAD8_U);
+		table[0x2E] = load(HandlerTable.I32_LOAD16_S);
+		table[0x2F] = load(HandlerTable.I32_LOAD16_U);
+		table[0x30] = load(HandlerTable.I64_LOAD8_S);
+		table[0x31] = load(HandlerTable.I64_LOAD8_U);
+		table[0x32] = load(HandlerTable.I64_LOAD16_S);
+		table[0x33] = load(HandlerTable.I64_LOAD16_U);
+		table[0x34] = load(HandlerTable.I64_LOAD32_S);
+		table[0x35] = load(HandlerTable.I64_LOAD32_U);
+
+		// stores
+		table[0x36] = store(0x36, HandlerTable.I32_STORE);
+		table[0x37] = store(0x37, HandlerTable.I64_STORE);
+		table[0x38] = store(0x38, HandlerTable.F32_STORE);
+		table[0x39] = store(0x39, HandlerTable.F64_STORE);
+		table[0x3A] = store(0x3A, HandlerTable.I32_STORE8);
+		table[0x3B] = store(0x3B, HandlerTable.I32_STORE16);
+		table[0x3C] = store(0x3C, HandlerTable.I64_STORE8);
+		table[0x3D] = store(0x3D, HandlerTable.I64_STORE16);
+		table[0x3E] = store(0x3E, HandlerTable.I64_STORE32);
+
+		// i32.const
+		table[0x41] = (interpreter, pc) -> {
+			interpreter.operandStack.pushI32(interpreter.code[pc]);
+			return pc + 1;
+		};
+
+		// i64.const
+		table[0x42] = (interpreter, pc) -> {
+			interpreter.operandStack.pushI64(interpreter.constantAll[interpreter.code[pc]]);
+			return pc + 1;
+		};
+
+		// f32.const, the raw bits
+		table[0x43] = (interpreter, pc) -> {
+			interpreter.operandStack.push(interpreter.code[pc]);
+			return pc + 1;
+		};
+
+		// f64.const, the raw bits
+		table[0x44] = (interpreter, pc) -> {
+			interpreter.operandStack.push(interpreter.constantAll[interpreter.code[pc]]);
+			return pc + 1;
+		};
+
+		// i32.eqz
+		table[0x45] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 == 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.eq
+		table[0x46] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 == value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.ne
+		table[0x47] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 != value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.lt_s
+		table[0x48] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 < value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.lt_u
+		table[0x49] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.compareUnsigned(value1, value2) < 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.gt_s
+		table[0x4A] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 > value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.gt_u
+		table[0x4B] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.compareUnsigned(value1, value2) > 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.le_s
+		table[0x4C] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 <= value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.le_u
+		table[0x4D] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.compareUnsigned(value1, value2) <= 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.ge_s
+		table[0x4E] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 >= value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.ge_u
+		table[0x4F] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.compareUnsigned(value1, value2) >= 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.eqz
+		table[0x50] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value1 = stack.popI64();
+			stack.pushI32(value1 == 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.eq
+		table[0x51] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(value1 == value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.ne
+		table[0x52] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(value1 != value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.lt_s
+		table[0x53] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(value1 < value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.lt_u
+		table[0x54] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(Long.compareUnsigned(value1, value2) < 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.gt_s
+		table[0x55] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(value1 > value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.gt_u
+		table[0x56] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(Long.compareUnsigned(value1, value2) > 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.le_s
+		table[0x57] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(value1 <= value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.le_u
+		table[0x58] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(Long.compareUnsigned(value1, value2) <= 0 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.ge_s
+		table[0x59] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(value1 >= value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i64.ge_u
+		table[0x5A] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI32(Long.compareUnsigned(value1, value2) >= 0 ? 1 : 0);
+			return pc;
+		};
+
+		// f32.eq
+		table[0x5B] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final float value2 = stack.popF32();
+			final float value1 = stack.popF32();
+			stack.pushI32(value1 == value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f32.ne
+		table[0x5C] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final float value2 = stack.popF32();
+			final float value1 = stack.popF32();
+			stack.pushI32(value1 != value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f32.lt
+		table[0x5D] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final float value2 = stack.popF32();
+			final float value1 = stack.popF32();
+			stack.pushI32(value1 < value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f32.gt
+		table[0x5E] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final float value2 = stack.popF32();
+			final float value1 = stack.popF32();
+			stack.pushI32(value1 > value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f32.le
+		table[0x5F] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final float value2 = stack.popF32();
+			final float value1 = stack.popF32();
+			stack.pushI32(value1 <= value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f32.ge
+		table[0x60] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final float value2 = stack.popF32();
+			final float value1 = stack.popF32();
+			stack.pushI32(value1 >= value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f64.eq
+		table[0x61] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final double value2 = stack.popF64();
+			final double value1 = stack.popF64();
+			stack.pushI32(value1 == value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f64.ne
+		table[0x62] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final double value2 = stack.popF64();
+			final double value1 = stack.popF64();
+			stack.pushI32(value1 != value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f64.lt
+		table[0x63] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final double value2 = stack.popF64();
+			final double value1 = stack.popF64();
+			stack.pushI32(value1 < value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f64.gt
+		table[0x64] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final double value2 = stack.popF64();
+			final double value1 = stack.popF64();
+			stack.pushI32(value1 > value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f64.le
+		table[0x65] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final double value2 = stack.popF64();
+			final double value1 = stack.popF64();
+			stack.pushI32(value1 <= value2 ? 1 : 0);
+			return pc;
+		};
+
+		// f64.ge
+		table[0x66] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final double value2 = stack.popF64();
+			final double value1 = stack.popF64();
+			stack.pushI32(value1 >= value2 ? 1 : 0);
+			return pc;
+		};
+
+		// i32.clz
+		table[0x67] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.numberOfLeadingZeros(value1));
+			return pc;
+		};
+
+		// i32.ctz
+		table[0x68] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.numberOfTrailingZeros(value1));
+			return pc;
+		};
+
+		// i32.popcnt
+		table[0x69] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.bitCount(value1));
+			return pc;
+		};
+
+		// i32.add
+		table[0x6A] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 + value2);
+			return pc;
+		};
+
+		// i32.sub
+		table[0x6B] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 - value2);
+			return pc;
+		};
+
+		// i32.mul
+		table[0x6C] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 * value2);
+			return pc;
+		};
+
+		// i32.div_s
+		table[0x6D] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(I32_div_s.compute(value1, value2));
+			return pc;
+		};
+
+		// i32.div_u
+		table[0x6E] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(I32_div_u.compute(value1, value2));
+			return pc;
+		};
+
+		// i32.rem_s
+		table[0x6F] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(I32_rem_s.compute(value1, value2));
+			return pc;
+		};
+
+		// i32.rem_u
+		table[0x70] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(I32_rem_u.compute(value1, value2));
+			return pc;
+		};
+
+		// i32.and
+		table[0x71] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 & value2);
+			return pc;
+		};
+
+		// i32.or
+		table[0x72] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 | value2);
+			return pc;
+		};
+
+		// i32.xor
+		table[0x73] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 ^ value2);
+			return pc;
+		};
+
+		// i32.shl
+		table[0x74] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 << value2);
+			return pc;
+		};
+
+		// i32.shr_s
+		table[0x75] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 >> value2);
+			return pc;
+		};
+
+		// i32.shr_u
+		table[0x76] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(value1 >>> value2);
+			return pc;
+		};
+
+		// i32.rotl
+		table[0x77] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.rotateLeft(value1, value2));
+			return pc;
+		};
+
+		// i32.rotr
+		table[0x78] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value2 = stack.popI32();
+			final int value1 = stack.popI32();
+			stack.pushI32(Integer.rotateRight(value1, value2));
+			return pc;
+		};
+
+		// i64.clz
+		table[0x79] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value1 = stack.popI64();
+			stack.pushI64(Long.numberOfLeadingZeros(value1));
+			return pc;
+		};
+
+		// i64.ctz
+		table[0x7A] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value1 = stack.popI64();
+			stack.pushI64(Long.numberOfTrailingZeros(value1));
+			return pc;
+		};
+
+		// i64.popcnt
+		table[0x7B] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value1 = stack.popI64();
+			stack.pushI64(Long.bitCount(value1));
+			return pc;
+		};
+
+		// i64.add
+		table[0x7C] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 + value2);
+			return pc;
+		};
+
+		// i64.sub
+		table[0x7D] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 - value2);
+			return pc;
+		};
+
+		// i64.mul
+		table[0x7E] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 * value2);
+			return pc;
+		};
+
+		// i64.div_s
+		table[0x7F] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(I64_div_s.compute(value1, value2));
+			return pc;
+		};
+
+		// i64.div_u
+		table[0x80] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(I64_div_u.compute(value1, value2));
+			return pc;
+		};
+
+		// i64.rem_s
+		table[0x81] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(I64_rem_s.compute(value1, value2));
+			return pc;
+		};
+
+		// i64.rem_u
+		table[0x82] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(I64_rem_u.compute(value1, value2));
+			return pc;
+		};
+
+		// i64.and
+		table[0x83] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 & value2);
+			return pc;
+		};
+
+		// i64.or
+		table[0x84] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 | value2);
+			return pc;
+		};
+
+		// i64.xor
+		table[0x85] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 ^ value2);
+			return pc;
+		};
+
+		// i64.shl
+		table[0x86] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 << value2);
+			return pc;
+		};
+
+		// i64.shr_s
+		table[0x87] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 >> value2);
+			return pc;
+		};
+
+		// i64.shr_u
+		table[0x88] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(value1 >>> value2);
+			return pc;
+		};
+
+		// i64.rotl
+		table[0x89] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(Long.rotateLeft(value1, (int) value2));
+			return pc;
+		};
+
+		// i64.rotr
+		table[0x8A] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value2 = stack.popI64();
+			final long value1 = stack.popI64();
+			stack.pushI64(Long.rotateRight(value1, (int) value2));
+			return pc;
+		};
+
+		// f32 and f64 arithmetic
+		for (int opcode = 0x8B; opcode <= 0xA6; opcode++) {
+			table[opcode] = bridge(opcode);
+		}
+
+		// i64.extend_i32_s
+		table[0xAC] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value1 = stack.popI32();
+			stack.pushI64(value1);
+			return pc;
+		};
+
+		// i64.extend_i32_u
+		table[0xAD] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value1 = stack.popI32();
+			stack.pushI64(value1 & 0xFFFF_FFFFL);
+			return pc;
+		};
+
+		// i32.extend8_s
+		table[0xC0] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value1 = stack.popI32();
+			stack.pushI32((byte) value1);
+			return pc;
+		};
+
+		// i32.extend16_s
+		table[0xC1] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final int value1 = stack.popI32();
+			stack.pushI32((short) value1);
+			return pc;
+		};
+
+		// i64.extend8_s
+		table[0xC2] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value1 = stack.popI64();
+			stack.pushI64((byte) value1);
+			return pc;
+		};
+
+		// i64.extend16_s
+		table[0xC3] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value1 = stack.popI64();
+			stack.pushI64((short) value1);
+			return pc;
+		};
+
+		// i64.extend32_s
+		table[0xC4] = (interpreter, pc) -> {
+			final OperandStack stack = interpreter.operandStack;
+			final long value1 = stack.popI64();
+			stack.pushI64((int) value1);
+			return pc;
+		};
+
+		// local.get a, local.get b, i32.mul
+		table[SuperinstructionFuser.LOCAL_GET_LOCAL_GET_I32_MUL] = (interpreter, pc) -> {
+			final WasmFrame frame = interpreter.frame;
+			final int[] code = interpreter.code;
+			interpreter.operandStack.pushI32(frame.getI32(code[pc]) * frame.getI32(code[pc + 1]));
+			return pc + 2;
+		};
+
+		// local.get a, i32.const c, i32.add
+		table[SuperinstructionFuser.LOCAL_GET_I32_CONST_I32_ADD] = (interpreter, pc) -> {
+			final int[] code = interpreter.code;
+			interpreter.operandStack.pushI32(interpreter.frame.getI32(code[pc]) + code[pc + 1]);
+			return pc + 2;
+		};
+
+		// i32.const c, i32.lt_s, br_if l
+		table[SuperinstructionFuser.I32_CONST_I32_LT_S_BR_IF] = (interpreter, pc) -> {
+			if (interpreter.operandStack.popI32() < interpreter.code[pc]) {
+				return branch(interpreter, pc + 1);
+			}
+			return pc + 2;
+		};
+
+		// local.get a, i32.load m
+		table[SuperinstructionFuser.LOCAL_GET_I32_LOAD] = (interpreter, pc) -> {
+			final int[] code = interpreter.code;
+			final MemoryArgument memoryArgument = interpreter.memoryArgumentAll[code[pc + 1]];
+			final Object c = HandlerTable.I32_LOAD.load(interpreter.memory, memoryArgument,
+				interpreter.frame.getI32(code[pc]));
+			interpreter.operandStack.push(OperandStackAdapter.toBits(c));
+			return pc + 2;
+		};
+
+		return table;
+	}
+}
@@ -50,8 +50,16 @@ public class Drop {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		// 1 Assert: due to validation, a value is on the top of the stack.
-		WasmStack<Object> stack = instance.stack();
 		if (stack.empty() == true) {
 			throw new WasmRuntimeException(UUID.fromString("f42f4399-988b-46ce-b73b-4dcdccae576f"),
 				"Stack must have at least one value");
@@ -17,6 +17,7 @@
 package happynewmoonwithreport.opcode;
 
 import happynewmoonwithreport.WasmInstanceInterface;
+import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.type.F64;
 
 /**
@@ -54,8 +55,18 @@ public class F64_const {
 	 * @param value value to push on stack.
 	 */
 	public void execute(F64 value) {
+		execute(instance.stack(), value);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 * @param value value to push on stack.
+	 */
+	public static void execute(WasmStack<Object> stack, F64 value) {
 
 		// 1. Push the value t.const c to the stack.
-		instance.stack().push(value);
+		stack.push(value);
 	}
 }
@@ -52,13 +52,13 @@ import java.util.UUID;
 public class GetLocal {
 
 	private WasmFrame frame;
-	private WasmStack stack;
+	private WasmStack<Object> stack;
 
 	private GetLocal() {
 		super();
 	}
 
-	public GetLocal(WasmFrame frame, WasmStack stack) {
+	public GetLocal(WasmFrame frame, WasmStack<Object> stack) {
 		this();
 		this.frame = frame;
 		this.stack = stack;
@@ -70,16 +70,27 @@ public class GetLocal {
 	 * @param index index in to the vector that contains the local variable.
 	 */
 	public void execute(I32 index) {
-		// 1 Frame set in constructor.
+		execute(frame, stack, index.integerValue());
+	}
+
+	/**
+	 * Execute the opcode
+	 *
+	 * @param frame the current frame.
+	 * @param stack the operand stack.
+	 * @param index index in to the vector that contains the local variable.
+	 */
+	public static void execute(WasmFrame frame, WasmStack<Object> stack, int index) {
+		// 1 Frame is a parameter.
 
 		// 2 validate.
-		if ((index.integerValue() < frame.localAll().size()) == false) {
+		if ((0 <= index && index < frame.localAll().size()) == false) {
 			throw new WasmRuntimeException(UUID.fromString("dcbf3c1d-334a-451d-9010-e32bdc876e9d"),
-				"getLocal: Local variable " + index.integerValue() + " does not exist");
+				"getLocal: Local variable " + index + " does not exist");
 		}
 
 		// 3. value
-		DataTypeNumber value = frame.localAll().get(index.integerValue());
+		DataTypeNumber value = frame.localAll().get(index);
 
 		// 4. Push
 		stack.push(value);
@@ -17,6 +17,7 @@
 package happynewmoonwithreport.opcode;
 
 import happynewmoonwithreport.WasmInstanceInterface;
+import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.type.I32;
 
 /**
@@ -54,7 +55,17 @@ public class I32_const {
 	 * @param value value to push on stack.
 	 */
 	public void execute(I32 value) {
-		instance.stack().push(value);
+		execute(instance.stack(), value);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 * @param value value to push on stack.
+	 */
+	public static void execute(WasmStack<Object> stack, I32 value) {
+		stack.push(value);
 
 	}
 }
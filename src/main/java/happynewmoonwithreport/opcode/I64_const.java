@@ -17,6 +17,7 @@
 package happynewmoonwithreport.opcode;
 
 import happynewmoonwithreport.WasmInstanceInterface;
+import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.type.I64;
 
 /**
@@ -54,7 +55,17 @@ public class I64_const {
 	 * @param value value to push on stack.
 	 */
 	public void execute(I64 value) {
-		instance.stack().push(value);
+		execute(instance.stack(), value);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 * @param value value to push on stack.
+	 */
+	public static void execute(WasmStack<Object> stack, I64 value) {
+		stack.push(value);
 
 	}
 }
@@ -21,9 +21,8 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.F32;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
 import happynewmoonwithreport.type.MemoryArgument;
-import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.U32;
 
 
@@ -100,7 +99,7 @@ import happynewmoonwithreport.type.U32;
 public class F32_load extends LoadBase {
 
 
-	private F32_load() {
+	public F32_load() {
 		super();
 	}
 
@@ -113,7 +112,7 @@ public class F32_load extends LoadBase {
 	 * @param stack          The stack to place the value.
 	 */
 	public F32_load(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					WasmStack stack) {
+					WasmStack<Object> stack) {
 		super(memoryArgument, frame, store, stack);
 	}
 
@@ -125,24 +124,7 @@ public class F32_load extends LoadBase {
 
 	/* package-private */
 	@Override
-	ByteUnsigned[] getBytesFromMemory(MemoryType mem, U32 ea) {
-		ByteUnsigned[] bytes = new ByteUnsigned[4];
-		Integer eaIntegerValue = ea.integerValue();
-		bytes[0] = mem.get(eaIntegerValue + 0);
-		bytes[1] = mem.get(eaIntegerValue + 1);
-		bytes[2] = mem.get(eaIntegerValue + 2);
-		bytes[3] = mem.get(eaIntegerValue + 3);
-		return bytes;
-
-
-	}
-
-	/* package-private */
-	@Override
-	F32 convertToType(ByteUnsigned[] bytes) {
-		F32 c = new F32(bytes);
-		return c;
+	F32 loadFrom(LinearMemory data, int ea) {
+		return new F32(Float.intBitsToFloat(data.getInt(ea)));
 	}
-
-
 }
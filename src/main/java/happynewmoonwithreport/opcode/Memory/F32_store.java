@@ -21,9 +21,8 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.F32;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
 import happynewmoonwithreport.type.MemoryArgument;
-import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.U32;
 
 /**
@@ -119,8 +118,9 @@ import happynewmoonwithreport.type.U32;
  */
 public class F32_store extends StoreBase {
 
-	private F32_store() {
+	public F32_store() {
 		super();
+		N = null;
 	}
 
 	/**
@@ -132,31 +132,19 @@ public class F32_store extends StoreBase {
 	 * @param stack          The stack to get the F32 to store in memory
 	 */
 	public F32_store(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					 WasmStack stack) {
+					 WasmStack<Object> stack) {
 		super(memoryArgument, frame, store, stack);
 
 		N = null;
 	}
 
-	/*package_private */
-	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
-		ByteUnsigned[] result = new ByteUnsigned[4];
-		result = c.getBytes();
-
-		return result;
-	}
-
-
 	/* package_private */
 	@Override
-	void step15_ReplaceBytes(MemoryType mem, U32 ea, ByteUnsigned[] bytes) {
-		mem.set(ea.integerValue() + 0, bytes[0]);
-		mem.set(ea.integerValue() + 1, bytes[1]);
-		mem.set(ea.integerValue() + 2, bytes[2]);
-		mem.set(ea.integerValue() + 3, bytes[3]);
+	void storeTo(LinearMemory data, int ea, Object c) {
+		data.putInt(ea, ((F32) c).toBits());
 	}
 
+
 	/**
 	 * Get an object of the type 't' in the instruction description <code>t.store memarg and
 	 * t.storeN memarg</code>.  It is limited in the 'Store' opcodes to I32 and I64.
@@ -175,16 +163,4 @@ public class F32_store extends StoreBase {
 		return new U32(32);
 	}
 
-
-	/**
-	 * The value to store. <code>'c'</code> is the the value to store in memory.
-	 */
-	private F32 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (F32) c;
-	}
-
 }
@@ -21,9 +21,8 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.F64;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
 import happynewmoonwithreport.type.MemoryArgument;
-import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.U32;
 
 
@@ -101,7 +100,7 @@ import happynewmoonwithreport.type.U32;
 public class F64_load extends LoadBase {
 
 
-	private F64_load() {
+	public F64_load() {
 		super();
 	}
 
@@ -114,7 +113,7 @@ public class F64_load extends LoadBase {
 	 * @param stack          The stack to place the value.
 	 */
 	public F64_load(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					WasmStack stack) {
+					WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -130,26 +129,7 @@ public class F64_load extends LoadBase {
 
 	/* package-private */
 	@Override
-	ByteUnsigned[] getBytesFromMemory(MemoryType mem, U32 ea) {
-		ByteUnsigned[] bytes = new ByteUnsigned[8];
-		Integer eaIntegerValue = ea.integerValue();
-		bytes[0] = mem.get(eaIntegerValue + 0);
-		bytes[1] = mem.get(eaIntegerValue + 1);
-		bytes[2] = mem.get(eaIntegerValue + 2);
-		bytes[3] = mem.get(eaIntegerValue + 3);
-
-		bytes[4] = mem.get(eaIntegerValue + 4);
-		bytes[5] = mem.get(eaIntegerValue + 5);
-		bytes[6] = mem.get(eaIntegerValue + 6);
-		bytes[7] = mem.get(eaIntegerValue + 7);
-
-		return bytes;
-	}
-
-	/* package-private */
-	@Override
-	F64 convertToType(ByteUnsigned[] bytes) {
-		F64 c = new F64(bytes);
-		return c;
+	F64 loadFrom(LinearMemory data, int ea) {
+		return new F64(Double.longBitsToDouble(data.getLong(ea)));
 	}
 }
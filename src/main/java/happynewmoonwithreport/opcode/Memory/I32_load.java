@@ -21,7 +21,6 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.*;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 
 /**
  * <h1>i32_load</h1> Load an i32 value from memory to the stack.
@@ -105,12 +104,12 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 public class I32_load extends LoadBase {
 
 
-	private I32_load() {
+	public I32_load() {
 		super();
 	}
 
 	public I32_load(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					WasmStack stack) {
+					WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -126,20 +125,7 @@ public class I32_load extends LoadBase {
 
 	/* package-private */
 	@Override
-	ByteUnsigned[] getBytesFromMemory(MemoryType mem, U32 ea) {
-		ByteUnsigned[] bytes = new ByteUnsigned[4];
-		Integer eaIntegerValue = ea.integerValue();
-		bytes[0] = mem.get(eaIntegerValue + 0);
-		bytes[1] = mem.get(eaIntegerValue + 1);
-		bytes[2] = mem.get(eaIntegerValue + 2);
-		bytes[3] = mem.get(eaIntegerValue + 3);
-		return bytes;
-	}
-
-	/* package-private */
-	@Override
-	IntWasm convertToType(ByteUnsigned[] bytes) {
-		I32 c = new I32(bytes);
-		return c;
+	I32 loadFrom(LinearMemory data, int ea) {
+		return new I32(data.getInt(ea));
 	}
 }
@@ -21,7 +21,6 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.*;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 
 /**
  * <h1>i32_load16_u</h1> Load an i16 Unsigned value from memory to the stack.
@@ -102,14 +101,14 @@ public class I32_load16_u extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I32_load16_u() {
+	public I32_load16_u() {
 		super();
 		signExtension = false;
 		N = new U32(16L);
 	}
 
 	public I32_load16_u(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-						WasmStack stack) {
+						WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -125,20 +124,7 @@ public class I32_load16_u extends LoadBase {
 
 	/* package-private */
 	@Override
-	ByteUnsigned[] getBytesFromMemory(MemoryType mem, U32 ea) {
-		ByteUnsigned[] bytes = new ByteUnsigned[2];
-		Integer eaIntegerValue = ea.integerValue();
-		bytes[0] = mem.get(eaIntegerValue + 0);
-		bytes[1] = mem.get(eaIntegerValue + 1);
-		return bytes;
+	I32 loadFrom(LinearMemory data, int ea) {
+		return new I32(data.getShort(ea) & 0xFFFF);
 	}
-
-	/* package-private */
-	@Override
-	IntWasm convertToType(ByteUnsigned[] bytes) {
-		I32 c = new I32(bytes, N.integerValue(), signExtension);
-		return c;
-	}
-
-
 }
@@ -21,7 +21,6 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.*;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 
 /**
  * <h1>i32_load8_s</h1> Load an i8 Signed value from memory to the stack.
@@ -95,14 +94,14 @@ public class I32_load8_u extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I32_load8_u() {
+	public I32_load8_u() {
 		super();
 		signExtension = false;
 		N = new U32(8L);
 	}
 
 	public I32_load8_u(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					   WasmStack stack) {
+					   WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -119,19 +118,7 @@ public class I32_load8_u extends LoadBase {
 
 	/* package-private */
 	@Override
-	ByteUnsigned[] getBytesFromMemory(MemoryType mem, U32 ea) {
-		ByteUnsigned[] bytes = new ByteUnsigned[1];
-		Integer eaIntegerValue = ea.integerValue();
-		bytes[0] = mem.get(eaIntegerValue + 0);
-		return bytes;
+	I32 loadFrom(LinearMemory data, int ea) {
+		return new I32(data.getByte(ea) & 0xFF);
 	}
-
-	/* package-private */
-	@Override
-	IntWasm convertToType(ByteUnsigned[] bytes) {
-		I32 c = new I32(bytes, N.integerValue(), signExtension);
-		return c;
-	}
-
-
 }
@@ -21,9 +21,8 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
 import happynewmoonwithreport.type.MemoryArgument;
-import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.U32;
 
 /**
@@ -128,36 +127,25 @@ import happynewmoonwithreport.type.U32;
  */
 public class I32_store extends StoreBase {
 
-	private I32_store() {
+	public I32_store() {
 		super();
+		N = null;
 	}
 
 	public I32_store(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					 WasmStack stack) {
+					 WasmStack<Object> stack) {
 		super(memoryArgument, frame, store, stack);
 
 		N = null;
 	}
 
-	/*package_private */
-	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
-		ByteUnsigned[] result = new ByteUnsigned[4];
-		result = c.getBytes();
-
-		return result;
-	}
-
-
 	/* package_private */
 	@Override
-	void step15_ReplaceBytes(MemoryType mem, U32 ea, ByteUnsigned[] bytes) {
-		mem.set(ea.integerValue() + 0, bytes[0]);
-		mem.set(ea.integerValue() + 1, bytes[1]);
-		mem.set(ea.integerValue() + 2, bytes[2]);
-		mem.set(ea.integerValue() + 3, bytes[3]);
+	void storeTo(LinearMemory data, int ea, Object c) {
+		data.putInt(ea, ((I32) c).integerValue());
 	}
 
+
 	/**
 	 * Get an object of the type 't' in the instruction description <code>t.store memarg and
 	 * t.storeN memarg</code>.  It is limited in the 'Store' opcodes to I32 and I64.
@@ -176,16 +164,4 @@ public class I32_store extends StoreBase {
 		return new U32(32);
 	}
 
-
-	/**
-	 * The value to store. <code>'c'</code> is the the value to store in memory.
-	 */
-	private I32 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I32) c;
-	}
-
 }
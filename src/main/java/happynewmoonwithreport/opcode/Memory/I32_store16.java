@@ -21,9 +21,8 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
 import happynewmoonwithreport.type.MemoryArgument;
-import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.U32;
 
 /**
@@ -126,12 +125,13 @@ import happynewmoonwithreport.type.U32;
  */
 public class I32_store16 extends StoreBase {
 
-	private I32_store16() {
+	public I32_store16() {
 		super();
+		N = new U32(16);
 	}
 
 	public I32_store16(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					   WasmStack stack) {
+					   WasmStack<Object> stack) {
 		super(memoryArgument, frame, store, stack);
 
 		N = new U32(16);
@@ -139,23 +139,8 @@ public class I32_store16 extends StoreBase {
 
 	/* package_private */
 	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
-		ByteUnsigned[] result = new ByteUnsigned[4];
-		ByteUnsigned[] baC = c.getBytes();
-
-		result[0] = ByteUnsigned.byteUnsignedZero;
-		result[1] = ByteUnsigned.byteUnsignedZero;
-		result[2] = baC[2];
-		result[3] = baC[3];
-
-		return result;
-	}
-
-	/* package_private */
-	@Override
-	void step15_ReplaceBytes(MemoryType mem, U32 ea, ByteUnsigned[] bytes) {
-		mem.set(ea.integerValue() + 0, bytes[2]);
-		mem.set(ea.integerValue() + 1, bytes[3]);
+	void storeTo(LinearMemory data, int ea, Object c) {
+		data.putShort(ea, ((I32) c).integerValue().shortValue());
 	}
 
 	/**
@@ -176,17 +161,4 @@ public class I32_store16 extends StoreBase {
 		return new U32(32);
 	}
 
-
-	/**
-	 * The value to store. <code>'c'</code> is the the value to store in memory.
-	 */
-	private I32 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I32) c;
-	}
-
-
 }
@@ -21,7 +21,6 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.*;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 
 /**
  * <h1>i64_load</h1> Load an i64 value from memory to the stack.
@@ -105,12 +104,12 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 public class I64_load extends LoadBase {
 
 
-	private I64_load() {
+	public I64_load() {
 		super();
 	}
 
 	public I64_load(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					WasmStack stack) {
+					WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -126,24 +125,7 @@ public class I64_load extends LoadBase {
 
 	/* package-private */
 	@Override
-	ByteUnsigned[] getBytesFromMemory(MemoryType mem, U32 ea) {
-		ByteUnsigned[] bytes = new ByteUnsigned[getBitWithOfN().integerValue() / 4];
-		Integer eaIntegerValue = ea.integerValue();
-		bytes[0] = mem.get(eaIntegerValue + 0);
-		bytes[1] = mem.get(eaIntegerValue + 1);
-		bytes[2] = mem.get(eaIntegerValue + 2);
-		bytes[3] = mem.get(eaIntegerValue + 3);
-		bytes[4] = mem.get(eaIntegerValue + 4);
-		bytes[5] = mem.get(eaIntegerValue + 5);
-		bytes[6] = mem.get(eaIntegerValue + 6);
-		bytes[7] = mem.get(eaIntegerValue + 7);
-		return bytes;
-	}
-
-	/* package-private */
-	@Override
-	IntWasm convertToType(ByteUnsigned[] bytes) {
-		I64 c = new I64(bytes);
-		return c;
+	I64 loadFrom(LinearMemory data, int ea) {
+		return new I64(data.getLong(ea));
 	}
 }
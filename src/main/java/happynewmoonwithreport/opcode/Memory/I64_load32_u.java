@@ -21,7 +21,6 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.*;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 
 /**
  * <h1>i32_load32_s</h1> Load an i32 Signed value from memory to the stack.
@@ -101,14 +100,14 @@ public class I64_load32_u extends LoadBase {
 
 	private Boolean signExtension;
 
-	private I64_load32_u() {
+	public I64_load32_u() {
 		super();
 		signExtension = false;
 		N = new U32(32L);
 	}
 
 	public I64_load32_u(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-						WasmStack stack) {
+						WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -124,22 +123,7 @@ public class I64_load32_u extends LoadBase {
 
 	/* package-private */
 	@Override
-	ByteUnsigned[] getBytesFromMemory(MemoryType mem, U32 ea) {
-		ByteUnsigned[] bytes = new ByteUnsigned[4];
-		Integer eaIntegerValue = ea.integerValue();
-		bytes[0] = mem.get(eaIntegerValue + 0);  // Most Significant Byte
-		bytes[1] = mem.get(eaIntegerValue + 1);
-		bytes[2] = mem.get(eaIntegerValue + 2);
-		bytes[3] = mem.get(eaIntegerValue + 3);  // Least Significant Byte
-		return bytes;
+	I64 loadFrom(LinearMemory data, int ea) {
+		return new I64(data.getInt(ea) & 0xFFFF_FFFFL);
 	}
-
-	/* package-private */
-	@Override
-	IntWasm convertToType(ByteUnsigned[] bytes) {
-		I64 c = new I64(bytes, N.integerValue(), signExtension);
-		return c;
-	}
-
-
 }
@@ -21,9 +21,8 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
 import happynewmoonwithreport.type.MemoryArgument;
-import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.U32;
 
 /**
@@ -128,40 +127,25 @@ import happynewmoonwithreport.type.U32;
  */
 public class I64_store extends StoreBase {
 
-	private I64_store() {
+	public I64_store() {
 		super();
+		N = null;
 	}
 
 	public I64_store(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					 WasmStack stack) {
+					 WasmStack<Object> stack) {
 		super(memoryArgument, frame, store, stack);
 
 		N = null;
 	}
 
-	/*package_private */
-	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
-		ByteUnsigned[] result = new ByteUnsigned[8];
-		result = c.getBytes();
-
-		return result;
-	}
-
-
 	/* package_private */
 	@Override
-	void step15_ReplaceBytes(MemoryType mem, U32 ea, ByteUnsigned[] bytes) {
-		mem.set(ea.integerValue() + 0, bytes[0]);
-		mem.set(ea.integerValue() + 1, bytes[1]);
-		mem.set(ea.integerValue() + 2, bytes[2]);
-		mem.set(ea.integerValue() + 3, bytes[3]);
-		mem.set(ea.integerValue() + 4, bytes[4]);
-		mem.set(ea.integerValue() + 5, bytes[5]);
-		mem.set(ea.integerValue() + 6, bytes[6]);
-		mem.set(ea.integerValue() + 7, bytes[7]);
+	void storeTo(LinearMemory data, int ea, Object c) {
+		data.putLong(ea, ((I64) c).longValue());
 	}
 
+
 	/**
 	 * Get an object of the type  't' in the instruction description <code>t.store memarg and
 	 * t.storeN memarg</code>.  It is limited in the 'Store' opcodes to I32 and I64.
@@ -180,17 +164,4 @@ public class I64_store extends StoreBase {
 		return new U32(64);
 	}
 
-
-	/**
-	 * the value to store.  <code>'c'</code> is the the value to store in memory.
-	 */
-	private I64 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I64) c;
-	}
-
-
 }
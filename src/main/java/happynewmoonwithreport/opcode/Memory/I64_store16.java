@@ -21,9 +21,8 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
 import happynewmoonwithreport.type.MemoryArgument;
-import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.U32;
 
 /**
@@ -128,39 +127,22 @@ import happynewmoonwithreport.type.U32;
  */
 public class I64_store16 extends StoreBase {
 
-	private I64_store16() {
+	public I64_store16() {
 		super();
+		N = new U32(16);
 	}
 
 	public I64_store16(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					   WasmStack stack) {
+					   WasmStack<Object> stack) {
 		super(memoryArgument, frame, store, stack);
 
 		N = new U32(16);
 	}
 
-	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
-		ByteUnsigned[] result = new ByteUnsigned[8];
-		ByteUnsigned[] baC = c.getBytes();
-
-		result[0] = ByteUnsigned.byteUnsignedZero;
-		result[1] = ByteUnsigned.byteUnsignedZero;
-		result[2] = ByteUnsigned.byteUnsignedZero;
-		result[3] = ByteUnsigned.byteUnsignedZero;
-		result[4] = ByteUnsigned.byteUnsignedZero;
-		result[5] = ByteUnsigned.byteUnsignedZero;
-		result[6] = baC[6];
-		result[7] = baC[7];
-
-		return result;
-	}
-
 	/* package_private */
 	@Override
-	void step15_ReplaceBytes(MemoryType mem, U32 ea, ByteUnsigned[] bytes) {
-		mem.set(ea.integerValue() + 0, bytes[6]);
-		mem.set(ea.integerValue() + 1, bytes[7]);
+	void storeTo(LinearMemory data, int ea, Object c) {
+		data.putShort(ea, ((I64) c).longValue().shortValue());
 	}
 
 	/**
@@ -181,17 +163,4 @@ public class I64_store16 extends StoreBase {
 		return new U32(64);
 	}
 
-
-	/**
-	 * the value to store.  <code>'c'</code> is the the value to store in memory.
-	 */
-	private I64 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I64) c;
-	}
-
-
 }
@@ -21,9 +21,8 @@ import happynewmoonwithreport.WasmFrame;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
 import happynewmoonwithreport.type.MemoryArgument;
-import happynewmoonwithreport.type.MemoryType;
 import happynewmoonwithreport.type.U32;
 
 /**
@@ -128,38 +127,22 @@ import happynewmoonwithreport.type.U32;
  */
 public class I64_store8 extends StoreBase {
 
-	private I64_store8() {
+	public I64_store8() {
 		super();
+		N = new U32(8);
 	}
 
 	public I64_store8(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-					  WasmStack stack) {
+					  WasmStack<Object> stack) {
 		super(memoryArgument, frame, store, stack);
 
 		N = new U32(8);
 	}
 
-	@Override
-	ByteUnsigned[] step13_convert_C_toByteArray() {
-		ByteUnsigned[] result = new ByteUnsigned[8];
-		ByteUnsigned[] baC = c.getBytes();
-
-		result[0] = ByteUnsigned.byteUnsignedZero;
-		result[1] = ByteUnsigned.byteUnsignedZero;
-		result[2] = ByteUnsigned.byteUnsignedZero;
-		result[3] = ByteUnsigned.byteUnsignedZero;
-		result[4] = ByteUnsigned.byteUnsignedZero;
-		result[5] = ByteUnsigned.byteUnsignedZero;
-		result[6] = ByteUnsigned.byteUnsignedZero;
-		result[7] = baC[7];
-
-		return result;
-	}
-
 	/* package_private */
 	@Override
-	void step15_ReplaceBytes(MemoryType mem, U32 ea, ByteUnsigned[] bytes) {
-		mem.set(ea.integerValue() + 0, bytes[7]);
+	void storeTo(LinearMemory data, int ea, Object c) {
+		data.putByte(ea, ((I64) c).longValue().byteValue());
 	}
 
 	/**
@@ -180,17 +163,4 @@ public class I64_store8 extends StoreBase {
 		return new U32(64);
 	}
 
-
-	/**
-	 * the value to store.  <code>'c'</code> is the the value to store in memory.
-	 */
-	private I64 c;
-
-	/* package_private */
-	@Override
-	void setC(Object c) {
-		this.c = (I64) c;
-	}
-
-
 }
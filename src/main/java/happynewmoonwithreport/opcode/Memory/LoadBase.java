@@ -21,7 +21,6 @@ import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.*;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 import java.util.UUID;
 
 /**
@@ -34,14 +33,14 @@ public abstract class LoadBase {
 	MemoryArgument memoryArgument;
 	WasmFrame frame;
 	WasmStore store;
-	WasmStack stack;
+	WasmStack<Object> stack;
 
 	/* package_private */ LoadBase() {
 		super();
 	}
 
 	/* package_private */ LoadBase(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
-								   WasmStack stack) {
+								   WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -52,6 +51,12 @@ public abstract class LoadBase {
 	/* package_private */ U32 N;
 	private Boolean nPartofTheInstruction;
 
+	/**
+	 * N/8, the bytes read.  Zero until the first load works it out from
+	 * {@link #getBitWithOfN()}.
+	 */
+	private int byteCount;
+
 	protected Boolean isNPartofTheInstruction() {
 		return nPartofTheInstruction;
 	}
@@ -68,11 +73,57 @@ public abstract class LoadBase {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(memoryArgument, frame, store, stack);
+	}
+
+	/**
+	 * Execute the opcode.
+	 * <br>
+	 * Uses only its parameters and values fixed when the object is constructed, so one object
+	 * may be shared by every load of its kind.
+	 *
+	 * @param memoryArgument the alignment and offset of the instruction.
+	 * @param frame          the current frame.
+	 * @param store          the store.
+	 * @param stack          the operand stack.
+	 */
+	public void execute(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
+						WasmStack<Object> stack) {
 		// 1. Let F be the current frame.
-		// Frame set in constructor.
+		// Frame is a parameter.
+
+		// 2. - 5.
+		MemoryType mem = frame.getMemoryZero();
+		if (mem == null) {
+			mem = memoryZero(frame, store);
+		}
 
+		// 6. Assert: due to validation, a value of value type i32 is on the top of the stack.
+		if ((stack.peek() instanceof I32) == false) {
+			throw new WasmRuntimeException(UUID.fromString("edba1731-664f-4756-9374-1365e8b19a7a"),
+				"I32_load: Step 6: Value type  on stack is incorrect.  "
+				+ "Expected I32 but type was " + stack.peek().toString());
+		}
+
+		// 7. Pop the value i32.const i from the stack.
+		I32 i = (I32) stack.pop();
+
+		// 8. - 13.
+		Object c = load(mem, memoryArgument, i.integerValue());
+
+		// 14. Push the value t.const c  to the stack.
+		stack.push(c);
+	}
+
+	/**
+	 * Steps 2 to 5.  The lookups scan the memories of the module and the store, so they are done
+	 * by the first load only and <code>mem</code> is kept in the frame.
+	 *
+	 * @return mem, the memory instance of memory 0.
+	 */
+	private MemoryType memoryZero(WasmFrame frame, WasmStore store) {
 		// 2. Assert: due to validation, F.module.memaddrs[0] exists.
-		UInt32 memoryIndex = new UInt32(0);
+		final UInt32 memoryIndex = new UInt32(0);
 		final Boolean memoryExists = frame.getModule().memoryExists(memoryIndex);
 		if (memoryExists == false) {
 			throw new WasmRuntimeException(UUID.fromString("35030ef5-2f4a-496c-8e67-06245e05d56d"),
@@ -87,60 +138,59 @@ public abstract class LoadBase {
 		if (memoryTypeExists == false) {
 			throw new WasmRuntimeException(UUID.fromString("3e1eac11-9acd-46e4-ab62-08e34f3e3f2b"),
 				"Memory type %s does not exists", a);
-
 		}
 
 		// 5. Let mem be the memory instance S.mems[a].
 		final MemoryType mem = store.getMemoryAll().get(a);
+		frame.setMemoryZero(mem);
+		return mem;
+	}
 
-		// 6. Assert: due to validation, a value of value type i32 is on the top of the stack.
-		if ((stack.peek() instanceof I32) == false) {
-			throw new WasmRuntimeException(UUID.fromString("edba1731-664f-4756-9374-1365e8b19a7a"),
-				"I32_load: Step 6: Value type  on stack is incorrect.  "
-				+ "Expected I32 but type was " + stack.peek().toString());
-		}
-
-		// 7. Pop the value i32.const i from the stack.
-		I32 i = (I32) stack.pop();
-
+	/**
+	 * Steps 8 to 13 of the load, without the assertions that validation makes unnecessary.  Used
+	 * by the validated execution mode, which resolves <code>mem</code> once per call.
+	 *
+	 * @param mem            the memory instance, memory 0 of the module.
+	 * @param memoryArgument the alignment and offset of the instruction.
+	 * @param i              the address popped from the stack, the low 32 bits are used unsigned.
+	 * @return the value loaded, <code>c</code>.
+	 */
+	public Object load(MemoryType mem, MemoryArgument memoryArgument, long i) {
 		// 8. Let ea be i+memarg.offset.
-		Long eaValue = i.longValue() + memoryArgument.getOffest().longValue();
-		U32 ea = new U32(eaValue);   // ¿should this be U33?
+		// i and the offset are both unsigned 32 bit, so ea is 0 to 2^33 - 2 and never overflows.
+		final long ea = (i & 0xFFFF_FFFFL) + memoryArgument.getOffestValue();
 
 		// 9. If N is not part of the instruction, then:
-		//        a: Let N be the bit width |t| of value type t .
-		U32 N = getBitWithOfN();
+		//        a: Let N be the bit width |t| of value type t.
+		int byteCount = this.byteCount;
+		if (byteCount == 0) {
+			byteCount = (int) (getBitWithOfN().longValue() / 8);
+			this.byteCount = byteCount;
+		}
 
 		// 10. If ea+N/8 is larger than the length of mem.data , then:
 		//        a: Trap.
-		Long lengthRequired = ea.longValue() + (N.longValue() / 8);
-		Long memoryLength = mem.getSize().longValue();
-		if (memoryLength < lengthRequired) {
+		// mem.data and its length are read once, and as ea is not negative the check is one
+		// compare.
+		final LinearMemory data = mem.getLinearMemory();
+		final int memoryLength = data.getByteLength();
+		if (memoryLength < ea + byteCount) {
 			throw new WasmRuntimeException(UUID.fromString("518fe904-05b5-492f-9a78-d89b30bb6551"),
-				"I32_load: Step 10: Trap.  Address  + size is too large. length = " + lengthRequired
-				+ " memoryLength = " + memoryLength);
+				"I32_load: Step 10: Trap.  Address  + size is too large. length = "
+				+ (ea + byteCount) + " memoryLength = " + memoryLength);
 		}
 
-
 		// 11. Let b∗ be the byte sequence mem.data[ea:N/8].
-		ByteUnsigned[] bytes = getBytesFromMemory(mem, ea);
-
 		// 12. If N and sx are part of the instruction, then:
 		//        a: Let n be the integer for which bytesiN(n)=b∗.
 		//        b: Let c be the result of computing extend_sxN,|t|(n).
-
-		/* does not apply for i32_load does not contain sx **/
-
 		// 13. Else:
 		//        a: Let c be the constant for which bytes<sub>t</sub>(c)=b∗.
 		// TODO Consider reworking Number/Integer/Float class hierarchy to return something
 		//  besides 'Object'.
-		Object c = convertToType(bytes);
-
-		// 14. Push the value t.const c  to the stack.
-		stack.push(c);
-
+		Object c = loadFrom(data, (int) ea);
 
+		return c;
 	}
 
 	/**
@@ -156,19 +206,12 @@ public abstract class LoadBase {
 	abstract U32 getBitWithOfN();
 
 	/**
-	 * Get the bytes from memory.
-	 *
-	 * @param mem The memory to get the bytes from.
-	 * @param ea  The effective address.  Where is memory are the bytes stored.
-	 * @return array of unsigned bytes.  Length = N/8.
-	 */
-	abstract ByteUnsigned[] getBytesFromMemory(MemoryType mem, U32 ea);
-
-	/**
-	 * Convert the bytes from getBytesFromMemory to an Integer.
+	 * Steps 11 to 13.  Read the N/8 bytes at <code>ea</code>, little endian, and make the value
+	 * <code>c</code>, sign or zero extended to the type of the instruction.
 	 *
-	 * @param bytes bytes to convert.   Length = N/8.
-	 * @return the bytes converted to an Integer.
+	 * @param data The bytes of the memory, mem.data.
+	 * @param ea   The effective address, already checked.
+	 * @return the value loaded, <code>c</code>.
 	 */
-	abstract Object convertToType(ByteUnsigned[] bytes);
+	abstract Object loadFrom(LinearMemory data, int ea);
 }
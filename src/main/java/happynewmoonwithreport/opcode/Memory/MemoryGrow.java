@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.opcode.Memory;
+
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.WasmStore;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.MemoryType;
+import java.util.UUID;
+
+/**
+ * <h1>memory.grow</h1> Grow memory 0 by n pages, push the old size or -1.
+ * <br>
+ * <b>Source:</b>
+ * <a href="https://webassembly.github.io/spec/core/exec/instructions.html#exec-memory-grow"
+ * target="_top"> https://webassembly.github.io/spec/core/exec/instructions.html#exec-memory-grow
+ * </a>
+ * <ol>
+ * <li>
+ * Let F be the current frame.
+ * </li><li>
+ * Assert: due to validation, F.module.memaddrs[0] exists.
+ * </li><li>
+ * Let a be the memory address F.module.memaddrs[0].
+ * </li><li>
+ * Assert: due to validation, S.mems[a] exists.
+ * </li><li>
+ * Let mem be the memory instance S.mems[a].
+ * </li><li>
+ * Let sz be the length of S.mems[a] divided by the page size.
+ * </li><li>
+ * Assert: due to validation, a value of value type i32 is on the top of the stack.
+ * </li><li>
+ * Pop the value i32.const n from the stack.
+ * </li><li>
+ * Let err be the i32 value 2<sup>32</sup>-1, for which signed<sub>32</sub>(err) is -1.
+ * </li><li>
+ * Either, try growing mem by n pages:
+ * <ol type="a">
+ * <li>
+ * If it succeeds, push the value i32.const sz to the stack.
+ * </li><li>
+ * Else, push the value i32.const err to the stack.
+ * </li></ol>
+ * </li><li>
+ * Or, push the value i32.const err to the stack.
+ * </li>
+ * </ol>
+ * The pages already there are not copied when the memory is a
+ * {@link happynewmoonwithreport.type.PagedLinearMemory}, the default.
+ */
+public class MemoryGrow {
+
+	private MemoryGrow() {
+		super();
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param frame the current frame.
+	 * @param store the store.
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmFrame frame, WasmStore store, WasmStack<Object> stack) {
+		// 1. - 5.
+		final MemoryType mem = MemorySize.memoryZero(frame, store);
+
+		// 7. Assert: due to validation, a value of value type i32 is on the top of the stack.
+		if ((stack.peek() instanceof I32) == false) {
+			throw new WasmRuntimeException(UUID.fromString("a4e18c60-7d2b-4f93-9c05-3b8e6f2d1a79"),
+				"memory.grow: Step 7: Value type on stack is incorrect.  "
+				+ "Expected I32 but type was " + stack.peek().toString());
+		}
+
+		// 8. Pop the value i32.const n from the stack.
+		final I32 n = (I32) stack.pop();
+
+		// 6., 9. - 11.
+		stack.push(new I32(grow(mem, n.integerValue())));
+	}
+
+	/**
+	 * Steps 6 and 9 to 11, without the assertions.
+	 *
+	 * @param mem the memory instance, memory 0 of the module.
+	 * @param n   the number of pages, unsigned.
+	 * @return the size in pages before, sz, or -1, err.
+	 */
+	public static int grow(MemoryType mem, int n) {
+		return mem.grow(n & 0xFFFF_FFFFL);
+	}
+}
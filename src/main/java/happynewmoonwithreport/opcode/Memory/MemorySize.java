@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.opcode.Memory;
+
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.WasmStore;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.UInt32;
+import java.util.UUID;
+
+/**
+ * <h1>memory.size</h1> Push the size of memory 0 in pages.
+ * <br>
+ * <b>Source:</b>
+ * <a href="https://webassembly.github.io/spec/core/exec/instructions.html#exec-memory-size"
+ * target="_top"> https://webassembly.github.io/spec/core/exec/instructions.html#exec-memory-size
+ * </a>
+ * <ol>
+ * <li>
+ * Let F be the current frame.
+ * </li><li>
+ * Assert: due to validation, F.module.memaddrs[0] exists.
+ * </li><li>
+ * Let a be the memory address F.module.memaddrs[0].
+ * </li><li>
+ * Assert: due to validation, S.mems[a] exists.
+ * </li><li>
+ * Let mem be the memory instance S.mems[a].
+ * </li><li>
+ * Let sz be the length of mem.data divided by the page size.
+ * </li><li>
+ * Push the value i32.const sz to the stack.
+ * </li>
+ * </ol>
+ */
+public class MemorySize {
+
+	private MemorySize() {
+		super();
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param frame the current frame.
+	 * @param store the store.
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmFrame frame, WasmStore store, WasmStack<Object> stack) {
+		// 1. - 5.
+		final MemoryType mem = memoryZero(frame, store);
+
+		// 6. Let sz be the length of mem.data divided by the page size.
+		// 7. Push the value i32.const sz to the stack.
+		stack.push(new I32(mem.getPageCount()));
+	}
+
+	/**
+	 * Steps 1 to 5 of memory.size and memory.grow.  <code>mem</code> is kept in the frame, as
+	 * the loads and stores do.
+	 *
+	 * @return mem, the memory instance of memory 0.
+	 */
+	static MemoryType memoryZero(WasmFrame frame, WasmStore store) {
+		final MemoryType memoryZero = frame.getMemoryZero();
+		if (memoryZero != null) {
+			return memoryZero;
+		}
+
+		// 2. Assert: due to validation, F.module.memaddrs[0] exists.
+		final UInt32 memoryIndex = new UInt32(0);
+		if (frame.getModule().memoryExists(memoryIndex) == false) {
+			throw new WasmRuntimeException(UUID.fromString("6b0d3c8e-91f2-4a57-b3e4-2c7f5a1d9e08"),
+				"Memory %s does not exists", memoryIndex);
+		}
+
+		// 3. Let a be the memory address F.module.memaddrs[0].
+		final MemoryType a = frame.getModule().getMemory(memoryIndex);
+
+		// 4. Assert: due to validation, S.mems[a] exists.
+		if (store.getMemoryAll().contains(a) == false) {
+			throw new WasmRuntimeException(UUID.fromString("d2a7f915-4c3e-4b80-8e6d-1f9b0c5a7e32"),
+				"Memory type %s does not exists", a);
+		}
+
+		// 5. Let mem be the memory instance S.mems[a].
+		final MemoryType mem = store.getMemoryAll().get(a);
+		frame.setMemoryZero(mem);
+		return mem;
+	}
+}
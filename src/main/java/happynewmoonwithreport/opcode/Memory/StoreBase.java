@@ -22,7 +22,6 @@ import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.WasmStore;
 import happynewmoonwithreport.type.*;
-import happynewmoonwithreport.type.JavaType.ByteUnsigned;
 import java.util.UUID;
 
 /**
@@ -129,7 +128,7 @@ public abstract class StoreBase {
 	MemoryArgument memoryArgument;
 	WasmFrame frame;
 	WasmStore store;
-	WasmStack stack;
+	WasmStack<Object> stack;
 
 	/* package_private */ StoreBase() {
 		super();
@@ -137,7 +136,7 @@ public abstract class StoreBase {
 
 	/* package_private */ StoreBase(MemoryArgument memoryArgument, WasmFrame frame,
 									WasmStore store,
-									WasmStack stack) {
+									WasmStack<Object> stack) {
 		this();
 		this.memoryArgument = memoryArgument;
 		this.frame = frame;
@@ -145,52 +144,50 @@ public abstract class StoreBase {
 		this.stack = stack;
 	}
 
-	/* package_private */ UInt32 memoryIndex;
 	/* package_private */ U32 N;
-	private Boolean nPartofTheInstruction;
+
+	/**
+	 * N/8, the bytes written.  Zero until the first store works it out.
+	 */
+	private int byteCount;
 
 	protected Boolean isNPartofTheInstruction() {
-		return nPartofTheInstruction;
+		return N != null;
 	}
 
 	protected Boolean isN_NOT_PartofTheInstruction() {
-		return nPartofTheInstruction == false;
-	}
-
-	protected void setnPartofTheInstruction(Boolean nPartofTheInstruction) {
-		this.nPartofTheInstruction = nPartofTheInstruction;
+		return N == null;
 	}
 
 	/**
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		setnPartofTheInstruction(N != null);
+		execute(memoryArgument, frame, store, stack);
+	}
 
+	/**
+	 * Execute the opcode.
+	 * <br>
+	 * Uses only its parameters and values fixed when the object is constructed, so one object
+	 * may be shared by every store of its kind.
+	 *
+	 * @param memoryArgument the alignment and offset of the instruction.
+	 * @param frame          the current frame.
+	 * @param store          the store.
+	 * @param stack          the operand stack.
+	 */
+	public void execute(MemoryArgument memoryArgument, WasmFrame frame, WasmStore store,
+						WasmStack<Object> stack) {
 		// 1. Let F be the current frame.
-		// Frame set in constructor.
+		// Frame is a parameter.
 
-		// 2. Assert: due to validation, F.module.memaddrs[0] exists.
-		memoryIndex = new UInt32(0);
-		final Boolean memoryExists = frame.getModule().memoryExists(memoryIndex);
-		if (memoryExists == false) {
-			throw new WasmRuntimeException(UUID.fromString("1b1ccfdc-892c-4d12-b6a8-f15e5986f0a4"),
-				"Memory %s does not exists", memoryIndex);
+		// 2. - 5.
+		MemoryType mem = frame.getMemoryZero();
+		if (mem == null) {
+			mem = memoryZero(frame, store);
 		}
 
-		// 3. Let a be the memory address F.module.memaddrs[0].
-		final MemoryType a = frame.getModule().getMemory(memoryIndex);
-
-		// 4. Assert: due to validation, S.mems[a] exists.
-		final Boolean memoryTypeExists = store.getMemoryAll().contains(a);
-		if (memoryTypeExists == false) {
-			throw new WasmRuntimeException(UUID.fromString("c2ceaaf8-3872-4050-aa20-c503053c9a29"),
-				"Memory type %s does not exists", a);
-		}
-
-		// 5. Let mem be the memory instance S.mems[a].
-		final MemoryType mem = store.getMemoryAll().get(a);
-
 		// 6. Assert: due to validation, a value of value type t is on the top of the stack.
 		if (stack.peek().getClass() != getExpectedType().getClass()) {
 			// I'm not sure using 'getClass()' is the best way to validate the type of the object
@@ -202,7 +199,7 @@ public abstract class StoreBase {
 		}
 
 		// 7. Pop the value t.const c from the stack
-		setC(stack.pop());
+		final Object c = stack.pop();
 
 		// 8. Assert: due to validation, a value of value type I32 is on the top of the stack.
 		if ((stack.peek() instanceof I32) == false) {
@@ -214,39 +211,87 @@ public abstract class StoreBase {
 		// 9. Pop the value t.const i from the stack
 		I32 i = (I32) stack.pop();
 
-		// 10. Let ea be i+memarg.offset.
-		Long eaValue = i.longValue() + memoryArgument.getOffest().longValue();
-		U32 ea = new U32(eaValue);   // ¿should this be U33?
+		// 10. - 15.
+		store(mem, memoryArgument, i.integerValue(), c);
+	}
 
+	/**
+	 * Steps 2 to 5.  The lookups scan the memories of the module and the store, so they are done
+	 * by the first store only and <code>mem</code> is kept in the frame.
+	 *
+	 * @return mem, the memory instance of memory 0.
+	 */
+	private MemoryType memoryZero(WasmFrame frame, WasmStore store) {
+		// 2. Assert: due to validation, F.module.memaddrs[0] exists.
+		final UInt32 memoryIndex = new UInt32(0);
+		final Boolean memoryExists = frame.getModule().memoryExists(memoryIndex);
+		if (memoryExists == false) {
+			throw new WasmRuntimeException(UUID.fromString("1b1ccfdc-892c-4d12-b6a8-f15e5986f0a4"),
+				"Memory %s does not exists", memoryIndex);
+		}
+
+		// 3. Let a be the memory address F.module.memaddrs[0].
+		final MemoryType a = frame.getModule().getMemory(memoryIndex);
+
+		// 4. Assert: due to validation, S.mems[a] exists.
+		final Boolean memoryTypeExists = store.getMemoryAll().contains(a);
+		if (memoryTypeExists == false) {
+			throw new WasmRuntimeException(UUID.fromString("c2ceaaf8-3872-4050-aa20-c503053c9a29"),
+				"Memory type %s does not exists", a);
+		}
+
+		// 5. Let mem be the memory instance S.mems[a].
+		final MemoryType mem = store.getMemoryAll().get(a);
+		frame.setMemoryZero(mem);
+		return mem;
+	}
+
+	/**
+	 * Steps 10 to 15 of the store.  The assertions of steps 2, 4, 6 and 8 are skipped, the
+	 * validated execution mode has proved them and passes memory 0 in.
+	 *
+	 * @param mem            the memory instance, memory 0 of the module.
+	 * @param memoryArgument the alignment and offset of the instruction.
+	 * @param i              the address popped from the stack, the low 32 bits are used unsigned.
+	 * @param c              the value to store, of the type of the instruction.
+	 */
+	public void store(MemoryType mem, MemoryArgument memoryArgument, long i, Object c) {
+		// 10. Let ea be i+memarg.offset.
+		// both unsigned 32 bit, ea can not overflow or be negative.
+		final long ea = (i & 0xFFFF_FFFFL) + memoryArgument.getOffestValue();
 
 		// 11. If N is NOT part of the instruction, then:
 		//        a: Let N be the bit width |t| of value type t .
-		if (isN_NOT_PartofTheInstruction()) {
-			N = getWidthOfExpectedType();
+		int byteCount = this.byteCount;
+		if (byteCount == 0) {
+			final U32 N;
+			if (isN_NOT_PartofTheInstruction()) {
+				N = getWidthOfExpectedType();
+			} else {
+				N = this.N;
+			}
+			byteCount = (int) (N.longValue() / 8);
+			this.byteCount = byteCount;
 		}
 
 		// 12. If ea+N/8 is larger than the length of mem.data , then:
 		//        a: Trap.
-
-		Long lengthRequired = ea.longValue() + (N.longValue() / 8);
-		Long memoryLength = mem.getSize().longValue();
-		if (memoryLength < lengthRequired) {
+		// one read of mem.data and its length and one compare, as in LoadBase.
+		final LinearMemory data = mem.getLinearMemory();
+		final int memoryLength = data.getByteLength();
+		if (memoryLength < ea + byteCount) {
 			throw new WasmRuntimeException(UUID.fromString("8486a6d2-31b4-4035-bf27-1d76739bf309"),
-				"I32_Store: Step12: Trap.  Address  + size is too large. length = " + lengthRequired
-				+ " memoryLength = " + memoryLength);
+				"I32_Store: Step12: Trap.  Address  + size is too large. length = "
+				+ (ea + byteCount) + " memoryLength = " + memoryLength);
 		}
 
-		ByteUnsigned[] bytes;
 		// 13. If N is part of the instruction, then:
 		//    a. Let n be the result of computing wrap|t|,N(c)
 		//    b. Let b∗ be the byte sequence bytesiN(n).
 		// 14.  Else
 		//  a. Let b∗ be the byte sequence bytes t (c).
-		bytes = step13_convert_C_toByteArray();
-
 		// 15. Replace the bytes mem.data[ea:N/8] with b*.
-		step15_ReplaceBytes(mem, ea, bytes);
-
+		storeTo(data, (int) ea, c);
 	}
 
 	/**
@@ -261,15 +306,15 @@ public abstract class StoreBase {
 
 
 	/**
-	 * The value to store.  <code>'c'</code> is the the value to store in memory.
+	 * Steps 13 to 15.  Wrap the value to N bits and write its N/8 bytes at <code>ea</code>,
+	 * little endian.
+	 *
+	 * @param data the bytes of the memory, mem.data.
+	 * @param ea   the effective address, already checked.
+	 * @param c    the value to store.  <code>'c'</code> is the the value to store in memory.
 	 */
-	abstract void setC(Object c);
-
-	/* package_private */
-	abstract ByteUnsigned[] step13_convert_C_toByteArray();
-
 	/* package_private */
-	abstract void step15_ReplaceBytes(MemoryType mem, U32 ea, ByteUnsigned[] bytes);
+	abstract void storeTo(LinearMemory data, int ea, Object c);
 
 
 }
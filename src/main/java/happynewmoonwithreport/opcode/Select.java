@@ -70,8 +70,16 @@ public class Select {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		// 1 Assert: due to validation, a value of value type i32 is on the top of the stack.
-		WasmStack<Object> stack = instance.stack();
 		Object value = stack.peek();
 		if ((value instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("78c61ec8-a580-40b0-ad97-bd40d6d55739"),
@@ -52,13 +52,13 @@ import java.util.UUID;
 public class SetLocal {
 
 	private WasmFrame frame;
-	private WasmStack stack;
+	private WasmStack<Object> stack;
 
 	private SetLocal() {
 		super();
 	}
 
-	public SetLocal(WasmFrame frame, WasmStack stack) {
+	public SetLocal(WasmFrame frame, WasmStack<Object> stack) {
 		this();
 		this.frame = frame;
 		this.stack = stack;
@@ -70,12 +70,23 @@ public class SetLocal {
 	 * @param index index in to the vector that contains the local variable.
 	 */
 	public void execute(I32 index) {
-		// 1 Frame set in constructor.
+		execute(frame, stack, index.integerValue());
+	}
+
+	/**
+	 * Execute the opcode
+	 *
+	 * @param frame the current frame.
+	 * @param stack the operand stack.
+	 * @param index index in to the vector that contains the local variable.
+	 */
+	public static void execute(WasmFrame frame, WasmStack<Object> stack, int index) {
+		// 1 Frame is a parameter.
 
 		// 2 validate.
-		if (frame.localAll().exists(index) == false) {
+		if ((0 <= index && index < frame.localAll().size()) == false) {
 			throw new WasmRuntimeException(UUID.fromString("87eaa036-eaba-4740-93b6-590230b4ba49"),
-				"SetLocal: Local variable " + index.integerValue() + " does not exist");
+				"SetLocal: Local variable " + index + " does not exist");
 		}
 
 		// 3 validate
@@ -80,10 +80,10 @@ import java.util.UUID;
  * </a>
  */
 public class I32_shr_u {
-	private final String opCodeName = getClass().getName();
-	private final Integer N = 32;   // number of bits
-	private final String t1Type = "I32";
-	private final String t2Type = "I32";
+	private static final String opCodeName = I32_shr_u.class.getName();
+	private static final Integer N = 32;   // number of bits
+	private static final String t1Type = "I32";
+	private static final String t2Type = "I32";
 
 	private WasmInstanceInterface instance;
 
@@ -100,7 +100,15 @@ public class I32_shr_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		//Pop the value t.const value2 from the stack.
 		if ((stack.peek() instanceof I32) == false) {
@@ -48,9 +48,9 @@ import java.util.UUID;
  * </a>
  */
 public class F32_copysign {
-	private final String opCodeName = getClass().getName();
-	private final String t1Type = "F32";
-	private final String t2Type = "F32";
+	private static final String opCodeName = F32_copysign.class.getName();
+	private static final String t1Type = "F32";
+	private static final String t2Type = "F32";
 
 	private WasmInstanceInterface instance;
 
@@ -68,7 +68,15 @@ public class F32_copysign {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t is on the top of the stack.
 		if ((stack.peek() instanceof F32) == false) {
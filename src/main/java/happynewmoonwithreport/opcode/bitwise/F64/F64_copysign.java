@@ -43,9 +43,9 @@ import java.util.UUID;
  * </a>
  */
 public class F64_copysign {
-	private final String opCodeName = getClass().getName();
-	private final String t1Type = "F64";
-	private final String t2Type = "F64";
+	private static final String opCodeName = F64_copysign.class.getName();
+	private static final String t1Type = "F64";
+	private static final String t2Type = "F64";
 
 	private WasmInstanceInterface instance;
 
@@ -63,7 +63,15 @@ public class F64_copysign {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t is on the top of the stack.
 		if ((stack.peek() instanceof F64) == false) {
@@ -70,7 +70,15 @@ public class F32_ge {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		// 1. Assert: due to validation, two values of value type t are on the top of the stack.
 		if ((stack.peek() instanceof F32) == false) {
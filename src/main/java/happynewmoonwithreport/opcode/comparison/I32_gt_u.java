@@ -70,6 +70,15 @@ public class I32_gt_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(stack);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("b422e802-6418-4b81-9eba-cff76bcdefb2"),
 				"i32_gt_u: Value2 type is incorrect");
@@ -70,7 +70,15 @@ public class I32_le_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("8f89d9ff-b81f-4b35-a8ee-9cb96bee6d82"),
 				"i32_le_s: Value2 type is incorrect");
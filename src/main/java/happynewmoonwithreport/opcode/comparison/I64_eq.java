@@ -67,7 +67,15 @@ public class I64_eq {
 	 */
 
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("e9b2cccf-1977-4a6b-9cb2-00d101c1203c"),
 				"I64_eq: Value2 type is incorrect");
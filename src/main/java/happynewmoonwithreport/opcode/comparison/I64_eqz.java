@@ -55,7 +55,15 @@ public class I64_eqz {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("d33cbf32-66c8-4b8c-9fa5-81e8e195d1bc"),
 				"I64_eqz: Value1 type is incorrect");
@@ -70,8 +70,16 @@ public class I64_gt_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		// Step 1
-		WasmStack<Object> stack = instance.stack();
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("4178a771-bf89-45cd-8dca-21f86b47c36a"),
 				"I64_gt_s: Value2 type is incorrect");
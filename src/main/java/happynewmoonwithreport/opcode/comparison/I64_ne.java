@@ -56,7 +56,15 @@ public class I64_ne {
 	 */
 
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("35101325-10e5-41c3-86e1-b79dd7eac7c6"),
 				"I64_ne: Value2 type is incorrect");
@@ -47,7 +47,7 @@ import java.util.UUID;
  */
 public class Block {
 	private WasmInstanceInterface instance;
-	private final String opCodeName = getClass().getName();
+	private static final String opCodeName = Block.class.getName();
 
 	private Block() {
 		super();
@@ -59,9 +59,29 @@ public class Block {
 	}
 
 	/**
-	 * Execute the opcode.
+	 * Execute the opcode.  The block type is read from the code.
 	 */
 	public void execute() {
+		BytesFile code = instance.getCode();
+		execute(ValueType.valueOf(code));
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param blockType the block type, already read from the code.
+	 */
+	public void execute(ValueType blockType) {
+		execute(instance.stack(), blockType);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack     the operand stack.
+	 * @param blockType the block type, already read from the code.
+	 */
+	public static void execute(WasmStack<Object> stack, ValueType blockType) {
 		// Assert: due to validation expand<sub>F</sub>(Blocktype) is defined.
 		// I am not sure what this means.  @TODO
 
@@ -73,7 +93,6 @@ public class Block {
 		// to determine the value of m.  // TODO
 		m.setValue(0);
 		// Assert: due to validation, there are at least m values on top of the stack.
-		WasmStack<Object> stack = instance.stack();
 		if (stack.size() < m.integerValue()) {
 			throw new WasmRuntimeException(UUID.fromString("ef6d31d8-301c-4c6c-8d86-ed7402fc5dad"),
 				opCodeName + ": Not enough values on the stack.  The stack must contain "
@@ -86,12 +105,10 @@ public class Block {
 			stack.pop();
 		}
 
-		BytesFile code = instance.getCode();
-
-		WasmLabel label = new WasmLabel(code);
+		WasmLabel label = new WasmLabel(blockType);
 
 		// Entering Blocks
 		// See:  https://webassembly.github.io/spec/core/exec/instructions.html#blocks
-		instance.stack().push(label);
+		stack.push(label);
 	}
 }
@@ -34,7 +34,7 @@ import java.util.UUID;
  */
 public class End {
 	private WasmInstanceInterface instance;
-	private final String opCodeName = getClass().getName();
+	private static final String opCodeName = End.class.getName();
 
 
 	private End() {
@@ -50,7 +50,15 @@ public class End {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		// Exiting Blocks
 		// See:  https://webassembly.github.io/spec/core/exec/instructions.html#blocks
 		// Let m be the number of values on the top of the stack
@@ -50,6 +50,13 @@ public class Unreachable {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		trap();
+	}
+
+	/**
+	 * Trap.  Unreachable has no operands, so there is nothing to pass.
+	 */
+	public static void trap() {
 		throw new WasmTrapException(UUID.fromString("e496383f-377d-4090-9cff-64bdfc50a32e"),
 			"Unreachable code tried to execute!");
 	}
@@ -68,9 +68,9 @@ import java.util.UUID;
  */
 
 public class I32_extend8_s {
-	private final String opCodeName = getClass().getName();
-	private final String t1Type = "I32";
-	private final String t2Type = "I32";
+	private static final String opCodeName = I32_extend8_s.class.getName();
+	private static final String t1Type = "I32";
+	private static final String t2Type = "I32";
 
 	private WasmInstanceInterface instance;
 
@@ -87,7 +87,15 @@ public class I32_extend8_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
 		if ((stack.peek() instanceof I32) == false) {
@@ -67,9 +67,9 @@ import java.util.UUID;
  */
 
 public class I64_extend_I32_s {
-	private final String opCodeName = "I64_extend_I32_s";
-	private final String t1Type = "I32";
-	private final String t2Type = "I64";
+	private static final String opCodeName = "I64_extend_I32_s";
+	private static final String t1Type = "I32";
+	private static final String t2Type = "I64";
 
 	private WasmInstanceInterface instance;
 
@@ -86,7 +86,15 @@ public class I64_extend_I32_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
 		if ((stack.peek() instanceof I32) == false) {
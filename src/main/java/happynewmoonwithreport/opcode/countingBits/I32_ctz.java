@@ -71,8 +71,8 @@ import java.util.UUID;
  */
 
 public class I32_ctz {
-	private final String opCodeName = getClass().getName();
-	private final String t1Type = "I32";
+	private static final String opCodeName = I32_ctz.class.getName();
+	private static final String t1Type = "I32";
 
 	private WasmStack<Object> stack;
 
@@ -89,6 +89,15 @@ public class I32_ctz {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(stack);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
 		if ((stack.peek() instanceof I32) == false) {
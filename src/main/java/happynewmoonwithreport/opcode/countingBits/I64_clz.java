@@ -72,8 +72,8 @@ import java.util.UUID;
  */
 
 public class I64_clz {
-	private final String opCodeName = getClass().getName();
-	private final String t1Type = "I64";
+	private static final String opCodeName = I64_clz.class.getName();
+	private static final String t1Type = "I64";
 
 	private WasmStack<Object> stack;
 
@@ -90,6 +90,15 @@ public class I64_clz {
 	 * Execute the opcode.
 	 */
 	public void execute() {
+		execute(stack);
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t1 is on the top of the stack.
 		if ((stack.peek() instanceof I64) == false) {
@@ -19,7 +19,6 @@ package happynewmoonwithreport.opcode.math;
 
 import happynewmoonwithreport.*;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.S32;
 import java.util.UUID;
 
 /**
@@ -91,9 +90,9 @@ import java.util.UUID;
  * </a>
  */
 public class I32_div_s {
-	private final String opcodeName = getClass().getName();
-	private final String t1Type = "I32";
-	private final String t2Type = "I32";
+	private static final String opcodeName = I32_div_s.class.getName();
+	private static final String t1Type = "I32";
+	private static final String t2Type = "I32";
 
 	private WasmInstanceInterface instance;
 
@@ -110,7 +109,15 @@ public class I32_div_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("12a6126e-d632-4486-94a5-20f9c974c1de"),
 				opcodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
@@ -123,14 +130,26 @@ public class I32_div_s {
 		}
 		I32 value1 = (I32) stack.pop();
 
+		I32 result = new I32(compute(value1.integerValue(), value2.integerValue()));
+
+		stack.push(result);
+	}
 
+	/**
+	 * Compute the result.
+	 *
+	 * @param value1 the first operand, popped second.
+	 * @param value2 the second operand, popped first.
+	 * @return the result.
+	 */
+	public static int compute(int value1, int value2) {
 		// Let j1 be the signed interpretation of i1.
-		S32 j1 = new S32(value1);
+		int j1 = value1;
 		// Let j2 be the signed interpretation of i2.
-		S32 j2 = new S32(value2);
+		int j2 = value2;
 
 		//If j2 is 0, then the result is undefined.
-		if (j2.integerValue() == 0) {
+		if (j2 == 0) {
 			throw new WasmDivideByZeroException(
 				UUID.fromString("2c6526b2-6f08-45c4-8343-579fc6cfe515"),
 				opcodeName + "Divide by zero is not defined");
@@ -138,15 +157,13 @@ public class I32_div_s {
 
 		// Else if j1 divided by j2 is 2N-1, then the result is undefined.
 		// Hackers Delight Section 2-13 states this is the only overflow condition.
-		if (j1.integerValue() == 0x8000_0000 && j2.integerValue() == 0xFFFF_FFFF) {
+		if (j1 == 0x8000_0000 && j2 == 0xFFFF_FFFF) {
 			throw new WasmDivideOverflowException(
 				UUID.fromString("4acf4694-fe77-4678-b37b-15b8391ee5fa"),
 				opcodeName + "Integer divide Overflow");
 		}
 
 		//return the result of dividing j1 by j2, truncated toward zero.
-		I32 result = new I32(j1.integerValue() / j2.integerValue());
-
-		stack.push(result);
+		return j1 / j2;
 	}
 }
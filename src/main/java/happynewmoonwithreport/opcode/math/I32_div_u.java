@@ -83,9 +83,9 @@ import java.util.UUID;
  * </a>
  */
 public class I32_div_u {
-	private final String opcodeName = getClass().getName();
-	private final String t1Type = "I32";
-	private final String t2Type = "I32";
+	private static final String opcodeName = I32_div_u.class.getName();
+	private static final String t1Type = "I32";
+	private static final String t2Type = "I32";
 
 	private WasmInstanceInterface instance;
 
@@ -102,7 +102,15 @@ public class I32_div_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("019f337f-8297-4228-a81f-be816ae3de34"),
 				opcodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
@@ -115,17 +123,27 @@ public class I32_div_u {
 		}
 		I32 value1 = (I32) stack.pop();
 
+		I32 result = new I32(compute(value1.integerValue(), value2.integerValue()));
+
+		stack.push(result);
+	}
 
+	/**
+	 * Compute the result.
+	 *
+	 * @param value1 the first operand, popped second.
+	 * @param value2 the second operand, popped first.
+	 * @return the result.
+	 */
+	public static int compute(int value1, int value2) {
 		//If j2 is 0, then the result is undefined.
-		if (value2.integerValue() == 0) {
+		if (value2 == 0) {
 			throw new WasmDivideByZeroException(
 				UUID.fromString("900174aa-3a9e-4a3a-b43e-3f5342aa867f"),
 				opcodeName + "Divide by zero is not defined");
 		}
 
 		//return the result of dividing j1 by j2, truncated toward zero.
-		I32 result = new I32(Integer.divideUnsigned(value1.integerValue(), value2.integerValue()));
-
-		stack.push(result);
+		return Integer.divideUnsigned(value1, value2);
 	}
 }
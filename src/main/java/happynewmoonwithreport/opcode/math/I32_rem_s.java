@@ -22,7 +22,6 @@ import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.type.I32;
-import happynewmoonwithreport.type.S32;
 import java.util.UUID;
 
 /**
@@ -95,9 +94,9 @@ import java.util.UUID;
  * </a>
  */
 public class I32_rem_s {
-	private final String opcodeName = getClass().getName();
-	private final String t1Type = "I32";
-	private final String t2Type = "I32";
+	private static final String opcodeName = I32_rem_s.class.getName();
+	private static final String t1Type = "I32";
+	private static final String t2Type = "I32";
 
 	private WasmInstanceInterface instance;
 
@@ -114,7 +113,15 @@ public class I32_rem_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("48441ff5-2e20-4e67-bbed-365b251b19e7"),
 				opcodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
@@ -127,22 +134,32 @@ public class I32_rem_s {
 		}
 		I32 value1 = (I32) stack.pop();
 
+		I32 result = new I32(compute(value1.integerValue(), value2.integerValue()));
+
+		stack.push(result);
+	}
 
+	/**
+	 * Compute the result.
+	 *
+	 * @param value1 the first operand, popped second.
+	 * @param value2 the second operand, popped first.
+	 * @return the result.
+	 */
+	public static int compute(int value1, int value2) {
 		// Let j1 be the signed interpretation of i1.
-		S32 j1 = new S32(value1);
+		int j1 = value1;
 		// Let j2 be the signed interpretation of i2.
-		S32 j2 = new S32(value2);
+		int j2 = value2;
 
 		//If j2 is 0, then the result is undefined.
-		if (j2.integerValue() == 0) {
+		if (j2 == 0) {
 			throw new WasmDivideByZeroException(
 				UUID.fromString("5b00bedc-f56e-4026-aa70-8ad526c71faa"),
 				opcodeName + "Divide by zero is not defined");
 		}
 
 		//return the result of dividing j1 by j2, truncated toward zero.
-		I32 result = new I32(j1.integerValue() % j2.integerValue());
-
-		stack.push(result);
+		return j1 % j2;
 	}
 }
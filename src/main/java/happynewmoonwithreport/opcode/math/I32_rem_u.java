@@ -88,9 +88,9 @@ import java.util.UUID;
  * </a>
  */
 public class I32_rem_u {
-	private final String opcodeName = getClass().getName();
-	private final String t1Type = "I32";
-	private final String t2Type = "I32";
+	private static final String opcodeName = I32_rem_u.class.getName();
+	private static final String t1Type = "I32";
+	private static final String t2Type = "I32";
 
 	private WasmInstanceInterface instance;
 
@@ -107,7 +107,15 @@ public class I32_rem_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("41adb2fd-04a7-446b-be32-ef7dcf7e8a8c"),
 				opcodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
@@ -120,18 +128,27 @@ public class I32_rem_u {
 		}
 		I32 value1 = (I32) stack.pop();
 
+		I32 result = new I32(compute(value1.integerValue(), value2.integerValue()));
+
+		stack.push(result);
+	}
 
+	/**
+	 * Compute the result.
+	 *
+	 * @param value1 the first operand, popped second.
+	 * @param value2 the second operand, popped first.
+	 * @return the result.
+	 */
+	public static int compute(int value1, int value2) {
 		//If j2 is 0, then the result is undefined.
-		if (value2.integerValue() == 0) {
+		if (value2 == 0) {
 			throw new WasmDivideByZeroException(
 				UUID.fromString("fc12cf95-94b4-4780-984e-e02b74e72ffb"),
 				opcodeName + "Divide by zero is not defined");
 		}
 
 		//return the remainder of dividing i1 by i2, with the sign of the dividend i1.
-		I32 result =
-			new I32(Integer.remainderUnsigned(value1.integerValue(), value2.integerValue()));
-
-		stack.push(result);
+		return Integer.remainderUnsigned(value1, value2);
 	}
 }
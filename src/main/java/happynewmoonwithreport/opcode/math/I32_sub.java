@@ -73,9 +73,9 @@ import java.util.UUID;
  * </a>
  */
 public class I32_sub {
-	private final String opCodeName = getClass().getName();
-	private final String t1Type = "I32";
-	private final String t2Type = "I32";
+	private static final String opCodeName = I32_sub.class.getName();
+	private static final String t1Type = "I32";
+	private static final String t2Type = "I32";
 
 	private WasmInstanceInterface instance;
 
@@ -92,7 +92,15 @@ public class I32_sub {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I32) == false) {
 			throw new WasmRuntimeException(UUID.fromString("ed5b6703-894c-4d1e-8ddc-4aab7ed1f4dd"),
 				opCodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
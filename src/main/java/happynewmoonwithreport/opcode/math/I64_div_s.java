@@ -19,7 +19,6 @@ package happynewmoonwithreport.opcode.math;
 
 import happynewmoonwithreport.*;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.S64;
 import java.util.UUID;
 
 /**
@@ -91,9 +90,9 @@ import java.util.UUID;
  * </a>
  */
 public class I64_div_s {
-	private final String opcodeName = getClass().getName();
-	private final String t1Type = "I64";
-	private final String t2Type = "I64";
+	private static final String opcodeName = I64_div_s.class.getName();
+	private static final String t1Type = "I64";
+	private static final String t2Type = "I64";
 
 	private WasmInstanceInterface instance;
 
@@ -110,7 +109,15 @@ public class I64_div_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("a3dd4634-f7fa-41ca-a355-0611ed0bfca7"),
 				opcodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
@@ -123,14 +130,26 @@ public class I64_div_s {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		I64 result = new I64(compute(value1.longValue(), value2.longValue()));
+
+		stack.push(result);
+	}
 
+	/**
+	 * Compute the result.
+	 *
+	 * @param value1 the first operand, popped second.
+	 * @param value2 the second operand, popped first.
+	 * @return the result.
+	 */
+	public static long compute(long value1, long value2) {
 		// Let j1 be the signed interpretation of i1.
-		S64 j1 = new S64(value1);
+		long j1 = value1;
 		// Let j2 be the signed interpretation of i2.
-		S64 j2 = new S64(value2);
+		long j2 = value2;
 
 		//If j2 is 0, then the result is undefined.
-		if (j2.longValue() == 0) {
+		if (j2 == 0) {
 			throw new WasmDivideByZeroException(
 				UUID.fromString("f2d3464a-f45d-4dbc-836a-6cd9020e138d"),
 				opcodeName + "Divide by zero is not defined");
@@ -138,15 +157,13 @@ public class I64_div_s {
 
 		// Else if j1 divided by j2 is 2N-1, then the result is undefined.
 		// Hackers Delight Section 2-13 states this is the only overflow condition.
-		if (j1.longValue() == 0x8000_0000_0000_0000L && j2.longValue() == 0xFFFF_FFFF_FFFF_FFFFL) {
+		if (j1 == 0x8000_0000_0000_0000L && j2 == 0xFFFF_FFFF_FFFF_FFFFL) {
 			throw new WasmDivideOverflowException(
 				UUID.fromString("3160d190-0508-4a79-91aa-f0f290f2f254"),
 				opcodeName + "Integer divide Overflow");
 		}
 
 		//return the result of dividing j1 by j2, truncated toward zero.
-		I64 result = new I64(j1.longValue() / j2.longValue());
-
-		stack.push(result);
+		return j1 / j2;
 	}
 }
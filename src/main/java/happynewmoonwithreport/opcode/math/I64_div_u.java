@@ -83,9 +83,9 @@ import java.util.UUID;
  * </a>
  */
 public class I64_div_u {
-	private final String opcodeName = getClass().getName();
-	private final String t1Type = "I64";
-	private final String t2Type = "I64";
+	private static final String opcodeName = I64_div_u.class.getName();
+	private static final String t1Type = "I64";
+	private static final String t2Type = "I64";
 
 	private WasmInstanceInterface instance;
 
@@ -102,7 +102,15 @@ public class I64_div_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("9d9586e6-2635-4c41-8aa1-3aa72ec3c2fb"),
 				opcodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
@@ -115,17 +123,27 @@ public class I64_div_u {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		I64 result = new I64(compute(value1.longValue(), value2.longValue()));
+
+		stack.push(result);
+	}
 
+	/**
+	 * Compute the result.
+	 *
+	 * @param value1 the first operand, popped second.
+	 * @param value2 the second operand, popped first.
+	 * @return the result.
+	 */
+	public static long compute(long value1, long value2) {
 		//If j2 is 0, then the result is undefined.
-		if (value2.longValue() == 0) {
+		if (value2 == 0) {
 			throw new WasmDivideByZeroException(
 				UUID.fromString("96b09b8c-3950-47e8-a2b3-9dc7018a3339"),
 				opcodeName + "Divide by zero is not defined");
 		}
 
 		//return the result of dividing j1 by j2, truncated toward zero.
-		I64 result = new I64(Long.divideUnsigned(value1.longValue(), value2.longValue()));
-
-		stack.push(result);
+		return Long.divideUnsigned(value1, value2);
 	}
 }
@@ -22,7 +22,6 @@ import happynewmoonwithreport.WasmInstanceInterface;
 import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.WasmStack;
 import happynewmoonwithreport.type.I64;
-import happynewmoonwithreport.type.S64;
 import java.util.UUID;
 
 /**
@@ -95,9 +94,9 @@ import java.util.UUID;
  * </a>
  */
 public class I64_rem_s {
-	private final String opcodeName = getClass().getName();
-	private final String t1Type = "I64";
-	private final String t2Type = "I64";
+	private static final String opcodeName = I64_rem_s.class.getName();
+	private static final String t1Type = "I64";
+	private static final String t2Type = "I64";
 
 	private WasmInstanceInterface instance;
 
@@ -114,7 +113,15 @@ public class I64_rem_s {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("b02e2bbb-0127-4969-a61d-39fb9734a2e1"),
 				opcodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
@@ -127,22 +134,32 @@ public class I64_rem_s {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		I64 result = new I64(compute(value1.longValue(), value2.longValue()));
+
+		stack.push(result);
+	}
 
+	/**
+	 * Compute the result.
+	 *
+	 * @param value1 the first operand, popped second.
+	 * @param value2 the second operand, popped first.
+	 * @return the result.
+	 */
+	public static long compute(long value1, long value2) {
 		// Let j1 be the signed interpretation of i1.
-		S64 j1 = new S64(value1);
+		long j1 = value1;
 		// Let j2 be the signed interpretation of i2.
-		S64 j2 = new S64(value2);
+		long j2 = value2;
 
 		//If j2 is 0, then the result is undefined.
-		if (j2.longValue() == 0) {
+		if (j2 == 0) {
 			throw new WasmDivideByZeroException(
 				UUID.fromString("d4fee389-19bc-4c46-9de6-765490991d78"),
 				opcodeName + "Divide by zero is not defined");
 		}
 
 		//return the result of dividing j1 by j2, truncated toward zero.
-		I64 result = new I64(j1.longValue() % j2.longValue());
-
-		stack.push(result);
+		return j1 % j2;
 	}
 }
@@ -88,9 +88,9 @@ import java.util.UUID;
  * </a>
  */
 public class I64_rem_u {
-	private final String opcodeName = getClass().getName();
-	private final String t1Type = "I64";
-	private final String t2Type = "I64";
+	private static final String opcodeName = I64_rem_u.class.getName();
+	private static final String t1Type = "I64";
+	private static final String t2Type = "I64";
 
 	private WasmInstanceInterface instance;
 
@@ -107,7 +107,15 @@ public class I64_rem_u {
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 		if ((stack.peek() instanceof I64) == false) {
 			throw new WasmRuntimeException(UUID.fromString("5a5e465e-a559-4240-a4bf-052cb519ee8b"),
 				opcodeName + ": Value2 type is incorrect. Value should be of type " + t1Type);
@@ -120,17 +128,27 @@ public class I64_rem_u {
 		}
 		I64 value1 = (I64) stack.pop();
 
+		I64 result = new I64(compute(value1.longValue(), value2.longValue()));
+
+		stack.push(result);
+	}
 
+	/**
+	 * Compute the result.
+	 *
+	 * @param value1 the first operand, popped second.
+	 * @param value2 the second operand, popped first.
+	 * @return the result.
+	 */
+	public static long compute(long value1, long value2) {
 		//If j2 is 0, then the result is undefined.
-		if (value2.longValue() == 0) {
+		if (value2 == 0) {
 			throw new WasmDivideByZeroException(
 				UUID.fromString("668d8f31-6e66-4226-ba20-4d2dacafe3c9"),
 				opcodeName + "Divide by zero is not defined");
 		}
 
 		//return the remainder of dividing i1 by i2, with the sign of the dividend i1.
-		I64 result = new I64(Long.remainderUnsigned(value1.longValue(), value2.longValue()));
-
-		stack.push(result);
+		return Long.remainderUnsigned(value1, value2);
 	}
 }
@@ -73,8 +73,8 @@ import java.util.UUID;
  */
 public class F32_floor
 {
-	private final String opCodeName = getClass().getName();
-	private final String t1Type = "F32";
+	private static final String opCodeName = F32_floor.class.getName();
+	private static final String t1Type = "F32";
 
 	private WasmInstanceInterface instance;
 
@@ -91,7 +91,15 @@ public class F32_floor
 	 * Execute the opcode.
 	 */
 	public void execute() {
-		WasmStack<Object> stack = instance.stack();
+		execute(instance.stack());
+	}
+
+	/**
+	 * Execute the opcode.
+	 *
+	 * @param stack the operand stack.
+	 */
+	public static void execute(WasmStack<Object> stack) {
 
 		// Assert: due to validation, a value of value type t is on the top of the stack.
 		if ((stack.peek() instanceof F32) == false) {
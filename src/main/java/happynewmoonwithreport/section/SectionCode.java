@@ -21,6 +21,9 @@ import happynewmoonwithreport.FunctionBody;
 import happynewmoonwithreport.type.UInt32;
 import happynewmoonwithreport.type.VarUInt32;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * <h1>Code section</h1>
@@ -45,6 +48,35 @@ public class SectionCode implements Section {
 	private UInt32 count;
 	private ArrayList<FunctionBody> functionAll;
 
+	/**
+	 * Decode each function body on first use.
+	 */
+	private Boolean lazy;
+
+	public SectionCode() {
+		this(false);
+	}
+
+	/**
+	 * @param lazy true to only record the size of each function body when the section is read.
+	 *             The body is decoded the first time the function is called or validated.
+	 */
+	public SectionCode(Boolean lazy) {
+		this.lazy = lazy;
+	}
+
+	/**
+	 * Construct from function bodies that have already been read.  Used when the module is read
+	 * from a channel.
+	 *
+	 * @param count       the number of function bodies.
+	 * @param functionAll the function bodies.
+	 */
+	public SectionCode(UInt32 count, ArrayList<FunctionBody> functionAll) {
+		this(false);
+		this.count = count;
+		this.functionAll = functionAll;
+	}
 
 	/**
 	 * @param payload the input BytesFile.
@@ -54,15 +86,65 @@ public class SectionCode implements Section {
 
 		//* FunctionBody Count
 		count = new VarUInt32(payload);
+		final int countValue = count.integerValue();
 
 		//* Functions
-		functionAll = new ArrayList<>(count.integerValue());
-		for (Integer index = 0; index < count.integerValue(); index++) {
-			FunctionBody function = new FunctionBody(payload);
+		functionAll = new ArrayList<>(countValue);
+		for (int index = 0; index < countValue; index++) {
+			FunctionBody function = new FunctionBody(payload, lazy);
 			functionAll.add(index, function);
 		}
 	}
 
+	/**
+	 * Decode all the function bodies on a fork/join pool.
+	 * <br>
+	 * Function bodies are independent once their sizes are known.  Read the section with
+	 * <code>lazy</code> true, which is a cheap sequential pass over the body sizes, then call this
+	 * to decode the locals and code of every body in parallel.  The result is the same as reading
+	 * the section with <code>lazy</code> false.
+	 *
+	 * @param pool the pool to decode on.
+	 */
+	public void decodeAll(ForkJoinPool pool) {
+		pool.invoke(new DecodeTask(functionAll, 0, functionAll.size()));
+	}
+
+	/**
+	 * Decode a range of function bodies, splitting the range in half until it is small.
+	 */
+	private static class DecodeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Ranges this size or smaller are decoded on the current thread.
+		 */
+		private static final int THRESHOLD = 8;
+
+		private final List<FunctionBody> functionAll;
+		private final int from;
+		private final int to;
+
+		DecodeTask(List<FunctionBody> functionAll, int from, int to) {
+			this.functionAll = functionAll;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				for (int index = from; index < to; index++) {
+					functionAll.get(index).decode();
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new DecodeTask(functionAll, from, middle),
+					new DecodeTask(functionAll, middle, to));
+			}
+		}
+	}
+
 	public UInt32 getCount() {
 		return count;
 	}
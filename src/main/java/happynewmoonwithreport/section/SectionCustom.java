@@ -17,8 +17,7 @@
 package happynewmoonwithreport.section;
 
 import happynewmoonwithreport.BytesFile;
-import happynewmoonwithreport.type.UInt8;
-import java.nio.charset.StandardCharsets;
+import happynewmoonwithreport.type.VarUInt32;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,11 +50,9 @@ public class SectionCustom implements Section {
 	public void instantiate(BytesFile payload) {
 
 		try {
-			UInt8 sizeOfName = new UInt8(payload);
+			final int sizeOfName = (int) VarUInt32.decode(payload);
 
-			final byte[] byteAllName = payload.getBytes(sizeOfName.integerValue());
-
-			name = new String(byteAllName, StandardCharsets.UTF_8);
+			name = payload.readString(sizeOfName);
 		} catch (Exception exception) {
 			// The wasm spec requires that an error does not cause failure of the module
 			// <p>
@@ -57,10 +57,11 @@ public class SectionExport implements Section {
 
 		//* Count
 		count = new VarUInt32(payload);
+		final int countValue = count.integerValue();
 
 		//* Entries of Global Variables.
-		exports = new WasmVector<>(count.integerValue());
-		for (Integer index = 0; index < count.integerValue(); index++) {
+		exports = new WasmVector<>(countValue);
+		for (int index = 0; index < countValue; index++) {
 			ExportEntry export = new ExportEntry(payload);
 			exports.add(index, export);
 		}
@@ -59,10 +59,11 @@ public class SectionFunction implements Section {
 
 		//* Parameter Count
 		count = new VarUInt32(payload);
+		final int countValue = count.integerValue();
 
 		//* Parameters Types
-		types = new ArrayList<>(count.integerValue());
-		for (Integer index = 0; index < count.integerValue(); index++) {
+		types = new ArrayList<>(countValue);
+		for (int index = 0; index < countValue; index++) {
 			UInt32 type = new VarUInt32(payload);
 			types.add(index, type);
 		}
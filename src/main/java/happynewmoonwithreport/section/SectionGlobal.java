@@ -57,10 +57,11 @@ public class SectionGlobal implements Section {
 
 		//* Count
 		count = new VarUInt32(payload);
+		final int countValue = count.integerValue();
 
 		//* Entries of Global Variables.
-		globals = new WasmVector<>(count.integerValue());
-		for (Integer index = 0; index < count.integerValue(); index++) {
+		globals = new WasmVector<>(countValue);
+		for (int index = 0; index < countValue; index++) {
 			GlobalVariableType globalVariable = new GlobalVariableType(payload);
 			globals.add(index, globalVariable);
 		}
@@ -57,10 +57,11 @@ public class SectionMemory implements Section {
 
 		//* Count
 		count = new VarUInt32(payload);
+		final int countValue = count.integerValue();
 
 		//* Entries of Resizeable Limits
-		memoryTypeAll = new WasmVector<>(count.integerValue());
-		for (Integer index = 0; index < count.integerValue(); index++) {
+		memoryTypeAll = new WasmVector<>(countValue);
+		for (int index = 0; index < countValue; index++) {
 			MemoryType memoryType = new MemoryType(payload);
 			memoryTypeAll.add(index, memoryType);
 		}
@@ -18,6 +18,7 @@ package happynewmoonwithreport.section;
 
 import happynewmoonwithreport.BytesFile;
 import happynewmoonwithreport.type.VarUInt7;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -87,17 +88,36 @@ public class SectionName {
 
 	public SectionName(String value) {
 		this();
-		Boolean found = false;
-		for (Map.Entry<Integer, String> entry : mapAll.entrySet()) {
-			if (value.equals(entry.getValue())) {
-				this.type = entry.getKey();
-				this.value = value;
-				found = true;
-			}
-		}
-		if (found == false) {
+		Integer found = typeAll.get(value);
+		if (found == null) {
 			throw new RuntimeException("Element Type " + value + " not valid/found");
 		}
+		this.type = found;
+		this.value = value;
+	}
+
+	/**
+	 * The canonical instance of a section name.  Nothing is allocated; two results for the same
+	 * type are the same object.
+	 *
+	 * @param type the section id, 0 to 11.
+	 * @return the canonical instance.
+	 */
+	public static SectionName valueOf(Integer type) {
+		if (type == null || type < 0 || canonicalAll.length <= type) {
+			throw new RuntimeException("type in Section Code is not valid type = " + type);
+		}
+		return canonicalAll[type];
+	}
+
+	/**
+	 * Read the section id and return the canonical instance.  Nothing is allocated.
+	 *
+	 * @param payload the input BytesFile.
+	 * @return the canonical instance.
+	 */
+	public static SectionName valueOf(BytesFile payload) {
+		return valueOf(payload.readByte() & 0xFF);
 	}
 
 	public String getValue() {
@@ -112,24 +132,42 @@ public class SectionName {
 		return new VarUInt7(type);
 	}
 
-	private static Map<Integer, String> mapAll;
+	private static final Map<Integer, String> mapAll;
+	private static final Map<String, Integer> typeAll;
 
 	static {
-		mapAll = new HashMap<>();
-		mapAll.put(0, CUSTOM);
-		mapAll.put(1, TYPE);
-		mapAll.put(2, IMPORT);
-		mapAll.put(3, FUNCTION);
-		mapAll.put(4, TABLE);
-		mapAll.put(5, MEMORY);
-		mapAll.put(6, GLOBAL);
-		mapAll.put(7, EXPORT);
-		mapAll.put(8, START);
-		mapAll.put(9, ELEMENT);
-		mapAll.put(10, CODE);
-		mapAll.put(11, DATA);
+		Map<Integer, String> map = new HashMap<>();
+		map.put(0, CUSTOM);
+		map.put(1, TYPE);
+		map.put(2, IMPORT);
+		map.put(3, FUNCTION);
+		map.put(4, TABLE);
+		map.put(5, MEMORY);
+		map.put(6, GLOBAL);
+		map.put(7, EXPORT);
+		map.put(8, START);
+		map.put(9, ELEMENT);
+		map.put(10, CODE);
+		map.put(11, DATA);
+		mapAll = Collections.unmodifiableMap(map);
+
+		Map<String, Integer> reverse = new HashMap<>();
+		for (Map.Entry<Integer, String> entry : mapAll.entrySet()) {
+			reverse.put(entry.getValue(), entry.getKey());
+		}
+		typeAll = Collections.unmodifiableMap(reverse);
 	}
 
+	/**
+	 * The canonical instances, indexed by the section id.
+	 */
+	private static final SectionName[] canonicalAll = new SectionName[12];
+
+	static {
+		for (int type = 0; type < canonicalAll.length; type++) {
+			canonicalAll[type] = new SectionName(type);
+		}
+	}
 
 	private void calcValue(Integer input) {
 		value = mapAll.get(input);
@@ -139,6 +177,21 @@ public class SectionName {
 
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) { return true; }
+		if (o == null || getClass() != o.getClass()) { return false; }
+
+		SectionName that = (SectionName) o;
+
+		return type.equals(that.type);
+	}
+
+	@Override
+	public int hashCode() {
+		return type.hashCode();
+	}
+
 	@Override
 	public String toString() {
 		return "SectionName{" + "type=" + type + ", value='" + value + '\'' + '}';
@@ -56,10 +56,11 @@ public class SectionTable implements Section {
 
 		//* Count
 		count = new VarUInt32(payload);
+		final int countValue = count.integerValue();
 
 		//* Entries of TableType
-		tables = new WasmVector<>(count.integerValue());
-		for (Integer index = 0; index < count.integerValue(); index++) {
+		tables = new WasmVector<>(countValue);
+		for (int index = 0; index < countValue; index++) {
 			TableType table = new TableType(payload);
 			tables.add(index, table);
 		}
@@ -57,11 +57,12 @@ public class SectionType implements Section {
 
 		// Type Count
 		count = new VarUInt32(payload);
+		final int countValue = count.integerValue();
 
-		functionSignatures = new WasmVector<>(count.integerValue());
+		functionSignatures = new WasmVector<>(countValue);
 
 		FunctionType functionType;
-		for (Integer countFT = 0; countFT < count.integerValue(); countFT++) {
+		for (int countFT = 0; countFT < countValue; countFT++) {
 			functionType = new FunctionType(payload);
 			functionSignatures.add(countFT, functionType);
 		}
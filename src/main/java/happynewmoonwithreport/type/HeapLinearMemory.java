@@ -0,0 +1,122 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Memory in one <code>byte[]</code> on the Java heap, read and written through a little endian
+ * <code>ByteBuffer</code> view of the array.  Each access is one array access, but
+ * <code>memory.grow</code> copies the whole array.
+ */
+public class HeapLinearMemory implements LinearMemory {
+
+	private static final byte[] EMPTY = new byte[0];
+
+	/**
+	 * a vector of bytes;
+	 */
+	private byte[] byteAll;
+
+	/**
+	 * Little endian view of {@link #byteAll}.
+	 */
+	private ByteBuffer view;
+
+	public HeapLinearMemory(int byteLength) {
+		byteAll = new byte[byteLength];
+		view = ByteBuffer.wrap(byteAll).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	public int getByteLength() {
+		return byteAll.length;
+	}
+
+	@Override
+	public byte getByte(int address) {
+		return byteAll[address];
+	}
+
+	@Override
+	public short getShort(int address) {
+		return view.getShort(address);
+	}
+
+	@Override
+	public int getInt(int address) {
+		return view.getInt(address);
+	}
+
+	@Override
+	public long getLong(int address) {
+		return view.getLong(address);
+	}
+
+	@Override
+	public void putByte(int address, byte value) {
+		byteAll[address] = value;
+	}
+
+	@Override
+	public void putShort(int address, short value) {
+		view.putShort(address, value);
+	}
+
+	@Override
+	public void putInt(int address, int value) {
+		view.putInt(address, value);
+	}
+
+	@Override
+	public void putLong(int address, long value) {
+		view.putLong(address, value);
+	}
+
+	/**
+	 * Copies the whole array, see {@link PagedLinearMemory} for memory that grows without
+	 * copying.
+	 */
+	@Override
+	public void grow(int byteLength) {
+		byteAll = Arrays.copyOf(byteAll, byteLength);
+		view = ByteBuffer.wrap(byteAll).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	public int getCommittedPageCount() {
+		return (int) ((byteAll.length + (long) MemoryType.pageSize - 1) / MemoryType.pageSize);
+	}
+
+	@Override
+	public int getTouchedPageCount() {
+		return getCommittedPageCount();
+	}
+
+	@Override
+	public long getOffHeapBytes() {
+		return 0;
+	}
+
+	@Override
+	public void release() {
+		byteAll = EMPTY;
+		view = ByteBuffer.wrap(EMPTY).order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+/**
+ * The bytes of a memory instance, <code>mem.data</code>.
+ * <br>
+ * Values wider than a byte are little endian.  The address is not checked, the load and store
+ * instructions check it against {@link #getByteLength()} and trap; an address out of range
+ * throws whatever the implementation throws.
+ * <br>
+ * Chosen for each memory by a {@link LinearMemoryFactory}.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/exec/runtime.html#memory-instances" target="_top">
+ * https://webassembly.github.io/spec/core/exec/runtime.html#memory-instances
+ * </a>
+ */
+public interface LinearMemory {
+
+	/**
+	 * The length of <code>mem.data</code> in bytes.  Zero after {@link #release()}.
+	 *
+	 * @return the length.
+	 */
+	int getByteLength();
+
+	byte getByte(int address);
+
+	short getShort(int address);
+
+	int getInt(int address);
+
+	long getLong(int address);
+
+	void putByte(int address, byte value);
+
+	void putShort(int address, short value);
+
+	void putInt(int address, int value);
+
+	void putLong(int address, long value);
+
+	/**
+	 * Make the memory <code>byteLength</code> long, for <code>memory.grow</code>.  The bytes
+	 * already there keep their values, the new bytes are zero.
+	 *
+	 * @param byteLength the new length, not less than the length now.
+	 * @throws OutOfMemoryError if the memory can not be allocated.
+	 */
+	void grow(int byteLength);
+
+	/**
+	 * Number of 64 KiB pages backed by bytes that have been allocated.
+	 *
+	 * @return the pages.
+	 */
+	int getCommittedPageCount();
+
+	/**
+	 * Number of 64 KiB pages that have been stored to.  Memory that does not keep track counts
+	 * every committed page.
+	 *
+	 * @return the pages.
+	 */
+	int getTouchedPageCount();
+
+	/**
+	 * Bytes held outside the Java heap.
+	 *
+	 * @return the bytes, zero for memory on the heap.
+	 */
+	long getOffHeapBytes();
+
+	/**
+	 * Free the bytes now rather than when the memory is garbage collected.  The memory is empty
+	 * afterwards, every load and store traps.  Calling it twice does nothing.
+	 */
+	void release();
+}
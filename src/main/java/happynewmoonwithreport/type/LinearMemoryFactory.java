@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+/**
+ * Allocate the bytes of a memory instance.  Set on a module with
+ * <code>WasmModule.setLinearMemoryFactory()</code>.
+ */
+public interface LinearMemoryFactory {
+
+	/**
+	 * A table of 64 KiB pages on the Java heap, see {@link PagedLinearMemory}.  The default.
+	 */
+	LinearMemoryFactory PAGED = PagedLinearMemory::new;
+
+	/**
+	 * Pages like {@link #PAGED}, but each page is allocated on its first store.  For modules that
+	 * declare more memory than they use.
+	 */
+	LinearMemoryFactory SPARSE = byteLength -> new PagedLinearMemory(byteLength, true);
+
+	/**
+	 * One <code>byte[]</code> on the Java heap.  Copied on every <code>memory.grow</code>.
+	 */
+	LinearMemoryFactory HEAP = HeapLinearMemory::new;
+
+	/**
+	 * A direct buffer outside the Java heap, see {@link OffHeapLinearMemory}.
+	 */
+	LinearMemoryFactory OFF_HEAP = OffHeapLinearMemory::new;
+
+	/**
+	 * @param byteLength the length in bytes, a multiple of the page size.
+	 * @return new memory, all zero.
+	 */
+	LinearMemory allocate(int byteLength);
+}
@@ -30,13 +30,17 @@ public class MemoryArgument {
 	private U32 offest;
 	private U32 align;
 
+	/**
+	 * The offset as a primitive, read by every load and store.
+	 */
+	private long offestValue;
+
 	public MemoryArgument() {
-		this.offest = new U32(0L);
-		this.align = new U32(0L);
+		this(new U32(0L), new U32(0L));
 	}
 
 	public MemoryArgument(U32 offest, U32 align) {
-		this.offest = offest;
+		setOffest(offest);
 		this.align = align;
 	}
 
@@ -44,8 +48,18 @@ public class MemoryArgument {
 		return offest;
 	}
 
+	/**
+	 * The offset, unsigned.
+	 *
+	 * @return the offset, 0 to 2<sup>32</sup>-1.
+	 */
+	public long getOffestValue() {
+		return offestValue;
+	}
+
 	public void setOffest(U32 offest) {
 		this.offest = offest;
+		this.offestValue = offest.longValue();
 	}
 
 	public U32 getAlign() {
@@ -19,7 +19,9 @@ package happynewmoonwithreport.type;
 
 import happynewmoonwithreport.BytesFile;
 import happynewmoonwithreport.Validation;
+import happynewmoonwithreport.WasmRuntimeException;
 import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import java.util.UUID;
 
 /**
  * Memory Type,
@@ -37,38 +39,162 @@ import happynewmoonwithreport.type.JavaType.ByteUnsigned;
  * <a href="https://webassembly.github.io/spec/core/exec/runtime.html#memory-instances" target="_top">
  * https://webassembly.github.io/spec/core/exec/runtime.html#memory-instances
  * </a>
+ * <br>
+ * The bytes, <code>mem.data</code>, are a {@link LinearMemory}, a table of pages on the heap
+ * unless another {@link LinearMemoryFactory} is used.  Values wider than a byte are read and written little
+ * endian, as the spec requires.  The address is not checked here, the load and store
+ * instructions check it and trap.
+ * <br>
+ * Source:
+ * <a href="https://webassembly.github.io/spec/core/exec/numerics.html#storage" target="_top">
+ * https://webassembly.github.io/spec/core/exec/numerics.html#storage
+ * </a>
  */
 public class MemoryType implements Validation {
 
 	private LimitType limit;
 	/**
 	 * a vector of bytes;
-	 *
-	 * @TODO change to WasmVector
 	 */
-	private ByteUnsigned[] byteAll;
+	private LinearMemory data;
+	private LinearMemoryFactory factory;
 
 	public static final Integer _64Ki = 65536;
 	public static final Integer pageSize = _64Ki;
 
+	/**
+	 * The most pages a memory may have.  The spec allows 65536 pages, 4 GiB, but a
+	 * {@link LinearMemory} is addressed by a Java <code>int</code>.
+	 */
+	public static final Integer maximumPageCount = Integer.MAX_VALUE / pageSize;
+
 	public MemoryType(UInt8 hasMaximum, UInt32 minimum, UInt32 maximum) {
 		limit = new LimitType(hasMaximum, minimum, maximum);
-		byteAll = new ByteUnsigned[pageSize.intValue() * limit.minimum().integerValue()];
+		allocate();
 	}
 
 	public MemoryType(UInt8 hasMaximum, UInt32 minimum) {
 		limit = new LimitType(hasMaximum, minimum);
-		byteAll = new ByteUnsigned[pageSize.intValue() * limit.minimum().integerValue()];
+		allocate();
 	}
 
 	public MemoryType(U32 hasMaximum, U32 minimum) {
 		limit = new LimitType(hasMaximum, minimum);
-		byteAll = new ByteUnsigned[pageSize.intValue() * limit.minimum().integerValue()];
+		allocate();
 	}
 
 	public MemoryType(BytesFile payload) {
 		limit = new LimitType(payload);
-		byteAll = new ByteUnsigned[pageSize.intValue() * limit.minimum().integerValue()];
+		allocate();
+	}
+
+	/**
+	 * The bytes are not allocated until they are first used, so the factory can still be chosen
+	 * after the module is read without a copy.
+	 */
+	private void allocate() {
+		factory = LinearMemoryFactory.PAGED;
+		data = null;
+	}
+
+	/**
+	 * Move the bytes to memory made by <code>factory</code>.  The bytes are copied and the old
+	 * memory released.  If the bytes have not been allocated yet only the factory is changed.
+	 *
+	 * @param factory allocates the new memory.
+	 */
+	public void allocate(LinearMemoryFactory factory) {
+		this.factory = factory;
+		final LinearMemory old = data;
+		if (old == null) {
+			return;
+		}
+		final int length = old.getByteLength();
+		final LinearMemory moved = factory.allocate(length);
+		int address = 0;
+		for (; address + 8 <= length; address += 8) {
+			final long value = old.getLong(address);
+			if (value != 0) {
+				moved.putLong(address, value);
+			}
+		}
+		for (; address < length; address++) {
+			moved.putByte(address, old.getByte(address));
+		}
+		data = moved;
+		old.release();
+	}
+
+	public LinearMemoryFactory getLinearMemoryFactory() {
+		return factory;
+	}
+
+	/**
+	 * The bytes.  Used by the load and store instructions, which read the length once and check
+	 * the address against it.
+	 *
+	 * @return the bytes, <code>mem.data</code>.
+	 */
+	public LinearMemory getLinearMemory() {
+		LinearMemory result = data;
+		if (result == null) {
+			final long minimum = limit.minimum().longValue();
+			if (maximumPageCount < minimum) {
+				throw new WasmRuntimeException(
+					UUID.fromString("e4a1c7d3-9b62-4f05-8e3a-5d7b2f9c0a16"),
+					"The minimum of the memory is more pages than a memory can hold.  Minimum = "
+					+ minimum + " Maximum page count = " + maximumPageCount);
+			}
+			result = factory.allocate(pageSize * (int) minimum);
+			data = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Free the bytes, see {@link LinearMemory#release()}.
+	 */
+	public void release() {
+		if (data != null) {
+			data.release();
+		}
+	}
+
+	/**
+	 * Pages backed by allocated bytes, see {@link LinearMemory#getCommittedPageCount()}.
+	 *
+	 * @return the pages, zero if the bytes have not been allocated yet.
+	 */
+	public int getCommittedPageCount() {
+		if (data == null) {
+			return 0;
+		}
+		return data.getCommittedPageCount();
+	}
+
+	/**
+	 * Bytes held outside the Java heap, see {@link LinearMemory#getOffHeapBytes()}.  Does not
+	 * allocate the bytes.
+	 *
+	 * @return the bytes, zero if the bytes have not been allocated yet.
+	 */
+	public long getOffHeapBytes() {
+		if (data == null) {
+			return 0;
+		}
+		return data.getOffHeapBytes();
+	}
+
+	/**
+	 * Pages stored to, see {@link LinearMemory#getTouchedPageCount()}.
+	 *
+	 * @return the pages, zero if the bytes have not been allocated yet.
+	 */
+	public int getTouchedPageCount() {
+		if (data == null) {
+			return 0;
+		}
+		return data.getTouchedPageCount();
 	}
 
 	/**
@@ -125,18 +251,100 @@ public class MemoryType implements Validation {
 	}
 
 	public ByteUnsigned get(Integer address) {
-		return byteAll[address];
+		return new ByteUnsigned(getLinearMemory().getByte(address) & 0xFF);
 	}
 
 	public void set(Integer address, ByteUnsigned value) {
-		byteAll[address] = value;
+		getLinearMemory().putByte(address, value.byteValue());
+	}
+
+	/**
+	 * The size in pages, the result of <code>memory.size</code>.
+	 *
+	 * @return the number of pages.
+	 */
+	public int getPageCount() {
+		return getLinearMemory().getByteLength() / pageSize;
+	}
+
+	/**
+	 * Grow the memory by <code>delta</code> pages, <code>memory.grow</code>.
+	 * <br>
+	 * Source:
+	 * <a href="https://webassembly.github.io/spec/core/exec/modules.html#grow-mem" target="_top">
+	 * https://webassembly.github.io/spec/core/exec/modules.html#grow-mem
+	 * </a>
+	 *
+	 * @param delta the number of pages to add, unsigned.
+	 * @return the size in pages before, or -1 if the memory can not grow that much.
+	 */
+	public int grow(long delta) {
+		final int previous = getPageCount();
+		final long newPageCount = previous + delta;
+		long limitPageCount = maximumPageCount;
+		if (hasMaximumBoolean()) {
+			limitPageCount = Math.min(limitPageCount, maximum().longValue());
+		}
+		if (delta < 0 || limitPageCount < newPageCount) {
+			return -1;
+		}
+		if (delta == 0) {
+			return previous;
+		}
+		try {
+			getLinearMemory().grow((int) newPageCount * pageSize);
+		} catch (OutOfMemoryError outOfMemoryError) {
+			return -1;
+		}
+		return previous;
 	}
 
 	public U32 getSize() {
-		Integer sizeInt = byteAll.length;
+		Integer sizeInt = getLinearMemory().getByteLength();
 		return new U32(sizeInt);
 	}
 
+	/**
+	 * The length of <code>mem.data</code> in bytes.
+	 *
+	 * @return the length.
+	 */
+	public int getByteLength() {
+		return getLinearMemory().getByteLength();
+	}
+
+	public byte getByte(int address) {
+		return getLinearMemory().getByte(address);
+	}
+
+	public short getShort(int address) {
+		return getLinearMemory().getShort(address);
+	}
+
+	public int getInt(int address) {
+		return getLinearMemory().getInt(address);
+	}
+
+	public long getLong(int address) {
+		return getLinearMemory().getLong(address);
+	}
+
+	public void putByte(int address, byte value) {
+		getLinearMemory().putByte(address, value);
+	}
+
+	public void putShort(int address, short value) {
+		getLinearMemory().putShort(address, value);
+	}
+
+	public void putInt(int address, int value) {
+		getLinearMemory().putInt(address, value);
+	}
+
+	public void putLong(int address, long value) {
+		getLinearMemory().putLong(address, value);
+	}
+
 
 	@Override
 	public String toString() {
@@ -146,7 +354,12 @@ public class MemoryType implements Validation {
 		if (limit.hasMaximum().booleanValue()) {
 			sb.append(", maximum=").append(maximum());
 		}
-		sb.append(", current size = ").append(byteAll.length);
+		// the bytes are not allocated to print the size.
+		if (data == null) {
+			sb.append(", current size = not allocated");
+		} else {
+			sb.append(", current size = ").append(data.getByteLength());
+		}
 		sb.append('}');
 		return sb.toString();
 	}
@@ -0,0 +1,204 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory in a direct <code>ByteBuffer</code>, outside the Java heap, so a large memory adds
+ * nothing to the work of the garbage collector.
+ * <br>
+ * A direct buffer is only freed when it is garbage collected, which may be long after the
+ * instance is done with it.  {@link #release()} frees it at once: the buffer is dropped and its
+ * cleaner run.  The cleaner is not a public API, it is found by reflection (
+ * <code>sun.misc.Unsafe.invokeCleaner</code> on Java 9 and later, the <code>cleaner()</code> of
+ * the buffer on Java 8).  If neither is found the buffer is left to the garbage collector.
+ * <br>
+ * Reading freed memory may crash the JVM rather than trap, so <code>release()</code> must not
+ * race with access: every thread that runs a function of the module must be done first.  A
+ * <code>grow()</code> may run while another thread still reads the old buffer, so the old buffer
+ * is not freed, it is left to the garbage collector.
+ * <br>
+ * The bytes allocated and not yet released by all instances are counted in
+ * {@link #getReservedBytes()}.
+ */
+public class OffHeapLinearMemory implements LinearMemory {
+
+	private static final ByteBuffer EMPTY = ByteBuffer.allocateDirect(0)
+		.order(ByteOrder.LITTLE_ENDIAN);
+
+	private static final AtomicLong reservedBytes = new AtomicLong();
+
+	/* Volatile, so an access after grow() or release() sees the new buffer. */
+	private volatile ByteBuffer buffer;
+	private volatile long offHeapBytes;
+
+	/**
+	 * @param byteLength the length in bytes.  Direct buffers are zeroed when allocated.
+	 */
+	public OffHeapLinearMemory(int byteLength) {
+		buffer = ByteBuffer.allocateDirect(byteLength).order(ByteOrder.LITTLE_ENDIAN);
+		offHeapBytes = byteLength;
+		reservedBytes.addAndGet(byteLength);
+	}
+
+	/**
+	 * Bytes held by every off heap memory not yet released.
+	 *
+	 * @return the bytes.
+	 */
+	public static long getReservedBytes() {
+		return reservedBytes.get();
+	}
+
+	@Override
+	public int getByteLength() {
+		return buffer.capacity();
+	}
+
+	@Override
+	public byte getByte(int address) {
+		return buffer.get(address);
+	}
+
+	@Override
+	public short getShort(int address) {
+		return buffer.getShort(address);
+	}
+
+	@Override
+	public int getInt(int address) {
+		return buffer.getInt(address);
+	}
+
+	@Override
+	public long getLong(int address) {
+		return buffer.getLong(address);
+	}
+
+	@Override
+	public void putByte(int address, byte value) {
+		buffer.put(address, value);
+	}
+
+	@Override
+	public void putShort(int address, short value) {
+		buffer.putShort(address, value);
+	}
+
+	@Override
+	public void putInt(int address, int value) {
+		buffer.putInt(address, value);
+	}
+
+	@Override
+	public void putLong(int address, long value) {
+		buffer.putLong(address, value);
+	}
+
+	/**
+	 * Allocates a new buffer and copies the bytes.  The old buffer is not freed at once, another
+	 * thread may still be reading it, it is left to the garbage collector.
+	 */
+	@Override
+	public synchronized void grow(int byteLength) {
+		final ByteBuffer grown = ByteBuffer.allocateDirect(byteLength)
+			.order(ByteOrder.LITTLE_ENDIAN);
+		final ByteBuffer old = buffer;
+		grown.put((ByteBuffer) old.duplicate().clear());
+		buffer = grown;
+		reservedBytes.addAndGet(byteLength - offHeapBytes);
+		offHeapBytes = byteLength;
+	}
+
+	@Override
+	public int getCommittedPageCount() {
+		return (int) ((buffer.capacity() + (long) MemoryType.pageSize - 1) / MemoryType.pageSize);
+	}
+
+	@Override
+	public int getTouchedPageCount() {
+		return getCommittedPageCount();
+	}
+
+	@Override
+	public long getOffHeapBytes() {
+		return offHeapBytes;
+	}
+
+	/**
+	 * Free the buffer at once.  Must not race with access, see the class comment.
+	 */
+	@Override
+	public synchronized void release() {
+		if (buffer == EMPTY) {
+			return;
+		}
+		final ByteBuffer released = buffer;
+		// no access may reach the freed buffer.
+		buffer = EMPTY;
+		reservedBytes.addAndGet(-offHeapBytes);
+		offHeapBytes = 0;
+		Cleaner.clean(released);
+	}
+
+	/**
+	 * Free a direct buffer.  Resolved once.
+	 */
+	private static final class Cleaner {
+		private static final Object unsafe;
+		private static final Method invokeCleaner;
+
+		static {
+			Object unsafeFound = null;
+			Method invokeCleanerFound = null;
+			try {
+				final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				invokeCleanerFound = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+				theUnsafe.setAccessible(true);
+				unsafeFound = theUnsafe.get(null);
+			} catch (ReflectiveOperationException | RuntimeException notJava9) {
+				invokeCleanerFound = null;
+			}
+			unsafe = unsafeFound;
+			invokeCleaner = invokeCleanerFound;
+		}
+
+		static void clean(ByteBuffer buffer) {
+			try {
+				if (invokeCleaner != null) {
+					invokeCleaner.invoke(unsafe, buffer);
+				} else {
+					// Java 8, sun.nio.ch.DirectBuffer.cleaner().clean()
+					final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+					cleanerMethod.setAccessible(true);
+					final Object cleaner = cleanerMethod.invoke(buffer);
+					if (cleaner != null) {
+						cleaner.getClass().getMethod("clean").invoke(cleaner);
+					}
+				}
+			} catch (ReflectiveOperationException | RuntimeException exception) {
+				// left to the garbage collector.
+			}
+		}
+	}
+}
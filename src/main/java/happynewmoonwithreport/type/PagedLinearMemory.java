@@ -0,0 +1,304 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Memory as a table of 64 KiB pages, one <code>byte[]</code> for each page.
+ * <br>
+ * <code>memory.grow</code> only allocates the new pages, the bytes already there are never
+ * copied.  Guest allocators grow one page at a time, so a memory grown to N pages this way costs
+ * O(N) rather than the O(N<sup>2</sup>) of copying one array on every grow.  Only the table of
+ * references is copied, and its capacity is doubled so that is amortized O(1) a page.
+ * <br>
+ * An address is split into a page, the high 16 bits, and an offset in the page, the low 16
+ * bits.  A value that lies inside one page, nearly all of them, is read with one little endian
+ * <code>ByteBuffer</code> access; a value that crosses into the next page is put together a byte
+ * at a time.
+ * <br>
+ * A sparse memory, see {@link LinearMemoryFactory#SPARSE}, allocates no page up front.  Every
+ * page starts as a reference to one shared page of zeros, which loads read like any other page.
+ * The first store of a value other than zero gives the page its own bytes.  A module that
+ * declares a large memory and uses a little of it pays only for the pages it writes.
+ */
+public class PagedLinearMemory implements LinearMemory {
+
+	private static final int PAGE_BITS = 16;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int OFFSET_MASK = PAGE_SIZE - 1;
+
+	/**
+	 * The page every page of a sparse memory starts as.  Never written.
+	 */
+	private static final byte[] ZERO_PAGE = new byte[PAGE_SIZE];
+	private static final ByteBuffer ZERO_VIEW = ByteBuffer.wrap(ZERO_PAGE)
+		.order(ByteOrder.LITTLE_ENDIAN).asReadOnlyBuffer();
+
+	private final boolean sparse;
+
+	/**
+	 * The pages, the table may have room for more pages than {@link #pageCount}.
+	 */
+	private byte[][] pageAll;
+
+	/**
+	 * Little endian view of each page.
+	 */
+	private ByteBuffer[] viewAll;
+
+	/**
+	 * Pages stored to, only kept for a sparse memory.
+	 */
+	private boolean[] touchedAll;
+
+	private int pageCount;
+	private int byteLength;
+	private int committedPageCount;
+	private int touchedPageCount;
+
+	/**
+	 * @param byteLength the length in bytes, the last page is allocated whole.
+	 */
+	public PagedLinearMemory(int byteLength) {
+		this(byteLength, false);
+	}
+
+	/**
+	 * @param byteLength the length in bytes, the last page is allocated whole.
+	 * @param sparse     true to allocate each page on its first store rather than now.
+	 */
+	public PagedLinearMemory(int byteLength, Boolean sparse) {
+		this.sparse = sparse;
+		pageAll = new byte[0][];
+		viewAll = new ByteBuffer[0];
+		touchedAll = new boolean[0];
+		pageCount = 0;
+		this.byteLength = 0;
+		committedPageCount = 0;
+		touchedPageCount = 0;
+		grow(byteLength);
+	}
+
+	public Boolean isSparse() {
+		return sparse;
+	}
+
+	/**
+	 * Number of pages allocated.
+	 *
+	 * @return the pages.
+	 */
+	public int getPageCount() {
+		return pageCount;
+	}
+
+	/**
+	 * Pages with bytes of their own.  All of them unless the memory is sparse.
+	 */
+	@Override
+	public int getCommittedPageCount() {
+		return committedPageCount;
+	}
+
+	/**
+	 * Pages stored to.  A sparse memory counts a page stored to only with zeros, which is not
+	 * committed; any other memory does not keep track and counts every page.
+	 */
+	@Override
+	public int getTouchedPageCount() {
+		if (sparse) {
+			return touchedPageCount;
+		}
+		return pageCount;
+	}
+
+	@Override
+	public int getByteLength() {
+		return byteLength;
+	}
+
+	@Override
+	public byte getByte(int address) {
+		return pageAll[address >>> PAGE_BITS][address & OFFSET_MASK];
+	}
+
+	@Override
+	public short getShort(int address) {
+		final int offset = address & OFFSET_MASK;
+		if (offset <= PAGE_SIZE - 2) {
+			return viewAll[address >>> PAGE_BITS].getShort(offset);
+		}
+		return (short) ((getByte(address) & 0xFF) | (getByte(address + 1) << 8));
+	}
+
+	@Override
+	public int getInt(int address) {
+		final int offset = address & OFFSET_MASK;
+		if (offset <= PAGE_SIZE - 4) {
+			return viewAll[address >>> PAGE_BITS].getInt(offset);
+		}
+		int result = 0;
+		for (int index = 3; 0 <= index; index--) {
+			result = (result << 8) | (getByte(address + index) & 0xFF);
+		}
+		return result;
+	}
+
+	@Override
+	public long getLong(int address) {
+		final int offset = address & OFFSET_MASK;
+		if (offset <= PAGE_SIZE - 8) {
+			return viewAll[address >>> PAGE_BITS].getLong(offset);
+		}
+		long result = 0;
+		for (int index = 7; 0 <= index; index--) {
+			result = (result << 8) | (getByte(address + index) & 0xFF);
+		}
+		return result;
+	}
+
+	@Override
+	public void putByte(int address, byte value) {
+		final int page = address >>> PAGE_BITS;
+		if (pageAll[page] == ZERO_PAGE && storeToZeroPage(page, value == 0)) {
+			return;
+		}
+		pageAll[page][address & OFFSET_MASK] = value;
+	}
+
+	@Override
+	public void putShort(int address, short value) {
+		final int offset = address & OFFSET_MASK;
+		if (offset <= PAGE_SIZE - 2) {
+			final int page = address >>> PAGE_BITS;
+			if (pageAll[page] == ZERO_PAGE && storeToZeroPage(page, value == 0)) {
+				return;
+			}
+			viewAll[page].putShort(offset, value);
+			return;
+		}
+		putByte(address, (byte) value);
+		putByte(address + 1, (byte) (value >>> 8));
+	}
+
+	@Override
+	public void putInt(int address, int value) {
+		final int offset = address & OFFSET_MASK;
+		if (offset <= PAGE_SIZE - 4) {
+			final int page = address >>> PAGE_BITS;
+			if (pageAll[page] == ZERO_PAGE && storeToZeroPage(page, value == 0)) {
+				return;
+			}
+			viewAll[page].putInt(offset, value);
+			return;
+		}
+		for (int index = 0; index < 4; index++) {
+			putByte(address + index, (byte) (value >>> (8 * index)));
+		}
+	}
+
+	@Override
+	public void putLong(int address, long value) {
+		final int offset = address & OFFSET_MASK;
+		if (offset <= PAGE_SIZE - 8) {
+			final int page = address >>> PAGE_BITS;
+			if (pageAll[page] == ZERO_PAGE && storeToZeroPage(page, value == 0L)) {
+				return;
+			}
+			viewAll[page].putLong(offset, value);
+			return;
+		}
+		for (int index = 0; index < 8; index++) {
+			putByte(address + index, (byte) (value >>> (8 * index)));
+		}
+	}
+
+	/**
+	 * A store to a page of a sparse memory that is still the zero page.  The page is counted as
+	 * touched, and given bytes of its own unless the store leaves it all zero.
+	 *
+	 * @param page      the page stored to.
+	 * @param storeZero the value stored is zero.
+	 * @return true if nothing is left to store.
+	 */
+	private boolean storeToZeroPage(int page, boolean storeZero) {
+		if (touchedAll[page] == false) {
+			touchedAll[page] = true;
+			touchedPageCount++;
+		}
+		if (storeZero) {
+			return true;
+		}
+		pageAll[page] = new byte[PAGE_SIZE];
+		viewAll[page] = ByteBuffer.wrap(pageAll[page]).order(ByteOrder.LITTLE_ENDIAN);
+		committedPageCount++;
+		return false;
+	}
+
+	/**
+	 * Allocate the pages up to <code>newByteLength</code>.  The pages already allocated are kept
+	 * as they are.  The new pages of a sparse memory are the zero page.
+	 */
+	@Override
+	public void grow(int newByteLength) {
+		final int newPageCount = (int) ((newByteLength + (long) OFFSET_MASK) >>> PAGE_BITS);
+		if (pageAll.length < newPageCount) {
+			final int capacity = Math.max(newPageCount, 2 * pageAll.length);
+			final byte[][] newPageAll = new byte[capacity][];
+			final ByteBuffer[] newViewAll = new ByteBuffer[capacity];
+			System.arraycopy(pageAll, 0, newPageAll, 0, pageCount);
+			System.arraycopy(viewAll, 0, newViewAll, 0, pageCount);
+			pageAll = newPageAll;
+			viewAll = newViewAll;
+			if (sparse) {
+				final boolean[] newTouchedAll = new boolean[capacity];
+				System.arraycopy(touchedAll, 0, newTouchedAll, 0, pageCount);
+				touchedAll = newTouchedAll;
+			}
+		}
+		for (int page = pageCount; page < newPageCount; page++) {
+			if (sparse) {
+				pageAll[page] = ZERO_PAGE;
+				viewAll[page] = ZERO_VIEW;
+			} else {
+				pageAll[page] = new byte[PAGE_SIZE];
+				viewAll[page] = ByteBuffer.wrap(pageAll[page]).order(ByteOrder.LITTLE_ENDIAN);
+				committedPageCount++;
+			}
+		}
+		pageCount = Math.max(pageCount, newPageCount);
+		byteLength = Math.max(byteLength, newByteLength);
+	}
+
+	@Override
+	public long getOffHeapBytes() {
+		return 0;
+	}
+
+	@Override
+	public void release() {
+		pageAll = new byte[0][];
+		viewAll = new ByteBuffer[0];
+		touchedAll = new boolean[0];
+		pageCount = 0;
+		byteLength = 0;
+		committedPageCount = 0;
+		touchedPageCount = 0;
+	}
+}
@@ -45,6 +45,11 @@ import happynewmoonwithreport.BytesFile;
  */
 public final class VarInt32 extends SInt32 {
 
+	/**
+	 * ceil(32 / 7)
+	 */
+	private static final int MAX_BYTES = 5;
+
 	@SuppressWarnings("unused")
 	private VarInt32() {
 	}
@@ -87,7 +92,8 @@ public final class VarInt32 extends SInt32 {
 
 	@Override
 	public Integer maxBytes() {
-		Integer maxBytes = new Double(Math.ceil((double) maxBits() / 7.0D)).intValue();
+		// ceil(maxBits / 7) in integer arithmetic.
+		Integer maxBytes = (maxBits() + 6) / 7;
 		return maxBytes;
 	}
 
@@ -97,21 +103,33 @@ public final class VarInt32 extends SInt32 {
 	}
 
 	public Integer convert(BytesFile bytesFile) {
-		Integer cur;
-		Integer count = 0;
-		Integer result = 0;
-		Integer signBits = -1;
+		return decode(bytesFile);
+	}
+
+	/**
+	 * Read a VarInt32 and return it as a primitive.  The index of the BytesFile is moved past the
+	 * bytes read.
+	 * <br>
+	 * Nothing is allocated.  Use this in loops, for example reading the immediate of
+	 * <code>i32.const</code>.
+	 *
+	 * @param bytesFile the input BytesFile.
+	 * @return the signed value.
+	 */
+	public static int decode(BytesFile bytesFile) {
+		int cur;
+		int shift = 0;
+		int result = 0;
 
 		do {
 			cur = bytesFile.readByte() & 0xff;
-			result |= (cur & 0x7f) << (count * 7);
-			signBits <<= 7;
-			count++;
-		} while (((cur & 0x80) != 0) && count < maxBytes());
+			result |= (cur & 0x7f) << shift;
+			shift += 7;
+		} while (((cur & 0x80) != 0) && shift < MAX_BYTES * 7);
 
 		// Sign extend if appropriate
-		if (((signBits >> 1) & result) != 0) {
-			result |= signBits;
+		if (shift < 32 && (cur & 0x40) != 0) {
+			result |= -1 << shift;
 		}
 
 		return result;
@@ -45,6 +45,11 @@ import happynewmoonwithreport.BytesFile;
  */
 public final class VarInt64 extends S64 {
 
+	/**
+	 * ceil(64 / 7)
+	 */
+	private static final int MAX_BYTES = 10;
+
 	@SuppressWarnings("unused")
 	private VarInt64() {
 		super();
@@ -86,7 +91,8 @@ public final class VarInt64 extends S64 {
 
 	@Override
 	public Integer maxBytes() {
-		Integer maxBytes = new Double(Math.ceil((double) maxBits() / 7.0D)).intValue();
+		// ceil(maxBits / 7) in integer arithmetic.
+		Integer maxBytes = (maxBits() + 6) / 7;
 		return maxBytes;
 	}
 
@@ -96,21 +102,33 @@ public final class VarInt64 extends S64 {
 	}
 
 	public Long convert(BytesFile bytesFile) {
-		Integer cur;
-		Integer count = 0;
-		Long result = 0L;
-		Long signBits = -1L;
+		return decode(bytesFile);
+	}
+
+	/**
+	 * Read a VarInt64 and return it as a primitive.  The index of the BytesFile is moved past the
+	 * bytes read.
+	 * <br>
+	 * Nothing is allocated.  Use this in loops, for example reading the immediate of
+	 * <code>i64.const</code>.
+	 *
+	 * @param bytesFile the input BytesFile.
+	 * @return the signed value.
+	 */
+	public static long decode(BytesFile bytesFile) {
+		int cur;
+		int shift = 0;
+		long result = 0L;
 
 		do {
 			cur = bytesFile.readByte() & 0xff;
-			result |= ((long) (cur & 0x7f)) << (count * 7);
-			signBits <<= 7;
-			count++;
-		} while (((cur & 0x80) != 0) && count < maxBytes());
+			result |= ((long) (cur & 0x7f)) << shift;
+			shift += 7;
+		} while (((cur & 0x80) != 0) && shift < MAX_BYTES * 7);
 
 		// Sign extend if appropriate
-		if (((signBits >> 1) & result) != 0) {
-			result |= signBits;
+		if (shift < 64 && (cur & 0x40) != 0) {
+			result |= -1L << shift;
 		}
 
 		return result;
@@ -83,7 +83,8 @@ public final class VarInt7 extends SInt8 {
 
 	@Override
 	public Integer maxBytes() {
-		Integer maxBytes = new Double(Math.ceil((double) maxBits() / 7.0D)).intValue();
+		// ceil(maxBits / 7) in integer arithmetic.
+		Integer maxBytes = (maxBits() + 6) / 7;
 		return maxBytes;
 	}
 
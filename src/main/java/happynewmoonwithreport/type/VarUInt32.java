@@ -56,6 +56,11 @@ public final class VarUInt32 extends UInt32
 	// implements DataTypeNumber<Long>
 {
 
+	/**
+	 * ceil(32 / 7)
+	 */
+	private static final int MAX_BYTES = 5;
+
 	@SuppressWarnings("unused")
 	private VarUInt32() {
 		super();
@@ -67,22 +72,44 @@ public final class VarUInt32 extends UInt32
 
 	@Override
 	public Long convert(BytesFile bytesFile) {
-		Integer currentByte;
-		Integer count = 0;
-		Long result = 0L;
+		return decode(bytesFile);
+	}
+
+	/**
+	 * Read a VarUInt32 and return it as a primitive.  The index of the BytesFile is moved past the
+	 * bytes read.
+	 * <br>
+	 * Nothing is allocated.  Use this in loops, for example reading the immediates of an
+	 * instruction or the entries of a section.
+	 * <br>
+	 * Usage:
+	 * <pre>
+	 *      {@code
+	 *          int count = (int) VarUInt32.decode(payload);
+	 *      }
+	 * </pre>
+	 *
+	 * @param bytesFile the input BytesFile.
+	 * @return the unsigned value, 0 to 2^32 - 1.
+	 */
+	public static long decode(BytesFile bytesFile) {
+		int currentByte;
+		int shift = 0;
+		long result = 0L;
 
 		do {
 			currentByte = bytesFile.readByte() & 0xff;
-			result |= (currentByte & 0x7f) << (count * 7);
-			count++;
-		} while (((currentByte & 0x80) != 0) && count < maxBytes());
+			result |= ((long) (currentByte & 0x7f)) << shift;
+			shift += 7;
+		} while (((currentByte & 0x80) != 0) && shift < MAX_BYTES * 7);
 
 		return result;
 	}
 
 	@Override
 	public Integer maxBytes() {
-		Integer maxBytes = new Double(Math.ceil((double) maxBits() / 7.0D)).intValue();
+		// ceil(maxBits / 7) in integer arithmetic.
+		Integer maxBytes = (maxBits() + 6) / 7;
 		return maxBytes;
 	}
 
@@ -18,7 +18,6 @@ package happynewmoonwithreport.type;
 
 
 import happynewmoonwithreport.BytesFile;
-import java.nio.charset.StandardCharsets;
 
 /**
  * A String read from the *.wasm file.
@@ -28,19 +27,15 @@ public class WasmString {
 	private String value;
 
 	/**
-	 * Construct using a BytesFile and the length in bytes.
+	 * Construct using a BytesFile and the length in bytes.  The UTF-8 bytes are decoded where
+	 * they are in the BytesFile.
 	 *
 	 * @param payload     the input BytesFile.
 	 * @param sizeInBytes size in bytes.
 	 */
 	public WasmString(BytesFile payload, UInt32 sizeInBytes) {
 		Integer size = sizeInBytes.integerValue();
-		byte[] byteAll = new byte[size];
-		for (Integer i = 0; i < size; i++) {
-			byteAll[i] = payload.readByte();
-		}
-		value = new String(byteAll, StandardCharsets.UTF_8);
-
+		value = payload.readString(size);
 	}
 
 	/**
@@ -90,11 +90,12 @@ class F32_loadTest extends Specification {
 		F32 inputF32 = new F32(input);
 		ByteUnsigned[] byteAll = inputF32.getBytes();
 
-		// Store bytes in memory starting at 'address'
-		memory.set(address + 0, byteAll[0]);
-		memory.set(address + 1, byteAll[1]);
-		memory.set(address + 2, byteAll[2]);
-		memory.set(address + 3, byteAll[3]);
+		// Store bytes in memory starting at 'address'.  getBytes() is most significant byte first,
+		// memory is little endian.
+		memory.set(address + 0, byteAll[3]);
+		memory.set(address + 1, byteAll[2]);
+		memory.set(address + 2, byteAll[1]);
+		memory.set(address + 3, byteAll[0]);
 
 		when: ""
 		f32_load.execute();
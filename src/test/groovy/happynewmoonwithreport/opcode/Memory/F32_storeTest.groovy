@@ -99,10 +99,11 @@ class F32_storeTest extends Specification {
 		then: "Verify the memory contains the correct bytes."
 		// Get the first memory.  Wasm has a concept of multiple memories.
 		MemoryType memoryResult = store.getMemory(new I32(0));
-		new ByteUnsigned(0xCC) == memoryResult.get(2);
-		new ByteUnsigned(0xCD) == memoryResult.get(3);
-		new ByteUnsigned(0xCE) == memoryResult.get(4);
-		new ByteUnsigned(0xCF) == memoryResult.get(5);
+		// little endian, the least significant byte first.
+		new ByteUnsigned(0xCF) == memoryResult.get(2);
+		new ByteUnsigned(0xCE) == memoryResult.get(3);
+		new ByteUnsigned(0xCD) == memoryResult.get(4);
+		new ByteUnsigned(0xCC) == memoryResult.get(5);
 
 		// expect: ""
 
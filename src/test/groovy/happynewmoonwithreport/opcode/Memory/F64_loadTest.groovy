@@ -102,16 +102,17 @@ class F64_loadTest extends Specification {
 		F64 inputF64 = new F64(input);
 		ByteUnsigned[] byteAll = inputF64.getBytes();
 
-		// Store bytes in memory starting at 'address'
-		memory.set(address + 0, byteAll[0]);
-		memory.set(address + 1, byteAll[1]);
-		memory.set(address + 2, byteAll[2]);
-		memory.set(address + 3, byteAll[3]);
-
-		memory.set(address + 4, byteAll[4]);
-		memory.set(address + 5, byteAll[5]);
-		memory.set(address + 6, byteAll[6]);
-		memory.set(address + 7, byteAll[7]);
+		// Store bytes in memory starting at 'address'.  getBytes() is most significant byte first,
+		// memory is little endian.
+		memory.set(address + 0, byteAll[7]);
+		memory.set(address + 1, byteAll[6]);
+		memory.set(address + 2, byteAll[5]);
+		memory.set(address + 3, byteAll[4]);
+
+		memory.set(address + 4, byteAll[3]);
+		memory.set(address + 5, byteAll[2]);
+		memory.set(address + 6, byteAll[1]);
+		memory.set(address + 7, byteAll[0]);
 
 		when: ""
 		f64_load.execute();
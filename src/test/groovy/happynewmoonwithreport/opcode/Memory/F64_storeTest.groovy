@@ -103,14 +103,15 @@ class F64_storeTest extends Specification {
 		then: "Verify the memory contains the correct bytes."
 		// Get the first memory.  Wasm has a concept of multiple memories.
 		MemoryType memoryResult = store.getMemory(new I32(0));
-		new ByteUnsigned(0xCC) == memoryResult.get(2);
-		new ByteUnsigned(0xCD) == memoryResult.get(3);
-		new ByteUnsigned(0xCE) == memoryResult.get(4);
-		new ByteUnsigned(0xCF) == memoryResult.get(5);
-		new ByteUnsigned(0xDC) == memoryResult.get(6);
-		new ByteUnsigned(0xDD) == memoryResult.get(7);
-		new ByteUnsigned(0xDE) == memoryResult.get(8);
-		new ByteUnsigned(0xDF) == memoryResult.get(9);
+		// little endian, the least significant byte first.
+		new ByteUnsigned(0xDF) == memoryResult.get(2);
+		new ByteUnsigned(0xDE) == memoryResult.get(3);
+		new ByteUnsigned(0xDD) == memoryResult.get(4);
+		new ByteUnsigned(0xDC) == memoryResult.get(5);
+		new ByteUnsigned(0xCF) == memoryResult.get(6);
+		new ByteUnsigned(0xCE) == memoryResult.get(7);
+		new ByteUnsigned(0xCD) == memoryResult.get(8);
+		new ByteUnsigned(0xCC) == memoryResult.get(9);
 
 		// expect: ""
 
@@ -87,8 +87,9 @@ class I32_load16_s_Test extends Specification {
 		setup: ""
 		stack.push(new I32(address));  // load bytes starting at 2
 
-		memory.set(address, new ByteUnsigned((input >> 8) & 0xFF));
-		memory.set(address + 1, new ByteUnsigned((input) & 0xFF));
+		// little endian, the least significant byte first.
+		memory.set(address, new ByteUnsigned((input) & 0xFF));
+		memory.set(address + 1, new ByteUnsigned((input >> 8) & 0xFF));
 
 		when: ""
 		i32Load16_s.execute();
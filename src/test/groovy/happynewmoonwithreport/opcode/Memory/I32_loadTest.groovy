@@ -86,7 +86,7 @@ class I32_loadTest extends Specification {
 
 		then: ""
 		I32 actual = (I32) stack.pop();
-		I32 expected = new I32(0x02030405); // Little Endian!
+		I32 expected = new I32(0x05040302); // Little Endian!
 		actual == expected;
 
 		// expect: ""
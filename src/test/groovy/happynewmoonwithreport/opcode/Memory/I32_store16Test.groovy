@@ -97,8 +97,9 @@ class I32_store16Test extends Specification {
 		i32Store16.execute();
 
 		then: ""
-		new ByteUnsigned(0x7E) == store.memoryAll.get(0).get(2);
-		new ByteUnsigned(0x7F) == store.memoryAll.get(0).get(3);
+		// little endian, the least significant byte first.
+		new ByteUnsigned(0x7F) == store.memoryAll.get(0).get(2);
+		new ByteUnsigned(0x7E) == store.memoryAll.get(0).get(3);
 
 		// expect: ""
 
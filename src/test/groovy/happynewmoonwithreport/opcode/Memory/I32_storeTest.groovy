@@ -97,10 +97,11 @@ class I32_storeTest extends Specification {
 		i32Store.execute();
 
 		then: ""
-		new ByteUnsigned(0xFC) == store.memoryAll.get(0).get(2);
-		new ByteUnsigned(0xFD) == store.memoryAll.get(0).get(3);
-		new ByteUnsigned(0xFE) == store.memoryAll.get(0).get(4);
-		new ByteUnsigned(0xFF) == store.memoryAll.get(0).get(5);
+		// little endian, the least significant byte first.
+		new ByteUnsigned(0xFF) == store.memoryAll.get(0).get(2);
+		new ByteUnsigned(0xFE) == store.memoryAll.get(0).get(3);
+		new ByteUnsigned(0xFD) == store.memoryAll.get(0).get(4);
+		new ByteUnsigned(0xFC) == store.memoryAll.get(0).get(5);
 
 		// expect: ""
 
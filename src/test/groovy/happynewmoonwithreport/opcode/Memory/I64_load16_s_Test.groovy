@@ -86,8 +86,9 @@ class I64_load16_s_Test extends Specification {
 		setup: ""
 		stack.push(new I32(address));  // load bytes starting at 2
 
-		memory.set(address, new ByteUnsigned((input >> 8) & 0xFF));
-		memory.set(address + 1, new ByteUnsigned((input) & 0xFF));
+		// little endian, the least significant byte first.
+		memory.set(address, new ByteUnsigned((input) & 0xFF));
+		memory.set(address + 1, new ByteUnsigned((input >> 8) & 0xFF));
 
 		when: ""
 		I64Load16_s.execute();
@@ -86,10 +86,11 @@ class I64_load32_s_Test extends Specification {
 		setup: ""
 		stack.push(new I32(address));  // load bytes starting at 2
 
-		memory.set(address + 0, new ByteUnsigned((input >> 24) & 0xFF));
-		memory.set(address + 1, new ByteUnsigned((input >> 16) & 0xFF));
-		memory.set(address + 2, new ByteUnsigned((input >> 8) & 0xFF));
-		memory.set(address + 3, new ByteUnsigned((input >> 0) & 0xFF));
+		// little endian, the least significant byte first.
+		memory.set(address + 0, new ByteUnsigned((input >> 0) & 0xFF));
+		memory.set(address + 1, new ByteUnsigned((input >> 8) & 0xFF));
+		memory.set(address + 2, new ByteUnsigned((input >> 16) & 0xFF));
+		memory.set(address + 3, new ByteUnsigned((input >> 24) & 0xFF));
 
 		when: ""
 		I64Load32_s.execute();
@@ -115,8 +115,9 @@ class I64_store16Test extends Specification {
 		new ByteUnsigned(0x01) == store.memoryAll.get(0).get(1);
 
 		// changed
-		new ByteUnsigned(0xFD) == store.memoryAll.get(0).get(2);
-		new ByteUnsigned(0xFC) == store.memoryAll.get(0).get(3);
+		// little endian, the least significant byte first.
+		new ByteUnsigned(0xFC) == store.memoryAll.get(0).get(2);
+		new ByteUnsigned(0xFD) == store.memoryAll.get(0).get(3);
 
 		// unchanged
 		new ByteUnsigned(0x04) == store.memoryAll.get(0).get(4);
@@ -115,10 +115,11 @@ class I64_store32Test extends Specification {
 		new ByteUnsigned(0x01) == store.memoryAll.get(0).get(1);
 
 		// changed
-		new ByteUnsigned(0xFF) == store.memoryAll.get(0).get(2);
-		new ByteUnsigned(0xFE) == store.memoryAll.get(0).get(3);
-		new ByteUnsigned(0xFD) == store.memoryAll.get(0).get(4);
-		new ByteUnsigned(0xFC) == store.memoryAll.get(0).get(5);
+		// little endian, the least significant byte first.
+		new ByteUnsigned(0xFC) == store.memoryAll.get(0).get(2);
+		new ByteUnsigned(0xFD) == store.memoryAll.get(0).get(3);
+		new ByteUnsigned(0xFE) == store.memoryAll.get(0).get(4);
+		new ByteUnsigned(0xFF) == store.memoryAll.get(0).get(5);
 
 		// unchanged
 		new ByteUnsigned(0x06) == store.memoryAll.get(0).get(6);
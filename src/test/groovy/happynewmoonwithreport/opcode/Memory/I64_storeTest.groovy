@@ -110,14 +110,15 @@ class I64_storeTest extends Specification {
 		i64Store.execute();
 
 		then: ""
-		new ByteUnsigned(0xFF) == store.memoryAll.get(0).get(2);
-		new ByteUnsigned(0xFE) == store.memoryAll.get(0).get(3);
-		new ByteUnsigned(0xFD) == store.memoryAll.get(0).get(4);
-		new ByteUnsigned(0xFC) == store.memoryAll.get(0).get(5);
-		new ByteUnsigned(0xFB) == store.memoryAll.get(0).get(6);
-		new ByteUnsigned(0xFA) == store.memoryAll.get(0).get(7);
-		new ByteUnsigned(0xF9) == store.memoryAll.get(0).get(8);
-		new ByteUnsigned(0xF8) == store.memoryAll.get(0).get(9);
+		// little endian, the least significant byte first.
+		new ByteUnsigned(0xF8) == store.memoryAll.get(0).get(2);
+		new ByteUnsigned(0xF9) == store.memoryAll.get(0).get(3);
+		new ByteUnsigned(0xFA) == store.memoryAll.get(0).get(4);
+		new ByteUnsigned(0xFB) == store.memoryAll.get(0).get(5);
+		new ByteUnsigned(0xFC) == store.memoryAll.get(0).get(6);
+		new ByteUnsigned(0xFD) == store.memoryAll.get(0).get(7);
+		new ByteUnsigned(0xFE) == store.memoryAll.get(0).get(8);
+		new ByteUnsigned(0xFF) == store.memoryAll.get(0).get(9);
 
 		// expect: ""
 
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Slices and views share the bytes of the BytesFile they were taken from.
+ */
+public class BytesFileTest {
+
+	@Test
+	public void sliceAdvancesIndex() {
+		byte[] bytesAll = {0x01, 0x02, 0x03, 0x04, 0x05};
+		BytesFile bytesFile = new BytesFile(bytesAll);
+		bytesFile.readByte();
+
+		BytesFile slice = bytesFile.slice(3);
+
+		assertEquals(Integer.valueOf(4), bytesFile.getIndex());
+		assertEquals(3, slice.length());
+		assertEquals(Integer.valueOf(0), slice.getIndex());
+		assertArrayEquals(new byte[]{0x02, 0x03, 0x04}, slice.getBytesAll());
+	}
+
+	@Test
+	public void sliceSharesBytes() {
+		byte[] bytesAll = {0x01, 0x02, 0x03};
+		BytesFile slice = new BytesFile(bytesAll).slice(2);
+
+		bytesAll[1] = 0x7F;
+
+		slice.readByte();
+		assertEquals(0x7F, slice.readByte());
+	}
+
+	@Test
+	public void viewStartsAtZero() {
+		BytesFile slice = new BytesFile(new byte[]{0x01, 0x02, 0x03}).slice(3);
+		slice.readByte();
+
+		BytesFile view = slice.view();
+
+		assertEquals(Integer.valueOf(0), view.getIndex());
+		assertEquals(0x01, view.readByte());
+		assertEquals(Integer.valueOf(1), slice.getIndex());
+	}
+
+	@Test
+	public void sliceTooLong() {
+		BytesFile bytesFile = new BytesFile(new byte[]{0x01, 0x02});
+
+		assertThrows(IndexOutOfBoundsException.class, () -> bytesFile.slice(3));
+	}
+
+	@Test
+	public void readString() {
+		byte[] bytesAll = "xadd".getBytes(StandardCharsets.UTF_8);
+		BytesFile bytesFile = new BytesFile(bytesAll);
+		bytesFile.readByte();
+
+		assertEquals("add", bytesFile.readString(3));
+		assertEquals(Integer.valueOf(4), bytesFile.getIndex());
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The export index of add32.wasm, which exports 'memory' and 'add32'.
+ */
+public class ExportIndexTest {
+	private WasmModule module;
+	private ExportIndex exportIndex;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		Wasm wasm = new Wasm("./src/test/resources/add32/add32.wasm");
+		module = wasm.instantiate();
+		exportIndex = module.getExportIndex();
+	}
+
+	@Test
+	public void function() {
+		assertSame(module.getFunctionAll().get(0), exportIndex.getFunction("add32"));
+		assertSame(exportIndex.getFunction("add32"),
+			new WasmInstance(module).exportFunction("add32"));
+		assertEquals(1, exportIndex.getFunctionAll().size());
+	}
+
+	@Test
+	public void byKind() {
+		ExternalKind memory = new ExternalKind(ExternalKind.memory);
+		ExternalKind function = new ExternalKind(ExternalKind.function);
+
+		assertEquals("memory", exportIndex.get(memory, "memory").getFieldName().getValue());
+		assertNull(exportIndex.get(function, "memory"));
+		assertNull(exportIndex.get(memory, "add32"));
+	}
+
+	@Test
+	public void notFound() {
+		assertNull(exportIndex.getFunction("notExported"));
+	}
+
+	/**
+	 * Two functions of one type, exported as 'f' and 'g'.
+	 */
+	@Test
+	public void moreFunctionsThanTypes() {
+		WasmModule twoFunctions = new Wasm(twoFunctionModule((byte) 0x01)).instantiate();
+		ExportIndex twoExports = twoFunctions.getExportIndex();
+
+		assertEquals(2, twoFunctions.getFunctionAll().size());
+		assertSame(twoFunctions.getFunctionAll().get(0), twoExports.getFunction("f"));
+		assertSame(twoFunctions.getFunctionAll().get(1), twoExports.getFunction("g"));
+		assertEquals(Long.valueOf(0), twoExports.getFunction("g").getTypeIndex().longValue());
+	}
+
+	@Test
+	public void exportOfMissingFunction() {
+		Wasm wasm = new Wasm(twoFunctionModule((byte) 0x05));
+		assertThrows(WasmRuntimeException.class, () -> wasm.instantiate());
+	}
+
+	/**
+	 * @param gIndex the function index exported as 'g'.
+	 */
+	private byte[] twoFunctionModule(byte gIndex) {
+		return new byte[]{0x00, 0x61, 0x73, 0x6D, 0x01, 0x00, 0x00, 0x00,
+			// type section: () -> i32
+			0x01, 0x05, 0x01, 0x60, 0x00, 0x01, 0x7F,
+			// function section: two functions of type 0
+			0x03, 0x03, 0x02, 0x00, 0x00,
+			// export section: 'f' is function 0, 'g' is function gIndex
+			0x07, 0x09, 0x02, 0x01, 0x66, 0x00, 0x00, 0x01, 0x67, 0x00, gIndex,
+			// code section: i32.const 1 and i32.const 2
+			0x0A, 0x0B, 0x02, 0x04, 0x00, 0x41, 0x01, 0x0B, 0x04, 0x00, 0x41, 0x02, 0x0B};
+	}
+
+	@Test
+	public void unmodifiable() {
+		assertThrows(UnsupportedOperationException.class,
+			() -> exportIndex.getFunctionAll().put("other", null));
+	}
+}
@@ -24,6 +24,8 @@ import happynewmoonwithreport.type.UInt32;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 public class FunctionBodyTest {
@@ -83,4 +85,41 @@ public class FunctionBodyTest {
 		assertEquals(0x0B, functionBody.getEnd());
 	}
 
-}
\ No newline at end of file
+	/**
+	 * A lazy body only reads the body size.  The locals and code are decoded on first use.
+	 */
+	@Test
+	public void instantiateLazy() {
+		byte[] byteAll = {
+			//Body Size
+			(byte) 0x09,
+			// Local Count
+			(byte) 0x02,
+			// Local Entry
+			(byte) 0x02,    // count
+			(byte) 0x7F,    // int 32
+			// Code
+			(byte) 0x20, (byte) 0x01, (byte) 0x20, (byte) 0x00, (byte) 0x6A,
+			// End Byte
+			(byte) 0x0B     // always 0x0B
+		};
+		BytesFile payload = new BytesFile(byteAll);
+
+		// run
+		functionBody = new FunctionBody(payload, true);
+
+		//* verify
+		assertEquals(new UInt32(9L), functionBody.getBodySize());
+		assertEquals(Integer.valueOf(10), payload.getIndex());
+		assertFalse(functionBody.isDecoded());
+
+		//** first use decodes
+		assertEquals(2, functionBody.getLocalEntryAll().size());
+		assertTrue(functionBody.isDecoded());
+
+		byte[] expectedCode = {(byte) 0x20, (byte) 0x01, (byte) 0x20, (byte) 0x00, (byte) 0x6A};
+		assertArrayEquals(expectedCode, functionBody.getCode());
+		assertEquals(0x0B, functionBody.getEnd());
+	}
+
+}
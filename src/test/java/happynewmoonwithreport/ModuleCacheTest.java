@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.S32;
+import happynewmoonwithreport.type.WasmVector;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load add32.wasm through the module cache.
+ */
+public class ModuleCacheTest {
+	private Path directory;
+	private ModuleCache cache;
+	private byte[] bytesAll;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		directory = Files.createTempDirectory("moduleCache");
+		cache = new ModuleCache(directory);
+		bytesAll = new WasmFile("./src/test/resources/add32/add32.wasm").bytes();
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		File[] fileAll = directory.toFile().listFiles();
+		if (fileAll != null) {
+			for (File file : fileAll) {
+				file.delete();
+			}
+		}
+		Files.deleteIfExists(directory);
+	}
+
+	@Test
+	public void missThenHit() {
+		WasmModule first = instantiate();
+		assertEquals(Long.valueOf(1), cache.getMissCount());
+		assertEquals(Long.valueOf(0), cache.getHitCount());
+		assertEquals(1, directory.toFile().listFiles().length);
+
+		WasmModule second = instantiate();
+		assertEquals(Long.valueOf(1), cache.getMissCount());
+		assertEquals(Long.valueOf(1), cache.getHitCount());
+		assertTrue(cache.getHitNanos() > 0);
+
+		// same module
+		assertEquals(first.getFunctionAll().size(), second.getFunctionAll().size());
+		assertArrayEquals(first.getFunctionAll().get(0).getCode(),
+			second.getFunctionAll().get(0).getCode());
+		assertEquals(first.getFunctionAll().get(0).getLocalEntryAll(),
+			second.getFunctionAll().get(0).getLocalEntryAll());
+		assertEquals(first.getExportAll().size(), second.getExportAll().size());
+
+		assertEquals(new S32(7), add32(second));
+	}
+
+	@Test
+	public void versionMismatchFallsBack() throws Exception {
+		instantiate();
+
+		// overwrite the format version
+		File file = directory.toFile().listFiles()[0];
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(4);
+			randomAccessFile.writeInt(ModuleCache.FORMAT_VERSION + 1);
+		}
+
+		WasmModule module = instantiate();
+		assertEquals(Long.valueOf(2), cache.getMissCount());
+		assertEquals(Long.valueOf(1), cache.getMismatchCount());
+		assertEquals(new S32(7), add32(module));
+
+		// written again, so the next load is a hit.
+		instantiate();
+		assertEquals(Long.valueOf(1), cache.getHitCount());
+	}
+
+	@Test
+	public void hitWithParallelism() {
+		instantiate();
+
+		WasmModule module = instantiate(4);
+		assertEquals(Long.valueOf(1), cache.getHitCount());
+		assertEquals(new S32(7), add32(module));
+	}
+
+	private WasmModule instantiate() {
+		return instantiate(1);
+	}
+
+	private WasmModule instantiate(Integer parallelism) {
+		Wasm wasm = new Wasm(bytesAll);
+		wasm.setModuleCache(cache);
+		wasm.setParallelism(parallelism);
+		WasmModule module = wasm.instantiate();
+		assertTrue(wasm.validate());
+		return module;
+	}
+
+	private DataTypeNumber add32(WasmModule module) {
+		WasmInstance instance = new WasmInstance(module);
+		WasmFunction functionAdd32 = instance.exportFunction("add32");
+
+		WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>(2);
+		paramAll.add(new S32(3));
+		paramAll.add(new S32(4));
+		instance.call(functionAdd32, returnAll, paramAll);
+		return returnAll.get(0);
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class TieredExecutionTest {
+
+	/**
+	 * Sum 1 to n with a loop.  A call with n takes n - 1 back edges.
+	 */
+	private static final byte[] SUM = {
+		(byte) 0x1B, // body size
+		(byte) 0x01, (byte) 0x01, (byte) 0x7F, // one local i32, the sum
+		(byte) 0x03, (byte) 0x40, // loop
+		(byte) 0x20, (byte) 0x01, // local.get 1
+		(byte) 0x20, (byte) 0x00, // local.get 0
+		(byte) 0x6A, // i32.add
+		(byte) 0x21, (byte) 0x01, // local.set 1
+		(byte) 0x20, (byte) 0x00, // local.get 0
+		(byte) 0x41, (byte) 0x01, // i32.const 1
+		(byte) 0x6B, // i32.sub
+		(byte) 0x21, (byte) 0x00, // local.set 0
+		(byte) 0x20, (byte) 0x00, // local.get 0
+		(byte) 0x0D, (byte) 0x00, // br_if 0
+		(byte) 0x0B, // end
+		(byte) 0x20, (byte) 0x01, // local.get 1
+		(byte) 0x0B, // end
+	};
+
+	@Test
+	public void promoteToRegisterThenCompiled() {
+		WasmFunction function = function();
+		WasmModule module = module(function);
+		// build the tiers on the calling thread.
+		TieredExecution tieredExecution = new TieredExecution(20, 40, Runnable::run);
+		List<TierTransition> transitionAll = new ArrayList<>();
+		tieredExecution.addTierListener(transitionAll::add);
+		module.setTieredExecution(tieredExecution);
+		WasmInstance instance = new WasmInstance(module);
+
+		TierState tierState = function.getTierState();
+		assertSame(tierState, function.getTierState());
+		assertSame(ExecutionEngine.VALIDATED, tierState.getTier());
+
+		// 1 call and 9 back edges each.
+		assertEquals(Integer.valueOf(55), call(instance, function, 10));
+		assertSame(ExecutionEngine.VALIDATED, tierState.getTier());
+		assertEquals(Long.valueOf(1L), Long.valueOf(tierState.getInvocationCount()));
+		assertEquals(Long.valueOf(9L), Long.valueOf(tierState.getBackEdgeCount()));
+
+		assertEquals(Integer.valueOf(55), call(instance, function, 10));
+		assertSame(ExecutionEngine.REGISTER, tierState.getTier());
+		assertEquals(1, transitionAll.size());
+
+		assertEquals(Integer.valueOf(55), call(instance, function, 10));
+		assertEquals(Integer.valueOf(55), call(instance, function, 10));
+		assertSame(ExecutionEngine.COMPILED, tierState.getTier());
+		assertEquals(2, transitionAll.size());
+
+		assertEquals(Integer.valueOf(5050), call(instance, function, 100));
+		assertSame(ExecutionEngine.COMPILED, tierState.getTier());
+		assertEquals(2, transitionAll.size());
+		// the last tier.
+		assertFalse(tierState.isPromotable());
+		assertFalse(tierState.isPromoting());
+		assertNull(tierState.getPromotionError());
+
+		TierTransition first = transitionAll.get(0);
+		assertSame(function, first.getFunction());
+		assertSame(ExecutionEngine.VALIDATED, first.getFrom());
+		assertSame(ExecutionEngine.REGISTER, first.getTo());
+		assertEquals(Long.valueOf(2L), Long.valueOf(first.getInvocationCount()));
+		assertEquals(Long.valueOf(18L), Long.valueOf(first.getBackEdgeCount()));
+		TierTransition second = transitionAll.get(1);
+		assertSame(ExecutionEngine.REGISTER, second.getFrom());
+		assertSame(ExecutionEngine.COMPILED, second.getTo());
+	}
+
+	@Test
+	public void straightToCompiled() {
+		WasmFunction function = function();
+		WasmModule module = module(function);
+		module.setTieredExecution(new TieredExecution(5, 10, Runnable::run));
+		WasmInstance instance = new WasmInstance(module);
+
+		assertEquals(Integer.valueOf(5050), call(instance, function, 100));
+		assertSame(ExecutionEngine.COMPILED, function.getTierState().getTier());
+		assertEquals(Integer.valueOf(55), call(instance, function, 10));
+	}
+
+	@Test
+	public void promoteInBackground() throws InterruptedException {
+		WasmFunction function = function();
+		WasmModule module = module(function);
+		TieredExecution tieredExecution = new TieredExecution(20, 1_000_000);
+		CountDownLatch promoted = new CountDownLatch(1);
+		tieredExecution.addTierListener(transition -> promoted.countDown());
+		module.setTieredExecution(tieredExecution);
+		WasmInstance instance = new WasmInstance(module);
+
+		for (int count = 0; count < 3; count++) {
+			assertEquals(Integer.valueOf(55), call(instance, function, 10));
+		}
+		assertTrue(promoted.await(10, TimeUnit.SECONDS));
+		assertSame(ExecutionEngine.REGISTER, function.getTierState().getTier());
+		assertEquals(Integer.valueOf(55), call(instance, function, 10));
+	}
+
+	private WasmFunction function() {
+		return new WasmFunction(new UInt32(0), new WasmVector<>(),
+			new FunctionBody(new BytesFile(SUM)));
+	}
+
+	private WasmModule module(WasmFunction function) {
+		WasmVector<ValueType> i32All = new WasmVector<>();
+		i32All.add(ValueType.INT32);
+		WasmModule module = new WasmModule();
+		module.getTypes().add(new FunctionType(new UInt32(1), i32All, new UInt8(1), i32All));
+		module.getFunctionAll().add(function);
+		module.setExecutionEngine(ExecutionEngine.TIERED);
+		return module;
+	}
+
+	private Integer call(WasmInstance instance, WasmFunction function, int param) {
+		WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>(1);
+		paramAll.add(new I32(param));
+		instance.call(function, returnAll, paramAll);
+		return returnAll.get(0).integerValue();
+	}
+}
@@ -17,6 +17,8 @@
 package happynewmoonwithreport;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -86,6 +88,39 @@ public class ValueTypeTest {
 
 	}
 
+	@Test
+	public void canonical() throws Exception {
+		BytesFile payload = new BytesFile(new byte[]{0x7F, 0x7E, 0x40});
+
+		assertSame(ValueType.INT32, ValueType.valueOf(payload));
+		assertSame(ValueType.INT64, ValueType.valueOf(payload));
+		assertSame(ValueType.EMPTY_BLOCK, ValueType.valueOf(payload));
+		assertSame(ValueType.INT32, ValueType.valueOf(-0x01));
+		assertEquals(new ValueType("int32"), ValueType.INT32);
+		assertEquals(Integer.valueOf(3), payload.getIndex());
+	}
+
+	@Test
+	public void canonicalNotValid() throws Exception {
+		assertThrows(RuntimeException.class, () -> ValueType.valueOf(-0x05));
+		assertThrows(RuntimeException.class, () -> ValueType.valueOf(1000));
+	}
+
+	/**
+	 * Each kind of ValueBase has its own types.  Creating one must not change another.
+	 */
+	@Test
+	public void typesNotShared() throws Exception {
+		ValueType int32 = new ValueType(-0x01);
+		new Mutability(1);
+		new ExternalKind(3);
+
+		assertTrue(int32.valid());
+		assertEquals("int32", new ValueType(-0x01).getValue());
+		assertSame(Mutability.MUTABLE, Mutability.valueOf(1));
+		assertSame(ExternalKind.FUNCTION, ExternalKind.valueOf(0));
+	}
+
 	private void assertContains(String aaa, String bbb) {
 		assertTrue(aaa.contains(bbb));
 	}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.type.UInt32;
+import java.nio.MappedByteBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load a module through a mapped file.
+ */
+public class WasmFileTest {
+	private WasmFile wasmFile;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		wasmFile = new WasmFile("./src/test/resources/add32/add32.wasm");
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+	}
+
+	@Test
+	public void mapIsTheSameAsBytes() throws Exception {
+		MappedByteBuffer mapped = wasmFile.map();
+		byte[] bytesAll = wasmFile.bytes();
+
+		BytesFile bytesFile = new BytesFile(mapped);
+
+		assertEquals(bytesAll.length, bytesFile.length());
+		assertArrayEquals(bytesAll, bytesFile.getBytesAll());
+	}
+
+	@Test
+	public void copyOfMappedFileReadsInPlace() throws Exception {
+		BytesFile bytesFile = new BytesFile(wasmFile.map());
+
+		// skip the magic number and version.
+		BytesFile copy = bytesFile.copy(8);
+		assertEquals(Integer.valueOf(8), bytesFile.getIndex());
+
+		// The magic number '\0asm'
+		assertEquals((byte) 0x00, copy.readByte());
+		assertEquals((byte) 0x61, copy.readByte());
+		assertEquals((byte) 0x73, copy.readByte());
+		assertEquals((byte) 0x6D, copy.readByte());
+		assertEquals(8, copy.length());
+		assertFalse(copy.atEndOfFile());
+	}
+
+	@Test
+	public void instantiateFromMappedFile() throws Exception {
+		Wasm wasm = new Wasm(wasmFile.map());
+		wasm.instantiate();
+
+		assertTrue(wasm.validate());
+		assertEquals(new UInt32(1L), wasm.getVersion());
+		assertEquals("add32", wasm.exports().get(1).getFieldName().getValue());
+	}
+}
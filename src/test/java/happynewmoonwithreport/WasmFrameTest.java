@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.I64;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.Test;
+
+public class WasmFrameTest {
+
+	@Test
+	public void enter() {
+		WasmFrame frame = new WasmFrame(new WasmModule());
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>();
+		paramAll.add(new I32(-3));
+		paramAll.add(new I64(5L));
+
+		frame.enter(4, paramAll);
+
+		assertEquals(4, frame.slotCount().intValue());
+		assertEquals(-3, frame.getI32(0));
+		assertEquals(5L, frame.getI64(1));
+		assertEquals(0L, frame.getSlot(2));
+		assertEquals(0L, frame.getSlot(3));
+	}
+
+	@Test
+	public void enterAgainZeroesLocals() {
+		WasmFrame frame = new WasmFrame(new WasmModule());
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>();
+		paramAll.add(new I32(1));
+		frame.enter(3, paramAll);
+		frame.setI32(1, 7);
+		frame.setF64(2, 2.5D);
+
+		frame.enter(3, paramAll);
+
+		assertEquals(1, frame.getI32(0));
+		assertEquals(0, frame.getI32(1));
+		assertEquals(0L, frame.getSlot(2));
+	}
+
+	@Test
+	public void moreParametersThanSlots() {
+		WasmFrame frame = new WasmFrame(new WasmModule());
+		frame.enter(4, new WasmVector<>());
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>();
+		paramAll.add(new I32(1));
+		paramAll.add(new I32(2));
+
+		assertThrows(WasmRuntimeException.class, () -> frame.enter(1, paramAll));
+	}
+
+	@Test
+	public void typed() {
+		WasmFrame frame = new WasmFrame(new WasmModule());
+		frame.enter(4, new WasmVector<>());
+
+		frame.setI32(0, Integer.MIN_VALUE);
+		frame.setI64(1, Long.MAX_VALUE);
+		frame.setF32(2, Float.NaN);
+		long bits = frame.teeSlot(3, Double.doubleToRawLongBits(-1.5D));
+		assertEquals(-1.5D, Double.longBitsToDouble(bits));
+
+		assertEquals(Integer.MIN_VALUE, frame.getI32(0));
+		assertEquals(Long.MAX_VALUE, frame.getI64(1));
+		assertTrue(Float.isNaN(frame.getF32(2)));
+		assertEquals(-1.5D, frame.getF64(3));
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionBody;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.S32;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro benchmark of the execution engines.  Compares the byte code loop, which decodes every
+ * immediate each time it runs, with the pre-decoded instruction stream.
+ * <br>
+ * add32 and i32Sub are three instructions long, so the cost of the call is most of what is
+ * measured.  The constant heavy function is long enough to show the cost of the instructions.
+ */
+@Tag("benchmark")
+public class InstructionStreamBenchmarkTest {
+
+	private static final int CALL_COUNT = 20_000;
+	private static final int WARM_UP = 10;
+	private static final int ROUNDS = 20;
+
+	@Test
+	public void add32() throws Exception {
+		compare("./src/test/resources/add32/add32.wasm", "add32", 3, 4);
+	}
+
+	@Test
+	public void i32Sub() throws Exception {
+		compare("./src/test/resources/i32Sub/I32Sub.wasm", "i32Sub", 3, 7);
+	}
+
+	/**
+	 * <code>local.get 0</code> then 100 times <code>i32.const 0x01234567; i32.add</code>.  Every
+	 * constant is a 5 byte LEB128.
+	 */
+	@Test
+	public void constantHeavy() {
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		code.write(0x00); // no locals
+		code.write(0x20); // local.get 0
+		code.write(0x00);
+		for (int i = 0; i < 100; i++) {
+			code.write(0x41); // i32.const 0x01234567
+			code.write(0xE7);
+			code.write(0x8A);
+			code.write(0x8D);
+			code.write(0x89);
+			code.write(0x00);
+			code.write(0x6A); // i32.add
+		}
+		code.write(0x0B); // end
+		byte[] codeAll = code.toByteArray();
+		byte[] bodyAll = new byte[codeAll.length + 2];
+		bodyAll[0] = (byte) (0x80 | (codeAll.length & 0x7F)); // body size, 2 byte LEB128
+		bodyAll[1] = (byte) (codeAll.length >> 7);
+		System.arraycopy(codeAll, 0, bodyAll, 2, codeAll.length);
+
+		WasmFunction function = new WasmFunction(new UInt32(0), new WasmVector<>(),
+			new FunctionBody(new BytesFile(bodyAll)));
+		WasmVector<ValueType> i32All = new WasmVector<>();
+		i32All.add(ValueType.INT32);
+		FunctionType functionType = new FunctionType(new UInt32(1), i32All, new UInt8(1), i32All);
+		WasmModule byteCodeModule = new WasmModule();
+		byteCodeModule.setExecutionEngine(ExecutionEngine.BYTE_CODE);
+		byteCodeModule.getTypes().add(functionType);
+		WasmModule streamModule = new WasmModule();
+		streamModule.setExecutionEngine(ExecutionEngine.INSTRUCTION_STREAM);
+		streamModule.getTypes().add(functionType);
+
+		compare(new WasmInstance(byteCodeModule), new WasmInstance(streamModule), function,
+			"constantHeavy", 1);
+	}
+
+	private void compare(String path, String functionName, Integer... paramAll) throws Exception {
+		WasmInstance byteCode = instance(path, ExecutionEngine.BYTE_CODE);
+		WasmInstance stream = instance(path, ExecutionEngine.INSTRUCTION_STREAM);
+		compare(byteCode, stream, byteCode.exportFunction(functionName), functionName, paramAll);
+	}
+
+	private void compare(WasmInstance byteCode, WasmInstance stream, WasmFunction function,
+						 String name, Integer... paramAll) {
+		long byteCodeNanos = 0;
+		long streamNanos = 0;
+		long byteCodeSum = 0;
+		long streamSum = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			byteCodeSum = run(byteCode, function, paramAll);
+			long middle = System.nanoTime();
+			streamSum = run(stream, function, paramAll);
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				byteCodeNanos += middle - start;
+				streamNanos += end - middle;
+			}
+		}
+		assertEquals(byteCodeSum, streamSum);
+		report(name, byteCodeNanos, streamNanos);
+	}
+
+	private WasmInstance instance(String path, ExecutionEngine executionEngine) throws Exception {
+		Wasm wasm = new Wasm(path);
+		WasmModule module = wasm.instantiate();
+		module.setExecutionEngine(executionEngine);
+		return new WasmInstance(module);
+	}
+
+	private long run(WasmInstance instance, WasmFunction function, Integer... paramAll) {
+		long sum = 0;
+		for (int i = 0; i < CALL_COUNT; i++) {
+			WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+			WasmVector<DataTypeNumber> parameterAll = new WasmVector<>(paramAll.length);
+			for (Integer param : paramAll) {
+				parameterAll.add(new S32(param + i));
+			}
+			instance.call(function, returnAll, parameterAll);
+			sum += returnAll.get(0).longValue();
+		}
+		return sum;
+	}
+
+	private void report(String name, long byteCodeNanos, long streamNanos) {
+		double callCount = (double) CALL_COUNT * ROUNDS;
+		System.out.printf("%s: byte code %.1f ns/call, instruction stream %.1f ns/call, speed up "
+						  + "%.2fx%n", name, byteCodeNanos / callCount, streamNanos / callCount,
+			(double) byteCodeNanos / streamNanos);
+	}
+}
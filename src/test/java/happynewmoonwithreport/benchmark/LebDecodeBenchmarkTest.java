@@ -0,0 +1,168 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.type.VarInt32;
+import happynewmoonwithreport.type.VarInt64;
+import happynewmoonwithreport.type.VarUInt32;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro benchmark of LEB128 decoding.  Compares the objects (<code>new VarUInt32(bytesFile)</code>)
+ * with the primitive decoders (<code>VarUInt32.decode(bytesFile)</code>).
+ * <br>
+ * The section path reads unsigned counts and indexes, the code path reads the signed
+ * immediates of <code>i32.const</code> and <code>i64.const</code>.
+ */
+@Tag("benchmark")
+public class LebDecodeBenchmarkTest {
+
+	private static final int VALUE_COUNT = 10_000;
+	private static final int WARM_UP = 20;
+	private static final int ROUNDS = 50;
+
+	private byte[] unsignedAll;
+	private byte[] signed32All;
+	private byte[] signed64All;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		Random random = new Random(42);
+		ByteArrayOutputStream unsigned = new ByteArrayOutputStream();
+		ByteArrayOutputStream signed32 = new ByteArrayOutputStream();
+		ByteArrayOutputStream signed64 = new ByteArrayOutputStream();
+		for (int i = 0; i < VALUE_COUNT; i++) {
+			// Mostly small values, like a real module.
+			int bits = 1 + random.nextInt(i % 4 == 0 ? 30 : 12);
+			writeUnsigned(unsigned, random.nextInt(1 << bits));
+			writeSigned(signed32, random.nextInt() >> random.nextInt(32));
+			writeSigned(signed64, random.nextLong() >> random.nextInt(64));
+		}
+		unsignedAll = unsigned.toByteArray();
+		signed32All = signed32.toByteArray();
+		signed64All = signed64.toByteArray();
+	}
+
+	@Test
+	public void sectionPath() {
+		long objectSum = 0;
+		long primitiveSum = 0;
+		long objectNanos = 0;
+		long primitiveNanos = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			BytesFile bytesFile = new BytesFile(unsignedAll);
+			long sum = 0;
+			while (bytesFile.isNotEmpty()) {
+				sum += new VarUInt32(bytesFile).longValue();
+			}
+			long middle = System.nanoTime();
+			BytesFile bytesFile2 = new BytesFile(unsignedAll);
+			long sum2 = 0;
+			while (bytesFile2.isNotEmpty()) {
+				sum2 += VarUInt32.decode(bytesFile2);
+			}
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				objectNanos += middle - start;
+				primitiveNanos += end - middle;
+			}
+			objectSum = sum;
+			primitiveSum = sum2;
+		}
+		assertEquals(objectSum, primitiveSum);
+		report("VarUInt32 (section)", objectNanos, primitiveNanos);
+	}
+
+	@Test
+	public void codePath() {
+		long objectSum = 0;
+		long primitiveSum = 0;
+		long objectNanos = 0;
+		long primitiveNanos = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			long sum = 0;
+			BytesFile code32 = new BytesFile(signed32All);
+			while (code32.isNotEmpty()) {
+				sum += new VarInt32(code32).integerValue();
+			}
+			BytesFile code64 = new BytesFile(signed64All);
+			while (code64.isNotEmpty()) {
+				sum += new VarInt64(code64).longValue();
+			}
+			long middle = System.nanoTime();
+			long sum2 = 0;
+			BytesFile code32b = new BytesFile(signed32All);
+			while (code32b.isNotEmpty()) {
+				sum2 += VarInt32.decode(code32b);
+			}
+			BytesFile code64b = new BytesFile(signed64All);
+			while (code64b.isNotEmpty()) {
+				sum2 += VarInt64.decode(code64b);
+			}
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				objectNanos += middle - start;
+				primitiveNanos += end - middle;
+			}
+			objectSum = sum;
+			primitiveSum = sum2;
+		}
+		assertEquals(objectSum, primitiveSum);
+		report("VarInt32/VarInt64 (code)", objectNanos, primitiveNanos);
+	}
+
+	private void report(String name, long objectNanos, long primitiveNanos) {
+		double valueCount = (double) VALUE_COUNT * ROUNDS;
+		System.out.printf("%s: object %.1f ns/value, primitive %.1f ns/value, speed up %.2fx%n",
+			name, objectNanos / valueCount, primitiveNanos / valueCount,
+			(double) objectNanos / primitiveNanos);
+	}
+
+	private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+		do {
+			int b = (int) (value & 0x7F);
+			value >>>= 7;
+			if (value != 0) {
+				b |= 0x80;
+			}
+			out.write(b);
+		} while (value != 0);
+	}
+
+	private static void writeSigned(ByteArrayOutputStream out, long value) {
+		boolean more = true;
+		while (more) {
+			int b = (int) (value & 0x7F);
+			value >>= 7;
+			if ((value == 0 && (b & 0x40) == 0) || (value == -1 && (b & 0x40) != 0)) {
+				more = false;
+			} else {
+				b |= 0x80;
+			}
+			out.write(b);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.WasmStore;
+import happynewmoonwithreport.opcode.Memory.I32_load;
+import happynewmoonwithreport.opcode.Memory.I32_store;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.MemoryArgument;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.U32;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro benchmark of <code>i32.store</code> then <code>i32.load</code>.  Times the two ways the
+ * interpreters run them: <code>store()</code> and <code>load()</code> given memory 0, as the
+ * validated engines do, and <code>execute()</code>, which pops the operands and finds memory 0
+ * from the frame, as the byte code interpreter does.
+ */
+@Tag("benchmark")
+public class LoadStoreBenchmarkTest {
+
+	private static final int ACCESS_COUNT = 1_000_000;
+	private static final int WARM_UP = 10;
+	private static final int ROUNDS = 20;
+
+	@Test
+	public void loadStore() {
+		final MemoryType memory = new MemoryType(new U32(0), new U32(1));
+		final WasmModule module = new WasmModule();
+		module.addMemory(memory);
+		final WasmVector<MemoryType> memoryAll = new WasmVector<>();
+		memoryAll.add(memory);
+		final WasmStore store = new WasmStore();
+		store.setMemoryAll(memoryAll);
+		final WasmFrame frame = new WasmFrame(module);
+		final WasmStack<Object> stack = new WasmStack<>();
+
+		final int length = MemoryType.pageSize;
+		final MemoryArgument memoryArgument = new MemoryArgument(new U32(0), new U32(2));
+		final I32_store i32Store = new I32_store();
+		final I32_load i32Load = new I32_load();
+
+		long directNanos = 0;
+		long executeNanos = 0;
+		long directSum = 0;
+		long executeSum = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			directSum = 0;
+			for (int i = 0; i < ACCESS_COUNT; i++) {
+				final int address = (i * 4) & (length - 4);
+				i32Store.store(memory, memoryArgument, address, new I32(i));
+				directSum += ((I32) i32Load.load(memory, memoryArgument, address)).integerValue();
+			}
+			long middle = System.nanoTime();
+			executeSum = 0;
+			for (int i = 0; i < ACCESS_COUNT; i++) {
+				final int address = (i * 4) & (length - 4);
+				stack.push(new I32(address));
+				stack.push(new I32(i));
+				i32Store.execute(memoryArgument, frame, store, stack);
+				stack.push(new I32(address));
+				i32Load.execute(memoryArgument, frame, store, stack);
+				executeSum += ((I32) stack.pop()).integerValue();
+			}
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				directNanos += middle - start;
+				executeNanos += end - middle;
+			}
+		}
+		assertEquals(Long.valueOf(directSum), Long.valueOf(executeSum));
+
+		double accessCount = (double) ACCESS_COUNT * ROUNDS;
+		System.out.printf("i32 store + load: store()/load() %.1f ns, execute() %.1f ns%n",
+			directNanos / accessCount, executeNanos / accessCount);
+	}
+}
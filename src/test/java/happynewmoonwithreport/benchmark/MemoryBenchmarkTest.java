@@ -0,0 +1,192 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import happynewmoonwithreport.opcode.Memory.I32_load;
+import happynewmoonwithreport.opcode.Memory.I32_store;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import happynewmoonwithreport.type.LinearMemory;
+import happynewmoonwithreport.type.LinearMemoryFactory;
+import happynewmoonwithreport.type.MemoryArgument;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.U32;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro benchmark of linear memory.  Compares memory as one <code>ByteUnsigned</code> object per
+ * byte, the way it used to be held, with the <code>byte[]</code> of {@link MemoryType}, and
+ * growing one array with growing a table of pages, and a table of pages allocated up front with
+ * a sparse one.
+ */
+@Tag("benchmark")
+public class MemoryBenchmarkTest {
+
+	private static final int PAGE_COUNT = 16;
+	private static final int ACCESS_COUNT = 1_000_000;
+	private static final int WARM_UP = 10;
+	private static final int ROUNDS = 20;
+
+	/**
+	 * Heap used by a memory of 16 pages with every byte written.
+	 */
+	@Test
+	public void footprint() {
+		final int length = PAGE_COUNT * MemoryType.pageSize;
+
+		long before = usedHeap();
+		ByteUnsigned[] objectAll = new ByteUnsigned[length];
+		for (int address = 0; address < length; address++) {
+			objectAll[address] = new ByteUnsigned(address & 0xFF);
+		}
+		long objectBytes = usedHeap() - before;
+
+		before = usedHeap();
+		MemoryType memory = new MemoryType(new U32(0), new U32(PAGE_COUNT));
+		for (int address = 0; address < length; address++) {
+			memory.putByte(address, (byte) address);
+		}
+		long arrayBytes = usedHeap() - before;
+
+		assertEquals(objectAll[length - 1].byteValue(), memory.getByte(length - 1));
+		System.out.printf("memory of %d pages: objects %.1f MiB, byte[] %.1f MiB%n", PAGE_COUNT,
+			objectBytes / 1048576.0, arrayBytes / 1048576.0);
+	}
+
+	/**
+	 * i32.store then i32.load over the first page.
+	 */
+	@Test
+	public void loadStore() {
+		final int length = MemoryType.pageSize;
+		final ByteUnsigned[] objectAll = new ByteUnsigned[length];
+		final MemoryType memory = new MemoryType(new U32(0), new U32(1));
+		final MemoryArgument memoryArgument = new MemoryArgument(new U32(0), new U32(2));
+		final I32_store store = new I32_store();
+		final I32_load load = new I32_load();
+
+		long objectNanos = 0;
+		long arrayNanos = 0;
+		long objectSum = 0;
+		long arraySum = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			objectSum = 0;
+			for (int i = 0; i < ACCESS_COUNT; i++) {
+				final int address = (i * 4) & (length - 4);
+				final ByteUnsigned[] byteAll = new I32(i).getBytes();
+				for (int index = 0; index < 4; index++) {
+					objectAll[address + index] = byteAll[index];
+				}
+				final ByteUnsigned[] loaded = new ByteUnsigned[4];
+				for (int index = 0; index < 4; index++) {
+					loaded[index] = objectAll[address + index];
+				}
+				objectSum += new I32(loaded).integerValue();
+			}
+			long middle = System.nanoTime();
+			arraySum = 0;
+			for (int i = 0; i < ACCESS_COUNT; i++) {
+				final int address = (i * 4) & (length - 4);
+				store.store(memory, memoryArgument, address, new I32(i));
+				arraySum += ((I32) load.load(memory, memoryArgument, address)).integerValue();
+			}
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				objectNanos += middle - start;
+				arrayNanos += end - middle;
+			}
+		}
+		assertEquals(objectSum, arraySum);
+
+		double accessCount = (double) ACCESS_COUNT * ROUNDS;
+		System.out.printf("i32 store + load: objects %.1f ns, byte[] %.1f ns, speed up %.2fx%n",
+			objectNanos / accessCount, arrayNanos / accessCount,
+			(double) objectNanos / arrayNanos);
+	}
+
+	/**
+	 * memory.grow one page at a time up to 256 pages, as a guest allocator does.
+	 */
+	@Test
+	public void growOnePageAtATime() {
+		final int pageCount = 256;
+		long copyNanos = 0;
+		long pagedNanos = 0;
+		for (int round = 0; round < 2 + 3; round++) {
+			long start = System.nanoTime();
+			LinearMemory copy = LinearMemoryFactory.HEAP.allocate(MemoryType.pageSize);
+			for (int page = 2; page <= pageCount; page++) {
+				copy.grow(page * MemoryType.pageSize);
+			}
+			long middle = System.nanoTime();
+			LinearMemory paged = LinearMemoryFactory.PAGED.allocate(MemoryType.pageSize);
+			for (int page = 2; page <= pageCount; page++) {
+				paged.grow(page * MemoryType.pageSize);
+			}
+			long end = System.nanoTime();
+			assertEquals(copy.getByteLength(), paged.getByteLength());
+			if (2 <= round) {
+				copyNanos += middle - start;
+				pagedNanos += end - middle;
+			}
+		}
+		System.out.printf("grow to %d pages: copy %.2f ms, paged %.2f ms, speed up %.2fx%n",
+			pageCount, copyNanos / 3e6, pagedNanos / 3e6, (double) copyNanos / pagedNanos);
+	}
+
+	/**
+	 * Heap used by a memory of 256 pages, 16 MiB, with one value written in every 16th page.
+	 */
+	@Test
+	public void sparseFootprint() {
+		final int pageCount = 256;
+		final int length = pageCount * MemoryType.pageSize;
+
+		long before = usedHeap();
+		LinearMemory paged = LinearMemoryFactory.PAGED.allocate(length);
+		for (int page = 0; page < pageCount; page += 16) {
+			paged.putLong(page * MemoryType.pageSize, page + 1);
+		}
+		long pagedBytes = usedHeap() - before;
+
+		before = usedHeap();
+		LinearMemory sparse = LinearMemoryFactory.SPARSE.allocate(length);
+		for (int page = 0; page < pageCount; page += 16) {
+			sparse.putLong(page * MemoryType.pageSize, page + 1);
+		}
+		long sparseBytes = usedHeap() - before;
+
+		final int address = 240 * MemoryType.pageSize;
+		assertEquals(paged.getLong(address), sparse.getLong(address));
+		assertEquals(pageCount / 16, sparse.getCommittedPageCount());
+		System.out.printf("memory of %d pages, %d committed: paged %.1f MiB, sparse %.1f MiB%n",
+			pageCount, sparse.getCommittedPageCount(), pagedBytes / 1048576.0,
+			sparseBytes / 1048576.0);
+	}
+
+	private long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int count = 0; count < 3; count++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
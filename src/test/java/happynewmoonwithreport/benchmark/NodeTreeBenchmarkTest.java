@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionBody;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.S32;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro benchmark of the node tree engine against the byte code interpreter, the switch in
+ * <code>WasmInstance.execute()</code>, with the validated engine for reference.  The kernels are
+ * straight line code, the byte code interpreter does not run loops.
+ */
+@Tag("benchmark")
+public class NodeTreeBenchmarkTest {
+
+	private static final int CALL_COUNT = 20_000;
+	private static final int WARM_UP = 10;
+	private static final int ROUNDS = 20;
+
+	/**
+	 * 50 times <code>local.get 0; i32.const 3; i32.mul; i32.const 7; i32.add; local.set 0</code>
+	 * then <code>local.get 0</code>.
+	 */
+	@Test
+	public void arithmeticHeavy() {
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		code.write(0x00); // no locals
+		for (int i = 0; i < 50; i++) {
+			code.write(0x20); // local.get 0
+			code.write(0x00);
+			code.write(0x41); // i32.const 3
+			code.write(0x03);
+			code.write(0x6C); // i32.mul
+			code.write(0x41); // i32.const 7
+			code.write(0x07);
+			code.write(0x6A); // i32.add
+			code.write(0x21); // local.set 0
+			code.write(0x00);
+		}
+		code.write(0x20); // local.get 0
+		code.write(0x00);
+		code.write(0x0B); // end
+		compare("arithmeticHeavy", code.toByteArray());
+	}
+
+	/**
+	 * 50 times <code>i32.const 16; local.get 0; i32.const 1; i32.add; i32.store; i32.const 16;
+	 * i32.load; local.set 0</code> then <code>local.get 0</code>.
+	 */
+	@Test
+	public void memoryHeavy() {
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		code.write(0x00); // no locals
+		for (int i = 0; i < 50; i++) {
+			code.write(0x41); // i32.const 16
+			code.write(0x10);
+			code.write(0x20); // local.get 0
+			code.write(0x00);
+			code.write(0x41); // i32.const 1
+			code.write(0x01);
+			code.write(0x6A); // i32.add
+			code.write(0x36); // i32.store align=2 offset=0
+			code.write(0x02);
+			code.write(0x00);
+			code.write(0x41); // i32.const 16
+			code.write(0x10);
+			code.write(0x28); // i32.load align=2 offset=0
+			code.write(0x02);
+			code.write(0x00);
+			code.write(0x21); // local.set 0
+			code.write(0x00);
+		}
+		code.write(0x20); // local.get 0
+		code.write(0x00);
+		code.write(0x0B); // end
+		compare("memoryHeavy", code.toByteArray());
+	}
+
+	private void compare(String name, byte[] codeAll) {
+		byte[] bodyAll = new byte[codeAll.length + 2];
+		bodyAll[0] = (byte) (0x80 | (codeAll.length & 0x7F)); // body size, 2 byte LEB128
+		bodyAll[1] = (byte) (codeAll.length >> 7);
+		System.arraycopy(codeAll, 0, bodyAll, 2, codeAll.length);
+		WasmFunction function = new WasmFunction(new UInt32(0), new WasmVector<>(),
+			new FunctionBody(new BytesFile(bodyAll)));
+
+		WasmInstance byteCode = new WasmInstance(module(ExecutionEngine.BYTE_CODE));
+		WasmInstance validated = new WasmInstance(module(ExecutionEngine.VALIDATED));
+		WasmInstance nodeTree = new WasmInstance(module(ExecutionEngine.NODE_TREE));
+
+		long byteCodeNanos = 0;
+		long validatedNanos = 0;
+		long nodeTreeNanos = 0;
+		long byteCodeSum = 0;
+		long validatedSum = 0;
+		long nodeTreeSum = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			byteCodeSum = run(byteCode, function);
+			long first = System.nanoTime();
+			validatedSum = run(validated, function);
+			long second = System.nanoTime();
+			nodeTreeSum = run(nodeTree, function);
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				byteCodeNanos += first - start;
+				validatedNanos += second - first;
+				nodeTreeNanos += end - second;
+			}
+		}
+		assertEquals(byteCodeSum, nodeTreeSum);
+		assertEquals(validatedSum, nodeTreeSum);
+		assertTrue(function.isValidated());
+
+		double callCount = (double) CALL_COUNT * ROUNDS;
+		System.out.printf("%s: byte code %.1f ns/call, validated %.1f ns/call, node tree %.1f "
+						  + "ns/call, speed up over byte code %.2fx%n", name,
+			byteCodeNanos / callCount, validatedNanos / callCount, nodeTreeNanos / callCount,
+			(double) byteCodeNanos / nodeTreeNanos);
+	}
+
+	private WasmModule module(ExecutionEngine executionEngine) {
+		WasmVector<ValueType> i32All = new WasmVector<>();
+		i32All.add(ValueType.INT32);
+		WasmModule module = new WasmModule();
+		module.setExecutionEngine(executionEngine);
+		module.getTypes().add(new FunctionType(new UInt32(1), i32All, new UInt8(1), i32All));
+		module.addMemory(new MemoryType(new UInt8(0), new UInt32(1)));
+		return module;
+	}
+
+	private long run(WasmInstance instance, WasmFunction function) {
+		long sum = 0;
+		for (int i = 0; i < CALL_COUNT; i++) {
+			WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+			WasmVector<DataTypeNumber> parameterAll = new WasmVector<>(1);
+			parameterAll.add(new S32(1 + (i & 0xF)));
+			instance.call(function, returnAll, parameterAll);
+			sum += returnAll.get(0).longValue();
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.S32;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro benchmark of the register engine.  Compares the stack interpreter of the validated
+ * engine, with its superinstructions, with the register code.
+ */
+@Tag("benchmark")
+public class RegisterBenchmarkTest {
+
+	private static final int CALL_COUNT = 20_000;
+	private static final int WARM_UP = 10;
+	private static final int ROUNDS = 20;
+
+	@Test
+	public void add32() throws Exception {
+		compare("./src/test/resources/add32/add32.wasm", "add32", 3, 4);
+	}
+
+	@Test
+	public void i32Sub() throws Exception {
+		compare("./src/test/resources/i32Sub/I32Sub.wasm", "i32Sub", 3, 7);
+	}
+
+	@Test
+	public void blockSingular() throws Exception {
+		compare("./src/test/resources/wasm-project Block-Singular/out/main.wasm", "singular");
+	}
+
+	/**
+	 * A block, a loop and two br_if.  The parameter is 5 to 20.
+	 */
+	@Test
+	public void factorialLong() throws Exception {
+		compare("./src/test/resources/factorialLong/factorialLong.wasm", "factorialLong", 5);
+	}
+
+	private void compare(String path, String functionName, Integer... paramAll) throws Exception {
+		WasmInstance stack = instance(path, ExecutionEngine.VALIDATED);
+		WasmInstance register = instance(path, ExecutionEngine.REGISTER);
+		WasmFunction function = register.exportFunction(functionName);
+
+		long stackNanos = 0;
+		long registerNanos = 0;
+		long stackSum = 0;
+		long registerSum = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			stackSum = run(stack, function, paramAll);
+			long middle = System.nanoTime();
+			registerSum = run(register, function, paramAll);
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				stackNanos += middle - start;
+				registerNanos += end - middle;
+			}
+		}
+		assertEquals(stackSum, registerSum);
+
+		double callCount = (double) CALL_COUNT * ROUNDS;
+		System.out.printf("%s: stack %.1f ns/call, register %.1f ns/call, speed up %.2fx%n",
+			functionName, stackNanos / callCount, registerNanos / callCount,
+			(double) stackNanos / registerNanos);
+	}
+
+	private WasmInstance instance(String path, ExecutionEngine executionEngine) throws Exception {
+		Wasm wasm = new Wasm(path);
+		WasmModule module = wasm.instantiate();
+		assertTrue(wasm.validate());
+		module.setExecutionEngine(executionEngine);
+		return new WasmInstance(module);
+	}
+
+	private long run(WasmInstance instance, WasmFunction function, Integer... paramAll) {
+		long sum = 0;
+		for (int i = 0; i < CALL_COUNT; i++) {
+			WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+			WasmVector<DataTypeNumber> parameterAll = new WasmVector<>(paramAll.length);
+			for (Integer param : paramAll) {
+				parameterAll.add(new S32(param + (i & 0xF)));
+			}
+			instance.call(function, returnAll, parameterAll);
+			sum += returnAll.get(0).longValue();
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.S32;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro benchmark of the superinstructions.  Runs the validated engine with and without fusion
+ * and prints the dispatches saved by each function.
+ */
+@Tag("benchmark")
+public class SuperinstructionBenchmarkTest {
+
+	private static final int CALL_COUNT = 20_000;
+	private static final int WARM_UP = 10;
+	private static final int ROUNDS = 20;
+
+	/**
+	 * A loop of <code>local.get; local.get; i32.mul</code>, <code>local.get; i32.const;
+	 * i32.add</code> and a compare with br_if.  The parameter is 5 to 20.
+	 */
+	@Test
+	public void factorialLong() throws Exception {
+		compare("./src/test/resources/factorialLong/factorialLong.wasm", "factorialLong", 5);
+	}
+
+	@Test
+	public void add32() throws Exception {
+		compare("./src/test/resources/add32/add32.wasm", "add32", 3, 4);
+	}
+
+	private void compare(String path, String functionName, Integer... paramAll) throws Exception {
+		WasmInstance unfused = new WasmInstance(module(path, false));
+		WasmModule fusedModule = module(path, true);
+		WasmInstance fused = new WasmInstance(fusedModule);
+		WasmFunction function = fused.exportFunction(functionName);
+
+		long unfusedNanos = 0;
+		long fusedNanos = 0;
+		long unfusedSum = 0;
+		long fusedSum = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			unfusedSum = run(unfused, function, paramAll);
+			long middle = System.nanoTime();
+			fusedSum = run(fused, function, paramAll);
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				unfusedNanos += middle - start;
+				fusedNanos += end - middle;
+			}
+		}
+		assertEquals(unfusedSum, fusedSum);
+
+		double callCount = (double) CALL_COUNT * ROUNDS;
+		System.out.printf("%s: validated %.1f ns/call, superinstructions %.1f ns/call, speed up "
+						  + "%.2fx%n", functionName, unfusedNanos / callCount,
+			fusedNanos / callCount, (double) unfusedNanos / fusedNanos);
+		System.out.print(fusedModule.superinstructionReport());
+	}
+
+	private WasmModule module(String path, Boolean fusion) throws Exception {
+		Wasm wasm = new Wasm(path);
+		WasmModule module = wasm.instantiate();
+		assertTrue(wasm.validate());
+		module.setSuperinstructionFusion(fusion);
+		return module;
+	}
+
+	private long run(WasmInstance instance, WasmFunction function, Integer... paramAll) {
+		long sum = 0;
+		for (int i = 0; i < CALL_COUNT; i++) {
+			WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+			WasmVector<DataTypeNumber> parameterAll = new WasmVector<>(paramAll.length);
+			for (Integer param : paramAll) {
+				parameterAll.add(new S32(param + (i & 0xF)));
+			}
+			instance.call(function, returnAll, parameterAll);
+			sum += returnAll.get(0).longValue();
+		}
+		return sum;
+	}
+}
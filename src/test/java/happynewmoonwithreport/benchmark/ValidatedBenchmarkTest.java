@@ -0,0 +1,196 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionBody;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.S32;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro benchmark of the validated execution engine.  Compares the instruction stream, where
+ * every opcode checks the types of its operands, with the validated engine, which runs the same
+ * stream on the primitive operand stack with no checks.
+ * <br>
+ * The bundled test modules are run, and a memory heavy function that shows the cost of the
+ * memory checks of the loads and stores.
+ */
+@Tag("benchmark")
+public class ValidatedBenchmarkTest {
+
+	private static final int CALL_COUNT = 20_000;
+	private static final int WARM_UP = 10;
+	private static final int ROUNDS = 20;
+
+	@Test
+	public void add32() throws Exception {
+		compare("./src/test/resources/add32/add32.wasm", "add32", 3, 4);
+	}
+
+	@Test
+	public void i32Sub() throws Exception {
+		compare("./src/test/resources/i32Sub/I32Sub.wasm", "i32Sub", 3, 7);
+	}
+
+	@Test
+	public void i32Equal() throws Exception {
+		compare("./src/test/resources/i32Equal/i32Equal.wasm", "i32Equal", 0xAAAA, 0xAAAA);
+	}
+
+	@Test
+	public void blockSingular() throws Exception {
+		compare("./src/test/resources/wasm-project Block-Singular/out/main.wasm", "singular");
+	}
+
+	/**
+	 * A block, a loop and two br_if.  The parameter is 5 to 20.
+	 */
+	@Test
+	public void factorialLong() throws Exception {
+		compare("./src/test/resources/factorialLong/factorialLong.wasm", "factorialLong", 5);
+	}
+
+	/**
+	 * 50 times <code>i32.const 16; local.get 0; i32.const 1; i32.add; i32.store; i32.const 16;
+	 * i32.load; local.set 0</code> then <code>local.get 0</code>.
+	 */
+	@Test
+	public void memoryHeavy() {
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		code.write(0x00); // no locals
+		for (int i = 0; i < 50; i++) {
+			code.write(0x41); // i32.const 16
+			code.write(0x10);
+			code.write(0x20); // local.get 0
+			code.write(0x00);
+			code.write(0x41); // i32.const 1
+			code.write(0x01);
+			code.write(0x6A); // i32.add
+			code.write(0x36); // i32.store align=2 offset=0
+			code.write(0x02);
+			code.write(0x00);
+			code.write(0x41); // i32.const 16
+			code.write(0x10);
+			code.write(0x28); // i32.load align=2 offset=0
+			code.write(0x02);
+			code.write(0x00);
+			code.write(0x21); // local.set 0
+			code.write(0x00);
+		}
+		code.write(0x20); // local.get 0
+		code.write(0x00);
+		code.write(0x0B); // end
+		byte[] codeAll = code.toByteArray();
+		byte[] bodyAll = new byte[codeAll.length + 2];
+		bodyAll[0] = (byte) (0x80 | (codeAll.length & 0x7F)); // body size, 2 byte LEB128
+		bodyAll[1] = (byte) (codeAll.length >> 7);
+		System.arraycopy(codeAll, 0, bodyAll, 2, codeAll.length);
+
+		WasmFunction function = new WasmFunction(new UInt32(0), new WasmVector<>(),
+			new FunctionBody(new BytesFile(bodyAll)));
+		WasmModule streamModule = memoryModule(ExecutionEngine.INSTRUCTION_STREAM);
+		WasmModule validatedModule = memoryModule(ExecutionEngine.VALIDATED);
+
+		compare(new WasmInstance(streamModule), new WasmInstance(validatedModule), function,
+			"memoryHeavy", 1);
+		assertTrue(function.isValidated());
+	}
+
+	private WasmModule memoryModule(ExecutionEngine executionEngine) {
+		WasmVector<ValueType> i32All = new WasmVector<>();
+		i32All.add(ValueType.INT32);
+		WasmModule module = new WasmModule();
+		module.setExecutionEngine(executionEngine);
+		module.getTypes().add(new FunctionType(new UInt32(1), i32All, new UInt8(1), i32All));
+		module.addMemory(new MemoryType(new UInt8(0), new UInt32(1)));
+		return module;
+	}
+
+	private void compare(String path, String functionName, Integer... paramAll) throws Exception {
+		WasmInstance stream = instance(path, ExecutionEngine.INSTRUCTION_STREAM);
+		WasmInstance validated = instance(path, ExecutionEngine.VALIDATED);
+		compare(stream, validated, validated.exportFunction(functionName), functionName,
+			paramAll);
+	}
+
+	private void compare(WasmInstance stream, WasmInstance validated, WasmFunction function,
+						 String name, Integer... paramAll) {
+		long streamNanos = 0;
+		long validatedNanos = 0;
+		long streamSum = 0;
+		long validatedSum = 0;
+		for (int round = 0; round < WARM_UP + ROUNDS; round++) {
+			long start = System.nanoTime();
+			streamSum = run(stream, function, paramAll);
+			long middle = System.nanoTime();
+			validatedSum = run(validated, function, paramAll);
+			long end = System.nanoTime();
+			if (WARM_UP <= round) {
+				streamNanos += middle - start;
+				validatedNanos += end - middle;
+			}
+		}
+		assertEquals(streamSum, validatedSum);
+		report(name, streamNanos, validatedNanos);
+	}
+
+	private WasmInstance instance(String path, ExecutionEngine executionEngine) throws Exception {
+		Wasm wasm = new Wasm(path);
+		WasmModule module = wasm.instantiate();
+		assertTrue(wasm.validate());
+		module.setExecutionEngine(executionEngine);
+		return new WasmInstance(module);
+	}
+
+	private long run(WasmInstance instance, WasmFunction function, Integer... paramAll) {
+		long sum = 0;
+		for (int i = 0; i < CALL_COUNT; i++) {
+			WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+			WasmVector<DataTypeNumber> parameterAll = new WasmVector<>(paramAll.length);
+			for (Integer param : paramAll) {
+				parameterAll.add(new S32(param + (i & 0xF)));
+			}
+			instance.call(function, returnAll, parameterAll);
+			sum += returnAll.get(0).longValue();
+		}
+		return sum;
+	}
+
+	private void report(String name, long streamNanos, long validatedNanos) {
+		double callCount = (double) CALL_COUNT * ROUNDS;
+		System.out.printf("%s: instruction stream %.1f ns/call, validated %.1f ns/call, speed up "
+						  + "%.2fx%n", name, streamNanos / callCount, validatedNanos / callCount,
+			(double) streamNanos / validatedNanos);
+	}
+}
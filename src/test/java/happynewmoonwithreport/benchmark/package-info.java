@@ -0,0 +1,24 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+/**
+ * Micro benchmarks, tagged <code>benchmark</code>.  They are left out of the tests and run with
+ * <code>gradlew benchmark</code>.
+ * <br>
+ * Not a replacement for JMH.  The numbers are printed so they can be compared between runs; each
+ * test only asserts that the ways it compares return the same values.
+ */
+package happynewmoonwithreport.benchmark;
@@ -18,12 +18,20 @@ package happynewmoonwithreport.intergration;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 import java.io.File;
 
 import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
 import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.WasmVector;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -46,40 +54,31 @@ public class WasmFactorialLongTest {
 	public void tearDown() throws Exception {
 	}
 
-	//    /**
-	//     * This an end to end test
-	//     */
-	//    @Test
-	//    public void wasmTest() {
-	//
-	//        assertTrue(wasm.validate());
-	//
-	//        assertEquals(new UInt32(1), wasm.getFunctionSignatures().getCount());
-	//
-	//        assertEquals(2, wasm.exports().size());
-	//        Assert.assertEquals(new ExternalKind(ExternalKind.memory), wasm.exports().get(0)
-	//        .getExternalKind());
-	//        assertEquals("memory", wasm.exports().get(0).getFieldName().getValue());
-	//
-	//        assertEquals(new ExternalKind(ExternalKind.function), wasm.exports().get(1)
-	//        .getExternalKind());
-	//        assertEquals("factorialLong", wasm.exports().get(1).getFieldName().getValue());
-	//
-	//        WasmInstance instance = new WasmInstance(module);
-	//        assertNotNull(instance.stack());
-	//        WasmFunction functionFactorial = instance.exportFunction("factorialLong");
-	//
-	//        WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
-	//        WasmVector<DataTypeNumber> paramAll = new WasmVector<>(2);
-	//        paramAll.add(new I32(5));
-	//
-	//        instance.call(functionFactorial, returnAll, paramAll);
-	//
-	//        assertNotNull(returnAll);
-	//        assertEquals(1, returnAll.size());
-	//        assertEquals(new S32(120), returnAll.get(0));
-	//
-	//
-	//    }
+	/**
+	 * This an end to end test.  factorialLong has a block, a loop and two br_if.
+	 */
+	@Test
+	public void wasmTest() {
+		assertTrue(wasm.validate());
+
+		for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+			if (executionEngine == ExecutionEngine.BYTE_CODE) {
+				// the byte code loop does not run loop and br_if.
+				continue;
+			}
+			module.setExecutionEngine(executionEngine);
+			WasmInstance instance = new WasmInstance(module);
+			WasmFunction functionFactorial = instance.exportFunction("factorialLong");
+
+			WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+			WasmVector<DataTypeNumber> paramAll = new WasmVector<>(1);
+			paramAll.add(new I32(5));
+
+			instance.call(functionFactorial, returnAll, paramAll);
+
+			assertEquals(1, returnAll.size());
+			assertEquals(new I32(120), returnAll.get(0));
+		}
+	}
 
 }
@@ -0,0 +1,184 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionBody;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmDivideByZeroException;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmTrapException;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.I64;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.Test;
+
+public class BytecodeCompilerTest {
+
+	/**
+	 * <code>select(param, 10, param &lt;u 5)</code>.
+	 */
+	@Test
+	public void unsignedCompareAndSelect() {
+		byte[] byteAll = {
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x0A, // i32.const 10
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x05, // i32.const 5
+			(byte) 0x49, // i32.lt_u
+			(byte) 0x1B, // select
+		};
+
+		assertEquals(3, callI32(byteAll, 3));
+		assertEquals(10, callI32(byteAll, -1));
+	}
+
+	/**
+	 * <code>(param &lt;&lt; 40) | 5</code>, an i64 local is a JVM long.
+	 */
+	@Test
+	public void i64() {
+		byte[] byteAll = {
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x42, (byte) 0x28, // i64.const 40
+			(byte) 0x86, // i64.shl
+			(byte) 0x42, (byte) 0x05, // i64.const 5
+			(byte) 0x84, // i64.or
+		};
+
+		DataTypeNumber result = call(byteAll, ValueType.INT64, new I64(3L));
+		assertEquals(Long.valueOf((3L << 40) | 5), result.longValue());
+	}
+
+	/**
+	 * f64.sqrt has no JVM instruction, it is run by its handler.  <code>(sqrt(16.0) == 4.0) +
+	 * param</code>.
+	 */
+	@Test
+	public void bridged() {
+		assertEquals(8, callI32(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x44, 0, 0, 0, 0, 0, 0, (byte) 0x30, (byte) 0x40, // f64.const 16.0
+			(byte) 0x9F, // f64.sqrt
+			(byte) 0x44, 0, 0, 0, 0, 0, 0, (byte) 0x10, (byte) 0x40, // f64.const 4.0
+			(byte) 0x61, // f64.eq
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x6A, // i32.add
+		}, 7));
+	}
+
+	@Test
+	public void loadAndStore() {
+		assertEquals(12, callI32(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x41, (byte) 0x10, // i32.const 16
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x36, (byte) 0x02, (byte) 0x00, // i32.store
+			(byte) 0x41, (byte) 0x10, // i32.const 16
+			(byte) 0x28, (byte) 0x02, (byte) 0x00, // i32.load
+			(byte) 0x41, (byte) 0x02, // i32.const 2
+			(byte) 0x6C, // i32.mul
+		}, 6));
+	}
+
+	@Test
+	public void divideByZeroTraps() {
+		assertThrows(WasmDivideByZeroException.class, () -> callI32(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x41, (byte) 0x07, // i32.const 7
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x6D, // i32.div_s
+		}, 0));
+	}
+
+	@Test
+	public void unreachableTraps() {
+		assertThrows(WasmTrapException.class, () -> callI32(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x00, // unreachable
+		}, 0));
+	}
+
+	/**
+	 * Each function is a class of its own, defined by a class loader of its own.
+	 */
+	@Test
+	public void classLoaderOfItsOwn() {
+		byte[] bodyAll = {
+			(byte) 0x04, // body size
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x0B, // end
+		};
+		WasmFunction function = new WasmFunction(new UInt32(0), new WasmVector<>(),
+			new FunctionBody(new BytesFile(bodyAll)));
+		WasmModule module = module(ValueType.INT32);
+		FunctionValidator validator = function.validate(module);
+		assertTrue(validator.isValid());
+
+		CompiledFunction first = new BytecodeCompiler().compile(function.getInstructionStream(),
+			validator);
+		CompiledFunction second = new BytecodeCompiler().compile(function.getInstructionStream(),
+			validator);
+
+		assertNotNull(first);
+		assertNotSame(first.getClass(), second.getClass());
+		assertNotSame(first.getClass().getClassLoader(), second.getClass().getClassLoader());
+		assertNotSame(BytecodeCompiler.class.getClassLoader(), first.getClass().getClassLoader());
+		assertEquals(Integer.valueOf(1), first.getReturnCount());
+	}
+
+	private int callI32(byte[] localAndCodeAll, int param) {
+		return call(localAndCodeAll, ValueType.INT32, new I32(param)).integerValue();
+	}
+
+	/**
+	 * Run a function (t) -> t on the compiled engine.
+	 *
+	 * @param localAndCodeAll the locals and the code, without the final end.
+	 */
+	private DataTypeNumber call(byte[] localAndCodeAll, ValueType type, DataTypeNumber param) {
+		WasmModule module = FunctionFixture.module(localAndCodeAll, type, ExecutionEngine.COMPILED);
+		DataTypeNumber result = FunctionFixture.call(module, param);
+
+		assertNotNull(module.getFunctionAll().get(0).getCompiledFunction(module));
+		return result;
+	}
+
+	private WasmModule module(ValueType type) {
+		WasmVector<ValueType> typeAll = new WasmVector<>();
+		typeAll.add(type);
+		WasmModule module = new WasmModule();
+		module.getTypes().add(new FunctionType(new UInt32(1), typeAll, new UInt8(1), typeAll));
+		module.addMemory(new MemoryType(new UInt8(0), new UInt32(1)));
+		return module;
+	}
+}
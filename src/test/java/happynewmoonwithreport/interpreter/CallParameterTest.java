@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.I64;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The validated engines do not check the operands of the code, so the parameters of a call are
+ * checked against the type of the function before the function runs.
+ */
+public class CallParameterTest {
+
+	private static final ExecutionEngine[] VALIDATED_ALL = {ExecutionEngine.VALIDATED,
+		ExecutionEngine.REGISTER, ExecutionEngine.NODE_TREE, ExecutionEngine.COMPILED,
+		ExecutionEngine.TIERED};
+
+	/**
+	 * (i32) -> i32, param + 1.
+	 */
+	private static final byte[] ADD_ONE = {
+		(byte) 0x00, // no locals
+		(byte) 0x20, (byte) 0x00, // local.get 0
+		(byte) 0x41, (byte) 0x01, // i32.const 1
+		(byte) 0x6A, // i32.add
+	};
+
+	@Test
+	public void matchingParameter() {
+		for (ExecutionEngine executionEngine : VALIDATED_ALL) {
+			assertEquals(6, FunctionFixture.call(ADD_ONE, 5, executionEngine),
+				executionEngine.name());
+		}
+	}
+
+	@Test
+	public void wrongType() {
+		for (ExecutionEngine executionEngine : VALIDATED_ALL) {
+			assertThrows(WasmRuntimeException.class, () -> call(executionEngine, new I64(5L)));
+		}
+	}
+
+	@Test
+	public void noParameter() {
+		for (ExecutionEngine executionEngine : VALIDATED_ALL) {
+			assertThrows(WasmRuntimeException.class, () -> call(executionEngine));
+		}
+	}
+
+	@Test
+	public void tooManyParameters() {
+		for (ExecutionEngine executionEngine : VALIDATED_ALL) {
+			assertThrows(WasmRuntimeException.class,
+				() -> call(executionEngine, new I32(5), new I32(6)));
+		}
+	}
+
+	private void call(ExecutionEngine executionEngine, DataTypeNumber... paramArray) {
+		WasmModule module = FunctionFixture.module(ADD_ONE, ValueType.INT32, executionEngine);
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>(paramArray.length);
+		for (DataTypeNumber param : paramArray) {
+			paramAll.add(param);
+		}
+		new WasmInstance(module).call(module.getFunctionAll().get(0), new WasmVector<>(), paramAll);
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import happynewmoonwithreport.BytesFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The control instructions, and straight line code, on each execution engine that runs them.
+ */
+public class ControlFlowTest {
+
+	@Test
+	public void sideTable() {
+		byte[] byteAll = {
+			(byte) 0x02, (byte) 0x40, // 0: block
+			(byte) 0x03, (byte) 0x40, // 2: loop
+			(byte) 0x0C, (byte) 0x00, // 4: br 0, to the loop
+			(byte) 0x0C, (byte) 0x01, // 6: br 1, to the end of the block
+			(byte) 0x0B, // 8: end
+			(byte) 0x0B, // 9: end
+			(byte) 0x0F, // 10: return
+		};
+
+		InstructionStream stream = new InstructionStreamTranslator().translate(new BytesFile(byteAll));
+
+		assertEquals(4, stream.getTargetAll()[5]);
+		assertEquals(9, stream.getTargetAll()[7]);
+		assertEquals(11, stream.getTargetAll()[10]);
+		assertEquals(InstructionStream.FUNCTION_ARITY, stream.getArityAll()[10]);
+	}
+
+	@Test
+	public void sideTableIfElse() {
+		byte[] byteAll = {
+			(byte) 0x20, (byte) 0x00, // 0: local.get 0
+			(byte) 0x04, (byte) 0x7F, // 2: if i32
+			(byte) 0x41, (byte) 0x01, // 4: i32.const 1
+			(byte) 0x05, // 6: else
+			(byte) 0x41, (byte) 0x02, // 7: i32.const 2
+			(byte) 0x0B, // 9: end
+		};
+
+		InstructionStream stream = new InstructionStreamTranslator().translate(new BytesFile(byteAll));
+
+		assertArrayEquals(new int[]{0x20, 0, 0x04, -1, 0x41, 1, 0x05, 0x41, 2, 0x0B},
+			stream.getCode());
+		assertEquals(7, stream.getTargetAll()[3]);
+		assertEquals(9, stream.getTargetAll()[6]);
+	}
+
+	/**
+	 * Straight line code, no control instruction.  <code>(param * 3 + 7) - param</code>.
+	 */
+	@Test
+	public void expression() {
+		byte[] byteAll = {
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x03, // i32.const 3
+			(byte) 0x6C, // i32.mul
+			(byte) 0x41, (byte) 0x07, // i32.const 7
+			(byte) 0x6A, // i32.add
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x6B, // i32.sub
+		};
+
+		assertAll(byteAll, 15, 37);
+	}
+
+	/**
+	 * <code>if (param) 10 else 20</code>.
+	 */
+	@Test
+	public void ifElse() {
+		byte[] byteAll = {
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x04, (byte) 0x7F, // if i32
+			(byte) 0x41, (byte) 0x0A, // i32.const 10
+			(byte) 0x05, // else
+			(byte) 0x41, (byte) 0x14, // i32.const 20
+			(byte) 0x0B, // end
+		};
+
+		assertAll(byteAll, 1, 10);
+		assertAll(byteAll, 0, 20);
+	}
+
+	/**
+	 * A branch out of two blocks keeps one value and drops the others.
+	 */
+	@Test
+	public void branchKeepsValue() {
+		byte[] byteAll = {
+			(byte) 0x00, // no locals
+			(byte) 0x02, (byte) 0x7F, // block i32
+			(byte) 0x41, (byte) 0x07, // i32.const 7
+			(byte) 0x02, (byte) 0x40, // block
+			(byte) 0x41, (byte) 0x08, // i32.const 8
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x0D, (byte) 0x01, // br_if 1
+			(byte) 0x1A, // drop
+			(byte) 0x0B, // end
+			(byte) 0x1A, // drop
+			(byte) 0x41, (byte) 0x09, // i32.const 9
+			(byte) 0x0B, // end
+		};
+
+		assertAll(byteAll, 1, 8);
+		assertAll(byteAll, 0, 9);
+	}
+
+	/**
+	 * <code>br_table 0 1 2</code> with a result for each label.
+	 */
+	@Test
+	public void branchTable() {
+		byte[] byteAll = {
+			(byte) 0x00, // no locals
+			(byte) 0x02, (byte) 0x40, // block
+			(byte) 0x02, (byte) 0x40, // block
+			(byte) 0x02, (byte) 0x40, // block
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x0E, (byte) 0x02, (byte) 0x00, (byte) 0x01, (byte) 0x02, // br_table 0 1 2
+			(byte) 0x0B, // end
+			(byte) 0x41, (byte) 0x0A, // i32.const 10
+			(byte) 0x0F, // return
+			(byte) 0x0B, // end
+			(byte) 0x41, (byte) 0x14, // i32.const 20
+			(byte) 0x0F, // return
+			(byte) 0x0B, // end
+			(byte) 0x41, (byte) 0x1E, // i32.const 30
+		};
+
+		assertAll(byteAll, 0, 10);
+		assertAll(byteAll, 1, 20);
+		assertAll(byteAll, 2, 30);
+		assertAll(byteAll, -1, 30);
+	}
+
+	/**
+	 * Sum 1 to n with a loop.
+	 */
+	@Test
+	public void loop() {
+		byte[] byteAll = {
+			(byte) 0x01, (byte) 0x01, (byte) 0x7F, // one local i32, the sum
+			(byte) 0x03, (byte) 0x40, // loop
+			(byte) 0x20, (byte) 0x01, // local.get 1
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x6A, // i32.add
+			(byte) 0x21, (byte) 0x01, // local.set 1
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x01, // i32.const 1
+			(byte) 0x6B, // i32.sub
+			(byte) 0x21, (byte) 0x00, // local.set 0
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x0D, (byte) 0x00, // br_if 0
+			(byte) 0x0B, // end
+			(byte) 0x20, (byte) 0x01, // local.get 1
+		};
+
+		assertAll(byteAll, 10, 55);
+	}
+
+	private void assertAll(byte[] localAndCodeAll, int param, int expected) {
+		for (ExecutionEngine executionEngine : new ExecutionEngine[]{
+			ExecutionEngine.INSTRUCTION_STREAM, ExecutionEngine.VALIDATED, ExecutionEngine.REGISTER,
+			ExecutionEngine.NODE_TREE, ExecutionEngine.COMPILED, ExecutionEngine.TIERED}) {
+			assertEquals(expected, FunctionFixture.call(localAndCodeAll, param, executionEngine),
+				executionEngine.name());
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionBody;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+
+/**
+ * A module of one function (t) -> t and memory 0, run on an execution engine.  Used by the
+ * tests of the engines.
+ */
+final class FunctionFixture {
+
+	private FunctionFixture() {
+		super();
+	}
+
+	/**
+	 * Run a function (i32) -> i32.
+	 *
+	 * @param localAndCodeAll the locals and the code, without the final end.
+	 * @param param           the parameter.
+	 * @param executionEngine the engine to run on.
+	 * @return the result.
+	 */
+	static int call(byte[] localAndCodeAll, int param, ExecutionEngine executionEngine) {
+		WasmModule module = module(localAndCodeAll, ValueType.INT32, executionEngine);
+		return call(module, new I32(param)).integerValue();
+	}
+
+	/**
+	 * Run the function of a module built by {@link #module}.
+	 *
+	 * @param module the module.
+	 * @param param  the parameter.
+	 * @return the one result.
+	 */
+	static DataTypeNumber call(WasmModule module, DataTypeNumber param) {
+		WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>(1);
+		paramAll.add(param);
+		new WasmInstance(module).call(module.getFunctionAll().get(0), returnAll, paramAll);
+
+		assertEquals(1, returnAll.size());
+		return returnAll.get(0);
+	}
+
+	/**
+	 * A module of one function (t) -> t and memory 0.  The function is validated unless the
+	 * engine is {@link ExecutionEngine#INSTRUCTION_STREAM}, and must be valid.
+	 *
+	 * @param localAndCodeAll the locals and the code, without the final end.
+	 * @param type            the type of the parameter and of the result.
+	 * @param executionEngine the engine to run on.
+	 * @return the module.
+	 */
+	static WasmModule module(byte[] localAndCodeAll, ValueType type,
+							 ExecutionEngine executionEngine) {
+		byte[] bodyAll = new byte[localAndCodeAll.length + 2];
+		bodyAll[0] = (byte) (localAndCodeAll.length + 1); // body size
+		System.arraycopy(localAndCodeAll, 0, bodyAll, 1, localAndCodeAll.length);
+		bodyAll[bodyAll.length - 1] = 0x0B; // end
+		WasmFunction function = new WasmFunction(new UInt32(0), new WasmVector<>(),
+			new FunctionBody(new BytesFile(bodyAll)));
+
+		WasmVector<ValueType> typeAll = new WasmVector<>();
+		typeAll.add(type);
+		WasmModule module = new WasmModule();
+		module.getTypes().add(new FunctionType(new UInt32(1), typeAll, new UInt8(1), typeAll));
+		module.getFunctionAll().add(function);
+		module.addMemory(new MemoryType(new UInt8(0), new UInt32(1)));
+		module.setExecutionEngine(executionEngine);
+		if (executionEngine != ExecutionEngine.INSTRUCTION_STREAM) {
+			assertTrue(module.validateFunctions());
+			assertTrue(function.isValidated(), function.validate(module).getErrorMessage());
+		}
+		return module;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+public class FunctionValidatorTest {
+
+	/**
+	 * (i32, i32) -> i32
+	 */
+	private FunctionType i32Binary() {
+		WasmVector<ValueType> paramAll = new WasmVector<>();
+		paramAll.add(ValueType.INT32);
+		paramAll.add(ValueType.INT32);
+		WasmVector<ValueType> returnAll = new WasmVector<>();
+		returnAll.add(ValueType.INT32);
+		return new FunctionType(new UInt32(2), paramAll, new UInt8(1), returnAll);
+	}
+
+	private Boolean validate(FunctionValidator validator, byte... byteAll) {
+		return validator.validate(new InstructionStreamTranslator().translate(new BytesFile(byteAll)));
+	}
+
+	@Test
+	public void valid() {
+		FunctionValidator validator = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+
+		Boolean result = validate(validator,
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x20, (byte) 0x01, // local.get 1
+			(byte) 0x41, (byte) 0x05, // i32.const 5
+			(byte) 0x6A, // i32.add
+			(byte) 0x6B); // i32.sub
+
+		assertTrue(result, validator.getErrorMessage());
+		assertEquals(3, validator.getMaxStackHeight().intValue());
+		assertEquals(1, validator.getReturnTypeAll().length);
+	}
+
+	@Test
+	public void typeMismatch() {
+		FunctionValidator validator = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+
+		Boolean result = validate(validator,
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x42, (byte) 0x01, // i64.const 1
+			(byte) 0x6A); // i32.add
+
+		assertFalse(result);
+		assertTrue(validator.getErrorMessage().contains("Type mismatch"));
+	}
+
+	@Test
+	public void localDoesNotExist() {
+		FunctionValidator validator = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+
+		assertFalse(validate(validator, (byte) 0x20, (byte) 0x02)); // local.get 2
+	}
+
+	@Test
+	public void declaredLocal() {
+		ArrayList<ValueType> localEntryAll = new ArrayList<>();
+		localEntryAll.add(ValueType.INT64);
+		FunctionValidator validator = new FunctionValidator(i32Binary(), localEntryAll, 0);
+
+		Boolean result = validate(validator,
+			(byte) 0x42, (byte) 0x07, // i64.const 7
+			(byte) 0x21, (byte) 0x02, // local.set 2
+			(byte) 0x20, (byte) 0x00); // local.get 0
+
+		assertTrue(result, validator.getErrorMessage());
+		assertEquals(3, validator.getLocalTypeAll().length);
+	}
+
+	@Test
+	public void valuesLeftOnStack() {
+		FunctionValidator validator = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+
+		assertFalse(validate(validator,
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x20, (byte) 0x01)); // local.get 1
+	}
+
+	@Test
+	public void typeDoesNotExist() {
+		FunctionValidator validator = new FunctionValidator(null, new ArrayList<>(), 0);
+
+		assertFalse(validate(validator, (byte) 0x01)); // nop
+	}
+
+	@Test
+	public void loadNeedsMemory() {
+		byte[] byteAll = {
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x28, (byte) 0x02, (byte) 0x00, // i32.load
+		};
+		FunctionValidator noMemory = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+		FunctionValidator memory = new FunctionValidator(i32Binary(), new ArrayList<>(), 1);
+
+		assertFalse(validate(noMemory, byteAll));
+		assertTrue(noMemory.isImplemented());
+		assertTrue(validate(memory, byteAll), memory.getErrorMessage());
+	}
+
+	@Test
+	public void notImplemented() {
+		FunctionValidator validator = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+
+		assertFalse(validate(validator, (byte) 0x10, (byte) 0x00)); // call 0
+		assertFalse(validator.isImplemented());
+	}
+
+	@Test
+	public void labelDoesNotExist() {
+		FunctionValidator validator = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+
+		assertFalse(validate(validator,
+			(byte) 0x02, (byte) 0x40, // block
+			(byte) 0x0C, (byte) 0x02, // br 2
+			(byte) 0x0B)); // end
+		assertTrue(validator.isImplemented());
+	}
+
+	@Test
+	public void branchHeight() {
+		FunctionValidator validator = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+
+		Boolean result = validate(validator,
+			(byte) 0x20, (byte) 0x00, // 0: local.get 0
+			(byte) 0x02, (byte) 0x7F, // 2: block i32
+			(byte) 0x41, (byte) 0x01, // 4: i32.const 1
+			(byte) 0x41, (byte) 0x02, // 6: i32.const 2
+			(byte) 0x0C, (byte) 0x00, // 8: br 0
+			(byte) 0x0B, // 10: end
+			(byte) 0x6A); // 11: i32.add
+
+		assertTrue(result, validator.getErrorMessage());
+		assertEquals(1, validator.getBranchHeightAll()[9]);
+		assertEquals(1, validator.getBranchArityAll()[9]);
+	}
+
+	@Test
+	public void ifWithResultNeedsElse() {
+		FunctionValidator validator = new FunctionValidator(i32Binary(), new ArrayList<>(), 0);
+
+		assertFalse(validate(validator,
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x04, (byte) 0x7F, // if i32
+			(byte) 0x41, (byte) 0x01, // i32.const 1
+			(byte) 0x0B)); // end
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.WasmFrame;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.WasmStore;
+import happynewmoonwithreport.opcode.WasmInstanceStub;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.MemoryArgument;
+import org.junit.jupiter.api.Test;
+
+public class HandlerTableTest {
+
+	@Test
+	public void execute() {
+		byte[] byteAll = {
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x05, // i32.const 5
+			(byte) 0x6A, // i32.add
+			(byte) 0x01, // nop
+			(byte) 0xFC, (byte) 0x00, // i32.trunc_sat_f32_s, not implemented
+		};
+		InstructionStream stream = new InstructionStreamTranslator().translate(new BytesFile(byteAll));
+
+		WasmInstanceStub instance = new WasmInstanceStub();
+		WasmFrame frame = new WasmFrame(new WasmModule());
+		frame.localAll().add(new I32(3));
+		StreamInterpreter interpreter = new StreamInterpreter(instance, frame, new WasmStore());
+
+		interpreter.execute(stream);
+		interpreter.execute(stream);
+
+		assertEquals(2, instance.stack().size());
+		assertEquals(new I32(8), instance.stack().pop());
+		assertEquals(new I32(8), instance.stack().pop());
+	}
+
+	@Test
+	public void handlerIsShared() {
+		OpcodeHandler i32Add = HandlerTable.get(0x6A);
+
+		assertSame(i32Add, HandlerTable.get(0x6A));
+		assertSame(HandlerTable.getPrefixFc(0x00), HandlerTable.getPrefixFc(0x07));
+	}
+
+	@Test
+	public void unknownOpcode() {
+		StreamInterpreter interpreter = new StreamInterpreter(new WasmInstanceStub(),
+			new WasmFrame(new WasmModule()), new WasmStore());
+		InstructionStream stream = new InstructionStream(new int[]{0x01, 0x06}, new long[0],
+			new MemoryArgument[0], 2, 2);
+
+		WasmRuntimeException exception = assertThrows(WasmRuntimeException.class,
+			() -> interpreter.execute(stream));
+
+		assertEquals("2d7f4b91-6c3e-4a58-b0e2-8f1a5c9d3e67", exception.getUuid().toString());
+	}
+}
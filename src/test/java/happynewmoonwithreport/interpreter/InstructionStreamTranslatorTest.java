@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.MemoryArgument;
+import org.junit.jupiter.api.Test;
+
+public class InstructionStreamTranslatorTest {
+
+	@Test
+	public void translate() {
+		byte[] byteAll = {
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x7F, // i32.const -1
+			(byte) 0x6A, // i32.add
+			(byte) 0x28, (byte) 0x02, (byte) 0x08, // i32.load align = 2 offset = 8
+			(byte) 0x42, (byte) 0x80, (byte) 0x01, // i64.const 128
+			(byte) 0x44, 0, 0, 0, 0, 0, 0, (byte) 0xF8, (byte) 0x3F, // f64.const 1.5
+			(byte) 0x43, 0, 0, (byte) 0xC0, (byte) 0x3F, // f32.const 1.5
+			(byte) 0x02, (byte) 0x40, // block, empty
+			(byte) 0x0B, // end
+			(byte) 0x3F, (byte) 0x00, // memory.size
+		};
+
+		InstructionStream stream = new InstructionStreamTranslator().translate(new BytesFile(byteAll));
+
+		int[] expected = {0x20, 0, 0x41, -1, 0x6A, 0x28, 0, 0x42, 0, 0x44, 1, 0x43,
+			Float.floatToRawIntBits(1.5F), 0x02, -64, 0x0B, 0x3F};
+		assertArrayEquals(expected, stream.getCode());
+		assertArrayEquals(new long[]{128L, Double.doubleToRawLongBits(1.5D)},
+			stream.getConstantAll());
+
+		assertEquals(1, stream.getMemoryArgumentAll().length);
+		MemoryArgument memoryArgument = stream.getMemoryArgumentAll()[0];
+		assertEquals(Long.valueOf(8), memoryArgument.getOffest().longValue());
+		assertEquals(Long.valueOf(2), memoryArgument.getAlign().longValue());
+
+		assertEquals(Integer.valueOf(10), stream.getInstructionCount());
+		assertEquals(Integer.valueOf(byteAll.length), stream.getByteLength());
+	}
+
+	@Test
+	public void translateBranchTable() {
+		byte[] byteAll = {
+			(byte) 0x0E, (byte) 0x02, (byte) 0x00, (byte) 0x01, (byte) 0x02, // br_table 0 1 2
+			(byte) 0x0D, (byte) 0x01, // br_if 1
+		};
+
+		InstructionStream stream = new InstructionStreamTranslator().translate(new BytesFile(byteAll));
+
+		assertArrayEquals(new int[]{0x0E, 2, 0, 1, 2, 0x0D, 1}, stream.getCode());
+	}
+
+	@Test
+	public void translateUnknownOpcode() {
+		byte[] byteAll = {(byte) 0x01, (byte) 0x06};
+
+		WasmRuntimeException exception = assertThrows(WasmRuntimeException.class,
+			() -> new InstructionStreamTranslator().translate(new BytesFile(byteAll)));
+
+		assertEquals("a5e0c2f4-3b1d-4e87-9c6a-0d2f7b8e1c34", exception.getUuid().toString());
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class NodeTranslatorTest {
+
+	/**
+	 * A local that is still on the stack is computed before it is written.
+	 */
+	@Test
+	public void localWrittenWhileOnStack() {
+		assertEquals(7, call(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x09, // i32.const 9
+			(byte) 0x22, (byte) 0x00, // local.tee 0
+			(byte) 0x1A, // drop
+		}, 7));
+	}
+
+	/**
+	 * i32.div_s has no node of its own, it is bridged.
+	 */
+	@Test
+	public void bridged() {
+		assertEquals(-3, call(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x03, // i32.const 3
+			(byte) 0x6D, // i32.div_s
+			(byte) 0x41, (byte) 0x01, // i32.const 1
+			(byte) 0x6A, // i32.add
+		}, -12));
+	}
+
+	/**
+	 * The load is computed before the store that follows it changes the memory.
+	 */
+	@Test
+	public void loadBeforeStore() {
+		assertEquals(5, call(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x41, (byte) 0x10, // i32.const 16
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x36, (byte) 0x02, (byte) 0x00, // i32.store
+			(byte) 0x41, (byte) 0x10, // i32.const 16
+			(byte) 0x28, (byte) 0x02, (byte) 0x00, // i32.load
+			(byte) 0x41, (byte) 0x10, // i32.const 16
+			(byte) 0x41, (byte) 0x00, // i32.const 0
+			(byte) 0x36, (byte) 0x02, (byte) 0x00, // i32.store
+		}, 5));
+	}
+
+	private int call(byte[] localAndCodeAll, int param) {
+		return FunctionFixture.call(localAndCodeAll, param, ExecutionEngine.NODE_TREE);
+	}
+}
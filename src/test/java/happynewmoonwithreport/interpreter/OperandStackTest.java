@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.WasmStack;
+import happynewmoonwithreport.type.F32;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.I64;
+import org.junit.jupiter.api.Test;
+
+public class OperandStackTest {
+
+	@Test
+	public void pushPop() {
+		OperandStack stack = new OperandStack(2);
+
+		stack.pushI32(-7);
+		stack.pushI64(Long.MIN_VALUE);
+		stack.pushF32(Float.NaN);
+		stack.pushF64(-0.0D);
+
+		assertEquals(4, stack.size());
+		assertEquals(Double.doubleToRawLongBits(-0.0D), Double.doubleToRawLongBits(stack.popF64()));
+		assertTrue(Float.isNaN(stack.popF32()));
+		assertEquals(Long.MIN_VALUE, stack.popI64());
+		assertEquals(-7, stack.popI32());
+		assertTrue(stack.isEmpty());
+	}
+
+	@Test
+	public void popEmpty() {
+		OperandStack stack = new OperandStack();
+
+		WasmRuntimeException exception = assertThrows(WasmRuntimeException.class, stack::pop);
+
+		assertEquals("c7e0f6a2-4b9d-4d31-8a5e-2f1b7c3d9e08", exception.getUuid().toString());
+	}
+
+	@Test
+	public void adapter() {
+		OperandStack operandStack = new OperandStack();
+		WasmStack<Object> wasmStack = new WasmStack<>();
+		wasmStack.push(new I32(3));
+		wasmStack.push(new I64(4L));
+		wasmStack.push(new F32(1.5F));
+
+		OperandStackAdapter.toOperandStack(wasmStack, operandStack, 3);
+		assertEquals(0, wasmStack.size());
+		assertEquals(1.5F, operandStack.popF32());
+
+		OperandStackAdapter.toWasmStack(operandStack, wasmStack,
+			new ValueType[]{ValueType.INT32, ValueType.INT64});
+		assertEquals(new I64(4L), wasmStack.pop());
+		assertEquals(new I32(3), wasmStack.pop());
+	}
+}
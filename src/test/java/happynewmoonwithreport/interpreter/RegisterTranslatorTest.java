@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+public class RegisterTranslatorTest {
+
+	/**
+	 * (i32, i32) -> i32
+	 */
+	private FunctionType i32Binary() {
+		WasmVector<ValueType> paramAll = new WasmVector<>();
+		paramAll.add(ValueType.INT32);
+		paramAll.add(ValueType.INT32);
+		WasmVector<ValueType> returnAll = new WasmVector<>();
+		returnAll.add(ValueType.INT32);
+		return new FunctionType(new UInt32(2), paramAll, new UInt8(1), returnAll);
+	}
+
+	private RegisterCode translate(byte... byteAll) {
+		ArrayList<ValueType> localAll = new ArrayList<>();
+		localAll.add(ValueType.INT32);
+		FunctionValidator validator = new FunctionValidator(i32Binary(), localAll, 0);
+		InstructionStream stream = new InstructionStreamTranslator().translate(new BytesFile(byteAll));
+		assertTrue(validator.validate(stream), validator.getErrorMessage());
+		return new RegisterTranslator().translate(stream, validator);
+	}
+
+	/**
+	 * The example of the register code: one add of three registers.
+	 */
+	@Test
+	public void addToLocal() {
+		RegisterCode registerCode = translate(
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x20, (byte) 0x01, // local.get 1
+			(byte) 0x6A, // i32.add
+			(byte) 0x21, (byte) 0x02, // local.set 2
+			(byte) 0x20, (byte) 0x02); // local.get 2
+
+		assertArrayEquals(new int[]{0x6A, 2, 0, 1, RegisterCode.MOVE, 3, 2},
+			registerCode.getCode());
+		assertEquals(2, registerCode.getInstructionCount().intValue());
+		assertEquals(3, registerCode.getLocalCount().intValue());
+		assertEquals(5, registerCode.getRegisterCount().intValue());
+	}
+
+	@Test
+	public void addConstant() {
+		RegisterCode registerCode = translate(
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x7F, // i32.const -1
+			(byte) 0x6A, // i32.add
+			(byte) 0x22, (byte) 0x00); // local.tee 0
+
+		assertArrayEquals(new int[]{RegisterCode.I32_ADD_IMM, 0, 0, -1, RegisterCode.MOVE, 3, 0},
+			registerCode.getCode());
+	}
+
+	/**
+	 * A local that is still on the stack is copied before it is written.
+	 */
+	@Test
+	public void localWrittenWhileOnStack() {
+		assertEquals(7, call(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x09, // i32.const 9
+			(byte) 0x21, (byte) 0x00, // local.set 0
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x1A, // drop
+		}, 7));
+	}
+
+	/**
+	 * i32.div_s has no register handler of its own, it is bridged.
+	 */
+	@Test
+	public void bridged() {
+		assertEquals(-3, call(new byte[]{
+			(byte) 0x00, // no locals
+			(byte) 0x20, (byte) 0x00, // local.get 0
+			(byte) 0x41, (byte) 0x03, // i32.const 3
+			(byte) 0x6D, // i32.div_s
+			(byte) 0x41, (byte) 0x01, // i32.const 1
+			(byte) 0x6A, // i32.add
+		}, -12));
+	}
+
+	private int call(byte[] localAndCodeAll, int param) {
+		return FunctionFixture.call(localAndCodeAll, param, ExecutionEngine.REGISTER);
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+public class SuperinstructionFuserTest {
+
+	/**
+	 * The product of n down to 1.  Each of the three superinstructions of the loop is fused, the
+	 * first one is the start of the loop.
+	 */
+	private static final byte[] PRODUCT = {
+		(byte) 0x01, (byte) 0x01, (byte) 0x7F, // one local i32, the product
+		(byte) 0x41, (byte) 0x01, // i32.const 1
+		(byte) 0x21, (byte) 0x01, // local.set 1
+		(byte) 0x02, (byte) 0x40, // block
+		(byte) 0x03, (byte) 0x40, // loop
+		(byte) 0x20, (byte) 0x01, // local.get 1
+		(byte) 0x20, (byte) 0x00, // local.get 0
+		(byte) 0x6C, // i32.mul
+		(byte) 0x21, (byte) 0x01, // local.set 1
+		(byte) 0x20, (byte) 0x00, // local.get 0
+		(byte) 0x41, (byte) 0x7F, // i32.const -1
+		(byte) 0x6A, // i32.add
+		(byte) 0x22, (byte) 0x00, // local.tee 0
+		(byte) 0x41, (byte) 0x01, // i32.const 1
+		(byte) 0x48, // i32.lt_s
+		(byte) 0x0D, (byte) 0x01, // br_if 1
+		(byte) 0x0C, (byte) 0x00, // br 0
+		(byte) 0x0B, // end
+		(byte) 0x0B, // end
+		(byte) 0x20, (byte) 0x01, // local.get 1
+	};
+
+	@Test
+	public void fuseLocalGetI32Load() {
+		WasmVector<ValueType> i32All = new WasmVector<>();
+		i32All.add(ValueType.INT32);
+		FunctionType type = new FunctionType(new UInt32(1), i32All, new UInt8(1), i32All);
+		FunctionValidator validator = new FunctionValidator(type, new ArrayList<>(), 1);
+		InstructionStream stream = new InstructionStreamTranslator().translate(new BytesFile(
+			new byte[]{
+				(byte) 0x20, (byte) 0x00, // local.get 0
+				(byte) 0x28, (byte) 0x02, (byte) 0x08, // i32.load offset 8
+			}));
+		assertTrue(validator.validate(stream), validator.getErrorMessage());
+
+		FusedStream fusedStream = new SuperinstructionFuser().fuse(stream, validator);
+
+		assertArrayEquals(new int[]{SuperinstructionFuser.LOCAL_GET_I32_LOAD, 0, 0},
+			fusedStream.getInstructionStream().getCode());
+		assertEquals(1, fusedStream.getFusedCount().intValue());
+		assertEquals(1, fusedStream.getDispatchSavedCount().intValue());
+	}
+
+	@Test
+	public void fuseLoop() {
+		WasmModule module = module(PRODUCT);
+		FusedStream fusedStream = module.getFunctionAll().get(0).fuse(module);
+
+		assertNotNull(fusedStream);
+		assertEquals(3, fusedStream.getFusedCount().intValue());
+		assertEquals(6, fusedStream.getDispatchSavedCount().intValue());
+		assertEquals(SuperinstructionFuser.LOCAL_GET_LOCAL_GET_I32_MUL,
+			fusedStream.getInstructionStream().getCode()[8]);
+		// the loop jumps to the first superinstruction.
+		assertEquals(8, fusedStream.getInstructionStream().getTargetAll()[fusedStream
+			.getInstructionStream().length() - 5]);
+		assertTrue(module.superinstructionReport().contains("6 of 19 dispatches saved"));
+	}
+
+	@Test
+	public void fusedAndNotFused() {
+		for (Boolean fusion : new Boolean[]{true, false}) {
+			assertEquals(120, call(PRODUCT, 5, fusion));
+			assertEquals(1, call(PRODUCT, 1, fusion));
+		}
+	}
+
+	private WasmModule module(byte[] localAndCodeAll) {
+		return FunctionFixture.module(localAndCodeAll, ValueType.INT32, ExecutionEngine.VALIDATED);
+	}
+
+	/**
+	 * Run a function (i32) -> i32 on the validated engine.
+	 */
+	private int call(byte[] localAndCodeAll, int param, Boolean fusion) {
+		WasmModule module = module(localAndCodeAll);
+		module.setSuperinstructionFusion(fusion);
+		return FunctionFixture.call(module, new I32(param)).integerValue();
+	}
+}
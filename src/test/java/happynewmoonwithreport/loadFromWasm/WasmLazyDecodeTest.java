@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.loadFromWasm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.S32;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load add32.wasm with lazy decoding.  The function body is decoded on the first call.
+ */
+public class WasmLazyDecodeTest {
+	private Wasm wasm;
+	private WasmModule module;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		String path = "./src/test/resources/add32/add32.wasm";
+		wasm = new Wasm(path);
+		wasm.setLazyDecode(true);
+		module = wasm.instantiate();
+	}
+
+	@Test
+	public void decodedOnFirstCall() {
+		WasmInstance instance = new WasmInstance(module);
+		WasmFunction functionAdd32 = instance.exportFunction("add32");
+
+		assertFalse(functionAdd32.isDecoded());
+
+		WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>(2);
+		paramAll.add(new S32(3));
+		paramAll.add(new S32(4));
+
+		instance.call(functionAdd32, returnAll, paramAll);
+
+		assertTrue(functionAdd32.isDecoded());
+		assertEquals(new S32(7), returnAll.get(0));
+	}
+}
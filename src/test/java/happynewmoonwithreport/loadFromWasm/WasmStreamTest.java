@@ -0,0 +1,138 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.loadFromWasm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmFile;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.S32;
+import happynewmoonwithreport.type.WasmVector;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Read add32.wasm from a stream while it is being written.
+ */
+public class WasmStreamTest {
+	private static final String PATH = "./src/test/resources/add32/add32.wasm";
+
+	private byte[] bytesAll;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		bytesAll = new WasmFile(PATH).bytes();
+	}
+
+	@Test
+	public void inputStream() throws Exception {
+		try (FileInputStream inputStream = new FileInputStream(PATH)) {
+			Wasm wasm = new Wasm(inputStream);
+			WasmModule module = wasm.instantiate();
+
+			assertEquals(2, wasm.exports().size());
+			assertEquals(new S32(7), add32(module));
+		}
+	}
+
+	/**
+	 * The module is written to a pipe a few bytes at a time, the reader parses what has arrived.
+	 */
+	@Test
+	public void pipeInPieces() throws Exception {
+		Pipe pipe = Pipe.open();
+		Thread writer = new Thread(() -> {
+			try (Pipe.SinkChannel sink = pipe.sink()) {
+				for (int index = 0; index < bytesAll.length; index += 7) {
+					int length = Math.min(7, bytesAll.length - index);
+					sink.write(ByteBuffer.wrap(bytesAll, index, length));
+					Thread.sleep(1);
+				}
+			} catch (Exception exception) {
+				throw new RuntimeException(exception);
+			}
+		});
+		writer.start();
+
+		Wasm wasm = new Wasm(pipe.source());
+		wasm.setParallelism(2);
+		WasmModule module = wasm.instantiate();
+		writer.join();
+
+		assertEquals(new S32(7), add32(module));
+	}
+
+	@Test
+	public void nonBlockingChannel() throws Exception {
+		Pipe pipe = Pipe.open();
+		pipe.sink().close();
+		try (Pipe.SourceChannel source = pipe.source()) {
+			source.configureBlocking(false);
+
+			assertThrows(WasmRuntimeException.class, () -> new Wasm(source));
+		}
+	}
+
+	@Test
+	public void truncated() {
+		byte[] truncated = Arrays.copyOf(bytesAll, bytesAll.length - 3);
+		Wasm wasm = new Wasm(new ByteArrayInputStream(truncated));
+
+		assertThrows(WasmRuntimeException.class, () -> wasm.instantiate());
+	}
+
+	/**
+	 * A body size larger than the code section is an error before the body is allocated.
+	 */
+	@Test
+	public void bodyLongerThanSection() {
+		// 0xFFFFFFFF and 0x7FFFFFF0
+		for (byte[] sizeAll : new byte[][]{{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+			(byte) 0x0F}, {(byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x07}}) {
+			byte[] moduleAll = {0x00, 0x61, 0x73, 0x6D, 0x01, 0x00, 0x00, 0x00,
+				// code section: one body
+				0x0A, 0x08, 0x01, sizeAll[0], sizeAll[1], sizeAll[2], sizeAll[3], sizeAll[4], 0x00,
+				0x0B};
+			Wasm wasm = new Wasm(new ByteArrayInputStream(moduleAll));
+
+			assertThrows(WasmRuntimeException.class, () -> wasm.instantiate());
+		}
+	}
+
+	private DataTypeNumber add32(WasmModule module) {
+		WasmInstance instance = new WasmInstance(module);
+		WasmFunction functionAdd32 = instance.exportFunction("add32");
+
+		WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>(2);
+		paramAll.add(new S32(3));
+		paramAll.add(new S32(4));
+		instance.call(functionAdd32, returnAll, paramAll);
+		return returnAll.get(0);
+	}
+}
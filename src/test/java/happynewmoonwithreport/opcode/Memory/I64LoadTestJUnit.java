@@ -99,7 +99,7 @@ class I64LoadTestJUnit {
 		i64Load.execute();
 
 		I64 actual = (I64) stack.pop();
-		I64 expected = new I64(0x02_03_04_05_06_07_08_09L); // Little Endian!
+		I64 expected = new I64(0x09_08_07_06_05_04_03_02L); // Little Endian!
 		assertEquals(actual, expected);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.opcode.Memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import happynewmoonwithreport.BytesFile;
+import happynewmoonwithreport.FunctionBody;
+import happynewmoonwithreport.FunctionType;
+import happynewmoonwithreport.ValueType;
+import happynewmoonwithreport.WasmFunction;
+import happynewmoonwithreport.WasmInstance;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.interpreter.ExecutionEngine;
+import happynewmoonwithreport.type.DataTypeNumber;
+import happynewmoonwithreport.type.I32;
+import happynewmoonwithreport.type.MemoryType;
+import happynewmoonwithreport.type.UInt32;
+import happynewmoonwithreport.type.UInt8;
+import happynewmoonwithreport.type.WasmVector;
+import org.junit.jupiter.api.Test;
+
+/**
+ * memory.size and memory.grow on the engines that run them.
+ */
+public class MemoryGrowTest {
+
+	/**
+	 * memory.grow(n) + 100 * memory.size.
+	 */
+	private static final byte[] GROW = {
+		(byte) 0x0D, // body size
+		(byte) 0x00, // no locals
+		(byte) 0x20, (byte) 0x00, // local.get 0
+		(byte) 0x40, (byte) 0x00, // memory.grow
+		(byte) 0x3F, (byte) 0x00, // memory.size
+		(byte) 0x41, (byte) 0xE4, (byte) 0x00, // i32.const 100
+		(byte) 0x6C, // i32.mul
+		(byte) 0x6A, // i32.add
+		(byte) 0x0B, // end
+	};
+
+	@Test
+	public void grow() {
+		for (ExecutionEngine executionEngine : new ExecutionEngine[]{ExecutionEngine.BYTE_CODE,
+			ExecutionEngine.INSTRUCTION_STREAM, ExecutionEngine.VALIDATED}) {
+			// 1 page before, 3 after.
+			assertEquals(Integer.valueOf(301), call(2, executionEngine));
+			// the maximum is 4 pages.
+			assertEquals(Integer.valueOf(99), call(5, executionEngine));
+			assertEquals(Integer.valueOf(101), call(0, executionEngine));
+		}
+	}
+
+	private Integer call(int param, ExecutionEngine executionEngine) {
+		WasmFunction function = new WasmFunction(new UInt32(0), new WasmVector<>(),
+			new FunctionBody(new BytesFile(GROW)));
+
+		WasmVector<ValueType> i32All = new WasmVector<>();
+		i32All.add(ValueType.INT32);
+		WasmModule module = new WasmModule();
+		module.getTypes().add(new FunctionType(new UInt32(1), i32All, new UInt8(1), i32All));
+		module.getFunctionAll().add(function);
+		module.addMemory(new MemoryType(new UInt8(1), new UInt32(1L), new UInt32(4L)));
+		module.setExecutionEngine(executionEngine);
+
+		WasmVector<DataTypeNumber> returnAll = new WasmVector<>(1);
+		WasmVector<DataTypeNumber> paramAll = new WasmVector<>(1);
+		paramAll.add(new I32(param));
+		new WasmInstance(module).call(function, returnAll, paramAll);
+		return returnAll.get(0).integerValue();
+	}
+}
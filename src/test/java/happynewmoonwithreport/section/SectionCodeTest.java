@@ -19,10 +19,13 @@ package happynewmoonwithreport.section;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import happynewmoonwithreport.BytesFile;
 import happynewmoonwithreport.FunctionBody;
 import happynewmoonwithreport.type.UInt32;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -89,4 +92,49 @@ public class SectionCodeTest {
 		assertEquals(0x0B, functionBody.getEnd());
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Decoding on a fork/join pool gives the same bodies as decoding sequentially.
+	 */
+	@Test
+	public void decodeAllInParallel() {
+		final int functionCount = 100;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(0xE4);                                // count of functions, 100
+		out.write(0x00);
+		for (int index = 0; index < functionCount; index++) {
+			int codeLength = 1 + index % 5;
+			out.write(4 + codeLength);                  // Body Size
+			out.write(0x01);                            // Local Count
+			out.write(0x01 + index % 3);                // count
+			out.write(0x7F);                            // int 32
+			for (int i = 0; i < codeLength; i++) {
+				out.write(0x01);                        // nop
+			}
+			out.write(0x0B);                            // End Byte
+		}
+		byte[] sectionBytes = out.toByteArray();
+
+		SectionCode sequential = new SectionCode(false);
+		sequential.instantiate(new BytesFile(sectionBytes));
+
+		SectionCode parallel = new SectionCode(true);
+		parallel.instantiate(new BytesFile(sectionBytes));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			parallel.decodeAll(pool);
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(sequential.getCount(), parallel.getCount());
+		for (int index = 0; index < functionCount; index++) {
+			FunctionBody expected = sequential.getFunctionAll().get(index);
+			FunctionBody result = parallel.getFunctionAll().get(index);
+			assertTrue(result.isDecoded());
+			assertEquals(expected.getBodySize(), result.getBodySize());
+			assertEquals(expected.getLocalEntryAll(), result.getLocalEntryAll());
+			assertArrayEquals(expected.getCode(), result.getCode());
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.type.JavaType.ByteUnsigned;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MemoryTypeTest {
+
+	private MemoryType memory;
+
+	@BeforeEach
+	public void setUp() {
+		memory = new MemoryType(new U32(0), new U32(1));
+	}
+
+	@Test
+	public void size() {
+		assertEquals(MemoryType.pageSize.intValue(), memory.getByteLength());
+		assertEquals(Long.valueOf(65536L), memory.getSize().longValue());
+	}
+
+	@Test
+	public void littleEndian() {
+		memory.putInt(4, 0x0403_0201);
+
+		assertEquals(new ByteUnsigned(0x01), memory.get(4));
+		assertEquals(new ByteUnsigned(0x02), memory.get(5));
+		assertEquals(new ByteUnsigned(0x03), memory.get(6));
+		assertEquals(new ByteUnsigned(0x04), memory.get(7));
+		assertEquals((short) 0x0201, memory.getShort(4));
+		assertEquals((short) 0x0302, memory.getShort(5));
+	}
+
+	@Test
+	public void roundTrip() {
+		memory.putByte(0, (byte) 0xC6);
+		memory.putShort(1, (short) 0x8001);
+		memory.putInt(3, 0x8765_4321);
+		memory.putLong(65528, 0x8000_0000_0000_00FFL);
+
+		assertEquals((byte) 0xC6, memory.getByte(0));
+		assertEquals((short) 0x8001, memory.getShort(1));
+		assertEquals(0x8765_4321, memory.getInt(3));
+		assertEquals(0x8000_0000_0000_00FFL, memory.getLong(65528));
+	}
+
+	@Test
+	public void setAndGet() {
+		memory.set(10, new ByteUnsigned(0xFF));
+
+		assertEquals(new ByteUnsigned(0xFF), memory.get(10));
+		assertEquals((byte) 0xFF, memory.getByte(10));
+		assertEquals(new ByteUnsigned(0x00), memory.get(11));
+	}
+
+	@Test
+	public void minimumTooLarge() {
+		MemoryType large = new MemoryType(new U32(0), new U32(32768));
+
+		assertThrows(WasmRuntimeException.class, () -> large.getByteLength());
+	}
+
+	@Test
+	public void toStringDoesNotAllocate() {
+		MemoryType unused = new MemoryType(new U32(0), new U32(1));
+
+		assertTrue(unused.toString().contains("not allocated"));
+		assertEquals(0, unused.getCommittedPageCount());
+		memory.putByte(0, (byte) 1);
+		assertTrue(memory.toString().contains("current size = 65536"), memory.toString());
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.WasmRuntimeException;
+import happynewmoonwithreport.opcode.Memory.I32_load;
+import happynewmoonwithreport.opcode.Memory.I32_store;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapLinearMemoryTest {
+
+	@Test
+	public void roundTrip() {
+		OffHeapLinearMemory memory = new OffHeapLinearMemory(MemoryType.pageSize);
+		try {
+			memory.putInt(4, 0x0403_0201);
+			memory.putLong(65528, 0x8000_0000_0000_00FFL);
+
+			assertEquals((byte) 0x01, memory.getByte(4));
+			assertEquals((short) 0x0302, memory.getShort(5));
+			assertEquals(0x0403_0201, memory.getInt(4));
+			assertEquals(0x8000_0000_0000_00FFL, memory.getLong(65528));
+			assertEquals(0, memory.getInt(0));
+		} finally {
+			memory.release();
+		}
+	}
+
+	@Test
+	public void release() {
+		final long before = OffHeapLinearMemory.getReservedBytes();
+		OffHeapLinearMemory memory = new OffHeapLinearMemory(2 * MemoryType.pageSize);
+		assertEquals(Long.valueOf(2L * MemoryType.pageSize), Long.valueOf(memory.getOffHeapBytes()));
+		assertTrue(before + 2L * MemoryType.pageSize <= OffHeapLinearMemory.getReservedBytes());
+
+		memory.release();
+		memory.release();
+
+		assertEquals(0, memory.getByteLength());
+		assertEquals(Long.valueOf(0L), Long.valueOf(memory.getOffHeapBytes()));
+		assertThrows(IndexOutOfBoundsException.class, () -> memory.getInt(0));
+	}
+
+	@Test
+	public void module() {
+		MemoryType memory = new MemoryType(new U32(0), new U32(1));
+		memory.putInt(8, 42);
+		WasmModule module = new WasmModule();
+		module.addMemory(memory);
+		module.setLinearMemoryFactory(LinearMemoryFactory.OFF_HEAP);
+		assertSame(LinearMemoryFactory.OFF_HEAP, module.getLinearMemoryFactory());
+		assertTrue(memory.getLinearMemory() instanceof OffHeapLinearMemory);
+		// the bytes are moved.
+		assertEquals(42, memory.getInt(8));
+
+		assertEquals(Long.valueOf(65536L), Long.valueOf(module.getOffHeapBytes()));
+
+		MemoryArgument memoryArgument = new MemoryArgument();
+		new I32_store().store(memory, memoryArgument, 16, new I32(-7));
+		assertEquals(new I32(-7), new I32_load().load(memory, memoryArgument, 16));
+
+		module.close();
+		assertEquals(Long.valueOf(0L), Long.valueOf(module.getOffHeapBytes()));
+		assertThrows(WasmRuntimeException.class,
+			() -> new I32_load().load(memory, memoryArgument, 16));
+	}
+
+	@Test
+	public void unusedMemoryIsNotAllocated() {
+		MemoryType memory = new MemoryType(new U32(0), new U32(1));
+		WasmModule module = new WasmModule();
+		module.setLinearMemoryFactory(LinearMemoryFactory.OFF_HEAP);
+		module.addMemory(memory);
+
+		assertEquals(Long.valueOf(0L), Long.valueOf(module.getOffHeapBytes()));
+		assertEquals(0, module.getCommittedPageCount());
+
+		memory.putInt(8, 42);
+		assertEquals(Long.valueOf(65536L), Long.valueOf(module.getOffHeapBytes()));
+		module.close();
+	}
+}
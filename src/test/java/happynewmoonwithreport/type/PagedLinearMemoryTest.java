@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class PagedLinearMemoryTest {
+
+	@Test
+	public void crossPage() {
+		PagedLinearMemory memory = new PagedLinearMemory(2 * MemoryType.pageSize);
+
+		// the last byte of page 0 and the first bytes of page 1.
+		memory.putShort(65535, (short) 0x8001);
+		memory.putInt(65534, 0x0403_0201);
+		memory.putLong(131064, 0x0807_0605_0403_0201L);
+
+		assertEquals((byte) 0x02, memory.getByte(65535));
+		assertEquals((byte) 0x03, memory.getByte(65536));
+		assertEquals((short) 0x0302, memory.getShort(65535));
+		assertEquals(0x0403_0201, memory.getInt(65534));
+		assertEquals(0x0004_0302, memory.getInt(65535));
+		assertEquals(0x0807_0605_0403_0201L, memory.getLong(131064));
+
+		memory.putLong(65532, 0x8877_6655_4433_2211L);
+		assertEquals(0x8877_6655_4433_2211L, memory.getLong(65532));
+		assertEquals(0x4433_2211, memory.getInt(65532));
+		assertEquals(0x8877_6655, memory.getInt(65536));
+	}
+
+	@Test
+	public void grow() {
+		PagedLinearMemory memory = new PagedLinearMemory(MemoryType.pageSize);
+		memory.putLong(8, -1L);
+
+		for (int pageCount = 2; pageCount <= 40; pageCount++) {
+			memory.grow(pageCount * MemoryType.pageSize);
+			assertEquals(pageCount, memory.getPageCount());
+			memory.putInt((pageCount - 1) * MemoryType.pageSize, pageCount);
+		}
+
+		assertEquals(40 * MemoryType.pageSize.intValue(), memory.getByteLength());
+		assertEquals(-1L, memory.getLong(8));
+		assertEquals(0L, memory.getLong(16));
+		assertEquals(7, memory.getInt(6 * MemoryType.pageSize));
+		assertEquals(0, memory.getInt(6 * MemoryType.pageSize + 4));
+	}
+
+	@Test
+	public void memoryTypeGrow() {
+		MemoryType memory = new MemoryType(new UInt8(1), new UInt32(1L), new UInt32(3L));
+		assertEquals(1, memory.getPageCount());
+		memory.putInt(0, 42);
+
+		assertEquals(1, memory.grow(2));
+		assertEquals(3, memory.getPageCount());
+		assertEquals(42, memory.getInt(0));
+
+		// past the maximum.
+		assertEquals(-1, memory.grow(1));
+		assertEquals(3, memory.grow(0));
+		assertEquals(3, memory.getPageCount());
+	}
+}
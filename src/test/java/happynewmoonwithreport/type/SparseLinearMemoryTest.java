@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class SparseLinearMemoryTest {
+
+	@Test
+	public void untouchedPagesReadZero() {
+		LinearMemory memory = LinearMemoryFactory.SPARSE.allocate(1000 * MemoryType.pageSize);
+
+		assertEquals(1000 * MemoryType.pageSize.intValue(), memory.getByteLength());
+		assertEquals(0L, memory.getLong(500 * MemoryType.pageSize + 8));
+		assertEquals(0, memory.getInt(65534));
+		assertEquals(0, memory.getCommittedPageCount());
+		assertEquals(0, memory.getTouchedPageCount());
+	}
+
+	@Test
+	public void storeCommitsThePage() {
+		LinearMemory memory = LinearMemoryFactory.SPARSE.allocate(1000 * MemoryType.pageSize);
+
+		memory.putInt(7 * MemoryType.pageSize + 4, 0x0403_0201);
+		assertEquals(0x0403_0201, memory.getInt(7 * MemoryType.pageSize + 4));
+		assertEquals((byte) 0x02, memory.getByte(7 * MemoryType.pageSize + 5));
+		assertEquals(1, memory.getCommittedPageCount());
+		assertEquals(1, memory.getTouchedPageCount());
+
+		// the other pages are still zero, the zero page was not written.
+		assertEquals(0, memory.getInt(8 * MemoryType.pageSize + 4));
+		assertEquals(0, memory.getInt(6 * MemoryType.pageSize + 4));
+
+		// across pages 9 and 10.
+		memory.putLong(10 * MemoryType.pageSize - 4, 0x0807_0605_0403_0201L);
+		assertEquals(0x0807_0605_0403_0201L, memory.getLong(10 * MemoryType.pageSize - 4));
+		assertEquals(3, memory.getCommittedPageCount());
+		assertEquals(3, memory.getTouchedPageCount());
+	}
+
+	@Test
+	public void storeZeroDoesNotCommit() {
+		LinearMemory memory = LinearMemoryFactory.SPARSE.allocate(4 * MemoryType.pageSize);
+
+		memory.putByte(3, (byte) 0);
+		memory.putShort(MemoryType.pageSize, (short) 0);
+		memory.putLong(MemoryType.pageSize + 8, 0L);
+		assertEquals(0, memory.getCommittedPageCount());
+		assertEquals(2, memory.getTouchedPageCount());
+
+		memory.putByte(3, (byte) 9);
+		assertEquals((byte) 9, memory.getByte(3));
+		assertEquals(1, memory.getCommittedPageCount());
+		assertEquals(2, memory.getTouchedPageCount());
+	}
+
+	@Test
+	public void grow() {
+		LinearMemory memory = LinearMemoryFactory.SPARSE.allocate(MemoryType.pageSize);
+		memory.putInt(0, 42);
+
+		memory.grow(100 * MemoryType.pageSize);
+		assertEquals(42, memory.getInt(0));
+		assertEquals(0, memory.getInt(99 * MemoryType.pageSize));
+		assertEquals(1, memory.getCommittedPageCount());
+
+		memory.putInt(99 * MemoryType.pageSize, 7);
+		assertEquals(7, memory.getInt(99 * MemoryType.pageSize));
+		assertEquals(2, memory.getCommittedPageCount());
+	}
+
+	@Test
+	public void eagerMemoryCountsEveryPage() {
+		LinearMemory memory = LinearMemoryFactory.PAGED.allocate(3 * MemoryType.pageSize);
+		assertEquals(3, memory.getCommittedPageCount());
+		assertEquals(3, memory.getTouchedPageCount());
+
+		LinearMemory heap = LinearMemoryFactory.HEAP.allocate(2 * MemoryType.pageSize);
+		assertEquals(2, heap.getCommittedPageCount());
+	}
+
+	@Test
+	public void memoryTypeAllocatesOnFirstUse() {
+		MemoryType memory = new MemoryType(new UInt8(0), new UInt32(1000L));
+		assertEquals(0, memory.getCommittedPageCount());
+
+		memory.allocate(LinearMemoryFactory.SPARSE);
+		assertEquals(LinearMemoryFactory.SPARSE, memory.getLinearMemoryFactory());
+		assertEquals(1000, memory.getPageCount());
+		assertEquals(0, memory.getCommittedPageCount());
+
+		memory.putInt(0, 1);
+		assertEquals(1, memory.getCommittedPageCount());
+		assertEquals(1, memory.getTouchedPageCount());
+	}
+}
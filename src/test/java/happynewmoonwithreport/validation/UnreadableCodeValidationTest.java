@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2017 - 2021 Whole Bean Software, LTD.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package happynewmoonwithreport.validation;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmModule;
+import happynewmoonwithreport.interpreter.FunctionValidator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A function whose code cannot be decoded is not valid, validation does not throw.
+ */
+public class UnreadableCodeValidationTest {
+
+	@Test
+	public void unknownOpcode() {
+		// 0xFE, end
+		assertNotValid(new Wasm(oneFunctionModule((byte) 0x00, (byte) 0xFE, (byte) 0x0B)));
+	}
+
+	@Test
+	public void unknownBlockType() {
+		// block 0x55, end, end
+		assertNotValid(new Wasm(oneFunctionModule((byte) 0x00, (byte) 0x02, (byte) 0x55,
+			(byte) 0x0B, (byte) 0x0B)));
+	}
+
+	@Test
+	public void unknownLocalType() {
+		// one local of type 0x55, end
+		Wasm wasm = new Wasm(oneFunctionModule((byte) 0x01, (byte) 0x01, (byte) 0x55,
+			(byte) 0x0B));
+		wasm.setLazyDecode(true);
+		assertNotValid(wasm);
+	}
+
+	private void assertNotValid(Wasm wasm) {
+		WasmModule module = wasm.instantiate();
+
+		assertFalse(wasm.validate());
+		FunctionValidator validator = module.getFunctionAll().get(0).validate(module);
+		assertFalse(validator.isValid());
+		assertTrue(validator.isImplemented());
+		assertTrue(validator.getErrorMessage().startsWith("Function not valid"),
+			validator.getErrorMessage());
+	}
+
+	/**
+	 * One function of type () -> ().
+	 *
+	 * @param bodyAll the locals and code of the function.
+	 */
+	private byte[] oneFunctionModule(byte... bodyAll) {
+		byte[] headAll = {0x00, 0x61, 0x73, 0x6D, 0x01, 0x00, 0x00, 0x00,
+			// type section: () -> ()
+			0x01, 0x04, 0x01, 0x60, 0x00, 0x00,
+			// function section: one function of type 0
+			0x03, 0x02, 0x01, 0x00,
+			// code section: one body
+			0x0A, (byte) (bodyAll.length + 2), 0x01, (byte) bodyAll.length};
+		byte[] result = new byte[headAll.length + bodyAll.length];
+		System.arraycopy(headAll, 0, result, 0, headAll.length);
+		System.arraycopy(bodyAll, 0, result, headAll.length, bodyAll.length);
+		return result;
+	}
+}
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 
 import happynewmoonwithreport.Wasm;
+import happynewmoonwithreport.WasmModule;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -58,4 +59,18 @@ public class WasmAdd32ValidationTest {
 
 	}
 
+	@Test
+	public void isValidInParallelTest() throws Exception {
+		Wasm parallel = new Wasm("./src/test/resources/add32/add32.wasm");
+		parallel.setParallelism(4);
+		WasmModule module = parallel.instantiate();
+
+		// run
+		Boolean valid = parallel.validate();
+
+		// validate
+		assertTrue(valid);
+		assertTrue(module.getFunctionAll().get(0).isValidated());
+	}
+
 }